@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.console;
+
+import com.klaytn.caver.Caver;
+import com.klaytn.caver.protocol.HttpBatchService;
+import com.klaytn.caver.protocol.InMemoryRpcMetrics;
+import com.klaytn.caver.protocol.MeteredService;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+
+import java.io.IOException;
+
+import static com.klaytn.caver.codegen.Console.exitError;
+
+/**
+ * Measures the latency of an endpoint by sending a few common read requests to it and dumps the
+ * resulting {@link InMemoryRpcMetrics}.
+ */
+public class RpcMetricsCommand {
+
+    public static final String COMMAND_METRICS = "metrics";
+
+    private static final String USAGE = "Usage: caver-java " + COMMAND_METRICS + " <url> [<rounds>]";
+    private static final int DEFAULT_ROUNDS = 20;
+
+    public static void run(String[] args) {
+        if (args.length < 1) {
+            exitError(USAGE);
+        }
+
+        int rounds = DEFAULT_ROUNDS;
+        if (args.length > 1) {
+            try {
+                rounds = Integer.parseInt(args[1]);
+            } catch (NumberFormatException e) {
+                exitError(USAGE);
+            }
+        }
+
+        InMemoryRpcMetrics metrics = new InMemoryRpcMetrics();
+        Caver caver = Caver.build(new MeteredService(new HttpBatchService(args[0], metrics), metrics));
+        try {
+            for (int i = 0; i < rounds; i++) {
+                caver.klay().getBlockNumber().send();
+                caver.klay().getBlockByNumber(DefaultBlockParameterName.LATEST, false).send();
+                caver.klay().getGasPrice().send();
+            }
+        } catch (IOException e) {
+            System.err.println("Request failed: " + e.getMessage());
+        }
+        metrics.dump(System.out);
+    }
+}
@@ -30,7 +30,7 @@ import org.web3j.utils.Collection;
  */
 public class Runner {
 
-    private static String USAGE = "Usage: caver-java solidity|truffle ...";
+    private static String USAGE = "Usage: caver-java solidity|truffle|metrics ...";
 
     private static String LOGO = "\n" + // generated at http://patorjk.com/software/taag
             " ________  ________  ___      ___ _______   ________                              \n" +
@@ -63,6 +63,9 @@ public class Runner {
                 case TruffleJsonFunctionWrapperGenerator.COMMAND_TRUFFLE:
                     TruffleJsonFunctionWrapperGenerator.run(Collection.tail(args));
                     break;
+                case RpcMetricsCommand.COMMAND_METRICS:
+                    RpcMetricsCommand.run(Collection.tail(args));
+                    break;
                 default:
                     Console.exitError(USAGE);
             }
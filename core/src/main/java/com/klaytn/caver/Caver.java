@@ -16,7 +16,19 @@
 
 package com.klaytn.caver;
 
+import com.klaytn.caver.protocol.BatchRequest;
+import com.klaytn.caver.protocol.DispatchingService;
+import com.klaytn.caver.protocol.HttpBatchService;
+import com.klaytn.caver.protocol.MultiEndpointService;
+import com.klaytn.caver.protocol.Policy;
+import com.klaytn.caver.protocol.RawResponse;
+import com.klaytn.caver.protocol.ResponseStream;
+import com.klaytn.caver.protocol.StreamingService;
 import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.websocket.WebSocketService;
+
+import java.net.ConnectException;
+import java.util.List;
 
 /**
  * Core Caverj JSON-RPC API.
@@ -37,6 +49,19 @@ public interface Caver {
         return new CaverImpl(service);
     }
 
+    /**
+     * Construct a new Caverj instance whose asynchronous requests and polling run on the given executors.
+     * A blocking transport is wrapped in a {@link DispatchingService}; WebSocket and asynchronous HTTP
+     * transports are used as they are.
+     *
+     * @param service          Web3jService
+     * @param executorStrategy executors for blocking work and timers, e.g. {@link ExecutorStrategy#virtualThreads()}
+     * @return new Caverj instance
+     */
+    static Caver build(Web3jService service, ExecutorStrategy executorStrategy) {
+        return new CaverImpl(DispatchingService.dispatch(service, executorStrategy), executorStrategy);
+    }
+
     /**
      * Construct a new Caverj instance which is connected to {@code url} node.
      *
@@ -47,6 +72,46 @@ public interface Caver {
         return new CaverImpl(url);
     }
 
+    /**
+     * Construct a new Caverj instance which is connected to {@code url} node and whose asynchronous
+     * requests and polling run on the given executors.
+     *
+     * @param url              Klaytn url
+     * @param executorStrategy executors for blocking work and timers, e.g. {@link ExecutorStrategy#virtualThreads()}
+     * @return new Caverj instance
+     */
+    static Caver build(String url, ExecutorStrategy executorStrategy) {
+        return build(new HttpBatchService(url), executorStrategy);
+    }
+
+    /**
+     * Construct a new Caverj instance which spreads its requests over several nodes.
+     * Reads are routed by {@code policy}, transactions of one sender stick to one node, and unhealthy
+     * nodes are ejected until they respond again. See {@link MultiEndpointService}.
+     *
+     * @param urls   Klaytn urls
+     * @param policy routing policy, e.g. {@link Policy#roundRobin()}
+     * @return new Caverj instance
+     */
+    static Caver build(List<String> urls, Policy policy) {
+        return new CaverImpl(new MultiEndpointService(urls, policy));
+    }
+
+    /**
+     * Construct a new Caverj instance which is connected to {@code url} node over WebSocket.
+     * Besides the usual requests, this instance supports the subscriptions of {@link Klay}.
+     * Call {@link #shutdown()} to close the connection.
+     *
+     * @param url Klaytn WebSocket url (ws:// or wss://)
+     * @return new Caverj instance
+     * @throws ConnectException if the connection to the node could not be established
+     */
+    static Caver buildWebSocket(String url) throws ConnectException {
+        WebSocketService service = new WebSocketService(url, false);
+        service.connect();
+        return new CaverImpl(service);
+    }
+
     /**
      * Construct a new Caverj instance which is connected to local node.
      *
@@ -59,4 +124,35 @@ public interface Caver {
     Klay klay();
 
     Net net();
+
+    /**
+     * Creates an empty JSON-RPC batch which is sent through this instance's service.
+     *
+     * @return new BatchRequest
+     */
+    BatchRequest batch();
+
+    /**
+     * Returns the service of this instance for reading unparsed responses with {@link RawResponse} or
+     * {@link ResponseStream}.
+     *
+     * @return StreamingService
+     * @throws UnsupportedOperationException if the service can not stream responses, e.g. over WebSocket
+     */
+    StreamingService streamingService();
+
+    /**
+     * @return executors on which receipt processors and other pollers of this instance run
+     */
+    ExecutorStrategy executorStrategy();
+
+    /**
+     * @return tracker of the chain head which is shared by every user of this instance
+     */
+    ChainHeadTracker chainHeadTracker();
+
+    /**
+     * Closes the underlying service, such as a WebSocket connection.
+     */
+    void shutdown();
 }
@@ -16,10 +16,16 @@
 
 package com.klaytn.caver;
 
+import com.klaytn.caver.protocol.BatchRequest;
+import com.klaytn.caver.protocol.HttpBatchService;
+import com.klaytn.caver.protocol.StreamingService;
 import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.websocket.WebSocketService;
 import org.web3j.protocol.admin.Admin;
 import org.web3j.protocol.admin.JsonRpc2_0Admin;
-import org.web3j.protocol.http.HttpService;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JSON-RPC 2.0 factory implementation.
@@ -30,19 +36,27 @@ public class CaverImpl implements Caver {
     private Admin web3j;
     private Klay klay;
     private Net net;
+    private ExecutorStrategy executorStrategy;
+    private ChainHeadTracker chainHeadTracker;
 
     CaverImpl() {
         this(DEFAULT_URL);
     }
 
     CaverImpl(String url) {
-        this(new HttpService(url));
+        this(new HttpBatchService(url));
     }
 
     CaverImpl(Web3jService web3jService) {
+        this(web3jService, ExecutorStrategy.platformThreads());
+    }
+
+    CaverImpl(Web3jService web3jService, ExecutorStrategy executorStrategy) {
         service = web3jService;
+        this.executorStrategy = executorStrategy;
         web3j = new JsonRpc2_0Admin(service);
-        klay = new JsonRpc2_0Klay(service, web3j);
+        klay = new JsonRpc2_0Klay(service, JsonRpc2_0Klay.DEFAULT_BLOCK_TIME, executorStrategy.getScheduler(),
+                executorStrategy.getBlockingExecutor(), web3j);
         net = new JsonRpc2_0Net(service);
     }
 
@@ -55,4 +69,42 @@ public class CaverImpl implements Caver {
     public Net net() {
         return net;
     }
+
+    @Override
+    public BatchRequest batch() {
+        return new BatchRequest(service);
+    }
+
+    @Override
+    public StreamingService streamingService() {
+        return StreamingService.of(service);
+    }
+
+    @Override
+    public ExecutorStrategy executorStrategy() {
+        return executorStrategy;
+    }
+
+    @Override
+    public synchronized ChainHeadTracker chainHeadTracker() {
+        if (chainHeadTracker == null) {
+            chainHeadTracker = new ChainHeadTracker(this, JsonRpc2_0Klay.DEFAULT_BLOCK_TIME, TimeUnit.MILLISECONDS,
+                    service instanceof WebSocketService);
+        }
+        return chainHeadTracker;
+    }
+
+    @Override
+    public void shutdown() {
+        synchronized (this) {
+            if (chainHeadTracker != null) {
+                chainHeadTracker.close();
+            }
+        }
+        try {
+            service.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to close caver service", e);
+        }
+    }
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver;
+
+import com.klaytn.caver.methods.response.KlayBlock;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+
+/**
+ * The latest block of the chain as seen by a {@link ChainHeadTracker}.
+ */
+public final class ChainHead {
+
+    private final BigInteger number;
+    private final String hash;
+    private final BigInteger timestamp;
+
+    public ChainHead(BigInteger number, String hash, BigInteger timestamp) {
+        this.number = number;
+        this.hash = hash;
+        this.timestamp = timestamp;
+    }
+
+    static ChainHead of(KlayBlock.Block block) {
+        return new ChainHead(
+                Numeric.decodeQuantity(block.getNumber()),
+                block.getHash(),
+                block.getTimestamp() == null ? null : Numeric.decodeQuantity(block.getTimestamp()));
+    }
+
+    public BigInteger getNumber() {
+        return number;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    /**
+     * @return time the block was created, in seconds since the epoch
+     */
+    public BigInteger getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "ChainHead{number=" + number + ", hash=" + hash + ", timestamp=" + timestamp + "}";
+    }
+}
@@ -0,0 +1,366 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver;
+
+import com.klaytn.caver.methods.response.KlayBlock;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.disposables.Disposables;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Follows the head of the chain for every component of a {@link Caver}, so that they read the head from
+ * here instead of each asking the node for it. {@link Caver#chainHeadTracker()} returns the tracker shared
+ * by a caver.
+ *
+ * <p>The head is read with one {@code klay_getBlockByNumber("latest")} per polling interval, or received
+ * from a {@code newHeads} subscription over WebSocket. When the subscription fails, the head is polled
+ * until a read succeeds, then the tracker subscribes again. The tracker only follows the head while it has
+ * listeners or pending {@link #awaitBlock(BigInteger)} futures, and stops when they are gone.
+ *
+ * <pre>
+ * caver.chainHeadTracker().addListener(head -&gt; System.out.println(head.getNumber()));
+ * caver.chainHeadTracker().awaitBlock(blockNumber.add(BigInteger.valueOf(10))).thenRun(...);
+ * </pre>
+ */
+public class ChainHeadTracker implements Closeable {
+
+    private final Caver caver;
+    private final long pollingInterval;
+    private final TimeUnit unit;
+    private final boolean subscribe;
+
+    private final Object lock = new Object();
+    private final List<Registration> listeners = new CopyOnWriteArrayList<>();
+    private final TreeMap<BigInteger, List<CompletableFuture<ChainHead>>> waiters = new TreeMap<>();
+    private final AtomicBoolean polling = new AtomicBoolean();
+    private final AtomicLong polls = new AtomicLong();
+    private final AtomicLong failedPolls = new AtomicLong();
+    private volatile ChainHead head;
+    private ScheduledFuture<?> pollingTask;
+    private Disposable subscription;
+    private long subscriptions;
+    private boolean subscriptionFailed;
+    private boolean closed;
+
+    /**
+     * @param caver           caver whose {@link ExecutorStrategy} runs the polls
+     * @param pollingInterval interval between two reads of the head
+     * @param unit            unit of pollingInterval
+     */
+    public ChainHeadTracker(Caver caver, long pollingInterval, TimeUnit unit) {
+        this(caver, pollingInterval, unit, false);
+    }
+
+    /**
+     * @param caver           caver whose {@link ExecutorStrategy} runs the polls
+     * @param pollingInterval interval between two reads of the head, when not subscribing
+     * @param unit            unit of pollingInterval
+     * @param subscribe       whether to receive the head from a {@code newHeads} subscription, which
+     *                        requires a WebSocket connection
+     */
+    public ChainHeadTracker(Caver caver, long pollingInterval, TimeUnit unit, boolean subscribe) {
+        this.caver = caver;
+        this.pollingInterval = pollingInterval;
+        this.unit = unit;
+        this.subscribe = subscribe;
+    }
+
+    /**
+     * @return the latest head which was seen, or null if the head was not read yet
+     */
+    public ChainHead getHead() {
+        return head;
+    }
+
+    /**
+     * @param listener called with every new head, and right away with the current head if it is known.
+     *                 It never receives a head whose number is not above the last head it received.
+     * @return Disposable which removes the listener
+     */
+    public Disposable addListener(Consumer<ChainHead> listener) {
+        Registration registration = new Registration(listener);
+        ChainHead current;
+        synchronized (lock) {
+            listeners.add(registration);
+            current = head;
+            start();
+        }
+        if (current != null) {
+            registration.deliver(current);
+        }
+        return Disposables.fromAction(() -> {
+            listeners.remove(registration);
+            stopIfIdle();
+        });
+    }
+
+    /**
+     * @param blockNumber block number to wait for
+     * @return CompletableFuture which is completed with the head once it reaches the block number
+     */
+    public CompletableFuture<ChainHead> awaitBlock(BigInteger blockNumber) {
+        ChainHead current = head;
+        if (current != null && current.getNumber().compareTo(blockNumber) >= 0) {
+            return CompletableFuture.completedFuture(current);
+        }
+        CompletableFuture<ChainHead> future = new CompletableFuture<>();
+        synchronized (lock) {
+            if (closed) {
+                future.completeExceptionally(new IllegalStateException("ChainHeadTracker is closed"));
+                return future;
+            }
+            waiters.computeIfAbsent(blockNumber, number -> new ArrayList<>()).add(future);
+            start();
+        }
+        // the head may have moved past the block number before the future was registered
+        ChainHead latest = head;
+        if (latest != null) {
+            publish(latest);
+        }
+        return future;
+    }
+
+    public long getPolls() {
+        return polls.get();
+    }
+
+    /**
+     * @return number of reads of the head which failed and were retried on the next poll
+     */
+    public long getFailedPolls() {
+        return failedPolls.get();
+    }
+
+    /**
+     * Stops following the head. Pending {@link #awaitBlock(BigInteger)} futures fail.
+     */
+    @Override
+    public void close() {
+        List<CompletableFuture<ChainHead>> pending = new ArrayList<>();
+        synchronized (lock) {
+            closed = true;
+            stop();
+            for (List<CompletableFuture<ChainHead>> futures : waiters.values()) {
+                pending.addAll(futures);
+            }
+            waiters.clear();
+        }
+        for (CompletableFuture<ChainHead> future : pending) {
+            future.completeExceptionally(new IllegalStateException("ChainHeadTracker is closed"));
+        }
+    }
+
+    private void start() {
+        if (closed || pollingTask != null || subscription != null) {
+            return;
+        }
+        if (subscribe && !subscriptionFailed) {
+            subscribe();
+        } else {
+            startPolling(0);
+        }
+    }
+
+    private void subscribe() {
+        long current = ++subscriptions;
+        Disposable disposable;
+        try {
+            disposable = caver.klay().newHeadsNotifications().subscribe(
+                    notification -> update(notification.getParams().getResult()),
+                    throwable -> subscriptionFailed(current));
+        } catch (RuntimeException e) {
+            subscriptionFailed(current);
+            return;
+        }
+        // the subscription may have failed, or been stopped, while it was being made
+        if (current == subscriptions) {
+            subscription = disposable;
+        } else {
+            disposable.dispose();
+        }
+    }
+
+    private void subscriptionFailed(long failed) {
+        synchronized (lock) {
+            if (failed != subscriptions) {
+                return;
+            }
+            subscriptions++;
+            failedPolls.incrementAndGet();
+            if (subscription != null) {
+                subscription.dispose();
+                subscription = null;
+            }
+            subscriptionFailed = true;
+            if (!closed && !isIdle()) {
+                // poll until the node answers again, without retrying a failing subscription in a loop
+                startPolling(pollingInterval);
+            }
+        }
+    }
+
+    private void startPolling(long initialDelay) {
+        ExecutorStrategy executorStrategy = caver.executorStrategy();
+        pollingTask = executorStrategy.getScheduler().scheduleWithFixedDelay(() -> {
+            if (polling.compareAndSet(false, true)) {
+                executorStrategy.getBlockingExecutor().execute(() -> {
+                    try {
+                        poll();
+                    } finally {
+                        polling.set(false);
+                    }
+                });
+            }
+        }, initialDelay, pollingInterval, unit);
+    }
+
+    private void stop() {
+        stopPolling();
+        subscriptions++;
+        subscriptionFailed = false;
+        if (subscription != null) {
+            subscription.dispose();
+            subscription = null;
+        }
+    }
+
+    private void stopPolling() {
+        if (pollingTask != null) {
+            pollingTask.cancel(false);
+            pollingTask = null;
+        }
+    }
+
+    private void stopIfIdle() {
+        synchronized (lock) {
+            if (isIdle()) {
+                stop();
+            }
+        }
+    }
+
+    private boolean isIdle() {
+        return listeners.isEmpty() && waiters.isEmpty();
+    }
+
+    private void poll() {
+        polls.incrementAndGet();
+        try {
+            KlayBlock response = caver.klay().getBlockByNumber(DefaultBlockParameterName.LATEST, false).send();
+            if (response.hasError() || response.getBlock() == null) {
+                failedPolls.incrementAndGet();
+            } else {
+                update(response.getBlock());
+                resubscribe();
+            }
+        } catch (IOException | RuntimeException e) {
+            failedPolls.incrementAndGet();
+        }
+        stopIfIdle();
+    }
+
+    private void resubscribe() {
+        synchronized (lock) {
+            if (subscriptionFailed && pollingTask != null && !closed) {
+                stopPolling();
+                subscriptionFailed = false;
+                subscribe();
+            }
+        }
+    }
+
+    private void update(KlayBlock.Block block) {
+        ChainHead latest = ChainHead.of(block);
+        List<Registration> notified;
+        synchronized (lock) {
+            ChainHead previous = head;
+            if (previous != null && previous.getNumber().compareTo(latest.getNumber()) == 0
+                    && previous.getHash() != null && previous.getHash().equals(latest.getHash())) {
+                return;
+            }
+            // listeners added after this point receive the new head from addListener
+            head = latest;
+            notified = new ArrayList<>(listeners);
+        }
+        for (Registration registration : notified) {
+            registration.deliver(latest);
+        }
+        publish(latest);
+    }
+
+    private void publish(ChainHead latest) {
+        List<CompletableFuture<ChainHead>> reached = new ArrayList<>();
+        synchronized (lock) {
+            Iterator<Map.Entry<BigInteger, List<CompletableFuture<ChainHead>>>> iterator =
+                    waiters.headMap(latest.getNumber(), true).entrySet().iterator();
+            while (iterator.hasNext()) {
+                reached.addAll(iterator.next().getValue());
+                iterator.remove();
+            }
+            waiters.values().removeIf(futures -> {
+                futures.removeIf(CompletableFuture::isDone);
+                return futures.isEmpty();
+            });
+        }
+        for (CompletableFuture<ChainHead> future : reached) {
+            future.complete(latest);
+        }
+        stopIfIdle();
+    }
+
+    /**
+     * A listener with the number of the last head it received, since heads from two updates may be
+     * delivered concurrently.
+     */
+    private static class Registration {
+        private final Consumer<ChainHead> listener;
+        private BigInteger lastDelivered;
+
+        Registration(Consumer<ChainHead> listener) {
+            this.listener = listener;
+        }
+
+        synchronized void deliver(ChainHead latest) {
+            if (lastDelivered != null && latest.getNumber().compareTo(lastDelivered) <= 0) {
+                return;
+            }
+            lastDelivered = latest.getNumber();
+            try {
+                listener.accept(latest);
+            } catch (RuntimeException e) {
+                // a failing listener does not keep the others from being notified
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Threads on which caver-java runs blocking work (sending requests, waiting for receipts) and timers
+ * (polling intervals). A timer only hands the blocking work to the blocking executor, so no scheduler
+ * thread sleeps or blocks on I/O.
+ *
+ * <ul>
+ * <li>{@link #platformThreads()} runs blocking work on a shared cached pool of platform threads.</li>
+ * <li>{@link #virtualThreads()} runs blocking work on a virtual thread per task on JVMs which have them
+ * (Java 21 and later), and falls back to {@link #platformThreads()} elsewhere.</li>
+ * <li>{@link #of(ExecutorService, ScheduledExecutorService)} uses executors owned by the caller.</li>
+ * </ul>
+ *
+ * <pre>
+ * Caver caver = Caver.build(url, ExecutorStrategy.virtualThreads());
+ * </pre>
+ */
+public class ExecutorStrategy {
+
+    private static ExecutorStrategy platformThreads;
+    private static ExecutorStrategy virtualThreads;
+
+    private final ExecutorService blockingExecutor;
+    private final ScheduledExecutorService scheduler;
+    private final boolean virtual;
+
+    private ExecutorStrategy(ExecutorService blockingExecutor, ScheduledExecutorService scheduler, boolean virtual) {
+        this.blockingExecutor = blockingExecutor;
+        this.scheduler = scheduler;
+        this.virtual = virtual;
+    }
+
+    /**
+     * @return the shared strategy which runs blocking work on platform threads
+     */
+    public static synchronized ExecutorStrategy platformThreads() {
+        if (platformThreads == null) {
+            platformThreads = new ExecutorStrategy(
+                    Executors.newCachedThreadPool(daemonThreadFactory("caver-blocking")),
+                    Executors.newScheduledThreadPool(
+                            Runtime.getRuntime().availableProcessors(), daemonThreadFactory("caver-scheduler")),
+                    false);
+        }
+        return platformThreads;
+    }
+
+    /**
+     * @return the shared strategy which runs blocking work on virtual threads, or
+     * {@link #platformThreads()} if this JVM has no virtual threads
+     */
+    public static synchronized ExecutorStrategy virtualThreads() {
+        if (virtualThreads == null) {
+            ExecutorService virtualExecutor = newVirtualThreadPerTaskExecutor();
+            virtualThreads = virtualExecutor == null
+                    ? platformThreads()
+                    : new ExecutorStrategy(virtualExecutor,
+                            Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("caver-scheduler")), true);
+        }
+        return virtualThreads;
+    }
+
+    /**
+     * @param blockingExecutor executor which runs blocking work
+     * @param scheduler        scheduler which runs timers
+     * @return a strategy over executors whose lifecycle the caller manages
+     */
+    public static ExecutorStrategy of(ExecutorService blockingExecutor, ScheduledExecutorService scheduler) {
+        return new ExecutorStrategy(blockingExecutor, scheduler, false);
+    }
+
+    public ExecutorService getBlockingExecutor() {
+        return blockingExecutor;
+    }
+
+    public ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * @return true if blocking work runs on virtual threads
+     */
+    public boolean usesVirtualThreads() {
+        return virtual;
+    }
+
+    /**
+     * Runs blocking work on the blocking executor.
+     *
+     * @param callable blocking work
+     * @param <T>      type of the result
+     * @return CompletableFuture of the result
+     */
+    public <T> CompletableFuture<T> supplyBlocking(Callable<T> callable) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        blockingExecutor.execute(() -> {
+            try {
+                result.complete(callable.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Runs blocking work on the blocking executor once the delay has elapsed.
+     *
+     * @param task  blocking work
+     * @param delay delay before the work runs
+     * @param unit  unit of delay
+     */
+    public void schedule(Runnable task, long delay, TimeUnit unit) {
+        scheduler.schedule(() -> blockingExecutor.execute(task), delay, unit);
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() is looked up reflectively so this class still compiles
+     * and runs on Java 8.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory daemonThreadFactory(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -21,6 +21,7 @@ import com.klaytn.caver.methods.request.KlayFilter;
 import com.klaytn.caver.methods.request.KlayLogFilter;
 import com.klaytn.caver.methods.response.Boolean;
 import com.klaytn.caver.methods.response.*;
+import io.reactivex.Flowable;
 import org.web3j.protocol.Web3jService;
 import org.web3j.protocol.admin.Admin;
 import org.web3j.protocol.admin.methods.response.NewAccountIdentifier;
@@ -28,12 +29,19 @@ import org.web3j.protocol.admin.methods.response.PersonalUnlockAccount;
 import org.web3j.protocol.core.DefaultBlockParameter;
 import org.web3j.protocol.core.DefaultBlockParameterNumber;
 import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.response.EthSubscribe;
 import org.web3j.utils.Async;
 import org.web3j.utils.Numeric;
 
+import java.io.IOException;
 import java.math.BigInteger;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 
 public class JsonRpc2_0Klay implements Klay {
@@ -41,7 +49,8 @@ public class JsonRpc2_0Klay implements Klay {
     public static final int DEFAULT_BLOCK_TIME = 1 * 1000;
 
     protected final Web3jService web3jService;
-    //private final JsonRpc2_0Rx web3jRx;
+    private final JsonRpc2_0KlayRx klayRx;
+    private final JsonRpc2_0KlayBulk klayBulk;
     private final long blockTime;
     private final ScheduledExecutorService scheduledExecutorService;
     private Admin web3j;
@@ -54,8 +63,25 @@ public class JsonRpc2_0Klay implements Klay {
             Web3jService web3jService, long pollingInterval,
             ScheduledExecutorService scheduledExecutorService,
             Admin web3j) {
+        this(web3jService, pollingInterval, scheduledExecutorService, scheduledExecutorService, web3j);
+    }
+
+    /**
+     * @param web3jService             service which sends the requests
+     * @param pollingInterval          interval between polls of the Rx streams, in milliseconds
+     * @param scheduledExecutorService scheduler which runs the polling timers
+     * @param blockingExecutor         executor on which the Rx streams send their requests
+     * @param web3j                    admin API of the same service
+     */
+    public JsonRpc2_0Klay(
+            Web3jService web3jService, long pollingInterval,
+            ScheduledExecutorService scheduledExecutorService,
+            ExecutorService blockingExecutor,
+            Admin web3j) {
         this.web3jService = web3jService;
-        //this.web3jRx = new JsonRpc2_0Rx(this, scheduledExecutorService);
+        this.klayRx = new JsonRpc2_0KlayRx(this, pollingInterval, scheduledExecutorService, blockingExecutor,
+                JsonRpc2_0KlayRx.DEFAULT_REPLAY_PARALLELISM);
+        this.klayBulk = new JsonRpc2_0KlayBulk(this, web3jService);
         this.blockTime = pollingInterval;
         this.scheduledExecutorService = scheduledExecutorService;
         this.web3j = web3j;
@@ -156,6 +182,34 @@ public class JsonRpc2_0Klay implements Klay {
                 Boolean.class);
     }
 
+    //===========================================================
+
+    @Override
+    public Map<String, BigInteger> getBalances(
+            Collection<String> addresses, DefaultBlockParameter defaultBlockParameter) throws IOException {
+        return klayBulk.getBalances(addresses, defaultBlockParameter);
+    }
+
+    @Override
+    public Map<String, Long> getTransactionCounts(
+            Collection<String> addresses, DefaultBlockParameter defaultBlockParameter) throws IOException {
+        return klayBulk.getTransactionCounts(addresses, defaultBlockParameter);
+    }
+
+    @Override
+    public Map<String, KlayAccountKey.AccountKeyValue> getAccountKeys(
+            Collection<String> addresses, DefaultBlockParameter defaultBlockParameter) throws IOException {
+        return klayBulk.getAccountKeys(addresses, defaultBlockParameter);
+    }
+
+    @Override
+    public Map<String, KlayAccount.Account> getAccounts(
+            Collection<String> addresses, DefaultBlockParameter defaultBlockParameter) throws IOException {
+        return klayBulk.getAccounts(addresses, defaultBlockParameter);
+    }
+
+    //===========================================================
+
     @Override
     public Request<?, Bytes> sign(String address, String message) {
         return new Request<>(
@@ -585,6 +639,75 @@ public class JsonRpc2_0Klay implements Klay {
 
     //===========================================================
 
+    @Override
+    public Flowable<KlayNewHeadsNotification> newHeadsNotifications() {
+        return web3jService.subscribe(
+                new Request<>(
+                        "klay_subscribe",
+                        Collections.singletonList("newHeads"),
+                        web3jService,
+                        EthSubscribe.class),
+                "klay_unsubscribe",
+                KlayNewHeadsNotification.class);
+    }
+
+    @Override
+    public Flowable<KlayLogNotification> logsNotifications(List<String> addresses, List<String> topics) {
+        Map<String, Object> params = new HashMap<>();
+        if (!addresses.isEmpty()) {
+            params.put("address", addresses);
+        }
+        if (!topics.isEmpty()) {
+            params.put("topics", topics);
+        }
+        return web3jService.subscribe(
+                new Request<>(
+                        "klay_subscribe",
+                        Arrays.asList("logs", params),
+                        web3jService,
+                        EthSubscribe.class),
+                "klay_unsubscribe",
+                KlayLogNotification.class);
+    }
+
+    @Override
+    public Flowable<KlayPendingTransactionNotification> newPendingTransactionsNotifications() {
+        return web3jService.subscribe(
+                new Request<>(
+                        "klay_subscribe",
+                        Collections.singletonList("newPendingTransactions"),
+                        web3jService,
+                        EthSubscribe.class),
+                "klay_unsubscribe",
+                KlayPendingTransactionNotification.class);
+    }
+
+    @Override
+    public Flowable<KlayBlock> blockFlowable(boolean fullTransactionObjects) {
+        return klayRx.blockFlowable(fullTransactionObjects);
+    }
+
+    @Override
+    public Flowable<KlayBlock> replayBlocksFlowable(
+            DefaultBlockParameter startBlock, DefaultBlockParameter endBlock, boolean fullTransactionObjects) {
+        return klayRx.replayBlocksFlowable(startBlock, endBlock, fullTransactionObjects);
+    }
+
+    @Override
+    public Flowable<KlayBlock> replayBlocksFlowable(DefaultBlockParameter startBlock, DefaultBlockParameter endBlock) {
+        return replayBlocksFlowable(startBlock, endBlock, false);
+    }
+
+    @Override
+    public Flowable<KlayLogs.Log> logsFlowable(KlayLogFilter filter) {
+        return klayRx.logsFlowable(filter);
+    }
+
+    @Override
+    public Flowable<KlayTransactionReceipt.TransactionReceipt> transactionReceiptFlowable() {
+        return klayRx.transactionReceiptFlowable();
+    }
+
     @Override
     public Request<?, NewAccountIdentifier> newAccount(String passphrase) {
         return web3j.personalNewAccount(passphrase);
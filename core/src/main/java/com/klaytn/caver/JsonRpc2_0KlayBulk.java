@@ -0,0 +1,158 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver;
+
+import com.klaytn.caver.methods.response.KlayAccount;
+import com.klaytn.caver.methods.response.KlayAccountKey;
+import com.klaytn.caver.methods.response.Quantity;
+import com.klaytn.caver.protocol.BatchRequest;
+import com.klaytn.caver.protocol.BatchResponse;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * Queries the state of many accounts with JSON-RPC batches of per-account requests.
+ *
+ * <p>The addresses are split into batches of {@code batchSize} requests, and at most {@code parallelism}
+ * batches are in flight at a time. Only the values are kept, in a map ordered like the addresses, so the
+ * response objects of a batch can be collected as soon as the batch has been read.
+ */
+public class JsonRpc2_0KlayBulk {
+
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    private final Klay klay;
+    private final Web3jService web3jService;
+    private final int batchSize;
+    private final int parallelism;
+
+    public JsonRpc2_0KlayBulk(Klay klay, Web3jService web3jService) {
+        this(klay, web3jService, DEFAULT_BATCH_SIZE, DEFAULT_PARALLELISM);
+    }
+
+    public JsonRpc2_0KlayBulk(Klay klay, Web3jService web3jService, int batchSize, int parallelism) {
+        if (batchSize <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("Batch size and parallelism must be positive");
+        }
+        this.klay = klay;
+        this.web3jService = web3jService;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+    }
+
+    public Map<String, BigInteger> getBalances(
+            Collection<String> addresses, DefaultBlockParameter defaultBlockParameter) throws IOException {
+        return query(addresses, address -> klay.getBalance(address, defaultBlockParameter),
+                Quantity.class, Quantity::getValue);
+    }
+
+    public Map<String, Long> getTransactionCounts(
+            Collection<String> addresses, DefaultBlockParameter defaultBlockParameter) throws IOException {
+        return query(addresses, address -> klay.getTransactionCount(address, defaultBlockParameter),
+                Quantity.class, count -> count.getValue().longValue());
+    }
+
+    public Map<String, KlayAccountKey.AccountKeyValue> getAccountKeys(
+            Collection<String> addresses, DefaultBlockParameter defaultBlockParameter) throws IOException {
+        return query(addresses, address -> klay.getAccountKey(address, defaultBlockParameter),
+                KlayAccountKey.class, KlayAccountKey::getResult);
+    }
+
+    public Map<String, KlayAccount.Account> getAccounts(
+            Collection<String> addresses, DefaultBlockParameter defaultBlockParameter) throws IOException {
+        return query(addresses, address -> klay.getAccount(address, defaultBlockParameter),
+                KlayAccount.class, KlayAccount::getResult);
+    }
+
+    private <R extends Response<?>, V> Map<String, V> query(
+            Collection<String> addresses, Function<String, Request<?, R>> request,
+            Class<R> responseType, Function<R, V> value) throws IOException {
+        List<String> unique = new ArrayList<>(new LinkedHashSet<>(addresses));
+        Map<String, V> values = new LinkedHashMap<>(unique.size() * 4 / 3 + 1);
+        Deque<CompletableFuture<BatchResponse>> inFlight = new ArrayDeque<>();
+        Deque<List<String>> chunks = new ArrayDeque<>();
+        try {
+            for (int from = 0; from < unique.size(); from += batchSize) {
+                if (inFlight.size() == parallelism) {
+                    collect(chunks.poll(), await(inFlight.poll()), responseType, value, values);
+                }
+                List<String> chunk = unique.subList(from, Math.min(from + batchSize, unique.size()));
+                BatchRequest batch = new BatchRequest(web3jService);
+                for (String address : chunk) {
+                    batch.add(request.apply(address));
+                }
+                chunks.add(chunk);
+                inFlight.add(batch.sendAsync());
+            }
+            while (!inFlight.isEmpty()) {
+                collect(chunks.poll(), await(inFlight.poll()), responseType, value, values);
+            }
+            return values;
+        } finally {
+            for (CompletableFuture<BatchResponse> future : inFlight) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private static <R extends Response<?>, V> void collect(
+            List<String> chunk, BatchResponse batchResponse, Class<R> responseType, Function<R, V> value,
+            Map<String, V> values) throws IOException {
+        for (int i = 0; i < chunk.size(); i++) {
+            R response = batchResponse.getResponse(i, responseType);
+            if (response.hasError()) {
+                throw new IOException("Error processing request: " + response.getError().getMessage());
+            }
+            if (response.getResult() != null) {
+                values.put(chunk.get(i), value.apply(response));
+            }
+        }
+    }
+
+    private static BatchResponse await(CompletableFuture<BatchResponse> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while querying accounts");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver;
+
+import com.klaytn.caver.methods.request.KlayLogFilter;
+import com.klaytn.caver.methods.response.BlockReceipts;
+import com.klaytn.caver.methods.response.KlayBlock;
+import com.klaytn.caver.methods.response.KlayLogs;
+import com.klaytn.caver.methods.response.KlayTransactionReceipt;
+import com.klaytn.caver.methods.response.Quantity;
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.Response;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reactive streams of blocks, logs and receipts built on polling {@link Klay} requests.
+ *
+ * <p>All streams follow downstream demand: the chain head is polled every {@code pollingInterval}, polls
+ * are skipped while the subscriber is busy, and blocks, logs and receipts are only requested from the
+ * node as the subscriber requests them. Nothing is buffered without bound for a slow subscriber.
+ */
+public class JsonRpc2_0KlayRx {
+
+    public static final int DEFAULT_REPLAY_PARALLELISM = 4;
+    public static final int MAX_BLOCK_RANGE = 100;
+
+    private final Klay klay;
+    private final long pollingInterval;
+    private final Scheduler scheduler;
+    private final Scheduler blockingScheduler;
+    private final int replayParallelism;
+
+    public JsonRpc2_0KlayRx(Klay klay, long pollingInterval, ScheduledExecutorService scheduledExecutorService) {
+        this(klay, pollingInterval, scheduledExecutorService, DEFAULT_REPLAY_PARALLELISM);
+    }
+
+    public JsonRpc2_0KlayRx(Klay klay, long pollingInterval, ScheduledExecutorService scheduledExecutorService,
+                            int replayParallelism) {
+        this(klay, pollingInterval, scheduledExecutorService, scheduledExecutorService, replayParallelism);
+    }
+
+    /**
+     * @param klay                     Klay which sends the requests
+     * @param pollingInterval          interval between polls of the chain head, in milliseconds
+     * @param scheduledExecutorService scheduler which only runs the polling timer
+     * @param blockingExecutor         executor on which the requests are sent
+     * @param replayParallelism        number of blocks requested at once while replaying history
+     */
+    public JsonRpc2_0KlayRx(Klay klay, long pollingInterval, ScheduledExecutorService scheduledExecutorService,
+                            ExecutorService blockingExecutor, int replayParallelism) {
+        this.klay = klay;
+        this.pollingInterval = pollingInterval;
+        this.scheduler = Schedulers.from(scheduledExecutorService);
+        this.blockingScheduler = Schedulers.from(blockingExecutor);
+        this.replayParallelism = replayParallelism;
+    }
+
+    public Flowable<KlayBlock> blockFlowable(boolean fullTransactionObjects) {
+        return Flowable.defer(() -> blockNumbers(newBlockRanges(getBlockNumber().add(BigInteger.ONE), null)))
+                .concatMap(number -> fetchBlock(number, fullTransactionObjects));
+    }
+
+    public Flowable<KlayBlock> replayBlocksFlowable(
+            DefaultBlockParameter startBlock, DefaultBlockParameter endBlock, boolean fullTransactionObjects) {
+        return Flowable.defer(() -> {
+            BigInteger head = getBlockNumber();
+            BigInteger start = resolve(startBlock, head);
+            BigInteger end = resolve(endBlock, head);
+            if (start.compareTo(end) > 0) {
+                return Flowable.empty();
+            }
+
+            BigInteger historicEnd = end.min(head);
+            Flowable<KlayBlock> historic = start.compareTo(historicEnd) > 0
+                    ? Flowable.empty()
+                    : Flowable.rangeLong(start.longValue(), historicEnd.subtract(start).longValue() + 1)
+                    .concatMapEager(number -> fetchBlock(BigInteger.valueOf(number), fullTransactionObjects)
+                            .subscribeOn(blockingScheduler), replayParallelism, 1);
+            if (end.compareTo(head) <= 0) {
+                return historic;
+            }
+            return historic.concatWith(blockNumbers(newBlockRanges(head.add(BigInteger.ONE).max(start), end))
+                    .concatMap(number -> fetchBlock(number, fullTransactionObjects)));
+        });
+    }
+
+    public Flowable<KlayLogs.Log> logsFlowable(KlayLogFilter filter) {
+        if (filter.getBlockHash() != null) {
+            return Flowable.fromCallable(() -> fetchLogs(filter)).concatMapIterable(logs -> logs);
+        }
+        return Flowable.defer(() -> {
+            BigInteger head = getBlockNumber();
+            BigInteger start = filter.getFromBlock() == null
+                    ? head.add(BigInteger.ONE) : resolve(filter.getFromBlock(), head);
+            BigInteger end = filter.getToBlock() instanceof DefaultBlockParameterNumber
+                    || filter.getToBlock() == DefaultBlockParameterName.EARLIEST
+                    ? resolve(filter.getToBlock(), head) : null;
+            return newBlockRanges(start, end);
+        }).concatMap(range -> {
+            KlayLogFilter rangeFilter = new KlayLogFilter(
+                    new DefaultBlockParameterNumber(range[0]), new DefaultBlockParameterNumber(range[1]),
+                    filter.getAddress(), null);
+            rangeFilter.getTopics().addAll(filter.getTopics());
+            return Flowable.fromCallable(() -> fetchLogs(rangeFilter)).concatMapIterable(logs -> logs);
+        });
+    }
+
+    public Flowable<KlayTransactionReceipt.TransactionReceipt> transactionReceiptFlowable() {
+        return blockFlowable(false).concatMap(block -> {
+            if (block.getBlock().getTransactions() == null || block.getBlock().getTransactions().isEmpty()) {
+                return Flowable.empty();
+            }
+            return Flowable.fromCallable(() -> checked(
+                    klay.getBlockReceipts(block.getBlock().getHash()).send()).getResult())
+                    .concatMapIterable(receipts -> receipts);
+        });
+    }
+
+    /**
+     * Emits [from, to] ranges of at most {@link #MAX_BLOCK_RANGE} blocks up to the chain head, polling the
+     * head every pollingInterval. Polls are dropped while the previous ranges are still being consumed.
+     *
+     * @param from first block number
+     * @param to   last block number, or null to follow the chain head indefinitely
+     */
+    private Flowable<BigInteger[]> newBlockRanges(BigInteger from, BigInteger to) {
+        if (to != null && from.compareTo(to) > 0) {
+            return Flowable.empty();
+        }
+        return Flowable.defer(() -> {
+            AtomicReference<BigInteger> next = new AtomicReference<>(from);
+            Flowable<BigInteger[]> ranges = Flowable.interval(0, pollingInterval, TimeUnit.MILLISECONDS, scheduler)
+                    .onBackpressureDrop()
+                    .observeOn(blockingScheduler, false, 1)
+                    .concatMap(tick -> {
+                        BigInteger head = getBlockNumber();
+                        if (to != null) {
+                            head = head.min(to);
+                        }
+                        List<BigInteger[]> newRanges = new ArrayList<>();
+                        BigInteger start = next.get();
+                        while (start.compareTo(head) <= 0) {
+                            BigInteger end = start.add(BigInteger.valueOf(MAX_BLOCK_RANGE - 1)).min(head);
+                            newRanges.add(new BigInteger[]{start, end});
+                            start = end.add(BigInteger.ONE);
+                        }
+                        next.set(start);
+                        return Flowable.fromIterable(newRanges);
+                    }, 1);
+            return to == null ? ranges : ranges.takeUntil(range -> range[1].compareTo(to) >= 0);
+        });
+    }
+
+    private static Flowable<BigInteger> blockNumbers(Flowable<BigInteger[]> ranges) {
+        return ranges.concatMap(range -> Flowable.rangeLong(
+                range[0].longValue(), range[1].subtract(range[0]).longValue() + 1).map(BigInteger::valueOf));
+    }
+
+    private Flowable<KlayBlock> fetchBlock(BigInteger number, boolean fullTransactionObjects) {
+        return Flowable.fromCallable(() -> {
+            KlayBlock block = checked(
+                    klay.getBlockByNumber(new DefaultBlockParameterNumber(number), fullTransactionObjects).send());
+            if (block.getBlock() == null) {
+                throw new IOException("Block " + number + " was not found");
+            }
+            return block;
+        });
+    }
+
+    private List<KlayLogs.Log> fetchLogs(KlayLogFilter filter) throws IOException {
+        List<KlayLogs.Log> logs = new ArrayList<>();
+        for (KlayLogs.LogResult result : checked(klay.getLogs(filter).send()).getLogs()) {
+            logs.add((KlayLogs.Log) result.get());
+        }
+        return logs;
+    }
+
+    private BigInteger getBlockNumber() throws IOException {
+        Quantity blockNumber = checked(klay.getBlockNumber().send());
+        return blockNumber.getValue();
+    }
+
+    private BigInteger resolve(DefaultBlockParameter blockParameter, BigInteger head) {
+        if (blockParameter instanceof DefaultBlockParameterNumber) {
+            return ((DefaultBlockParameterNumber) blockParameter).getBlockNumber();
+        } else if (blockParameter == DefaultBlockParameterName.EARLIEST) {
+            return BigInteger.ZERO;
+        }
+        return head;
+    }
+
+    private static <T extends Response<?>> T checked(T response) throws IOException {
+        if (response.hasError()) {
+            throw new IOException("Error processing request: " + response.getError().getMessage());
+        }
+        return response;
+    }
+}
@@ -22,13 +22,18 @@ import com.klaytn.caver.methods.request.KlayLogFilter;
 import com.klaytn.caver.methods.response.Boolean;
 import com.klaytn.caver.methods.response.*;
 import com.klaytn.caver.tx.account.AccountKey;
+import io.reactivex.Flowable;
 import org.web3j.protocol.admin.methods.response.NewAccountIdentifier;
 import org.web3j.protocol.admin.methods.response.PersonalUnlockAccount;
 import org.web3j.protocol.core.DefaultBlockParameter;
 import org.web3j.protocol.core.DefaultBlockParameterNumber;
 import org.web3j.protocol.core.Request;
 
+import java.io.IOException;
 import java.math.BigInteger;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 public interface Klay {
 
@@ -107,6 +112,59 @@ public interface Klay {
      */
     Request<?, Boolean> isContractAccount(String address, DefaultBlockParameter defaultBlockParameter);
 
+    //===========================================================
+
+    /*Bulk Account*/
+
+    /**
+     * Returns the balances of many accounts, queried with JSON-RPC batches of klay_getBalance.
+     *
+     * @param addresses             addresses of the accounts
+     * @param defaultBlockParameter Integer block number, or the string "latest", "earliest" or "pending"
+     * @return balance in peb of each address, in the order of the addresses
+     * @throws IOException when a batch fails or the node replies with an error
+     */
+    Map<String, BigInteger> getBalances(Collection<String> addresses, DefaultBlockParameter defaultBlockParameter)
+            throws IOException;
+
+    /**
+     * Returns the number of transactions sent from many addresses, queried with JSON-RPC batches of
+     * klay_getTransactionCount.
+     *
+     * @param addresses             addresses of the accounts
+     * @param defaultBlockParameter Integer block number, or the string "latest", "earliest" or "pending"
+     * @return transaction count of each address, in the order of the addresses
+     * @throws IOException when a batch fails or the node replies with an error
+     */
+    Map<String, Long> getTransactionCounts(Collection<String> addresses, DefaultBlockParameter defaultBlockParameter)
+            throws IOException;
+
+    /**
+     * Returns the account keys of many accounts, queried with JSON-RPC batches of klay_getAccountKey.
+     * Addresses without an account are left out.
+     *
+     * @param addresses             addresses of the accounts
+     * @param defaultBlockParameter Integer block number, or the string "latest", "earliest" or "pending"
+     * @return account key of each address, in the order of the addresses
+     * @throws IOException when a batch fails or the node replies with an error
+     */
+    Map<String, KlayAccountKey.AccountKeyValue> getAccountKeys(
+            Collection<String> addresses, DefaultBlockParameter defaultBlockParameter) throws IOException;
+
+    /**
+     * Returns many accounts, queried with JSON-RPC batches of klay_getAccount. Addresses without an
+     * account are left out.
+     *
+     * @param addresses             addresses of the accounts
+     * @param defaultBlockParameter Integer block number, or the string "latest", "earliest" or "pending"
+     * @return account of each address, in the order of the addresses
+     * @throws IOException when a batch fails or the node replies with an error
+     */
+    Map<String, KlayAccount.Account> getAccounts(
+            Collection<String> addresses, DefaultBlockParameter defaultBlockParameter) throws IOException;
+
+    //===========================================================
+
     /**
      * The sign method calculates a Klaytn-specific signature.
      * NOTE: The address to sign with must be unlocked.
@@ -517,6 +575,92 @@ public interface Klay {
 
     //===========================================================
 
+    /*Subscription*/
+
+    /**
+     * Subscribes to the header of each new block with klay_subscribe("newHeads"). The subscription is
+     * removed with klay_unsubscribe when the returned Flowable is disposed.
+     * Requires a service which supports subscriptions, such as a WebSocketService.
+     *
+     * @return Flowable of new block headers
+     */
+    Flowable<KlayNewHeadsNotification> newHeadsNotifications();
+
+    /**
+     * Subscribes to new logs matching the given addresses and topics with klay_subscribe("logs").
+     * The subscription is removed with klay_unsubscribe when the returned Flowable is disposed.
+     * Requires a service which supports subscriptions, such as a WebSocketService.
+     *
+     * @param addresses contract addresses to match, or an empty list for any address
+     * @param topics    topics to match, or an empty list for any topic
+     * @return Flowable of new logs
+     */
+    Flowable<KlayLogNotification> logsNotifications(List<String> addresses, List<String> topics);
+
+    /**
+     * Subscribes to the hashes of transactions added to the node's pending pool with
+     * klay_subscribe("newPendingTransactions"). The subscription is removed with klay_unsubscribe when the
+     * returned Flowable is disposed. Requires a service which supports subscriptions, such as a WebSocketService.
+     *
+     * @return Flowable of pending transaction hashes
+     */
+    Flowable<KlayPendingTransactionNotification> newPendingTransactionsNotifications();
+
+    //===========================================================
+
+    /*Rx*/
+
+    /**
+     * Emits each block produced after the subscription, in order, by polling the chain head.
+     * Blocks are fetched only as the subscriber requests them.
+     *
+     * @param fullTransactionObjects if true, blocks contain full transaction objects, otherwise only hashes
+     * @return Flowable of new blocks
+     */
+    Flowable<KlayBlock> blockFlowable(boolean fullTransactionObjects);
+
+    /**
+     * Emits the blocks of the given range in order. Blocks up to the current head are prefetched with
+     * bounded parallelism; if the range ends beyond the head, the remaining blocks are emitted as they
+     * are produced.
+     *
+     * @param startBlock             first block of the range
+     * @param endBlock               last block of the range
+     * @param fullTransactionObjects if true, blocks contain full transaction objects, otherwise only hashes
+     * @return Flowable of blocks
+     */
+    Flowable<KlayBlock> replayBlocksFlowable(
+            DefaultBlockParameter startBlock, DefaultBlockParameter endBlock, boolean fullTransactionObjects);
+
+    /**
+     * Emits the blocks of the given range in order, with transaction hashes only.
+     *
+     * @param startBlock first block of the range
+     * @param endBlock   last block of the range
+     * @return Flowable of blocks
+     * @see #replayBlocksFlowable(DefaultBlockParameter, DefaultBlockParameter, boolean)
+     */
+    Flowable<KlayBlock> replayBlocksFlowable(DefaultBlockParameter startBlock, DefaultBlockParameter endBlock);
+
+    /**
+     * Emits the logs matching the filter in block order, using klay_getLogs over block ranges.
+     * Without fromBlock only logs of new blocks are emitted. Unless toBlock is a block number the stream
+     * follows the chain head indefinitely.
+     *
+     * @param filter {@link KlayLogFilter}
+     * @return Flowable of logs
+     */
+    Flowable<KlayLogs.Log> logsFlowable(KlayLogFilter filter);
+
+    /**
+     * Emits the receipts of the transactions in each block produced after the subscription.
+     *
+     * @return Flowable of transaction receipts
+     */
+    Flowable<KlayTransactionReceipt.TransactionReceipt> transactionReceiptFlowable();
+
+    //===========================================================
+
     /*Personal*/
     Request<?, NewAccountIdentifier> newAccount(String passphrase);
 
@@ -0,0 +1,568 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.klaytn.caver.Caver;
+import com.klaytn.caver.ChainHead;
+import com.klaytn.caver.ExecutorStrategy;
+import com.klaytn.caver.methods.request.KlayLogFilter;
+import com.klaytn.caver.methods.response.KlayLogs;
+import com.klaytn.caver.methods.response.Quantity;
+import com.klaytn.caver.protocol.BatchRequest;
+import com.klaytn.caver.protocol.BatchResponse;
+import com.klaytn.caver.scan.BlockRangeFetcher;
+import com.klaytn.caver.scan.LogScanner;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.disposables.Disposables;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Owns the filters installed on the node and polls all of them on one schedule, with a single JSON-RPC
+ * batch of {@code klay_getFilterChanges} requests per tick. Listeners of the same kind of filter, or of log
+ * filters with the same criteria, share one filter on the node. Listeners are called one after another on
+ * the polling thread, so they should return quickly.
+ *
+ * <p>When the node answers that a filter was not found, e.g. because the node restarted or the filter
+ * expired, the filter is installed again, and the blocks since the last successful poll are backfilled:
+ * with {@code klay_getLogs} for log filters and with {@code klay_getBlockByNumber} for block filters.
+ * Logs which were already delivered are not delivered again. Pending transactions can not be backfilled.
+ *
+ * <p>The head which the changes are polled at is taken from {@link Caver#chainHeadTracker()}, which is
+ * followed until the manager is closed, and read with {@code klay_blockNumber} in the same batch only
+ * until the tracker knows it.
+ *
+ * <p>A failed poll is retried on the next tick. Once {@code failuresBeforeError} polls in a row have
+ * failed, the error listeners receive the cause of each further failed poll until a poll succeeds.
+ *
+ * <pre>
+ * FilterManager filterManager = new FilterManager(caver);
+ * Disposable subscription = filterManager.addLogListener(filter, log -&gt; ...);
+ * ...
+ * subscription.dispose();
+ * filterManager.close();
+ * </pre>
+ */
+public class FilterManager implements Closeable {
+
+    public static final long DEFAULT_POLLING_INTERVAL_MILLIS = 1000;
+    public static final int DEFAULT_FAILURES_BEFORE_ERROR = 3;
+
+    private static final String FILTER_NOT_FOUND = "filter not found";
+
+    private final Caver caver;
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+    private final Map<String, ManagedFilter<?>> filters = new HashMap<>();
+    private final List<Consumer<Exception>> errorListeners = new CopyOnWriteArrayList<>();
+    private final int failuresBeforeError;
+    private final AtomicBoolean polling = new AtomicBoolean();
+    private final ScheduledFuture<?> pollingTask;
+    private final Disposable chainHeadListener;
+    private final AtomicLong polls = new AtomicLong();
+    private final AtomicLong failedPolls = new AtomicLong();
+    private final AtomicLong reinstalls = new AtomicLong();
+    private int consecutiveFailedPolls;
+    private boolean closed;
+
+    public FilterManager(Caver caver) {
+        this(caver, DEFAULT_POLLING_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param caver           caver whose {@link ExecutorStrategy} runs the polls
+     * @param pollingInterval interval between the end of a poll and the start of the next one
+     * @param unit            unit of pollingInterval
+     */
+    public FilterManager(Caver caver, long pollingInterval, TimeUnit unit) {
+        this(caver, pollingInterval, unit, DEFAULT_FAILURES_BEFORE_ERROR);
+    }
+
+    /**
+     * @param caver               caver whose {@link ExecutorStrategy} runs the polls
+     * @param pollingInterval     interval between the end of a poll and the start of the next one
+     * @param unit                unit of pollingInterval
+     * @param failuresBeforeError number of polls in a row which fail before the error listeners are called
+     */
+    public FilterManager(Caver caver, long pollingInterval, TimeUnit unit, int failuresBeforeError) {
+        if (failuresBeforeError < 1) {
+            throw new IllegalArgumentException("failuresBeforeError must be positive");
+        }
+        this.caver = caver;
+        this.failuresBeforeError = failuresBeforeError;
+        ExecutorStrategy executorStrategy = caver.executorStrategy();
+        this.pollingTask = executorStrategy.getScheduler().scheduleWithFixedDelay(() -> {
+            if (polling.compareAndSet(false, true)) {
+                executorStrategy.getBlockingExecutor().execute(() -> {
+                    try {
+                        poll();
+                    } finally {
+                        polling.set(false);
+                    }
+                });
+            }
+        }, pollingInterval, pollingInterval, unit);
+        this.chainHeadListener = caver.chainHeadTracker().addListener(head -> { });
+    }
+
+    /**
+     * @param listener receives the hash of every new block
+     * @return Disposable which removes the listener
+     */
+    public Disposable addBlockListener(Consumer<String> listener) {
+        return addListener("block", BlockFilter::new, listener);
+    }
+
+    /**
+     * @param listener receives the hash of every new pending transaction
+     * @return Disposable which removes the listener
+     */
+    public Disposable addPendingTransactionListener(Consumer<String> listener) {
+        return addListener("pendingTransaction", PendingTransactionFilter::new, listener);
+    }
+
+    /**
+     * @param filter   addresses and topics of the logs; its block range applies to the first installation
+     * @param listener receives every new log matching the filter
+     * @return Disposable which removes the listener
+     */
+    public Disposable addLogListener(KlayLogFilter filter, Consumer<KlayLogs.Log> listener) {
+        String key;
+        try {
+            key = "log:" + objectMapper.writeValueAsString(filter);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unable to serialize the filter", e);
+        }
+        return addListener(key, () -> new LogFilter(filter), listener);
+    }
+
+    /**
+     * @param listener receives the cause of every failed poll once polls keep failing
+     * @return Disposable which removes the listener
+     */
+    public Disposable addErrorListener(Consumer<Exception> listener) {
+        errorListeners.add(listener);
+        return Disposables.fromAction(() -> errorListeners.remove(listener));
+    }
+
+    /**
+     * @return number of filters which have listeners
+     */
+    public int getFilterCount() {
+        synchronized (filters) {
+            return filters.size();
+        }
+    }
+
+    public long getPolls() {
+        return polls.get();
+    }
+
+    /**
+     * @return number of polls which failed and were retried on the next tick
+     */
+    public long getFailedPolls() {
+        return failedPolls.get();
+    }
+
+    /**
+     * @return number of filters which were installed again after the node lost them
+     */
+    public long getReinstalls() {
+        return reinstalls.get();
+    }
+
+    /**
+     * Stops polling and uninstalls every filter from the node. A filter which a poll still running installs
+     * afterwards is uninstalled by that poll.
+     *
+     * @throws IOException when the filters could not be uninstalled
+     */
+    @Override
+    public void close() throws IOException {
+        pollingTask.cancel(false);
+        chainHeadListener.dispose();
+        List<ManagedFilter<?>> installed = new ArrayList<>();
+        synchronized (filters) {
+            closed = true;
+            for (ManagedFilter<?> filter : filters.values()) {
+                if (filter.id != null) {
+                    installed.add(filter);
+                }
+            }
+            filters.clear();
+        }
+        uninstall(installed);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Disposable addListener(String key, Supplier<ManagedFilter<T>> factory, Consumer<T> listener) {
+        ManagedFilter<T> filter;
+        synchronized (filters) {
+            filter = (ManagedFilter<T>) filters.computeIfAbsent(key, ignored -> factory.get());
+            filter.listeners.add(listener);
+        }
+        return Disposables.fromAction(() -> {
+            synchronized (filters) {
+                filter.listeners.remove(listener);
+            }
+        });
+    }
+
+    private void poll() {
+        polls.incrementAndGet();
+        List<ManagedFilter<?>> unused = new ArrayList<>();
+        List<ManagedFilter<?>> uninstalled = new ArrayList<>();
+        List<ManagedFilter<?>> installed = new ArrayList<>();
+        synchronized (filters) {
+            if (closed) {
+                return;
+            }
+            Iterator<ManagedFilter<?>> iterator = filters.values().iterator();
+            while (iterator.hasNext()) {
+                ManagedFilter<?> filter = iterator.next();
+                if (filter.listeners.isEmpty()) {
+                    iterator.remove();
+                    if (filter.id != null) {
+                        unused.add(filter);
+                    }
+                } else if (filter.id == null) {
+                    uninstalled.add(filter);
+                } else {
+                    installed.add(filter);
+                }
+            }
+        }
+
+        try {
+            uninstall(unused);
+            install(uninstalled);
+            install(getChanges(installed));
+            consecutiveFailedPolls = 0;
+        } catch (IOException | RuntimeException e) {
+            failedPolls.incrementAndGet();
+            if (++consecutiveFailedPolls >= failuresBeforeError) {
+                for (Consumer<Exception> listener : errorListeners) {
+                    try {
+                        listener.accept(e);
+                    } catch (RuntimeException ignored) {
+                        // a failing listener does not keep the others from being notified
+                    }
+                }
+            }
+        }
+    }
+
+    private void uninstall(List<ManagedFilter<?>> unused) throws IOException {
+        if (unused.isEmpty()) {
+            return;
+        }
+        BatchRequest batch = caver.batch();
+        for (ManagedFilter<?> filter : unused) {
+            batch.add(caver.klay().uninstallFilter(filter.id));
+        }
+        batch.send();
+    }
+
+    /**
+     * Installs the filters, and backfills the blocks since the last successful poll of the filters which
+     * were installed before. If a backfill fails, the filters which were not backfilled yet are uninstalled
+     * again, so that the next poll installs and backfills them once more.
+     *
+     * @throws IOException when a filter could not be installed or backfilled
+     */
+    private void install(List<ManagedFilter<?>> uninstalled) throws IOException {
+        if (uninstalled.isEmpty()) {
+            return;
+        }
+        BatchRequest batch = caver.batch();
+        ChainHead knownHead = caver.chainHeadTracker().getHead();
+        Request<?, Quantity> blockNumber = addBlockNumber(batch, knownHead);
+        List<Request<?, Quantity>> requests = new ArrayList<>(uninstalled.size());
+        for (ManagedFilter<?> filter : uninstalled) {
+            Request<?, Quantity> request = filter.newFilter();
+            requests.add(request);
+            batch.add(request);
+        }
+        BatchResponse response = batch.send();
+        long head = head(knownHead, response, blockNumber);
+
+        List<ManagedFilter<?>> created = new ArrayList<>(uninstalled.size());
+        IOException error = null;
+        boolean closedMeanwhile;
+        synchronized (filters) {
+            for (int i = 0; i < uninstalled.size(); i++) {
+                Quantity id = response.getResponse(requests.get(i));
+                if (id.hasError()) {
+                    error = new IOException("Error processing request: " + id.getError().getMessage());
+                    continue;
+                }
+                uninstalled.get(i).id = id.getValue();
+                created.add(uninstalled.get(i));
+            }
+            closedMeanwhile = closed;
+        }
+        if (closedMeanwhile) {
+            // close() did not see these filters, so they are uninstalled here instead of leaking on the node
+            try {
+                uninstall(created);
+            } finally {
+                for (ManagedFilter<?> filter : created) {
+                    filter.id = null;
+                }
+            }
+            return;
+        }
+
+        for (int i = 0; i < created.size(); i++) {
+            ManagedFilter<?> filter = created.get(i);
+            try {
+                if (filter.coveredUpTo >= 0 && filter.coveredUpTo < head) {
+                    reinstalls.incrementAndGet();
+                    filter.backfill(filter.coveredUpTo + 1, head);
+                }
+                filter.coveredUpTo = head;
+            } catch (IOException | RuntimeException e) {
+                List<ManagedFilter<?>> notBackfilled = created.subList(i, created.size());
+                try {
+                    uninstall(notBackfilled);
+                } catch (IOException | RuntimeException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                for (ManagedFilter<?> lost : notBackfilled) {
+                    lost.id = null;
+                }
+                throw e;
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Delivers the changes of the installed filters.
+     *
+     * @return the filters which the node no longer knows
+     * @throws IOException when the node answered a filter with an error other than that it was not found
+     */
+    private List<ManagedFilter<?>> getChanges(List<ManagedFilter<?>> installed) throws IOException {
+        if (installed.isEmpty()) {
+            return Collections.emptyList();
+        }
+        BatchRequest batch = caver.batch();
+        ChainHead knownHead = caver.chainHeadTracker().getHead();
+        Request<?, Quantity> blockNumber = addBlockNumber(batch, knownHead);
+        List<Request<?, KlayLogs>> requests = new ArrayList<>(installed.size());
+        for (ManagedFilter<?> filter : installed) {
+            Request<?, KlayLogs> request = caver.klay().getFilterChanges(filter.id);
+            requests.add(request);
+            batch.add(request);
+        }
+        BatchResponse response = batch.send();
+        long head = head(knownHead, response, blockNumber);
+
+        List<ManagedFilter<?>> lost = new ArrayList<>();
+        IOException error = null;
+        for (int i = 0; i < installed.size(); i++) {
+            ManagedFilter<?> filter = installed.get(i);
+            KlayLogs changes = response.getResponse(requests.get(i));
+            if (changes.hasError()) {
+                String message = changes.getError().getMessage();
+                if (message != null && message.toLowerCase().contains(FILTER_NOT_FOUND)) {
+                    filter.id = null;
+                    lost.add(filter);
+                } else {
+                    error = new IOException("Error processing request: " + message);
+                }
+                continue;
+            }
+            if (changes.getLogs() != null) {
+                filter.deliver(changes.getLogs());
+            }
+            filter.coveredUpTo = Math.max(filter.coveredUpTo, head);
+        }
+        if (error != null) {
+            // the lost filters are still installed again, and the error fails this poll afterwards
+            install(lost);
+            throw error;
+        }
+        return lost;
+    }
+
+    /**
+     * Adds {@code klay_blockNumber} to the batch, unless the head is already known. The known head is read
+     * before the batch is sent, so it is never above the head the batch is answered at.
+     *
+     * @return the added request, or null
+     */
+    private Request<?, Quantity> addBlockNumber(BatchRequest batch, ChainHead knownHead) {
+        if (knownHead != null) {
+            return null;
+        }
+        Request<?, Quantity> blockNumber = caver.klay().getBlockNumber();
+        batch.add(blockNumber);
+        return blockNumber;
+    }
+
+    private static long head(ChainHead knownHead, BatchResponse response, Request<?, Quantity> blockNumber)
+            throws IOException {
+        if (knownHead != null) {
+            return knownHead.getNumber().longValue();
+        }
+        return checked(response.getResponse(blockNumber)).getValue().longValue();
+    }
+
+    private static <T extends Response<?>> T checked(T response) throws IOException {
+        if (response.hasError()) {
+            throw new IOException("Error processing request: " + response.getError().getMessage());
+        }
+        return response;
+    }
+
+    private abstract static class ManagedFilter<T> {
+        private final List<Consumer<T>> listeners = new CopyOnWriteArrayList<>();
+        private volatile BigInteger id;
+        /**
+         * The last block whose changes were delivered, or -1 before the filter was installed.
+         */
+        private long coveredUpTo = -1;
+
+        abstract Request<?, Quantity> newFilter();
+
+        abstract void deliver(List<KlayLogs.LogResult> changes);
+
+        abstract void backfill(long from, long to) throws IOException;
+
+        /**
+         * Records a backfilled block, so that a failed backfill resumes after it.
+         */
+        void covered(long block) {
+            coveredUpTo = block;
+        }
+
+        void publish(T value) {
+            for (Consumer<T> listener : listeners) {
+                try {
+                    listener.accept(value);
+                } catch (RuntimeException e) {
+                    // a failing listener does not keep the others from being notified
+                }
+            }
+        }
+    }
+
+    private class BlockFilter extends ManagedFilter<String> {
+        @Override
+        Request<?, Quantity> newFilter() {
+            return caver.klay().newBlockFilter();
+        }
+
+        @Override
+        void deliver(List<KlayLogs.LogResult> changes) {
+            for (KlayLogs.LogResult change : changes) {
+                publish((String) change.get());
+            }
+        }
+
+        @Override
+        void backfill(long from, long to) throws IOException {
+            new BlockRangeFetcher.Builder(caver).setParallelism(1).build().fetch(
+                    BigInteger.valueOf(from), BigInteger.valueOf(to), block -> {
+                        publish(block.getBlock().getHash());
+                        covered(block.getBlock().getNumberAsLong());
+                    });
+        }
+    }
+
+    private class PendingTransactionFilter extends ManagedFilter<String> {
+        @Override
+        Request<?, Quantity> newFilter() {
+            return caver.klay().newPendingTransactionFilter();
+        }
+
+        @Override
+        void deliver(List<KlayLogs.LogResult> changes) {
+            for (KlayLogs.LogResult change : changes) {
+                publish((String) change.get());
+            }
+        }
+
+        @Override
+        void backfill(long from, long to) {
+        }
+    }
+
+    private class LogFilter extends ManagedFilter<KlayLogs.Log> {
+        private final KlayLogFilter filter;
+        private long lastBlock = -1;
+        private long lastLogIndex = -1;
+
+        LogFilter(KlayLogFilter filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        Request<?, Quantity> newFilter() {
+            return caver.klay().newFilter(filter);
+        }
+
+        @Override
+        void deliver(List<KlayLogs.LogResult> changes) {
+            for (KlayLogs.LogResult change : changes) {
+                publishIfNew((KlayLogs.Log) change.get());
+            }
+        }
+
+        @Override
+        void backfill(long from, long to) throws IOException {
+            new LogScanner.Builder(caver).setParallelism(1).build().scan(
+                    filter, BigInteger.valueOf(from), BigInteger.valueOf(to), this::publishIfNew);
+        }
+
+        private void publishIfNew(KlayLogs.Log log) {
+            long block = log.getBlockNumberAsLong();
+            long logIndex = log.getLogIndexAsLong();
+            if (block < lastBlock || block == lastBlock && logIndex <= lastLogIndex) {
+                return;
+            }
+            lastBlock = block;
+            lastLogIndex = logIndex;
+            publish(log);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.methods.response;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary form of a {@link KlayBlock.Block} header and its transaction hashes for holding many blocks in
+ * memory. The block hash, the parent hash and every transaction hash share a single byte array.
+ */
+public final class CompactBlock {
+
+    private static final int HASH = 32;
+
+    private final long number;
+    private final long timestamp;
+    private final long gasUsed;
+    private final long size;
+    private final byte[] hashes;
+
+    private CompactBlock(long number, long timestamp, long gasUsed, long size, byte[] hashes) {
+        this.number = number;
+        this.timestamp = timestamp;
+        this.gasUsed = gasUsed;
+        this.size = size;
+        this.hashes = hashes;
+    }
+
+    /**
+     * @param block block with or without full transaction objects
+     * @return CompactBlock
+     */
+    public static CompactBlock of(KlayBlock.Block block) {
+        List<KlayTransaction.Transaction> transactions = block.getTransactions();
+        int transactionCount = transactions == null ? 0 : transactions.size();
+        byte[] hashes = new byte[(2 + transactionCount) * HASH];
+        put(hashes, 0, block.getHashBytes());
+        put(hashes, 1, block.getParentHashBytes());
+        for (int i = 0; i < transactionCount; i++) {
+            put(hashes, 2 + i, transactions.get(i).getHashBytes());
+        }
+        return new CompactBlock(
+                block.getNumberAsLong(), block.getTimestampAsLong(), block.getGasUsedAsLong(),
+                block.getSizeAsLong(), hashes);
+    }
+
+    public long getNumber() {
+        return number;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getGasUsed() {
+        return gasUsed;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public byte[] getHash() {
+        return hash(0);
+    }
+
+    public byte[] getParentHash() {
+        return hash(1);
+    }
+
+    public int getTransactionCount() {
+        return hashes.length / HASH - 2;
+    }
+
+    public byte[] getTransactionHash(int index) {
+        if (index < 0 || index >= getTransactionCount()) {
+            throw new IndexOutOfBoundsException("Transaction index " + index);
+        }
+        return hash(2 + index);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompactBlock)) {
+            return false;
+        }
+
+        CompactBlock that = (CompactBlock) o;
+
+        return number == that.number
+                && timestamp == that.timestamp
+                && gasUsed == that.gasUsed
+                && size == that.size
+                && Arrays.equals(hashes, that.hashes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(number) * 31 + Arrays.hashCode(getHash());
+    }
+
+    private byte[] hash(int slot) {
+        return Arrays.copyOfRange(hashes, slot * HASH, (slot + 1) * HASH);
+    }
+
+    private static void put(byte[] hashes, int slot, byte[] hash) {
+        if (hash != null) {
+            System.arraycopy(hash, 0, hashes, slot * HASH + HASH - hash.length, hash.length);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.methods.response;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary form of a {@link KlayLogs.Log} for holding many logs in memory. Numbers are primitives and hashes
+ * are raw bytes instead of hex Strings.
+ */
+public final class CompactLog {
+
+    private static final int WORD = 32;
+
+    private final long blockNumber;
+    private final int transactionIndex;
+    private final int logIndex;
+    private final byte[] address;
+    private final byte[] transactionHash;
+    private final byte[] topics;
+    private final byte[] data;
+
+    private CompactLog(long blockNumber, int transactionIndex, int logIndex, byte[] address,
+                       byte[] transactionHash, byte[] topics, byte[] data) {
+        this.blockNumber = blockNumber;
+        this.transactionIndex = transactionIndex;
+        this.logIndex = logIndex;
+        this.address = address;
+        this.transactionHash = transactionHash;
+        this.topics = topics;
+        this.data = data;
+    }
+
+    public static CompactLog of(KlayLogs.Log log) {
+        List<String> topicList = log.getTopics();
+        int topicCount = topicList == null ? 0 : topicList.size();
+        byte[] topics = new byte[topicCount * WORD];
+        for (int i = 0; i < topicCount; i++) {
+            byte[] topic = DecodedFields.toBytes(topicList.get(i));
+            System.arraycopy(topic, 0, topics, i * WORD + WORD - topic.length, topic.length);
+        }
+        return new CompactLog(
+                log.getBlockNumberAsLong(),
+                (int) log.getTransactionIndexAsLong(),
+                (int) log.getLogIndexAsLong(),
+                DecodedFields.toBytes(log.getAddress()),
+                log.getTransactionHashBytes(),
+                topics,
+                DecodedFields.toBytes(log.getData()));
+    }
+
+    public long getBlockNumber() {
+        return blockNumber;
+    }
+
+    public int getTransactionIndex() {
+        return transactionIndex;
+    }
+
+    public int getLogIndex() {
+        return logIndex;
+    }
+
+    public byte[] getAddress() {
+        return copy(address);
+    }
+
+    public byte[] getTransactionHash() {
+        return copy(transactionHash);
+    }
+
+    public int getTopicCount() {
+        return topics.length / WORD;
+    }
+
+    public byte[] getTopic(int index) {
+        return Arrays.copyOfRange(topics, index * WORD, (index + 1) * WORD);
+    }
+
+    public byte[] getData() {
+        return copy(data);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompactLog)) {
+            return false;
+        }
+
+        CompactLog that = (CompactLog) o;
+
+        return blockNumber == that.blockNumber
+                && transactionIndex == that.transactionIndex
+                && logIndex == that.logIndex
+                && Arrays.equals(address, that.address)
+                && Arrays.equals(transactionHash, that.transactionHash)
+                && Arrays.equals(topics, that.topics)
+                && Arrays.equals(data, that.data);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Long.hashCode(blockNumber);
+        result = 31 * result + logIndex;
+        result = 31 * result + Arrays.hashCode(transactionHash);
+        return result;
+    }
+
+    static byte[] copy(byte[] value) {
+        return value == null ? null : value.clone();
+    }
+}
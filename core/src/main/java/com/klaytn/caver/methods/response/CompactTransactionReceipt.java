@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.methods.response;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary form of a {@link KlayTransactionReceipt.TransactionReceipt} for holding many receipts in memory.
+ * It keeps the fields needed to index a transaction's outcome: its position, gas used, status and logs.
+ */
+public final class CompactTransactionReceipt {
+
+    private final long blockNumber;
+    private final int transactionIndex;
+    private final long gasUsed;
+    private final boolean success;
+    private final byte[] transactionHash;
+    private final CompactLog[] logs;
+
+    private CompactTransactionReceipt(long blockNumber, int transactionIndex, long gasUsed, boolean success,
+                                      byte[] transactionHash, CompactLog[] logs) {
+        this.blockNumber = blockNumber;
+        this.transactionIndex = transactionIndex;
+        this.gasUsed = gasUsed;
+        this.success = success;
+        this.transactionHash = transactionHash;
+        this.logs = logs;
+    }
+
+    public static CompactTransactionReceipt of(KlayTransactionReceipt.TransactionReceipt receipt) {
+        List<KlayLogs.Log> logList = receipt.getLogs();
+        CompactLog[] logs = new CompactLog[logList == null ? 0 : logList.size()];
+        for (int i = 0; i < logs.length; i++) {
+            logs[i] = CompactLog.of(logList.get(i));
+        }
+        return new CompactTransactionReceipt(
+                receipt.getBlockNumberAsLong(),
+                (int) receipt.getTransactionIndexAsLong(),
+                receipt.getGasUsedAsLong(),
+                receipt.getStatusAsLong() == 1,
+                receipt.getTransactionHashBytes(),
+                logs);
+    }
+
+    public long getBlockNumber() {
+        return blockNumber;
+    }
+
+    public int getTransactionIndex() {
+        return transactionIndex;
+    }
+
+    public long getGasUsed() {
+        return gasUsed;
+    }
+
+    /**
+     * @return true if the status of the receipt is 0x1
+     */
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public byte[] getTransactionHash() {
+        return CompactLog.copy(transactionHash);
+    }
+
+    public List<CompactLog> getLogs() {
+        return Arrays.asList(logs.clone());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompactTransactionReceipt)) {
+            return false;
+        }
+
+        CompactTransactionReceipt that = (CompactTransactionReceipt) o;
+
+        return blockNumber == that.blockNumber
+                && transactionIndex == that.transactionIndex
+                && gasUsed == that.gasUsed
+                && success == that.success
+                && Arrays.equals(transactionHash, that.transactionHash)
+                && Arrays.equals(logs, that.logs);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(transactionHash);
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.methods.response;
+
+import org.web3j.utils.Numeric;
+
+/**
+ * Decoding of the hex fields behind the typed accessors of the response models, which keep the decoded
+ * value so each field is parsed at most once.
+ */
+final class DecodedFields {
+
+    /**
+     * Marks a numeric field which has not been decoded yet.
+     */
+    static final long UNDECODED = Long.MIN_VALUE;
+
+    private DecodedFields() {
+    }
+
+    /**
+     * @return the quantity as a long, or -1 if the field is absent
+     */
+    static long toLong(String quantity) {
+        return quantity == null ? -1 : Numeric.decodeQuantity(quantity).longValueExact();
+    }
+
+    /**
+     * @return the data as bytes, or null if the field is absent
+     */
+    static byte[] toBytes(String data) {
+        return data == null ? null : Numeric.hexStringToByteArray(data);
+    }
+}
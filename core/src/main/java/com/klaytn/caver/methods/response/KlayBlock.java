@@ -20,6 +20,7 @@
 
 package com.klaytn.caver.methods.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
@@ -151,6 +152,17 @@ public class KlayBlock extends Response<KlayBlock.Block> {
 
         private String reward;
 
+        /**
+         * Typed values of the hex fields, decoded on first access
+         */
+        private volatile long numberAsLong = DecodedFields.UNDECODED;
+        private volatile long gasUsedAsLong = DecodedFields.UNDECODED;
+        private volatile long sizeAsLong = DecodedFields.UNDECODED;
+        private volatile long timestampAsLong = DecodedFields.UNDECODED;
+        private volatile long timestampFoSAsLong = DecodedFields.UNDECODED;
+        private volatile byte[] hashBytes;
+        private volatile byte[] parentHashBytes;
+
         public Block() {
         }
 
@@ -266,6 +278,97 @@ public class KlayBlock extends Response<KlayBlock.Block> {
             return reward;
         }
 
+        /**
+         * @return number as a long, or -1 if absent
+         */
+        @JsonIgnore
+        public long getNumberAsLong() {
+            long decoded = numberAsLong;
+            if (decoded == DecodedFields.UNDECODED) {
+                decoded = DecodedFields.toLong(number);
+                numberAsLong = decoded;
+            }
+            return decoded;
+        }
+
+        /**
+         * @return gasUsed as a long, or -1 if absent
+         */
+        @JsonIgnore
+        public long getGasUsedAsLong() {
+            long decoded = gasUsedAsLong;
+            if (decoded == DecodedFields.UNDECODED) {
+                decoded = DecodedFields.toLong(gasUsed);
+                gasUsedAsLong = decoded;
+            }
+            return decoded;
+        }
+
+        /**
+         * @return size as a long, or -1 if absent
+         */
+        @JsonIgnore
+        public long getSizeAsLong() {
+            long decoded = sizeAsLong;
+            if (decoded == DecodedFields.UNDECODED) {
+                decoded = DecodedFields.toLong(size);
+                sizeAsLong = decoded;
+            }
+            return decoded;
+        }
+
+        /**
+         * @return timestamp as a long, or -1 if absent
+         */
+        @JsonIgnore
+        public long getTimestampAsLong() {
+            long decoded = timestampAsLong;
+            if (decoded == DecodedFields.UNDECODED) {
+                decoded = DecodedFields.toLong(timestamp);
+                timestampAsLong = decoded;
+            }
+            return decoded;
+        }
+
+        /**
+         * @return timestampFoS as a long, or -1 if absent
+         */
+        @JsonIgnore
+        public long getTimestampFoSAsLong() {
+            long decoded = timestampFoSAsLong;
+            if (decoded == DecodedFields.UNDECODED) {
+                decoded = DecodedFields.toLong(timestampFoS);
+                timestampFoSAsLong = decoded;
+            }
+            return decoded;
+        }
+
+        /**
+         * @return hash as bytes, shared between callers and not to be modified, or null if absent
+         */
+        @JsonIgnore
+        public byte[] getHashBytes() {
+            byte[] decoded = hashBytes;
+            if (decoded == null) {
+                decoded = DecodedFields.toBytes(hash);
+                hashBytes = decoded;
+            }
+            return decoded;
+        }
+
+        /**
+         * @return parentHash as bytes, shared between callers and not to be modified, or null if absent
+         */
+        @JsonIgnore
+        public byte[] getParentHashBytes() {
+            byte[] decoded = parentHashBytes;
+            if (decoded == null) {
+                decoded = DecodedFields.toBytes(parentHash);
+                parentHashBytes = decoded;
+            }
+            return decoded;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) {
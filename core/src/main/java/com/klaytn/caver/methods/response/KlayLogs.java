@@ -20,6 +20,7 @@
 
 package com.klaytn.caver.methods.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
@@ -157,6 +158,15 @@ public class KlayLogs extends Response<List<KlayLogs.LogResult>> {
          */
         private List<String> topics;
 
+        /**
+         * Typed values of the hex fields, decoded on first access
+         */
+        private volatile long logIndexAsLong = DecodedFields.UNDECODED;
+        private volatile long transactionIndexAsLong = DecodedFields.UNDECODED;
+        private volatile long blockNumberAsLong = DecodedFields.UNDECODED;
+        private volatile byte[] transactionHashBytes;
+        private volatile byte[] blockHashBytes;
+
         public Log() {
         }
 
@@ -183,6 +193,7 @@ public class KlayLogs extends Response<List<KlayLogs.LogResult>> {
 
         public void setLogIndex(String logIndex) {
             this.logIndex = logIndex;
+            this.logIndexAsLong = DecodedFields.UNDECODED;
         }
 
         public BigInteger getTransactionIndex() {
@@ -195,6 +206,7 @@ public class KlayLogs extends Response<List<KlayLogs.LogResult>> {
 
         public void setTransactionIndex(String transactionIndex) {
             this.transactionIndex = transactionIndex;
+            this.transactionIndexAsLong = DecodedFields.UNDECODED;
         }
 
         public String getTransactionHash() {
@@ -203,6 +215,7 @@ public class KlayLogs extends Response<List<KlayLogs.LogResult>> {
 
         public void setTransactionHash(String transactionHash) {
             this.transactionHash = transactionHash;
+            this.transactionHashBytes = null;
         }
 
         public String getBlockHash() {
@@ -211,6 +224,7 @@ public class KlayLogs extends Response<List<KlayLogs.LogResult>> {
 
         public void setBlockHash(String blockHash) {
             this.blockHash = blockHash;
+            this.blockHashBytes = null;
         }
 
         public BigInteger getBlockNumber() {
@@ -223,6 +237,7 @@ public class KlayLogs extends Response<List<KlayLogs.LogResult>> {
 
         public void setBlockNumber(String blockNumber) {
             this.blockNumber = blockNumber;
+            this.blockNumberAsLong = DecodedFields.UNDECODED;
         }
 
         public String getAddress() {
@@ -257,6 +272,71 @@ public class KlayLogs extends Response<List<KlayLogs.LogResult>> {
             }
         }
 
+        /**
+         * @return logIndex as a long, or -1 if absent
+         */
+        @JsonIgnore
+        public long getLogIndexAsLong() {
+            long decoded = logIndexAsLong;
+            if (decoded == DecodedFields.UNDECODED) {
+                decoded = DecodedFields.toLong(logIndex);
+                logIndexAsLong = decoded;
+            }
+            return decoded;
+        }
+
+        /**
+         * @return transactionIndex as a long, or -1 if absent
+         */
+        @JsonIgnore
+        public long getTransactionIndexAsLong() {
+            long decoded = transactionIndexAsLong;
+            if (decoded == DecodedFields.UNDECODED) {
+                decoded = DecodedFields.toLong(transactionIndex);
+                transactionIndexAsLong = decoded;
+            }
+            return decoded;
+        }
+
+        /**
+         * @return blockNumber as a long, or -1 if absent
+         */
+        @JsonIgnore
+        public long getBlockNumberAsLong() {
+            long decoded = blockNumberAsLong;
+            if (decoded == DecodedFields.UNDECODED) {
+                decoded = DecodedFields.toLong(blockNumber);
+                blockNumberAsLong = decoded;
+            }
+            return decoded;
+        }
+
+        /**
+         * @return transactionHash as bytes, shared between callers and not to be modified, or null if absent
+         */
+        @JsonIgnore
+        public byte[] getTransactionHashBytes() {
+            byte[] decoded = transactionHashBytes;
+            if (decoded == null) {
+                decoded = DecodedFields.toBytes(transactionHash);
+                transactionHashBytes = decoded;
+            }
+            return decoded;
+        }
+
+        /**
+         * @return blockHash as bytes, shared between callers and not to be modified, or null if absent
+         */
+        @JsonIgnore
+        public byte[] getBlockHashBytes() {
+            byte[] decoded = blockHashBytes;
+            if (decoded == null) {
+                decoded = DecodedFields.toBytes(blockHash);
+                blockHashBytes = decoded;
+            }
+            return decoded;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) {
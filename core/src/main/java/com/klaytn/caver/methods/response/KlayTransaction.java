@@ -20,6 +20,7 @@
 
 package com.klaytn.caver.methods.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
@@ -129,9 +130,31 @@ public class KlayTransaction extends Response<KlayTransaction.Transaction> {
          */
         private String value;
 
+        /**
+         * Typed values of the hex fields, decoded on first access
+         */
+        private volatile long blockNumberAsLong = DecodedFields.UNDECODED;
+        private volatile long gasAsLong = DecodedFields.UNDECODED;
+        private volatile long gasPriceAsLong = DecodedFields.UNDECODED;
+        private volatile long nonceAsLong = DecodedFields.UNDECODED;
+        private volatile long transactionIndexAsLong = DecodedFields.UNDECODED;
+        private volatile byte[] blockHashBytes;
+        private volatile byte[] hashBytes;
+        private volatile byte[] senderTxHashBytes;
+
         public Transaction() {
         }
 
+        /**
+         * Creates a transaction holding only its hash, as listed by a block which was requested without
+         * full transaction objects.
+         *
+         * @param hash hash of the transaction
+         */
+        public Transaction(String hash) {
+            this.hash = hash;
+        }
+
         public Transaction(String blockHash, String blockNumber, String from, String gas, String gasPrice, String hash,
                            String input, String nonce, String senderTxHash, List<KlaySignatureData> signatures,
                            String to, String transactionIndex, String type, String typeInt, String value) {
@@ -217,6 +240,110 @@ public class KlayTransaction extends Response<KlayTransaction.Transaction> {
             return value;
         }
 
+        /**
+         * @return blockNumber as a long, or -1 if absent
+         */
+        @JsonIgnore
+        public long getBlockNumberAsLong() {
+            long decoded = blockNumberAsLong;
+            if (decoded == DecodedFields.UNDECODED) {
+                decoded = DecodedFields.toLong(blockNumber);
+                blockNumberAsLong = decoded;
+            }
+            return decoded;
+        }
+
+        /**
+         * @return gas as a long, or -1 if absent
+         */
+        @JsonIgnore
+        public long getGasAsLong() {
+            long decoded = gasAsLong;
+            if (decoded == DecodedFields.UNDECODED) {
+                decoded = DecodedFields.toLong(gas);
+                gasAsLong = decoded;
+            }
+            return decoded;
+        }
+
+        /**
+         * @return gasPrice as a long, or -1 if absent
+         */
+        @JsonIgnore
+        public long getGasPriceAsLong() {
+            long decoded = gasPriceAsLong;
+            if (decoded == DecodedFields.UNDECODED) {
+                decoded = DecodedFields.toLong(gasPrice);
+                gasPriceAsLong = decoded;
+            }
+            return decoded;
+        }
+
+        /**
+         * @return nonce as a long, or -1 if absent
+         */
+        @JsonIgnore
+        public long getNonceAsLong() {
+            long decoded = nonceAsLong;
+            if (decoded == DecodedFields.UNDECODED) {
+                decoded = DecodedFields.toLong(nonce);
+                nonceAsLong = decoded;
+            }
+            return decoded;
+        }
+
+        /**
+         * @return transactionIndex as a long, or -1 if absent
+         */
+        @JsonIgnore
+        public long getTransactionIndexAsLong() {
+            long decoded = transactionIndexAsLong;
+            if (decoded == DecodedFields.UNDECODED) {
+                decoded = DecodedFields.toLong(transactionIndex);
+                transactionIndexAsLong = decoded;
+            }
+            return decoded;
+        }
+
+        /**
+         * @return blockHash as bytes, shared between callers and not to be modified, or null if absent
+         */
+        @JsonIgnore
+        public byte[] getBlockHashBytes() {
+            byte[] decoded = blockHashBytes;
+            if (decoded == null) {
+                decoded = DecodedFields.toBytes(blockHash);
+                blockHashBytes = decoded;
+            }
+            return decoded;
+        }
+
+        /**
+         * @return hash as bytes, shared between callers and not to be modified, or null if absent
+         */
+        @JsonIgnore
+        public byte[] getHashBytes() {
+            byte[] decoded = hashBytes;
+            if (decoded == null) {
+                decoded = DecodedFields.toBytes(hash);
+                hashBytes = decoded;
+            }
+            return decoded;
+        }
+
+        /**
+         * @return senderTxHash as bytes, shared between callers and not to be modified, or null if absent
+         */
+        @JsonIgnore
+        public byte[] getSenderTxHashBytes() {
+            byte[] decoded = senderTxHashBytes;
+            if (decoded == null) {
+                decoded = DecodedFields.toBytes(senderTxHash);
+                senderTxHashBytes = decoded;
+            }
+            return decoded;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) {
@@ -20,6 +20,7 @@
 
 package com.klaytn.caver.methods.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
@@ -216,6 +217,20 @@ public class KlayTransactionReceipt extends Response<KlayTransactionReceipt.Tran
          */
         private String value;
 
+        /**
+         * Typed values of the hex fields, decoded on first access
+         */
+        private volatile long blockNumberAsLong = DecodedFields.UNDECODED;
+        private volatile long gasAsLong = DecodedFields.UNDECODED;
+        private volatile long gasPriceAsLong = DecodedFields.UNDECODED;
+        private volatile long gasUsedAsLong = DecodedFields.UNDECODED;
+        private volatile long nonceAsLong = DecodedFields.UNDECODED;
+        private volatile long statusAsLong = DecodedFields.UNDECODED;
+        private volatile long transactionIndexAsLong = DecodedFields.UNDECODED;
+        private volatile byte[] blockHashBytes;
+        private volatile byte[] transactionHashBytes;
+        private volatile byte[] senderTxHashBytes;
+
         public TransactionReceipt() {
         }
 
@@ -343,6 +358,7 @@ public class KlayTransactionReceipt extends Response<KlayTransactionReceipt.Tran
 
         public void setTransactionHash(String transactionHash) {
             this.transactionHash = transactionHash;
+            this.transactionHashBytes = null;
         }
 
         public String getTxError() {
@@ -366,6 +382,136 @@ public class KlayTransactionReceipt extends Response<KlayTransactionReceipt.Tran
         }
 
 
+        /**
+         * @return blockNumber as a long, or -1 if absent
+         */
+        @JsonIgnore
+        public long getBlockNumberAsLong() {
+            long decoded = blockNumberAsLong;
+            if (decoded == DecodedFields.UNDECODED) {
+                decoded = DecodedFields.toLong(blockNumber);
+                blockNumberAsLong = decoded;
+            }
+            return decoded;
+        }
+
+        /**
+         * @return gas as a long, or -1 if absent
+         */
+        @JsonIgnore
+        public long getGasAsLong() {
+            long decoded = gasAsLong;
+            if (decoded == DecodedFields.UNDECODED) {
+                decoded = DecodedFields.toLong(gas);
+                gasAsLong = decoded;
+            }
+            return decoded;
+        }
+
+        /**
+         * @return gasPrice as a long, or -1 if absent
+         */
+        @JsonIgnore
+        public long getGasPriceAsLong() {
+            long decoded = gasPriceAsLong;
+            if (decoded == DecodedFields.UNDECODED) {
+                decoded = DecodedFields.toLong(gasPrice);
+                gasPriceAsLong = decoded;
+            }
+            return decoded;
+        }
+
+        /**
+         * @return gasUsed as a long, or -1 if absent
+         */
+        @JsonIgnore
+        public long getGasUsedAsLong() {
+            long decoded = gasUsedAsLong;
+            if (decoded == DecodedFields.UNDECODED) {
+                decoded = DecodedFields.toLong(gasUsed);
+                gasUsedAsLong = decoded;
+            }
+            return decoded;
+        }
+
+        /**
+         * @return nonce as a long, or -1 if absent
+         */
+        @JsonIgnore
+        public long getNonceAsLong() {
+            long decoded = nonceAsLong;
+            if (decoded == DecodedFields.UNDECODED) {
+                decoded = DecodedFields.toLong(nonce);
+                nonceAsLong = decoded;
+            }
+            return decoded;
+        }
+
+        /**
+         * @return status as a long, or -1 if absent
+         */
+        @JsonIgnore
+        public long getStatusAsLong() {
+            long decoded = statusAsLong;
+            if (decoded == DecodedFields.UNDECODED) {
+                decoded = DecodedFields.toLong(status);
+                statusAsLong = decoded;
+            }
+            return decoded;
+        }
+
+        /**
+         * @return transactionIndex as a long, or -1 if absent
+         */
+        @JsonIgnore
+        public long getTransactionIndexAsLong() {
+            long decoded = transactionIndexAsLong;
+            if (decoded == DecodedFields.UNDECODED) {
+                decoded = DecodedFields.toLong(transactionIndex);
+                transactionIndexAsLong = decoded;
+            }
+            return decoded;
+        }
+
+        /**
+         * @return blockHash as bytes, shared between callers and not to be modified, or null if absent
+         */
+        @JsonIgnore
+        public byte[] getBlockHashBytes() {
+            byte[] decoded = blockHashBytes;
+            if (decoded == null) {
+                decoded = DecodedFields.toBytes(blockHash);
+                blockHashBytes = decoded;
+            }
+            return decoded;
+        }
+
+        /**
+         * @return transactionHash as bytes, shared between callers and not to be modified, or null if absent
+         */
+        @JsonIgnore
+        public byte[] getTransactionHashBytes() {
+            byte[] decoded = transactionHashBytes;
+            if (decoded == null) {
+                decoded = DecodedFields.toBytes(transactionHash);
+                transactionHashBytes = decoded;
+            }
+            return decoded;
+        }
+
+        /**
+         * @return senderTxHash as bytes, shared between callers and not to be modified, or null if absent
+         */
+        @JsonIgnore
+        public byte[] getSenderTxHashBytes() {
+            byte[] decoded = senderTxHashBytes;
+            if (decoded == null) {
+                decoded = DecodedFields.toBytes(senderTxHash);
+                senderTxHashBytes = decoded;
+            }
+            return decoded;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) {
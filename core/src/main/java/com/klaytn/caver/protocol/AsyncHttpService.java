@@ -0,0 +1,160 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.protocol;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Headers;
+import okhttp3.OkHttpClient;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.exceptions.ClientConnectionException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP transport whose {@link #sendAsync(Request, Class)} and {@link #sendBatchAsync(BatchRequest)} hand the
+ * call to OkHttp's dispatcher instead of web3j's shared thread pool. OkHttp 3 still performs blocking I/O:
+ * each call on the wire occupies one dispatcher thread until its response has been read, so up to
+ * {@code maxRequests} threads are in use at once. Calls beyond that wait in the dispatcher's queue without
+ * a thread. The future is completed on the dispatcher thread which read the response, so callbacks chained
+ * on it should not block. Cancelling the future cancels the call.
+ *
+ * <p>Synchronous {@link #send(Request, Class)} still runs on the calling thread.
+ *
+ * <pre>
+ * Caver caver = Caver.build(new AsyncHttpService(url));
+ * caver.klay().getBlockNumber().sendAsync().thenAccept(...);
+ * </pre>
+ */
+public class AsyncHttpService extends HttpBatchService {
+
+    public static final int DEFAULT_MAX_REQUESTS = 256;
+
+    private final String url;
+    private final OkHttpClient httpClient;
+
+    public AsyncHttpService(String url) {
+        this(url, DEFAULT_MAX_REQUESTS);
+    }
+
+    /**
+     * @param url         endpoint url
+     * @param maxRequests maximum number of calls on the wire at once, and so of dispatcher threads
+     */
+    public AsyncHttpService(String url, int maxRequests) {
+        this(url, createHttpClient(maxRequests));
+    }
+
+    /**
+     * @param url        endpoint url
+     * @param httpClient client whose {@link Dispatcher} bounds the calls on the wire. Note that OkHttp's
+     *                   default allows only 5 concurrent calls per host.
+     */
+    public AsyncHttpService(String url, OkHttpClient httpClient) {
+        super(url, httpClient);
+        this.url = url;
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public <T extends Response> CompletableFuture<T> sendAsync(Request request, Class<T> responseType) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            enqueue(request.getMethod(), objectMapper.writeValueAsBytes(request), future,
+                    body -> objectMapper.readValue(body, responseType));
+        } catch (IOException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<BatchResponse> sendBatchAsync(BatchRequest batchRequest) {
+        if (batchRequest.size() == 0) {
+            return super.sendBatchAsync(batchRequest);
+        }
+        CompletableFuture<BatchResponse> future = new CompletableFuture<>();
+        try {
+            enqueue(RpcMetrics.BATCH, objectMapper.writeValueAsBytes(batchRequest.getRequests()), future,
+                    body -> batchRequest.decode(objectMapper, body));
+        } catch (IOException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private <T> void enqueue(String method, byte[] payload, CompletableFuture<T> future, BodyReader<T> reader) {
+        okhttp3.Request httpRequest = new okhttp3.Request.Builder()
+                .url(url)
+                .headers(Headers.of(getHeaders()))
+                .post(RequestBody.create(JSON_MEDIA_TYPE, payload))
+                .build();
+        Call call = httpClient.newCall(httpRequest);
+        future.whenComplete((result, throwable) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, okhttp3.Response response) {
+                try (ResponseBody body = response.body()) {
+                    if (!response.isSuccessful()) {
+                        throw new ClientConnectionException(
+                                "Invalid response received: " + response.code() + "; "
+                                        + (body == null ? "N/A" : body.string()));
+                    }
+                    CountingInputStream result = count(body == null ? null : body.byteStream());
+                    T value = reader.read(result);
+                    getRpcMetrics().onBytes(method, payload.length, result == null ? 0 : result.getCount());
+                    future.complete(value);
+                } catch (IOException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+    }
+
+    private static OkHttpClient createHttpClient(int maxRequests) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequests);
+        // keep a connection per concurrent call alive instead of OkHttp's default of 5
+        return new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(maxRequests, 5, TimeUnit.MINUTES))
+                .build();
+    }
+
+    private interface BodyReader<T> {
+        T read(InputStream body) throws IOException;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.protocol;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.utils.Async;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A list of JSON-RPC requests which are delivered to the node together.
+ *
+ * <p>Usage:
+ * <pre>
+ * BatchResponse response = caver.batch()
+ *         .add(caver.klay().getBalance(address, DefaultBlockParameterName.LATEST))
+ *         .add(caver.klay().getTransactionReceipt(transactionHash))
+ *         .send();
+ * </pre>
+ *
+ * <p>When the underlying service is a {@link BatchService}, the requests are sent as a single JSON-RPC
+ * array. Otherwise they are sent one after another through {@link Web3jService#send(Request, Class)}.
+ */
+public class BatchRequest {
+
+    private static final int ERROR_NO_RESPONSE = -32603;
+
+    private static Field responseTypeField;
+
+    private final Web3jService web3jService;
+    private final List<Request<?, ? extends Response<?>>> requests = new ArrayList<>();
+    private final List<Class<? extends Response<?>>> responseTypes = new ArrayList<>();
+
+    public BatchRequest(Web3jService web3jService) {
+        this.web3jService = web3jService;
+    }
+
+    /**
+     * Appends a request to this batch.
+     *
+     * @param request request created from {@link com.klaytn.caver.Klay} or {@link com.klaytn.caver.Net}
+     * @return this batch
+     */
+    public BatchRequest add(Request<?, ? extends Response<?>> request) {
+        return add(request, getResponseType(request));
+    }
+
+    <T extends Response<?>> BatchRequest add(Request<?, ? extends Response<?>> request, Class<T> responseType) {
+        requests.add(request);
+        responseTypes.add(responseType);
+        return this;
+    }
+
+    public List<Request<?, ? extends Response<?>>> getRequests() {
+        return Collections.unmodifiableList(requests);
+    }
+
+    public int size() {
+        return requests.size();
+    }
+
+    /**
+     * Sends every request of this batch and waits for all of the responses.
+     *
+     * @return BatchResponse - responses in the order of {@link #getRequests()}
+     * @throws IOException when the batch could not be delivered
+     */
+    public BatchResponse send() throws IOException {
+        if (web3jService instanceof BatchService) {
+            return ((BatchService) web3jService).sendBatch(this);
+        }
+
+        List<Response<?>> responses = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            responses.add(web3jService.send(requests.get(i), responseTypes.get(i)));
+        }
+        return new BatchResponse(requests, responses);
+    }
+
+    /**
+     * Asynchronous version of {@link #send()}.
+     *
+     * @return CompletableFuture of BatchResponse
+     */
+    public CompletableFuture<BatchResponse> sendAsync() {
+        if (web3jService instanceof BatchService) {
+            return ((BatchService) web3jService).sendBatchAsync(this);
+        }
+        return Async.run(this::send);
+    }
+
+    /**
+     * Builds the {@link BatchResponse} of this batch from a JSON-RPC array. A request without a matching
+     * response object, or every request when the node rejected the whole batch with a single error object,
+     * gets a response carrying an error instead of a result.
+     *
+     * @param objectMapper object mapper of the transport
+     * @param result       body of the HTTP response, or null if there was none
+     * @return BatchResponse
+     * @throws IOException when the body can not be parsed
+     */
+    BatchResponse decode(ObjectMapper objectMapper, InputStream result) throws IOException {
+        JsonNode root = result == null ? null : objectMapper.readTree(result);
+        Map<Long, JsonNode> nodeById = new HashMap<>();
+        Response.Error batchError = null;
+
+        if (root != null && root.isArray()) {
+            for (JsonNode node : root) {
+                nodeById.put(node.path("id").asLong(), node);
+            }
+        } else if (root != null && root.has("error")) {
+            batchError = objectMapper.treeToValue(root.get("error"), Response.Error.class);
+        }
+
+        List<Response<?>> responses = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            long id = requests.get(i).getId();
+            JsonNode node = nodeById.get(id);
+            if (node != null) {
+                responses.add(objectMapper.treeToValue(node, responseTypes.get(i)));
+            } else {
+                Response.Error error = batchError != null
+                        ? batchError
+                        : new Response.Error(ERROR_NO_RESPONSE, "No response for request id " + id);
+                responses.add(errorResponse(responseTypes.get(i), id, error));
+            }
+        }
+        return new BatchResponse(requests, responses);
+    }
+
+    private static Response<?> errorResponse(Class<? extends Response<?>> responseType, long id, Response.Error error)
+            throws IOException {
+        try {
+            Response<?> response = responseType.newInstance();
+            response.setId(id);
+            response.setError(error);
+            return response;
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new IOException("Unable to create " + responseType.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * web3j 4.2.0 does not expose the response type of a {@link Request}, so it is read from the private
+     * field which {@link Request#send()} passes to the service.
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends Response<?>> Class<T> getResponseType(Request<?, ?> request) {
+        try {
+            if (responseTypeField == null) {
+                Field field = Request.class.getDeclaredField("responseType");
+                field.setAccessible(true);
+                responseTypeField = field;
+            }
+            return (Class<T>) responseTypeField.get(request);
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new IllegalStateException("Unable to resolve the response type of " + request.getMethod(), e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.protocol;
+
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Responses of a {@link BatchRequest}. The n-th response belongs to the n-th request of the batch.
+ */
+public class BatchResponse {
+
+    private final List<Request<?, ? extends Response<?>>> requests;
+    private final List<Response<?>> responses;
+
+    public BatchResponse(List<Request<?, ? extends Response<?>>> requests, List<Response<?>> responses) {
+        this.requests = Collections.unmodifiableList(requests);
+        this.responses = Collections.unmodifiableList(responses);
+    }
+
+    public List<Request<?, ? extends Response<?>>> getRequests() {
+        return requests;
+    }
+
+    public List<Response<?>> getResponses() {
+        return responses;
+    }
+
+    /**
+     * Returns the typed response of a request which belongs to this batch.
+     *
+     * @param request request added to the batch
+     * @param <T>     type of the response
+     * @return T - response of the request
+     * @throws IllegalArgumentException if the request is not a part of this batch
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Response<?>> T getResponse(Request<?, T> request) {
+        for (int i = 0; i < requests.size(); i++) {
+            if (requests.get(i).getId() == request.getId()) {
+                return (T) responses.get(i);
+            }
+        }
+        throw new IllegalArgumentException("Request " + request.getId() + " is not a part of this batch");
+    }
+
+    /**
+     * Returns the n-th response cast to the expected type.
+     *
+     * @param index        position of the request in the batch
+     * @param responseType type of the response
+     * @param <T>          type of the response
+     * @return T - response at the position
+     */
+    public <T extends Response<?>> T getResponse(int index, Class<T> responseType) {
+        return responseType.cast(responses.get(index));
+    }
+
+    public int size() {
+        return responses.size();
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.protocol;
+
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link Web3jService} which is able to deliver several JSON-RPC requests in a single
+ * JSON-RPC batch (an array of request objects).
+ */
+public interface BatchService extends Web3jService {
+
+    /**
+     * Sends all requests of the batch in a single round trip.
+     *
+     * @param batchRequest requests to send
+     * @return BatchResponse - responses matched to their requests by id
+     * @throws IOException when the batch could not be delivered
+     */
+    BatchResponse sendBatch(BatchRequest batchRequest) throws IOException;
+
+    /**
+     * Asynchronous version of {@link #sendBatch(BatchRequest)}.
+     *
+     * @param batchRequest requests to send
+     * @return CompletableFuture of BatchResponse
+     */
+    CompletableFuture<BatchResponse> sendBatchAsync(BatchRequest batchRequest);
+
+    /**
+     * Sends the batch through {@code service}: in a single round trip when it is a {@link BatchService},
+     * otherwise one request at a time.
+     *
+     * @param service service to send the batch through
+     * @param batchRequest requests to send
+     * @return BatchResponse - responses matched to their requests by id
+     * @throws IOException when a request could not be delivered
+     */
+    static BatchResponse send(Web3jService service, BatchRequest batchRequest) throws IOException {
+        if (service instanceof BatchService) {
+            return ((BatchService) service).sendBatch(batchRequest);
+        }
+        BatchRequest sequential = new BatchRequest(service);
+        for (Request<?, ? extends Response<?>> request : batchRequest.getRequests()) {
+            sequential.add(request);
+        }
+        return sequential.send();
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.protocol;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reuses the buffers which {@link RawResponse}s are read into, so that persisting many responses does not
+ * allocate a buffer per response. Direct buffers live outside of the Java heap and can be written to a
+ * file or socket channel without being copied first.
+ *
+ * <p>A buffer which is too small for a response is replaced by one of twice its size. The larger buffer
+ * is returned to the pool, so the pooled buffers grow to the size of the largest responses.
+ */
+public class BufferPool {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    public static final int DEFAULT_MAX_POOLED = 16;
+
+    private final int bufferSize;
+    private final int maxPooled;
+    private final boolean direct;
+    private final ConcurrentLinkedQueue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+    private final AtomicLong allocated = new AtomicLong();
+
+    /**
+     * @param bufferSize initial capacity of the buffers
+     * @param maxPooled  maximum number of idle buffers which are kept for reuse
+     * @param direct     whether to allocate direct buffers outside of the Java heap
+     */
+    public BufferPool(int bufferSize, int maxPooled, boolean direct) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+        this.direct = direct;
+    }
+
+    /**
+     * @return pool of direct buffers with the default buffer size
+     */
+    public static BufferPool direct() {
+        return new BufferPool(DEFAULT_BUFFER_SIZE, DEFAULT_MAX_POOLED, true);
+    }
+
+    /**
+     * @return pool of heap buffers with the default buffer size
+     */
+    public static BufferPool heap() {
+        return new BufferPool(DEFAULT_BUFFER_SIZE, DEFAULT_MAX_POOLED, false);
+    }
+
+    public boolean isDirect() {
+        return direct;
+    }
+
+    /**
+     * @return number of buffers which were allocated, including the ones allocated to grow a buffer
+     */
+    public long getAllocated() {
+        return allocated.get();
+    }
+
+    /**
+     * @return number of idle buffers in the pool
+     */
+    public int getPooled() {
+        return pooled.get();
+    }
+
+    /**
+     * @return a cleared buffer, taken from the pool if one is idle
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            return allocate(bufferSize);
+        }
+        pooled.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer to the pool. The buffer must not be used afterwards.
+     *
+     * @param buffer buffer which was acquired from this pool
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer.isDirect() != direct) {
+            return;
+        }
+        if (pooled.incrementAndGet() > maxPooled) {
+            pooled.decrementAndGet();
+            return;
+        }
+        buffers.offer(buffer);
+    }
+
+    /**
+     * Copies the content of a full buffer into one of twice its capacity, and returns the full buffer to
+     * the pool.
+     *
+     * @param buffer full buffer in write mode
+     * @return ByteBuffer - larger buffer in write mode, positioned after the copied content
+     */
+    ByteBuffer grow(ByteBuffer buffer) {
+        if (buffer.capacity() > Integer.MAX_VALUE / 2) {
+            throw new IllegalStateException("Response too large for a buffer");
+        }
+        ByteBuffer larger = allocate(buffer.capacity() * 2);
+        buffer.flip();
+        larger.put(buffer);
+        release(buffer);
+        return larger;
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        allocated.incrementAndGet();
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+}
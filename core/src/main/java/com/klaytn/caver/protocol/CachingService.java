@@ -0,0 +1,375 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.protocol;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.klaytn.caver.methods.response.KlayTransaction;
+import io.reactivex.Flowable;
+import org.web3j.crypto.Hash;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.websocket.events.Notification;
+import org.web3j.utils.Async;
+import org.web3j.utils.Numeric;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link BatchService} decorator which caches responses that can never change. Klaytn blocks are final
+ * as soon as they are created, so a block, mined transaction or receipt which was found once, and any state read
+ * at a fixed block number, is answered from the cache afterwards. Reads of latest or pending state and
+ * responses without a result are always sent to the node.
+ *
+ * <p>The cache holds at most {@code maxEntries} responses and evicts the least recently used one. If a
+ * spill directory is given, evicted responses are written there as JSON, up to {@code maxSpillBytes},
+ * and read back on the next request for them.
+ *
+ * <p>Cached responses are shared between callers and must not be modified.
+ *
+ * <pre>
+ * Caver caver = Caver.build(new CachingService(new HttpBatchService(url), 10000));
+ * </pre>
+ */
+public class CachingService implements BatchService, StreamingService {
+
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    /**
+     * Methods whose non-null result never changes once it exists. A transaction looked up by hash is only
+     * final once it has been mined; pending transactions have no block hash and number yet.
+     */
+    private static final Set<String> FINAL_METHODS = new HashSet<>(Arrays.asList(
+            "klay_getBlockByHash", "klay_getBlockWithConsensusInfoByHash", "klay_getBlockReceipts",
+            "klay_getBlockTransactionCountByHash", "klay_getTransactionByBlockHashAndIndex",
+            "klay_getTransactionByHash", "klay_getTransactionBySenderTxHash",
+            "klay_getTransactionReceipt", "klay_getTransactionReceiptBySenderTxHash"));
+
+    /**
+     * Methods whose first parameter is a block number.
+     */
+    private static final Set<String> BLOCK_METHODS = new HashSet<>(Arrays.asList(
+            "klay_getBlockByNumber", "klay_getBlockWithConsensusInfoByNumber",
+            "klay_getBlockTransactionCountByNumber", "klay_getTransactionByBlockNumberAndIndex"));
+
+    /**
+     * Methods which read state at the block number given as their last parameter.
+     */
+    private static final Set<String> STATE_METHODS = new HashSet<>(Arrays.asList(
+            "klay_call", "klay_getAccount", "klay_getAccountKey", "klay_getBalance", "klay_getCode",
+            "klay_getStorageAt", "klay_getTransactionCount", "klay_isContractAccount"));
+
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+    private final BatchService delegate;
+    private final int maxEntries;
+    private final File spillDirectory;
+    private final long maxSpillBytes;
+
+    private final LinkedHashMap<String, Response<?>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, Long> spilledSizes = new LinkedHashMap<>(16, 0.75f, true);
+    private long spilledBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public CachingService(BatchService delegate) {
+        this(delegate, DEFAULT_MAX_ENTRIES);
+    }
+
+    public CachingService(BatchService delegate, int maxEntries) {
+        this(delegate, maxEntries, null, 0);
+    }
+
+    /**
+     * @param delegate       service which sends the requests that are not cached
+     * @param maxEntries     maximum number of responses held in memory
+     * @param spillDirectory directory which receives the responses evicted from memory, or null
+     * @param maxSpillBytes  maximum number of bytes written to the spill directory
+     */
+    public CachingService(BatchService delegate, int maxEntries, File spillDirectory, long maxSpillBytes) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        if (spillDirectory != null && !spillDirectory.isDirectory() && !spillDirectory.mkdirs()) {
+            throw new IllegalArgumentException("Unable to create " + spillDirectory);
+        }
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.spillDirectory = spillDirectory;
+        this.maxSpillBytes = maxSpillBytes;
+    }
+
+    @Override
+    public <T extends Response> T send(Request request, Class<T> responseType) throws IOException {
+        String key = cacheKey(request);
+        T cached = lookup(key, responseType);
+        if (cached != null) {
+            return cached;
+        }
+        return store(key, delegate.send(request, responseType));
+    }
+
+    @Override
+    public <T extends Response> CompletableFuture<T> sendAsync(Request request, Class<T> responseType) {
+        String key = cacheKey(request);
+        T cached = lookup(key, responseType);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return delegate.sendAsync(request, responseType).thenApply(response -> store(key, response));
+    }
+
+    /**
+     * Answers the cached requests of the batch and sends only the others to the delegate.
+     */
+    @Override
+    public BatchResponse sendBatch(BatchRequest batchRequest) throws IOException {
+        List<Request<?, ? extends Response<?>>> requests = batchRequest.getRequests();
+        Response<?>[] responses = new Response<?>[requests.size()];
+        String[] keys = new String[requests.size()];
+        List<Integer> missing = new ArrayList<>();
+        BatchRequest remaining = new BatchRequest(delegate);
+
+        for (int i = 0; i < requests.size(); i++) {
+            Request<?, ? extends Response<?>> request = requests.get(i);
+            Class<Response<?>> responseType = BatchRequest.getResponseType(request);
+            keys[i] = cacheKey(request);
+            responses[i] = lookup(keys[i], responseType);
+            if (responses[i] == null) {
+                missing.add(i);
+                remaining.add(request, responseType);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            BatchResponse sent = remaining.size() == requests.size()
+                    ? delegate.sendBatch(batchRequest)
+                    : delegate.sendBatch(remaining);
+            for (int i = 0; i < missing.size(); i++) {
+                int index = missing.get(i);
+                responses[index] = store(keys[index], sent.getResponses().get(i));
+            }
+        }
+        return new BatchResponse(requests, Arrays.asList(responses));
+    }
+
+    @Override
+    public CompletableFuture<BatchResponse> sendBatchAsync(BatchRequest batchRequest) {
+        return Async.run(() -> sendBatch(batchRequest));
+    }
+
+    /**
+     * Streamed responses are not cached.
+     */
+    @Override
+    public InputStream sendForStream(Request<?, ?> request) throws IOException {
+        return StreamingService.of(delegate).sendForStream(request);
+    }
+
+    @Override
+    public <T extends Notification<?>> Flowable<T> subscribe(
+            Request request, String unsubscribeMethod, Class<T> responseType) {
+        return delegate.subscribe(request, unsubscribeMethod, responseType);
+    }
+
+    @Override
+    public void close() throws IOException {
+        clear();
+        delegate.close();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return number of responses held in memory
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Drops every cached response, including the spilled ones.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        synchronized (spilledSizes) {
+            for (String key : spilledSizes.keySet()) {
+                spillFile(key).delete();
+            }
+            spilledSizes.clear();
+            spilledBytes = 0;
+        }
+    }
+
+    /**
+     * @return key of a request whose response is final once it has a result, otherwise null
+     */
+    String cacheKey(Request<?, ?> request) {
+        String method = request.getMethod();
+        List<?> params = request.getParams();
+        boolean cacheable;
+        if (FINAL_METHODS.contains(method)) {
+            cacheable = true;
+        } else if (BLOCK_METHODS.contains(method)) {
+            cacheable = !params.isEmpty() && isFixedBlock(params.get(0));
+        } else if (STATE_METHODS.contains(method)) {
+            cacheable = params.size() > 1 && isFixedBlock(params.get(params.size() - 1));
+        } else {
+            cacheable = false;
+        }
+        if (!cacheable) {
+            return null;
+        }
+        try {
+            return method + objectMapper.writeValueAsString(params);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private boolean isFixedBlock(Object blockParameter) {
+        JsonNode node = objectMapper.valueToTree(blockParameter);
+        return node.isTextual() && (node.asText().startsWith("0x") || node.asText().equals("earliest"));
+    }
+
+    private <T extends Response> T lookup(String key, Class<T> responseType) {
+        if (key == null) {
+            return null;
+        }
+        Response<?> response;
+        synchronized (entries) {
+            response = entries.get(key);
+        }
+        if (response == null) {
+            response = unspill(key, responseType);
+        }
+        if (!responseType.isInstance(response)) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return responseType.cast(response);
+    }
+
+    private <T extends Response> T store(String key, T response) {
+        if (key == null || response.hasError() || response.getResult() == null || isPending(response)) {
+            return response;
+        }
+        List<Map.Entry<String, Response<?>>> evicted = new ArrayList<>();
+        synchronized (entries) {
+            entries.put(key, response);
+            Iterator<Map.Entry<String, Response<?>>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxEntries) {
+                evicted.add(eldest.next());
+                eldest.remove();
+            }
+        }
+        for (Map.Entry<String, Response<?>> entry : evicted) {
+            spill(entry.getKey(), entry.getValue());
+        }
+        return response;
+    }
+
+    private static boolean isPending(Response<?> response) {
+        if (!(response.getResult() instanceof KlayTransaction.Transaction)) {
+            return false;
+        }
+        KlayTransaction.Transaction transaction = (KlayTransaction.Transaction) response.getResult();
+        return transaction.getBlockNumber() == null || transaction.getBlockHash() == null
+                || Numeric.toBigInt(transaction.getBlockHash()).signum() == 0;
+    }
+
+    private void spill(String key, Response<?> response) {
+        if (spillDirectory == null) {
+            return;
+        }
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(response);
+            if (json.length > maxSpillBytes) {
+                return;
+            }
+            synchronized (spilledSizes) {
+                Files.write(spillFile(key).toPath(), json);
+                Long previous = spilledSizes.put(key, (long) json.length);
+                spilledBytes += json.length - (previous != null ? previous : 0);
+                Iterator<Map.Entry<String, Long>> eldest = spilledSizes.entrySet().iterator();
+                while (spilledBytes > maxSpillBytes) {
+                    Map.Entry<String, Long> entry = eldest.next();
+                    spillFile(entry.getKey()).delete();
+                    spilledBytes -= entry.getValue();
+                    eldest.remove();
+                }
+            }
+        } catch (IOException e) {
+            // a response which can not be spilled is simply dropped
+        }
+    }
+
+    private Response<?> unspill(String key, Class<? extends Response> responseType) {
+        if (spillDirectory == null) {
+            return null;
+        }
+        File file = spillFile(key);
+        synchronized (spilledSizes) {
+            Long size = spilledSizes.remove(key);
+            if (size == null) {
+                return null;
+            }
+            spilledBytes -= size;
+            try {
+                Response<?> response = objectMapper.readValue(file, responseType);
+                file.delete();
+                return store(key, response);
+            } catch (IOException e) {
+                file.delete();
+                return null;
+            }
+        }
+    }
+
+    private File spillFile(String key) {
+        return new File(spillDirectory,
+                Numeric.toHexStringNoPrefix(Hash.sha3(key.getBytes(StandardCharsets.UTF_8))) + ".json");
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.protocol;
+
+import io.reactivex.Flowable;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.websocket.events.Notification;
+import org.web3j.utils.Async;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link BatchService} decorator which coalesces the requests issued within a short window into a
+ * single JSON-RPC batch. Callers keep using {@link Request#send()} and {@link Request#sendAsync()};
+ * each of them is completed with its own response once the batch returns.
+ *
+ * <p>A batch is flushed when the window which started with its first request elapses, or as soon as
+ * it holds {@code maxBatchSize} requests, whichever comes first.
+ *
+ * <pre>
+ * Caver caver = Caver.build(new CoalescingService(new HttpBatchService(url), 5, TimeUnit.MILLISECONDS, 100));
+ * </pre>
+ */
+public class CoalescingService implements BatchService, StreamingService {
+
+    public static final long DEFAULT_WINDOW_MILLIS = 5;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+    private final BatchService delegate;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService scheduledExecutorService;
+
+    private final Object lock = new Object();
+    private List<PendingRequest<?>> pendingRequests = new ArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    public CoalescingService(BatchService delegate) {
+        this(delegate, DEFAULT_WINDOW_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    public CoalescingService(BatchService delegate, long window, TimeUnit unit, int maxBatchSize) {
+        this(delegate, window, unit, maxBatchSize, Async.defaultExecutorService());
+    }
+
+    public CoalescingService(BatchService delegate, long window, TimeUnit unit, int maxBatchSize,
+                             ScheduledExecutorService scheduledExecutorService) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        this.delegate = delegate;
+        this.windowNanos = unit.toNanos(window);
+        this.maxBatchSize = maxBatchSize;
+        this.scheduledExecutorService = scheduledExecutorService;
+    }
+
+    @Override
+    public <T extends Response> T send(Request request, Class<T> responseType) throws IOException {
+        try {
+            return sendAsync(request, responseType).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for " + request.getMethod(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    @Override
+    public <T extends Response> CompletableFuture<T> sendAsync(Request request, Class<T> responseType) {
+        PendingRequest<T> pendingRequest = new PendingRequest<>(request, responseType);
+        List<PendingRequest<?>> full = null;
+
+        synchronized (lock) {
+            pendingRequests.add(pendingRequest);
+            if (pendingRequests.size() >= maxBatchSize) {
+                full = takePendingRequests();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = scheduledExecutorService.schedule(
+                        this::flush, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        if (full != null) {
+            dispatch(full);
+        }
+        return pendingRequest.future;
+    }
+
+    /**
+     * Sends the requests gathered so far without waiting for the window to elapse.
+     */
+    public void flush() {
+        List<PendingRequest<?>> batch;
+        synchronized (lock) {
+            batch = takePendingRequests();
+        }
+        dispatch(batch);
+    }
+
+    @Override
+    public BatchResponse sendBatch(BatchRequest batchRequest) throws IOException {
+        return delegate.sendBatch(batchRequest);
+    }
+
+    @Override
+    public CompletableFuture<BatchResponse> sendBatchAsync(BatchRequest batchRequest) {
+        return delegate.sendBatchAsync(batchRequest);
+    }
+
+    @Override
+    public InputStream sendForStream(Request<?, ?> request) throws IOException {
+        return StreamingService.of(delegate).sendForStream(request);
+    }
+
+    @Override
+    public <T extends Notification<?>> Flowable<T> subscribe(
+            Request request, String unsubscribeMethod, Class<T> responseType) {
+        return delegate.subscribe(request, unsubscribeMethod, responseType);
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        scheduledExecutorService.shutdown();
+        delegate.close();
+    }
+
+    private List<PendingRequest<?>> takePendingRequests() {
+        List<PendingRequest<?>> batch = pendingRequests;
+        pendingRequests = new ArrayList<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(List<PendingRequest<?>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (batch.size() == 1) {
+            batch.get(0).sendAlone(delegate);
+            return;
+        }
+
+        BatchRequest batchRequest = new BatchRequest(delegate);
+        for (PendingRequest<?> pendingRequest : batch) {
+            batchRequest.add(pendingRequest.request, pendingRequest.responseType);
+        }
+        delegate.sendBatchAsync(batchRequest).whenComplete((batchResponse, throwable) -> {
+            for (int i = 0; i < batch.size(); i++) {
+                if (throwable != null) {
+                    batch.get(i).future.completeExceptionally(throwable);
+                } else {
+                    batch.get(i).complete(batchResponse.getResponses().get(i));
+                }
+            }
+        });
+    }
+
+    private static class PendingRequest<T extends Response> {
+        private final Request<?, ? extends Response<?>> request;
+        private final Class<T> responseType;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        @SuppressWarnings("unchecked")
+        PendingRequest(Request request, Class<T> responseType) {
+            this.request = request;
+            this.responseType = responseType;
+        }
+
+        void complete(Response<?> response) {
+            future.complete(responseType.cast(response));
+        }
+
+        void sendAlone(BatchService service) {
+            service.sendAsync(request, responseType).whenComplete((response, throwable) -> {
+                if (throwable != null) {
+                    future.completeExceptionally(throwable);
+                } else {
+                    future.complete(response);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.protocol;
+
+/**
+ * Number of requests which may be in flight to one endpoint, adapted to the endpoint's latency and failures
+ * with additive increase and multiplicative decrease (AIMD).
+ *
+ * <p>The limit grows by one per round of requests which is actually using it, and shrinks by
+ * {@code backoffRatio} at most once per round trip when a request fails to get an answer, or when its
+ * latency exceeds {@code latencyTolerance} times the baseline. The baseline follows the latency of the
+ * healthy requests, and drifts slowly towards slower samples so that an endpoint which became slower for
+ * good gets a new baseline.
+ */
+public class ConcurrencyLimit {
+
+    public static final int DEFAULT_INITIAL_LIMIT = 20;
+    public static final int DEFAULT_MIN_LIMIT = 1;
+    public static final int DEFAULT_MAX_LIMIT = 200;
+    public static final double DEFAULT_BACKOFF_RATIO = 0.9;
+    public static final double DEFAULT_LATENCY_TOLERANCE = 2.0;
+
+    private static final double BASELINE_ALPHA = 0.05;
+    private static final double BASELINE_DRIFT = 0.005;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+
+    private double limit;
+    private double baselineNanos;
+    private long lastDecreaseNanos;
+
+    public ConcurrencyLimit() {
+        this(DEFAULT_INITIAL_LIMIT, DEFAULT_MIN_LIMIT, DEFAULT_MAX_LIMIT,
+                DEFAULT_BACKOFF_RATIO, DEFAULT_LATENCY_TOLERANCE);
+    }
+
+    /**
+     * @param initialLimit     limit before any request completed
+     * @param minLimit         lowest limit, at least 1
+     * @param maxLimit         highest limit
+     * @param backoffRatio     factor applied to the limit on overload, between 0 and 1
+     * @param latencyTolerance latency, as a multiple of the baseline, above which the endpoint is overloaded
+     */
+    public ConcurrencyLimit(int initialLimit, int minLimit, int maxLimit,
+                            double backoffRatio, double latencyTolerance) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= minLimit <= maxLimit");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+        }
+        if (latencyTolerance < 1) {
+            throw new IllegalArgumentException("latencyTolerance must be at least 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return baseline latency in milliseconds, or 0 until a request succeeded
+     */
+    public synchronized double getBaselineMillis() {
+        return baselineNanos / 1_000_000;
+    }
+
+    /**
+     * Adapts the limit to a completed request.
+     *
+     * @param latencyNanos latency of the request
+     * @param inFlight     requests in flight when it completed, including itself
+     * @param dropped      whether it failed to get an answer
+     */
+    public synchronized void onSample(long latencyNanos, int inFlight, boolean dropped) {
+        if (dropped) {
+            decrease(latencyNanos);
+            return;
+        }
+
+        if (baselineNanos == 0) {
+            baselineNanos = latencyNanos;
+        } else if (latencyNanos > latencyTolerance * baselineNanos) {
+            baselineNanos += (latencyNanos - baselineNanos) * BASELINE_DRIFT;
+            decrease(latencyNanos);
+            return;
+        } else {
+            baselineNanos += (latencyNanos - baselineNanos) * BASELINE_ALPHA;
+        }
+
+        // grow only while the limit is what holds requests back
+        if (inFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    private void decrease(long latencyNanos) {
+        long now = System.nanoTime();
+        if (lastDecreaseNanos != 0 && now - lastDecreaseNanos < latencyNanos) {
+            return;
+        }
+        lastDecreaseNanos = now;
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.protocol;
+
+import com.klaytn.caver.ExecutorStrategy;
+import io.reactivex.Flowable;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.websocket.WebSocketService;
+import org.web3j.protocol.websocket.events.Notification;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link BatchService} decorator which runs the asynchronous calls of a blocking transport on the
+ * blocking executor of an {@link ExecutorStrategy}, e.g. on virtual threads, instead of web3j's shared
+ * thread pool. Synchronous calls run on the calling thread as before.
+ */
+public class DispatchingService implements BatchService, StreamingService {
+
+    private final Web3jService delegate;
+    private final ExecutorStrategy executorStrategy;
+
+    public DispatchingService(Web3jService delegate, ExecutorStrategy executorStrategy) {
+        this.delegate = delegate;
+        this.executorStrategy = executorStrategy;
+    }
+
+    /**
+     * Decorates a blocking transport. Transports which already send asynchronously without a thread pool,
+     * {@link WebSocketService} and {@link AsyncHttpService}, are returned as they are, so that their
+     * subscriptions and non-blocking calls stay visible to the caller.
+     *
+     * @param service          transport to decorate
+     * @param executorStrategy executors for the asynchronous calls
+     * @return the decorated transport, or the transport itself
+     */
+    public static Web3jService dispatch(Web3jService service, ExecutorStrategy executorStrategy) {
+        if (service instanceof WebSocketService || service instanceof AsyncHttpService) {
+            return service;
+        }
+        return new DispatchingService(service, executorStrategy);
+    }
+
+    @Override
+    public <T extends Response> T send(Request request, Class<T> responseType) throws IOException {
+        return delegate.send(request, responseType);
+    }
+
+    @Override
+    public <T extends Response> CompletableFuture<T> sendAsync(Request request, Class<T> responseType) {
+        return executorStrategy.supplyBlocking(() -> delegate.send(request, responseType));
+    }
+
+    @Override
+    public BatchResponse sendBatch(BatchRequest batchRequest) throws IOException {
+        return BatchService.send(delegate, batchRequest);
+    }
+
+    @Override
+    public CompletableFuture<BatchResponse> sendBatchAsync(BatchRequest batchRequest) {
+        return executorStrategy.supplyBlocking(() -> sendBatch(batchRequest));
+    }
+
+    @Override
+    public InputStream sendForStream(Request<?, ?> request) throws IOException {
+        return StreamingService.of(delegate).sendForStream(request);
+    }
+
+    @Override
+    public <T extends Notification<?>> Flowable<T> subscribe(
+            Request request, String unsubscribeMethod, Class<T> responseType) {
+        return delegate.subscribe(request, unsubscribeMethod, responseType);
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.protocol;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A node behind a {@link MultiEndpointService}, together with the statistics a {@link Policy} uses to
+ * route requests to it.
+ */
+public class Endpoint {
+
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    private final String name;
+    private final BatchService service;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private volatile double latencyMillis;
+    private volatile boolean healthy = true;
+    private int consecutiveFailures;
+
+    Endpoint(String name, BatchService service) {
+        this.name = name;
+        this.service = service;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public BatchService getService() {
+        return service;
+    }
+
+    /**
+     * @return number of requests sent to this endpoint which have not returned yet
+     */
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * @return exponentially weighted moving average of the response time in milliseconds, 0 before the
+     * first response
+     */
+    public double getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    long begin() {
+        outstanding.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    synchronized void succeeded(long startNanos) {
+        outstanding.decrementAndGet();
+        double elapsed = (System.nanoTime() - startNanos) / 1_000_000.0;
+        latencyMillis = latencyMillis == 0 ? elapsed : latencyMillis + LATENCY_SMOOTHING * (elapsed - latencyMillis);
+        consecutiveFailures = 0;
+    }
+
+    /**
+     * @return true if this failure ejected the endpoint
+     */
+    synchronized boolean failed(int ejectAfterFailures) {
+        outstanding.decrementAndGet();
+        consecutiveFailures++;
+        if (healthy && consecutiveFailures >= ejectAfterFailures) {
+            healthy = false;
+            return true;
+        }
+        return false;
+    }
+
+    synchronized void recovered() {
+        consecutiveFailures = 0;
+        healthy = true;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.protocol;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Settings and counters of hedged reads in a {@link MultiEndpointService}. When an idempotent read has
+ * not been answered within the {@code percentile} of recent read latencies, a duplicate is sent to a
+ * second endpoint and the first answer wins. At most {@code maxHedgeRatio} of all reads are hedged.
+ *
+ * <pre>
+ * MultiEndpointService service = new MultiEndpointService(urls, Policy.leastOutstanding());
+ * service.setHedging(new Hedging(0.95, 0.05));
+ * </pre>
+ */
+public class Hedging {
+
+    public static final double DEFAULT_PERCENTILE = 0.95;
+    public static final double DEFAULT_MAX_HEDGE_RATIO = 0.05;
+    public static final int MIN_SAMPLES = 20;
+
+    private static final int WINDOW_SIZE = 1000;
+    private static final int RECOMPUTE_INTERVAL = 50;
+
+    private final double percentile;
+    private final double maxHedgeRatio;
+
+    private final long[] latencies = new long[WINDOW_SIZE];
+    private int samples;
+    private int nextSample;
+    private volatile long delayMillis = -1;
+
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong hedgesIssued = new AtomicLong();
+    private final AtomicLong hedgesWon = new AtomicLong();
+
+    public Hedging() {
+        this(DEFAULT_PERCENTILE, DEFAULT_MAX_HEDGE_RATIO);
+    }
+
+    /**
+     * @param percentile    latency percentile after which a read is hedged, e.g. 0.95
+     * @param maxHedgeRatio maximum share of reads which are hedged, e.g. 0.05
+     */
+    public Hedging(double percentile, double maxHedgeRatio) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("percentile must be between 0 and 1");
+        }
+        this.percentile = percentile;
+        this.maxHedgeRatio = maxHedgeRatio;
+    }
+
+    /**
+     * @return number of hedgeable reads sent
+     */
+    public long getReads() {
+        return reads.get();
+    }
+
+    /**
+     * @return number of duplicate requests sent
+     */
+    public long getHedgesIssued() {
+        return hedgesIssued.get();
+    }
+
+    /**
+     * @return number of reads which were answered by the duplicate request first
+     */
+    public long getHedgesWon() {
+        return hedgesWon.get();
+    }
+
+    /**
+     * @return current hedge delay in milliseconds, or -1 while too few latencies were recorded
+     */
+    public long getDelayMillis() {
+        return delayMillis;
+    }
+
+    void readStarted() {
+        reads.incrementAndGet();
+    }
+
+    synchronized void record(long latencyMillis) {
+        latencies[nextSample] = latencyMillis;
+        nextSample = (nextSample + 1) % WINDOW_SIZE;
+        samples = Math.min(samples + 1, WINDOW_SIZE);
+        if (samples >= MIN_SAMPLES && (delayMillis < 0 || nextSample % RECOMPUTE_INTERVAL == 0)) {
+            long[] sorted = Arrays.copyOf(latencies, samples);
+            Arrays.sort(sorted);
+            delayMillis = Math.max(1, sorted[(int) Math.min(samples - 1, Math.floor(percentile * samples))]);
+        }
+    }
+
+    /**
+     * @return true if another hedge stays within the hedge rate, in which case it is counted as issued
+     */
+    boolean tryHedge() {
+        while (true) {
+            long issued = hedgesIssued.get();
+            if (issued + 1 > maxHedgeRatio * reads.get()) {
+                return false;
+            }
+            if (hedgesIssued.compareAndSet(issued, issued + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void hedgeWon() {
+        hedgesWon.incrementAndGet();
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.protocol;
+
+import okhttp3.OkHttpClient;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.utils.Async;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * HTTP transport which, in addition to single requests, posts {@link BatchRequest}s as one JSON-RPC array
+ * and streams large responses to a {@link ResponseStream}.
+ */
+public class HttpBatchService extends HttpService implements BatchService, StreamingService {
+
+    private volatile RpcMetrics rpcMetrics = RpcMetrics.NONE;
+
+    public HttpBatchService(String url, OkHttpClient httpClient, boolean includeRawResponses) {
+        super(url, httpClient, includeRawResponses);
+    }
+
+    public HttpBatchService(String url, OkHttpClient httpClient) {
+        super(url, httpClient);
+    }
+
+    public HttpBatchService(String url, boolean includeRawResponse) {
+        super(url, includeRawResponse);
+    }
+
+    public HttpBatchService(String url) {
+        super(url);
+    }
+
+    /**
+     * @param url        url of the node
+     * @param rpcMetrics metrics to report the size of every request and response body to
+     */
+    public HttpBatchService(String url, RpcMetrics rpcMetrics) {
+        super(url);
+        setRpcMetrics(rpcMetrics);
+    }
+
+    public HttpBatchService() {
+        super();
+    }
+
+    public RpcMetrics getRpcMetrics() {
+        return rpcMetrics;
+    }
+
+    /**
+     * Reports the size of every request and response body to the given metrics, usually those of the
+     * {@link MeteredService} which decorates this service.
+     *
+     * @param rpcMetrics metrics to report to
+     */
+    public void setRpcMetrics(RpcMetrics rpcMetrics) {
+        this.rpcMetrics = rpcMetrics == null ? RpcMetrics.NONE : rpcMetrics;
+    }
+
+    @Override
+    public <T extends Response> T send(Request request, Class<T> responseType) throws IOException {
+        String payload = objectMapper.writeValueAsString(request);
+        try (CountingInputStream result = count(performIO(payload))) {
+            T response = result == null ? null : objectMapper.readValue(result, responseType);
+            rpcMetrics.onBytes(request.getMethod(), utf8Length(payload), result == null ? 0 : result.getCount());
+            return response;
+        }
+    }
+
+    @Override
+    public BatchResponse sendBatch(BatchRequest batchRequest) throws IOException {
+        if (batchRequest.size() == 0) {
+            return batchRequest.decode(objectMapper, null);
+        }
+
+        String payload = objectMapper.writeValueAsString(batchRequest.getRequests());
+        try (CountingInputStream result = count(performIO(payload))) {
+            BatchResponse batchResponse = batchRequest.decode(objectMapper, result);
+            rpcMetrics.onBytes(RpcMetrics.BATCH, utf8Length(payload), result == null ? 0 : result.getCount());
+            return batchResponse;
+        }
+    }
+
+    @Override
+    public CompletableFuture<BatchResponse> sendBatchAsync(BatchRequest batchRequest) {
+        return Async.run(() -> sendBatch(batchRequest));
+    }
+
+    @Override
+    public InputStream sendForStream(Request<?, ?> request) throws IOException {
+        return performIO(objectMapper.writeValueAsString(request));
+    }
+
+    static CountingInputStream count(InputStream in) {
+        return in == null ? null : new CountingInputStream(in);
+    }
+
+    /**
+     * @return number of bytes of the payload once it is encoded as UTF-8 for the request body
+     */
+    static long utf8Length(String payload) {
+        long length = 0;
+        for (int i = 0; i < payload.length(); i++) {
+            char c = payload.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < payload.length()
+                    && Character.isLowSurrogate(payload.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
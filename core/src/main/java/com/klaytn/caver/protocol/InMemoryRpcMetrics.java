@@ -0,0 +1,200 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.protocol;
+
+import org.web3j.protocol.core.Response;
+
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link RpcMetrics} which keeps call counts, error counts by JSON-RPC error code, a
+ * {@link LatencyHistogram}, body sizes and the number of calls in flight per method in memory.
+ *
+ * <pre>
+ * InMemoryRpcMetrics metrics = new InMemoryRpcMetrics();
+ * Caver caver = Caver.build(new MeteredService(new HttpBatchService(url, metrics), metrics));
+ * ...
+ * metrics.dump(System.out);
+ * </pre>
+ */
+public class InMemoryRpcMetrics implements RpcMetrics {
+
+    private final ConcurrentMap<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+    @Override
+    public void onRequest(String method) {
+        getOrCreate(method).inFlight.incrementAndGet();
+    }
+
+    @Override
+    public void onResponse(String method, long latencyNanos, Response.Error error) {
+        MethodMetrics metrics = complete(method, latencyNanos);
+        if (error != null) {
+            metrics.errors.computeIfAbsent(error.getCode(), code -> new LongAdder()).increment();
+        }
+    }
+
+    @Override
+    public void onFailure(String method, long latencyNanos, Throwable cause) {
+        complete(method, latencyNanos).failures.increment();
+    }
+
+    @Override
+    public void onBytes(String method, long requestBytes, long responseBytes) {
+        MethodMetrics metrics = getOrCreate(method);
+        metrics.requestBytes.add(requestBytes);
+        metrics.responseBytes.add(responseBytes);
+    }
+
+    /**
+     * @param method JSON-RPC method
+     * @return metrics of the method, or null if it was never called
+     */
+    public MethodMetrics getMethod(String method) {
+        return methods.get(method);
+    }
+
+    /**
+     * @return metrics of every method called so far, sorted by method name
+     */
+    public Map<String, MethodMetrics> getMethods() {
+        return Collections.unmodifiableMap(new TreeMap<>(methods));
+    }
+
+    public long getInFlight() {
+        long inFlight = 0;
+        for (MethodMetrics metrics : methods.values()) {
+            inFlight += metrics.getInFlight();
+        }
+        return inFlight;
+    }
+
+    public void clear() {
+        methods.clear();
+    }
+
+    /**
+     * Prints a table of the metrics of every method, with latencies in milliseconds.
+     *
+     * @param out stream to print to, e.g. {@code System.out}
+     */
+    public void dump(PrintStream out) {
+        out.println(String.format("%-36s %8s %7s %8s %8s %8s %8s %12s %12s %6s",
+                "method", "calls", "errors", "p50", "p90", "p99", "max", "sent", "received", "active"));
+        for (Map.Entry<String, MethodMetrics> entry : getMethods().entrySet()) {
+            MethodMetrics metrics = entry.getValue();
+            LatencyHistogram latency = metrics.getLatency();
+            out.println(String.format("%-36s %8d %7d %8.1f %8.1f %8.1f %8.1f %12d %12d %6d",
+                    entry.getKey(), metrics.getCalls(), metrics.getErrors() + metrics.getFailures(),
+                    millis(latency.getValueAtPercentile(50, TimeUnit.MICROSECONDS)),
+                    millis(latency.getValueAtPercentile(90, TimeUnit.MICROSECONDS)),
+                    millis(latency.getValueAtPercentile(99, TimeUnit.MICROSECONDS)),
+                    millis(latency.getMax(TimeUnit.MICROSECONDS)),
+                    metrics.getRequestBytes(), metrics.getResponseBytes(), metrics.getInFlight()));
+            for (Map.Entry<Integer, Long> error : metrics.getErrorCounts().entrySet()) {
+                out.println(String.format("    error %d: %d", error.getKey(), error.getValue()));
+            }
+        }
+    }
+
+    private MethodMetrics complete(String method, long latencyNanos) {
+        MethodMetrics metrics = getOrCreate(method);
+        metrics.inFlight.decrementAndGet();
+        metrics.latency.record(latencyNanos);
+        return metrics;
+    }
+
+    private MethodMetrics getOrCreate(String method) {
+        MethodMetrics metrics = methods.get(method);
+        return metrics != null ? metrics : methods.computeIfAbsent(method, key -> new MethodMetrics());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    public static class MethodMetrics {
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final ConcurrentMap<Integer, LongAdder> errors = new ConcurrentHashMap<>();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder requestBytes = new LongAdder();
+        private final LongAdder responseBytes = new LongAdder();
+        private final AtomicLong inFlight = new AtomicLong();
+
+        /**
+         * @return number of completed calls, including the failed ones
+         */
+        public long getCalls() {
+            return latency.getCount();
+        }
+
+        /**
+         * @return number of calls which the node answered with a JSON-RPC error
+         */
+        public long getErrors() {
+            long sum = 0;
+            for (LongAdder count : errors.values()) {
+                sum += count.sum();
+            }
+            return sum;
+        }
+
+        /**
+         * @return number of calls answered with a JSON-RPC error, by error code
+         */
+        public Map<Integer, Long> getErrorCounts() {
+            Map<Integer, Long> counts = new TreeMap<>();
+            for (Map.Entry<Integer, LongAdder> entry : errors.entrySet()) {
+                counts.put(entry.getKey(), entry.getValue().sum());
+            }
+            return counts;
+        }
+
+        /**
+         * @return number of calls which got no answer from the node
+         */
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        public long getRequestBytes() {
+            return requestBytes.sum();
+        }
+
+        public long getResponseBytes() {
+            return responseBytes.sum();
+        }
+
+        public long getInFlight() {
+            return inFlight.get();
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+    }
+}
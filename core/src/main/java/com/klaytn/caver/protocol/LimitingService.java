@@ -0,0 +1,385 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.protocol;
+
+import io.reactivex.Flowable;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.websocket.events.Notification;
+import org.web3j.utils.Async;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * A {@link BatchService} decorator which bounds the requests in flight to one endpoint by an adaptive
+ * {@link ConcurrencyLimit}. Requests beyond the limit wait in a queue ordered by {@link Priority}, so
+ * that a transaction is sent before the background reads queued ahead of it. When the queue is full the
+ * request of the lowest priority is shed, and a request which waited longer than {@code maxWait} is shed
+ * as well; either way it fails with a {@link RequestShedException}. A batch takes a single slot with the
+ * highest priority of its requests.
+ *
+ * <p>To limit each endpoint of a {@link MultiEndpointService} separately, wrap the service of each one:
+ * <pre>
+ * Map&lt;String, BatchService&gt; services = new LinkedHashMap&lt;&gt;();
+ * for (String url : urls) {
+ *     services.put(url, new LimitingService(new HttpBatchService(url)));
+ * }
+ * Caver caver = Caver.build(new MultiEndpointService(services, Policy.leastOutstanding(), ...));
+ * </pre>
+ */
+public class LimitingService implements BatchService, StreamingService {
+
+    public static final int DEFAULT_MAX_QUEUED = 1000;
+    public static final long DEFAULT_MAX_WAIT_MILLIS = 10000;
+
+    private static final Comparator<Waiter> ORDER = Comparator
+            .comparing((Waiter waiter) -> waiter.priority)
+            .thenComparingLong(waiter -> waiter.sequence);
+
+    private final Web3jService delegate;
+    private final ConcurrencyLimit limit;
+    private final int maxQueued;
+    private final long maxWaitNanos;
+    private final Function<String, Priority> priorities;
+    private final ScheduledExecutorService scheduledExecutorService;
+
+    private final Object lock = new Object();
+    private final TreeSet<Waiter> queue = new TreeSet<>(ORDER);
+    private int inFlight;
+    private long sequence;
+    private final AtomicLong shed = new AtomicLong();
+
+    public LimitingService(Web3jService delegate) {
+        this(delegate, new ConcurrencyLimit(), DEFAULT_MAX_QUEUED,
+                DEFAULT_MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS, Priority::of);
+    }
+
+    /**
+     * @param delegate   transport of the endpoint
+     * @param limit      limit of the requests in flight
+     * @param maxQueued  number of requests which may wait for a slot
+     * @param maxWait    time a request may wait for a slot
+     * @param unit       unit of maxWait
+     * @param priorities priority of each JSON-RPC method, e.g. {@link Priority#of(String)}
+     */
+    public LimitingService(Web3jService delegate, ConcurrencyLimit limit, int maxQueued,
+                           long maxWait, TimeUnit unit, Function<String, Priority> priorities) {
+        this(delegate, limit, maxQueued, maxWait, unit, priorities, Async.defaultExecutorService());
+    }
+
+    /**
+     * @param delegate                 transport of the endpoint
+     * @param limit                    limit of the requests in flight
+     * @param maxQueued                number of requests which may wait for a slot
+     * @param maxWait                  time a request may wait for a slot
+     * @param unit                     unit of maxWait
+     * @param priorities               priority of each JSON-RPC method, e.g. {@link Priority#of(String)}
+     * @param scheduledExecutorService scheduler which sheds asynchronous requests after maxWait
+     */
+    public LimitingService(Web3jService delegate, ConcurrencyLimit limit, int maxQueued,
+                           long maxWait, TimeUnit unit, Function<String, Priority> priorities,
+                           ScheduledExecutorService scheduledExecutorService) {
+        if (maxQueued < 0) {
+            throw new IllegalArgumentException("maxQueued must not be negative");
+        }
+        this.delegate = delegate;
+        this.limit = limit;
+        this.maxQueued = maxQueued;
+        this.maxWaitNanos = unit.toNanos(maxWait);
+        this.priorities = priorities;
+        this.scheduledExecutorService = scheduledExecutorService;
+    }
+
+    public ConcurrencyLimit getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        synchronized (lock) {
+            return inFlight;
+        }
+    }
+
+    public int getQueued() {
+        synchronized (lock) {
+            return queue.size();
+        }
+    }
+
+    /**
+     * @return number of requests shed so far
+     */
+    public long getShed() {
+        return shed.get();
+    }
+
+    @Override
+    public <T extends Response> T send(Request request, Class<T> responseType) throws IOException {
+        awaitSlot(priorities.apply(request.getMethod()));
+        return call(() -> delegate.send(request, responseType));
+    }
+
+    @Override
+    public <T extends Response> CompletableFuture<T> sendAsync(Request request, Class<T> responseType) {
+        return whenSlot(priorities.apply(request.getMethod()), () -> delegate.sendAsync(request, responseType));
+    }
+
+    @Override
+    public BatchResponse sendBatch(BatchRequest batchRequest) throws IOException {
+        awaitSlot(priorityOf(batchRequest));
+        return call(() -> BatchService.send(delegate, batchRequest));
+    }
+
+    @Override
+    public CompletableFuture<BatchResponse> sendBatchAsync(BatchRequest batchRequest) {
+        if (!(delegate instanceof BatchService)) {
+            return Async.run(() -> sendBatch(batchRequest));
+        }
+        return whenSlot(priorityOf(batchRequest), () -> ((BatchService) delegate).sendBatchAsync(batchRequest));
+    }
+
+    /**
+     * Holds a slot until the response headers arrive; reading the body does not count against the limit.
+     */
+    @Override
+    public InputStream sendForStream(Request<?, ?> request) throws IOException {
+        awaitSlot(priorities.apply(request.getMethod()));
+        return call(() -> StreamingService.of(delegate).sendForStream(request));
+    }
+
+    @Override
+    public <T extends Notification<?>> Flowable<T> subscribe(
+            Request request, String unsubscribeMethod, Class<T> responseType) {
+        return delegate.subscribe(request, unsubscribeMethod, responseType);
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    private Priority priorityOf(BatchRequest batchRequest) {
+        Priority priority = Priority.LOW;
+        for (Request<?, ? extends Response<?>> request : batchRequest.getRequests()) {
+            Priority requestPriority = priorities.apply(request.getMethod());
+            if (requestPriority.compareTo(priority) < 0) {
+                priority = requestPriority;
+            }
+        }
+        return priority;
+    }
+
+    private <T> T call(Call<T> call) throws IOException {
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            T result = call.call();
+            dropped = false;
+            return result;
+        } catch (RuntimeException e) {
+            dropped = false;
+            throw e;
+        } finally {
+            release(System.nanoTime() - start, dropped);
+        }
+    }
+
+    private <T> CompletableFuture<T> whenSlot(Priority priority, AsyncCall<T> call) {
+        Waiter waiter = enqueue(priority);
+        CompletableFuture<Void> slot = CompletableFuture.completedFuture(null);
+        if (waiter != null) {
+            slot = waiter.granted;
+            if (!slot.isDone()) {
+                ScheduledFuture<?> timeout = scheduledExecutorService.schedule(
+                        () -> expire(waiter), maxWaitNanos, TimeUnit.NANOSECONDS);
+                slot.whenComplete((ignored, throwable) -> timeout.cancel(false));
+            }
+        }
+        return slot.thenCompose(ignored -> {
+            long start = System.nanoTime();
+            CompletableFuture<T> future;
+            try {
+                future = call.call();
+            } catch (RuntimeException e) {
+                release(System.nanoTime() - start, false);
+                throw e;
+            }
+            return future.whenComplete((result, throwable) ->
+                    release(System.nanoTime() - start, throwable != null && isDropped(throwable)));
+        });
+    }
+
+    private void awaitSlot(Priority priority) throws IOException {
+        Waiter waiter = enqueue(priority);
+        if (waiter == null) {
+            return;
+        }
+        try {
+            waiter.granted.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // unless it was granted or shed while timing out
+            expire(waiter);
+            join(waiter);
+        } catch (InterruptedException e) {
+            boolean granted;
+            synchronized (lock) {
+                queue.remove(waiter);
+                granted = waiter.slotTaken;
+            }
+            if (granted) {
+                freeSlot();
+            }
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a slot");
+        } catch (ExecutionException e) {
+            throw (IOException) e.getCause();
+        }
+    }
+
+    private static void join(Waiter waiter) throws IOException {
+        try {
+            waiter.granted.join();
+        } catch (RuntimeException e) {
+            throw (IOException) e.getCause();
+        }
+    }
+
+    /**
+     * Sheds a waiter which is still queued.
+     */
+    private void expire(Waiter waiter) {
+        synchronized (lock) {
+            if (!queue.remove(waiter)) {
+                return;
+            }
+        }
+        shed.incrementAndGet();
+        waiter.granted.completeExceptionally(timedOut(waiter.priority));
+    }
+
+    /**
+     * @return null if a slot was taken right away, otherwise the waiter which is granted a slot later
+     */
+    private Waiter enqueue(Priority priority) {
+        Waiter waiter;
+        Waiter rejected;
+        synchronized (lock) {
+            if (queue.isEmpty() && inFlight < limit.getLimit()) {
+                inFlight++;
+                return null;
+            }
+            waiter = new Waiter(priority, sequence++);
+            rejected = waiter;
+            if (queue.size() < maxQueued) {
+                queue.add(waiter);
+                rejected = null;
+            } else if (maxQueued > 0 && ORDER.compare(waiter, queue.last()) < 0) {
+                rejected = queue.pollLast();
+                queue.add(waiter);
+            }
+        }
+        if (rejected != null) {
+            shed.incrementAndGet();
+            rejected.granted.completeExceptionally(new RequestShedException(
+                    "Request shed: " + maxQueued + " requests are already waiting", rejected.priority));
+        }
+        return waiter;
+    }
+
+    private void release(long latencyNanos, boolean dropped) {
+        synchronized (lock) {
+            limit.onSample(latencyNanos, inFlight, dropped);
+        }
+        freeSlot();
+    }
+
+    private void freeSlot() {
+        List<Waiter> granted = new ArrayList<>();
+        List<Waiter> expired = new ArrayList<>();
+        synchronized (lock) {
+            inFlight--;
+            long now = System.nanoTime();
+            while (!queue.isEmpty() && inFlight < limit.getLimit()) {
+                Waiter waiter = queue.pollFirst();
+                if (now - waiter.enqueuedNanos > maxWaitNanos) {
+                    expired.add(waiter);
+                } else {
+                    inFlight++;
+                    waiter.slotTaken = true;
+                    granted.add(waiter);
+                }
+            }
+        }
+        for (Waiter waiter : expired) {
+            shed.incrementAndGet();
+            waiter.granted.completeExceptionally(timedOut(waiter.priority));
+        }
+        for (Waiter waiter : granted) {
+            waiter.granted.complete(null);
+        }
+    }
+
+    private RequestShedException timedOut(Priority priority) {
+        return new RequestShedException("Request shed: waited longer than "
+                + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + "ms for a slot", priority);
+    }
+
+    private static boolean isDropped(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException
+                && throwable.getCause() != null ? throwable.getCause() : throwable;
+        return cause instanceof IOException;
+    }
+
+    private interface Call<T> {
+        T call() throws IOException;
+    }
+
+    private interface AsyncCall<T> {
+        CompletableFuture<T> call();
+    }
+
+    private static class Waiter {
+        private final Priority priority;
+        private final long sequence;
+        private final long enqueuedNanos = System.nanoTime();
+        private final CompletableFuture<Void> granted = new CompletableFuture<>();
+        // set under the lock when the waiter takes a slot, which its future only reports afterwards
+        private boolean slotTaken;
+
+        Waiter(Priority priority, long sequence) {
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.protocol;
+
+import io.reactivex.Flowable;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.websocket.events.Notification;
+import org.web3j.utils.Async;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link BatchService} decorator which reports every call to {@link RpcMetrics}: when it starts, and
+ * its latency and outcome when it ends. Each request of a batch is reported as a call of its own whose
+ * latency is that of the whole batch.
+ *
+ * <p>The size of the bodies is reported by the transport, so an {@link HttpBatchService} is given the same
+ * metrics itself. Subscriptions are passed through without being metered.
+ *
+ * <pre>
+ * InMemoryRpcMetrics metrics = new InMemoryRpcMetrics();
+ * Caver caver = Caver.build(new MeteredService(new HttpBatchService(url, metrics), metrics));
+ * </pre>
+ */
+public class MeteredService implements BatchService, StreamingService {
+
+    private final Web3jService delegate;
+    private final RpcMetrics metrics;
+
+    public MeteredService(Web3jService delegate, RpcMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    public RpcMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public <T extends Response> T send(Request request, Class<T> responseType) throws IOException {
+        String method = request.getMethod();
+        metrics.onRequest(method);
+        long start = System.nanoTime();
+        try {
+            T response = delegate.send(request, responseType);
+            metrics.onResponse(method, System.nanoTime() - start, response == null ? null : response.getError());
+            return response;
+        } catch (IOException | RuntimeException e) {
+            metrics.onFailure(method, System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public <T extends Response> CompletableFuture<T> sendAsync(Request request, Class<T> responseType) {
+        String method = request.getMethod();
+        metrics.onRequest(method);
+        long start = System.nanoTime();
+        CompletableFuture<T> future = delegate.sendAsync(request, responseType);
+        future.whenComplete((response, throwable) -> {
+            if (throwable != null) {
+                metrics.onFailure(method, System.nanoTime() - start, throwable);
+            } else {
+                metrics.onResponse(method, System.nanoTime() - start, response == null ? null : response.getError());
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public BatchResponse sendBatch(BatchRequest batchRequest) throws IOException {
+        List<Request<?, ? extends Response<?>>> requests = batchRequest.getRequests();
+        for (Request<?, ? extends Response<?>> request : requests) {
+            metrics.onRequest(request.getMethod());
+        }
+        long start = System.nanoTime();
+        try {
+            BatchResponse batchResponse = BatchService.send(delegate, batchRequest);
+            onBatchResponse(batchResponse, System.nanoTime() - start);
+            return batchResponse;
+        } catch (IOException | RuntimeException e) {
+            onBatchFailure(requests, System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<BatchResponse> sendBatchAsync(BatchRequest batchRequest) {
+        if (!(delegate instanceof BatchService)) {
+            return Async.run(() -> sendBatch(batchRequest));
+        }
+        List<Request<?, ? extends Response<?>>> requests = batchRequest.getRequests();
+        for (Request<?, ? extends Response<?>> request : requests) {
+            metrics.onRequest(request.getMethod());
+        }
+        long start = System.nanoTime();
+        CompletableFuture<BatchResponse> future = ((BatchService) delegate).sendBatchAsync(batchRequest);
+        future.whenComplete((batchResponse, throwable) -> {
+            if (throwable != null) {
+                onBatchFailure(requests, System.nanoTime() - start, throwable);
+            } else {
+                onBatchResponse(batchResponse, System.nanoTime() - start);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Records the latency until the response headers arrive. Errors inside the streamed body are not seen.
+     */
+    @Override
+    public InputStream sendForStream(Request<?, ?> request) throws IOException {
+        String method = request.getMethod();
+        metrics.onRequest(method);
+        long start = System.nanoTime();
+        try {
+            InputStream response = StreamingService.of(delegate).sendForStream(request);
+            metrics.onResponse(method, System.nanoTime() - start, null);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            metrics.onFailure(method, System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public <T extends Notification<?>> Flowable<T> subscribe(
+            Request request, String unsubscribeMethod, Class<T> responseType) {
+        return delegate.subscribe(request, unsubscribeMethod, responseType);
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    private void onBatchResponse(BatchResponse batchResponse, long latencyNanos) {
+        List<Request<?, ? extends Response<?>>> requests = batchResponse.getRequests();
+        List<Response<?>> responses = batchResponse.getResponses();
+        for (int i = 0; i < requests.size(); i++) {
+            Response<?> response = responses.get(i);
+            metrics.onResponse(requests.get(i).getMethod(), latencyNanos, response == null ? null : response.getError());
+        }
+    }
+
+    private void onBatchFailure(List<Request<?, ? extends Response<?>>> requests, long latencyNanos, Throwable cause) {
+        for (Request<?, ? extends Response<?>> request : requests) {
+            metrics.onFailure(request.getMethod(), latencyNanos, cause);
+        }
+    }
+}
@@ -0,0 +1,554 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.protocol;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.klaytn.caver.methods.response.Quantity;
+import com.klaytn.caver.tx.type.TxType;
+import com.klaytn.caver.utils.KlayTransactionUtils;
+import com.klaytn.caver.utils.TransactionDecoder;
+import io.reactivex.Flowable;
+import org.web3j.crypto.SignedRawTransaction;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.websocket.events.Notification;
+import org.web3j.utils.Async;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A {@link BatchService} which spreads requests over several endpoint nodes.
+ *
+ * <ul>
+ * <li>Reads are routed by a {@link Policy} and retried on another endpoint if the transport fails.</li>
+ * <li>Transactions (klay_sendRawTransaction, klay_sendTransaction) and pending nonce queries of one
+ * sender stick to one endpoint, so the node sees that sender's nonces in order. They are not retried.</li>
+ * <li>Filter requests go to the endpoint which installed the filter.</li>
+ * <li>An endpoint is ejected after {@code ejectAfterFailures} consecutive transport failures and probed
+ * with klay_blockNumber every probe interval until it responds again.</li>
+ * <li>With {@link #setHedging(Hedging)}, idempotent reads which are slower than the hedge delay are
+ * duplicated to a second endpoint and answered by whichever responds first. Writes are never hedged.</li>
+ * </ul>
+ *
+ * <pre>
+ * Caver caver = Caver.build(Arrays.asList(url1, url2, url3), Policy.leastOutstanding());
+ * </pre>
+ */
+public class MultiEndpointService implements BatchService, StreamingService {
+
+    public static final int DEFAULT_EJECT_AFTER_FAILURES = 3;
+    public static final long DEFAULT_PROBE_INTERVAL_MILLIS = 5000;
+
+    private static final Set<String> WRITE_METHODS = new HashSet<>(Arrays.asList(
+            "klay_sendRawTransaction", "klay_sendTransaction"));
+    private static final Set<String> FILTER_CREATE_METHODS = new HashSet<>(Arrays.asList(
+            "klay_newFilter", "klay_newBlockFilter", "klay_newPendingTransactionFilter"));
+    private static final Set<String> FILTER_METHODS = new HashSet<>(Arrays.asList(
+            "klay_getFilterChanges", "klay_getFilterLogs", "klay_uninstallFilter"));
+    private static final Set<String> HEDGEABLE_METHODS = new HashSet<>(Arrays.asList(
+            "klay_blockNumber", "klay_call", "klay_estimateGas", "klay_estimateComputationCost",
+            "klay_gasPrice", "klay_getAccount", "klay_getAccountKey", "klay_getBalance",
+            "klay_getBlockByHash", "klay_getBlockByNumber", "klay_getBlockReceipts",
+            "klay_getBlockTransactionCountByHash", "klay_getBlockTransactionCountByNumber",
+            "klay_getBlockWithConsensusInfoByHash", "klay_getBlockWithConsensusInfoByNumber",
+            "klay_getCode", "klay_getLogs", "klay_getStorageAt", "klay_getTransactionByBlockHashAndIndex",
+            "klay_getTransactionByBlockNumberAndIndex", "klay_getTransactionByHash",
+            "klay_getTransactionBySenderTxHash", "klay_getTransactionCount", "klay_getTransactionReceipt",
+            "klay_getTransactionReceiptBySenderTxHash", "klay_isContractAccount"));
+
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+    private final List<Endpoint> endpoints;
+    private final Policy policy;
+    private final int ejectAfterFailures;
+    private final ScheduledExecutorService scheduledExecutorService;
+    private final Map<String, Endpoint> senderEndpoints = new ConcurrentHashMap<>();
+    private final Map<BigInteger, Endpoint> filterEndpoints = new ConcurrentHashMap<>();
+    private volatile Hedging hedging;
+
+    public MultiEndpointService(List<String> urls, Policy policy) {
+        this(toServices(urls), policy, DEFAULT_EJECT_AFTER_FAILURES,
+                DEFAULT_PROBE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS, Async.defaultExecutorService());
+    }
+
+    /**
+     * @param services                 endpoint services by name, e.g. by url
+     * @param policy                   routing policy for reads
+     * @param ejectAfterFailures       number of consecutive transport failures which eject an endpoint
+     * @param probeInterval            interval between recovery probes of ejected endpoints
+     * @param unit                     unit of probeInterval
+     * @param scheduledExecutorService scheduler which runs the probes
+     */
+    public MultiEndpointService(Map<String, ? extends BatchService> services, Policy policy, int ejectAfterFailures,
+                                long probeInterval, TimeUnit unit,
+                                ScheduledExecutorService scheduledExecutorService) {
+        if (services.isEmpty()) {
+            throw new IllegalArgumentException("At least one endpoint is required");
+        }
+        List<Endpoint> endpoints = new ArrayList<>();
+        for (Map.Entry<String, ? extends BatchService> service : services.entrySet()) {
+            endpoints.add(new Endpoint(service.getKey(), service.getValue()));
+        }
+        this.endpoints = Collections.unmodifiableList(endpoints);
+        this.policy = policy;
+        this.ejectAfterFailures = ejectAfterFailures;
+        this.scheduledExecutorService = scheduledExecutorService;
+        scheduledExecutorService.scheduleWithFixedDelay(this::probe, probeInterval, probeInterval, unit);
+    }
+
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Enables hedged reads, or disables them if hedging is null.
+     */
+    public void setHedging(Hedging hedging) {
+        this.hedging = hedging;
+    }
+
+    public Hedging getHedging() {
+        return hedging;
+    }
+
+    @Override
+    public <T extends Response> T send(Request request, Class<T> responseType) throws IOException {
+        String method = request.getMethod();
+        if (FILTER_METHODS.contains(method)) {
+            Endpoint endpoint = filterEndpoints.get(filterId(request));
+            T response = call(endpoint != null ? endpoint : select(),
+                    service -> service.send(request, responseType));
+            if (method.equals("klay_uninstallFilter")) {
+                filterEndpoints.remove(filterId(request));
+            }
+            return response;
+        }
+
+        String sender = stickySender(request);
+        if (sender != null) {
+            return call(senderEndpoint(sender), service -> service.send(request, responseType));
+        }
+
+        Set<Endpoint> tried = new HashSet<>();
+        Hedging hedging = this.hedging;
+        if (hedging != null && endpoints.size() > 1 && HEDGEABLE_METHODS.contains(method)) {
+            try {
+                return sendHedged(request, responseType, hedging, tried);
+            } catch (IOException e) {
+                if (tried.size() >= endpoints.size()) {
+                    throw e;
+                }
+            }
+        }
+        while (true) {
+            Endpoint endpoint = select(tried);
+            tried.add(endpoint);
+            try {
+                T response = call(endpoint, service -> service.send(request, responseType));
+                if (FILTER_CREATE_METHODS.contains(method) && !response.hasError()) {
+                    filterEndpoints.put(Numeric.toBigInt((String) response.getResult()), endpoint);
+                }
+                return response;
+            } catch (IOException e) {
+                if (FILTER_CREATE_METHODS.contains(method) || tried.size() >= endpoints.size()) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    @Override
+    public <T extends Response> CompletableFuture<T> sendAsync(Request request, Class<T> responseType) {
+        return Async.run(() -> send(request, responseType));
+    }
+
+    /**
+     * Splits the batch by endpoint: transactions and pending nonce queries go to the endpoint of their
+     * sender, filter requests to the endpoint which installed the filter, and the remaining reads to one
+     * endpoint chosen by the policy, retried on another endpoint if the transport fails. The parts are
+     * sent in parallel and their responses merged by request id, in the order of the batch.
+     */
+    @Override
+    public BatchResponse sendBatch(BatchRequest batchRequest) throws IOException {
+        List<Request<?, ? extends Response<?>>> requests = batchRequest.getRequests();
+        Map<Endpoint, BatchRequest> pinned = new LinkedHashMap<>();
+        BatchRequest reads = new BatchRequest(this);
+        boolean createsFilter = false;
+        for (Request<?, ? extends Response<?>> request : requests) {
+            String method = request.getMethod();
+            Endpoint endpoint = null;
+            if (FILTER_METHODS.contains(method)) {
+                endpoint = filterEndpoints.get(filterId(request));
+            } else {
+                String sender = stickySender(request);
+                if (sender != null) {
+                    endpoint = senderEndpoint(sender);
+                }
+            }
+            if (endpoint != null) {
+                pinned.computeIfAbsent(endpoint, key -> new BatchRequest(this)).add(request);
+            } else {
+                createsFilter |= FILTER_CREATE_METHODS.contains(method);
+                reads.add(request);
+            }
+        }
+
+        if (pinned.isEmpty()) {
+            return sendReads(batchRequest, createsFilter);
+        }
+        if (reads.size() == 0 && pinned.size() == 1) {
+            Map.Entry<Endpoint, BatchRequest> part = pinned.entrySet().iterator().next();
+            BatchResponse response = call(part.getKey(), service -> service.sendBatch(batchRequest));
+            forgetUninstalledFilters(response);
+            return response;
+        }
+
+        List<CompletableFuture<BatchResponse>> parts = new ArrayList<>();
+        for (Map.Entry<Endpoint, BatchRequest> part : pinned.entrySet()) {
+            parts.add(Async.run(() -> call(part.getKey(), service -> service.sendBatch(part.getValue()))));
+        }
+        if (reads.size() > 0) {
+            boolean readsCreateFilter = createsFilter;
+            parts.add(Async.run(() -> sendReads(reads, readsCreateFilter)));
+        }
+
+        Map<Long, Response<?>> responseById = new HashMap<>();
+        for (CompletableFuture<BatchResponse> part : parts) {
+            BatchResponse response = await(part);
+            for (int i = 0; i < response.size(); i++) {
+                responseById.put(response.getRequests().get(i).getId(), response.getResponses().get(i));
+            }
+        }
+        List<Response<?>> responses = new ArrayList<>(requests.size());
+        for (Request<?, ? extends Response<?>> request : requests) {
+            responses.add(responseById.get(request.getId()));
+        }
+        BatchResponse response = new BatchResponse(requests, responses);
+        forgetUninstalledFilters(response);
+        return response;
+    }
+
+    @Override
+    public CompletableFuture<BatchResponse> sendBatchAsync(BatchRequest batchRequest) {
+        return Async.run(() -> sendBatch(batchRequest));
+    }
+
+    /**
+     * Sends a batch of reads to one endpoint, retrying on another endpoint if the transport fails unless
+     * the batch installs a filter. Installed filters are bound to the endpoint which answered.
+     */
+    private BatchResponse sendReads(BatchRequest batchRequest, boolean createsFilter) throws IOException {
+        Set<Endpoint> tried = new HashSet<>();
+        while (true) {
+            Endpoint endpoint = select(tried);
+            tried.add(endpoint);
+            try {
+                BatchResponse response = call(endpoint, service -> service.sendBatch(batchRequest));
+                for (int i = 0; i < response.size(); i++) {
+                    Response<?> single = response.getResponses().get(i);
+                    if (FILTER_CREATE_METHODS.contains(response.getRequests().get(i).getMethod())
+                            && !single.hasError() && single.getResult() != null) {
+                        filterEndpoints.put(Numeric.toBigInt((String) single.getResult()), endpoint);
+                    }
+                }
+                forgetUninstalledFilters(response);
+                return response;
+            } catch (IOException e) {
+                if (createsFilter || tried.size() >= endpoints.size()) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void forgetUninstalledFilters(BatchResponse response) {
+        for (Request<?, ? extends Response<?>> request : response.getRequests()) {
+            if (request.getMethod().equals("klay_uninstallFilter")) {
+                filterEndpoints.remove(filterId(request));
+            }
+        }
+    }
+
+    /**
+     * Routes the request like {@link #send(Request, Class)}; reads are retried on another endpoint if the
+     * transport fails before the response headers arrive. Filters must be installed with
+     * {@link #send(Request, Class)}, so that later filter requests find the installing endpoint.
+     */
+    @Override
+    public InputStream sendForStream(Request<?, ?> request) throws IOException {
+        String method = request.getMethod();
+        if (FILTER_CREATE_METHODS.contains(method)) {
+            throw new UnsupportedOperationException(method + " can not be streamed on a multi-endpoint service");
+        }
+        if (FILTER_METHODS.contains(method)) {
+            Endpoint endpoint = filterEndpoints.get(filterId(request));
+            InputStream response = stream(endpoint != null ? endpoint : select(), request);
+            if (method.equals("klay_uninstallFilter")) {
+                filterEndpoints.remove(filterId(request));
+            }
+            return response;
+        }
+
+        String sender = stickySender(request);
+        if (sender != null) {
+            return stream(senderEndpoint(sender), request);
+        }
+
+        Set<Endpoint> tried = new HashSet<>();
+        while (true) {
+            Endpoint endpoint = select(tried);
+            tried.add(endpoint);
+            try {
+                return stream(endpoint, request);
+            } catch (IOException e) {
+                if (tried.size() >= endpoints.size()) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    @Override
+    public <T extends Notification<?>> Flowable<T> subscribe(
+            Request request, String unsubscribeMethod, Class<T> responseType) {
+        return select().getService().subscribe(request, unsubscribeMethod, responseType);
+    }
+
+    @Override
+    public void close() throws IOException {
+        scheduledExecutorService.shutdown();
+        for (Endpoint endpoint : endpoints) {
+            endpoint.getService().close();
+        }
+    }
+
+    /**
+     * Sends the read to one endpoint and, if it has not answered within the hedge delay and the hedge
+     * rate allows it, once more to another endpoint. Endpoints which were sent the request are added to
+     * {@code tried}; an IOException means every one of them failed.
+     */
+    private <T extends Response> T sendHedged(
+            Request request, Class<T> responseType, Hedging hedging, Set<Endpoint> tried) throws IOException {
+        long startNanos = System.nanoTime();
+        hedging.readStarted();
+        Endpoint primary = select(tried);
+        tried.add(primary);
+        CompletableFuture<T> primaryFuture = Async.run(
+                () -> call(primary, service -> service.send(request, responseType)));
+
+        long delayMillis = hedging.getDelayMillis();
+        try {
+            if (delayMillis < 0) {
+                return recordLatency(hedging, startNanos, primaryFuture.get());
+            }
+            return recordLatency(hedging, startNanos, primaryFuture.get(delayMillis, TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            // the primary is slow, hedge below
+        } catch (ExecutionException e) {
+            throw asIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        }
+
+        Endpoint secondary = select(tried);
+        if (secondary == null || !secondary.isHealthy() || !hedging.tryHedge()) {
+            return recordLatency(hedging, startNanos, await(primaryFuture));
+        }
+        tried.add(secondary);
+        CompletableFuture<T> hedgeFuture = Async.run(
+                () -> call(secondary, service -> service.send(request, responseType)));
+
+        CompletableFuture<T> first = new CompletableFuture<>();
+        primaryFuture.whenComplete((response, throwable) -> {
+            if (throwable == null) {
+                first.complete(response);
+            } else if (hedgeFuture.isCompletedExceptionally()) {
+                first.completeExceptionally(throwable);
+            }
+        });
+        hedgeFuture.whenComplete((response, throwable) -> {
+            if (throwable == null) {
+                if (first.complete(response)) {
+                    hedging.hedgeWon();
+                }
+            } else if (primaryFuture.isCompletedExceptionally()) {
+                first.completeExceptionally(throwable);
+            }
+        });
+        return recordLatency(hedging, startNanos, await(first));
+    }
+
+    private static <T> T recordLatency(Hedging hedging, long startNanos, T response) {
+        hedging.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        return response;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw asIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        }
+    }
+
+    private static IOException asIOException(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        return new IOException(cause);
+    }
+
+    /**
+     * An endpoint which can not stream fails before the call, so it is not counted as a transport failure.
+     */
+    private InputStream stream(Endpoint endpoint, Request<?, ?> request) throws IOException {
+        StreamingService streamingService = StreamingService.of(endpoint.getService());
+        return call(endpoint, service -> streamingService.sendForStream(request));
+    }
+
+    private <T> T call(Endpoint endpoint, ServiceCall<T> serviceCall) throws IOException {
+        long startNanos = endpoint.begin();
+        try {
+            T result = serviceCall.call(endpoint.getService());
+            endpoint.succeeded(startNanos);
+            return result;
+        } catch (IOException | RuntimeException e) {
+            if (endpoint.failed(ejectAfterFailures)) {
+                senderEndpoints.values().removeIf(sticky -> sticky == endpoint);
+            }
+            throw e;
+        }
+    }
+
+    private Endpoint select() {
+        return select(Collections.emptySet());
+    }
+
+    private Endpoint select(Set<Endpoint> excluded) {
+        List<Endpoint> candidates = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.isHealthy() && !excluded.contains(endpoint)) {
+                candidates.add(endpoint);
+            }
+        }
+        if (candidates.isEmpty()) {
+            // every endpoint is ejected: keep trying the untried ones rather than failing outright
+            for (Endpoint endpoint : endpoints) {
+                if (!excluded.contains(endpoint)) {
+                    candidates.add(endpoint);
+                }
+            }
+        }
+        return policy.select(candidates);
+    }
+
+    private Endpoint senderEndpoint(String sender) {
+        return senderEndpoints.compute(sender,
+                (key, endpoint) -> endpoint == null || !endpoint.isHealthy() ? select() : endpoint);
+    }
+
+    /**
+     * @return lowercase sender address of a transaction or a pending nonce query, otherwise null
+     */
+    private String stickySender(Request<?, ?> request) {
+        try {
+            String method = request.getMethod();
+            if (method.equals("klay_getTransactionCount")) {
+                List<?> params = request.getParams();
+                boolean pending = params.size() > 1
+                        && objectMapper.valueToTree(params.get(1)).asText().equals("pending");
+                return pending ? ((String) params.get(0)).toLowerCase() : null;
+            }
+            if (!WRITE_METHODS.contains(method)) {
+                return null;
+            }
+            if (method.equals("klay_sendRawTransaction")) {
+                String rawTransaction = (String) request.getParams().get(0);
+                if (KlayTransactionUtils.getType(rawTransaction) == TxType.Type.LEGACY) {
+                    return ((SignedRawTransaction) org.web3j.crypto.TransactionDecoder.decode(rawTransaction))
+                            .getFrom().toLowerCase();
+                }
+                return TransactionDecoder.decode(rawTransaction).getFrom().toLowerCase();
+            }
+            JsonNode transaction = objectMapper.valueToTree(request.getParams().get(0));
+            return transaction.hasNonNull("from") ? transaction.get("from").asText().toLowerCase() : null;
+        } catch (Exception e) {
+            // undecodable transactions are routed like reads; the node will reject them anyway
+            return null;
+        }
+    }
+
+    private BigInteger filterId(Request<?, ?> request) {
+        return Numeric.toBigInt(String.valueOf(request.getParams().get(0)));
+    }
+
+    private void probe() {
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.isHealthy()) {
+                continue;
+            }
+            try {
+                new Request<>("klay_blockNumber", Collections.<String>emptyList(),
+                        endpoint.getService(), Quantity.class).send();
+                endpoint.recovered();
+            } catch (IOException | RuntimeException e) {
+                // still unhealthy, probe again on the next round
+            }
+        }
+    }
+
+    private static Map<String, BatchService> toServices(List<String> urls) {
+        Map<String, BatchService> services = new LinkedHashMap<>();
+        for (String url : urls) {
+            services.put(url, new HttpBatchService(url));
+        }
+        return services;
+    }
+
+    private interface ServiceCall<T> {
+        T call(BatchService service) throws IOException;
+    }
+}
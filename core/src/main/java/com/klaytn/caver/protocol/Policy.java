@@ -0,0 +1,93 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.protocol;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chooses the endpoint of a {@link MultiEndpointService} which receives the next read request.
+ */
+public interface Policy {
+
+    /**
+     * @param endpoints healthy endpoints, never empty
+     * @return the endpoint which receives the next request
+     */
+    Endpoint select(List<Endpoint> endpoints);
+
+    /**
+     * Sends requests to the endpoints in turn.
+     */
+    static Policy roundRobin() {
+        AtomicInteger next = new AtomicInteger();
+        return endpoints -> endpoints.get(Math.floorMod(next.getAndIncrement(), endpoints.size()));
+    }
+
+    /**
+     * Sends each request to the endpoint with the fewest requests in progress. Ties are broken at random.
+     */
+    static Policy leastOutstanding() {
+        return endpoints -> {
+            Endpoint selected = null;
+            int ties = 0;
+            for (Endpoint endpoint : endpoints) {
+                if (selected == null || endpoint.getOutstanding() < selected.getOutstanding()) {
+                    selected = endpoint;
+                    ties = 1;
+                } else if (endpoint.getOutstanding() == selected.getOutstanding()
+                        && ThreadLocalRandom.current().nextInt(++ties) == 0) {
+                    selected = endpoint;
+                }
+            }
+            return selected;
+        };
+    }
+
+    /**
+     * Sends requests at random, weighted by the inverse of each endpoint's average response time, so
+     * faster endpoints receive proportionally more requests. Endpoints without a measured response time
+     * are treated as the fastest so they get measured.
+     */
+    static Policy latencyWeighted() {
+        return endpoints -> {
+            double fastest = Double.MAX_VALUE;
+            for (Endpoint endpoint : endpoints) {
+                if (endpoint.getLatencyMillis() > 0) {
+                    fastest = Math.min(fastest, endpoint.getLatencyMillis());
+                }
+            }
+            double[] weights = new double[endpoints.size()];
+            double total = 0;
+            for (int i = 0; i < weights.length; i++) {
+                double latency = endpoints.get(i).getLatencyMillis();
+                weights[i] = 1.0 / (latency > 0 ? latency : (fastest == Double.MAX_VALUE ? 1 : fastest));
+                total += weights[i];
+            }
+            double point = ThreadLocalRandom.current().nextDouble(total);
+            for (int i = 0; i < weights.length; i++) {
+                point -= weights[i];
+                if (point < 0) {
+                    return endpoints.get(i);
+                }
+            }
+            return endpoints.get(endpoints.size() - 1);
+        };
+    }
+}
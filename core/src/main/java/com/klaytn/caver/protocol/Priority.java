@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.protocol;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Order in which a {@link LimitingService} admits the requests waiting for a free slot.
+ */
+public enum Priority {
+
+    /**
+     * Interactive requests which someone waits for, such as sending a transaction.
+     */
+    HIGH,
+    NORMAL,
+    /**
+     * Background requests, such as scans over blocks and logs, which may wait or be shed under load.
+     */
+    LOW;
+
+    private static final Set<String> HIGH_METHODS = new HashSet<>(Arrays.asList(
+            "klay_sendRawTransaction", "klay_sendTransaction", "klay_sendTransactionAsFeePayer"));
+    private static final Set<String> LOW_METHODS = new HashSet<>(Arrays.asList(
+            "klay_getLogs", "klay_getFilterLogs", "klay_getBlockReceipts",
+            "klay_getBlockWithConsensusInfoByHash", "klay_getBlockWithConsensusInfoByNumber"));
+
+    /**
+     * Default priority of a JSON-RPC method: transactions are sent with {@link #HIGH} priority, and bulk
+     * reads of logs, receipts and consensus information with {@link #LOW} priority.
+     *
+     * @param method JSON-RPC method
+     * @return Priority
+     */
+    public static Priority of(String method) {
+        if (HIGH_METHODS.contains(method)) {
+            return HIGH;
+        }
+        return LOW_METHODS.contains(method) ? LOW : NORMAL;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.protocol;
+
+import org.web3j.protocol.core.Request;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * The body of a JSON-RPC response as bytes, for pipelines which store or forward responses without
+ * looking at them. Nothing is parsed, so no response object is built and the bytes are exactly what the
+ * node sent. This also means that an error reply from the node is returned like any other response.
+ *
+ * <pre>
+ * BufferPool pool = BufferPool.direct();
+ * try (RawResponse block = RawResponse.read(service, caver.klay().getBlockByNumber(number, true), pool)) {
+ *     block.writeTo(fileChannel);
+ * }
+ * </pre>
+ */
+public final class RawResponse implements Closeable {
+
+    private final ByteBuffer buffer;
+    private final BufferPool pool;
+    private boolean closed;
+
+    private RawResponse(ByteBuffer buffer, BufferPool pool) {
+        this.buffer = buffer;
+        this.pool = pool;
+    }
+
+    /**
+     * Sends the request and returns the body of the response as it arrives. The caller must close the
+     * stream.
+     *
+     * @param service transport of the request
+     * @param request request to send
+     * @return InputStream - body of the response
+     * @throws IOException when the request could not be delivered
+     */
+    public static InputStream stream(StreamingService service, Request<?, ?> request) throws IOException {
+        return service.sendForStream(request);
+    }
+
+    /**
+     * Sends the request and reads the body of the response into a heap buffer.
+     *
+     * @param service transport of the request
+     * @param request request to send
+     * @return RawResponse - body of the response
+     * @throws IOException when the request could not be delivered
+     */
+    public static RawResponse read(StreamingService service, Request<?, ?> request) throws IOException {
+        return read(service, request, null);
+    }
+
+    /**
+     * Sends the request and reads the body of the response into a buffer of the pool. Closing the
+     * response returns the buffer to the pool.
+     *
+     * @param service transport of the request
+     * @param request request to send
+     * @param pool    pool to take the buffer from, or null to allocate a heap buffer
+     * @return RawResponse - body of the response
+     * @throws IOException when the request could not be delivered
+     */
+    public static RawResponse read(StreamingService service, Request<?, ?> request, BufferPool pool)
+            throws IOException {
+        BufferPool source = pool == null ? new BufferPool(BufferPool.DEFAULT_BUFFER_SIZE, 0, false) : pool;
+        ByteBuffer buffer = source.acquire();
+        try (InputStream in = service.sendForStream(request)) {
+            if (in == null) {
+                throw new IOException("Empty response for " + request.getMethod());
+            }
+            ReadableByteChannel channel = Channels.newChannel(in);
+            while (true) {
+                if (!buffer.hasRemaining()) {
+                    buffer = source.grow(buffer);
+                }
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            source.release(buffer);
+            throw e;
+        }
+        buffer.flip();
+        return new RawResponse(buffer, pool);
+    }
+
+    /**
+     * @return read-only view of the body, from position zero to its size
+     */
+    public ByteBuffer getBuffer() {
+        checkOpen();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * @return size of the body in bytes
+     */
+    public int size() {
+        return buffer.limit();
+    }
+
+    /**
+     * @return copy of the body
+     */
+    public byte[] toByteArray() {
+        checkOpen();
+        byte[] bytes = new byte[buffer.limit()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Writes the whole body to the channel, e.g. a file or a socket.
+     *
+     * @param channel channel to write to
+     * @throws IOException when the channel fails
+     */
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        checkOpen();
+        ByteBuffer body = buffer.duplicate();
+        while (body.hasRemaining()) {
+            channel.write(body);
+        }
+    }
+
+    /**
+     * Returns the buffer to its pool. The body must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (pool != null) {
+            pool.release(buffer);
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("RawResponse is closed");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.protocol;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a {@link LimitingService} rejects a request instead of sending it, because too many
+ * requests are waiting or because it waited too long.
+ */
+public class RequestShedException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Priority priority;
+
+    public RequestShedException(String message, Priority priority) {
+        super(message);
+        this.priority = priority;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.protocol;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.klaytn.caver.methods.response.BlockReceipts;
+import com.klaytn.caver.methods.response.KlayBlock;
+import com.klaytn.caver.methods.response.KlayLogs;
+import com.klaytn.caver.methods.response.KlayTransaction;
+import com.klaytn.caver.methods.response.KlayTransactionReceipt;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the items of a large JSON-RPC result one at a time instead of materializing the whole response.
+ * Only the current item is held in memory, so the transactions of a busy block, the receipts of a block or
+ * the result of a wide klay_getLogs can be processed with a bounded heap.
+ *
+ * <pre>
+ * try (ResponseStream&lt;KlayLogs.Log&gt; logs = ResponseStream.logs(service, caver.klay().getLogs(filter))) {
+ *     logs.forEachRemaining(log -&gt; ...);
+ * }
+ * </pre>
+ *
+ * <p>An I/O failure while iterating is thrown as an {@link UncheckedIOException}. The stream closes itself
+ * once its last item has been read.
+ *
+ * @param <T> type of the items
+ */
+public class ResponseStream<T> implements Iterator<T>, Closeable {
+
+    private static final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+
+    private final JsonParser parser;
+    private final Class<T> itemType;
+    private final boolean nested;
+    private final ObjectNode enclosing = JsonNodeFactory.instance.objectNode();
+    private T next;
+    private boolean finished;
+
+    private ResponseStream(JsonParser parser, Class<T> itemType, boolean nested) {
+        this.parser = parser;
+        this.itemType = itemType;
+        this.nested = nested;
+    }
+
+    /**
+     * Streams the logs of a klay_getLogs or klay_getFilterLogs request.
+     */
+    public static ResponseStream<KlayLogs.Log> logs(StreamingService service, Request<?, KlayLogs> request)
+            throws IOException {
+        return open(service, request, null, KlayLogs.Log.class);
+    }
+
+    /**
+     * Streams the receipts of a klay_getBlockReceipts request.
+     */
+    public static ResponseStream<KlayTransactionReceipt.TransactionReceipt> receipts(
+            StreamingService service, Request<?, BlockReceipts> request) throws IOException {
+        return open(service, request, null, KlayTransactionReceipt.TransactionReceipt.class);
+    }
+
+    /**
+     * Streams the transactions of a block request. The other fields of the block are available from
+     * {@link #getEnclosing(Class)} with {@link KlayBlock.Block} once the transactions have been read.
+     */
+    public static ResponseStream<KlayTransaction.Transaction> transactions(
+            StreamingService service, Request<?, KlayBlock> request) throws IOException {
+        return open(service, request, "transactions", KlayTransaction.Transaction.class);
+    }
+
+    /**
+     * Sends the request and positions a stream on the array of its result.
+     *
+     * @param service    transport of the request
+     * @param request    request whose result holds the array
+     * @param arrayField field of the result object which holds the array, or null if the result is the array
+     * @param itemType   type of the array items
+     * @param <T>        type of the array items
+     * @return ResponseStream - stream of the array items, empty if the result is null
+     * @throws IOException when the request fails or the node replies with an error
+     */
+    public static <T> ResponseStream<T> open(StreamingService service, Request<?, ?> request,
+                                             String arrayField, Class<T> itemType) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(service.sendForStream(request));
+        ResponseStream<T> stream = new ResponseStream<>(parser, itemType, arrayField != null);
+        try {
+            stream.seek(arrayField);
+            return stream;
+        } catch (IOException | RuntimeException e) {
+            stream.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (finished) {
+            return false;
+        }
+        try {
+            if (parser.nextToken() == JsonToken.END_ARRAY) {
+                finish();
+                return false;
+            }
+            next = objectMapper.readValue(parser, itemType);
+            return true;
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T item = next;
+        next = null;
+        return item;
+    }
+
+    /**
+     * Returns the fields of the result object around the streamed array, e.g. the header of a block.
+     * Fields which follow the array are only present once every item has been read.
+     *
+     * @param type type to convert the fields to
+     * @param <R>  type to convert the fields to
+     * @return R - the enclosing object without the streamed array
+     * @throws IOException when the fields can not be converted
+     */
+    public <R> R getEnclosing(Class<R> type) throws IOException {
+        return objectMapper.treeToValue(enclosing, type);
+    }
+
+    @Override
+    public void close() {
+        finished = true;
+        try {
+            parser.close();
+        } catch (IOException e) {
+            // nothing left to read
+        }
+    }
+
+    private void seek(String arrayField) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON-RPC response object");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (field.equals("error") && value == JsonToken.START_OBJECT) {
+                Response.Error error = objectMapper.readValue(parser, Response.Error.class);
+                throw new IOException("Error processing request: " + error.getMessage());
+            }
+            if (!field.equals("result")) {
+                parser.skipChildren();
+                continue;
+            }
+            if (value == JsonToken.VALUE_NULL) {
+                close();
+                return;
+            }
+            if (arrayField == null) {
+                expectArray(value);
+                return;
+            }
+            if (value != JsonToken.START_OBJECT) {
+                throw new IOException("Expected an object result, but got " + value);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String resultField = parser.getCurrentName();
+                JsonToken resultValue = parser.nextToken();
+                if (resultField.equals(arrayField)) {
+                    expectArray(resultValue);
+                    return;
+                }
+                enclosing.set(resultField, objectMapper.readTree(parser));
+            }
+            close();
+            return;
+        }
+        close();
+    }
+
+    private void expectArray(JsonToken token) throws IOException {
+        if (token != JsonToken.START_ARRAY) {
+            throw new IOException("Expected an array, but got " + token);
+        }
+    }
+
+    private void finish() throws IOException {
+        if (nested) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                enclosing.set(field, objectMapper.readTree(parser));
+            }
+        }
+        close();
+    }
+}
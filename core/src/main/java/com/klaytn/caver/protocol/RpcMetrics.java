@@ -0,0 +1,78 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.protocol;
+
+import org.web3j.protocol.core.Response;
+
+/**
+ * Receives the per-method events of the JSON-RPC calls made through a {@link MeteredService}, so that
+ * they can be forwarded to any metrics library without caver-java depending on one. Every method is a
+ * no-op by default, and implementations must be thread-safe and cheap: they run on the calling thread
+ * of every request.
+ *
+ * <p>{@link InMemoryRpcMetrics} is a ready-made implementation which keeps the numbers in memory.
+ */
+public interface RpcMetrics {
+
+    /**
+     * Method name under which the wire bytes of a JSON-RPC batch are reported, as a batch is sent in
+     * a single body.
+     */
+    String BATCH = "batch";
+
+    RpcMetrics NONE = new RpcMetrics() {
+    };
+
+    /**
+     * Called before a request is handed to the transport.
+     *
+     * @param method JSON-RPC method, e.g. {@code klay_getBalance}
+     */
+    default void onRequest(String method) {
+    }
+
+    /**
+     * Called when the node answered a request, whether with a result or with a JSON-RPC error.
+     *
+     * @param method       JSON-RPC method
+     * @param latencyNanos time since {@link #onRequest(String)}
+     * @param error        error returned by the node, or null if it returned a result
+     */
+    default void onResponse(String method, long latencyNanos, Response.Error error) {
+    }
+
+    /**
+     * Called when a request got no answer at all, e.g. because the connection failed.
+     *
+     * @param method       JSON-RPC method
+     * @param latencyNanos time since {@link #onRequest(String)}
+     * @param cause        the failure
+     */
+    default void onFailure(String method, long latencyNanos, Throwable cause) {
+    }
+
+    /**
+     * Called by a transport which knows the size of the bodies it exchanged, such as {@link HttpBatchService}.
+     *
+     * @param method        JSON-RPC method, or {@link #BATCH}
+     * @param requestBytes  size of the request body
+     * @param responseBytes size of the response body which was read
+     */
+    default void onBytes(String method, long requestBytes, long responseBytes) {
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.protocol;
+
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.Request;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A transport which can hand out the body of a response without parsing it, so large responses can be
+ * read with a {@link ResponseStream}. The decorators of this package pass streamed requests through to
+ * the service they decorate.
+ */
+public interface StreamingService {
+
+    /**
+     * Sends the request and returns the unparsed JSON-RPC response. The caller must close the stream.
+     *
+     * @param request request to send
+     * @return InputStream - body of the response
+     * @throws IOException when the request could not be delivered
+     */
+    InputStream sendForStream(Request<?, ?> request) throws IOException;
+
+    /**
+     * @param service service to stream responses from
+     * @return the service as a StreamingService
+     * @throws UnsupportedOperationException if the service can not stream responses
+     */
+    static StreamingService of(Web3jService service) {
+        if (!(service instanceof StreamingService)) {
+            throw new UnsupportedOperationException(
+                    service.getClass().getSimpleName() + " can not stream responses");
+        }
+        return (StreamingService) service;
+    }
+}
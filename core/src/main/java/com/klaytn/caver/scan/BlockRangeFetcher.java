@@ -0,0 +1,336 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.scan;
+
+import com.klaytn.caver.Caver;
+import com.klaytn.caver.methods.response.BlockReceipts;
+import com.klaytn.caver.methods.response.KlayBlock;
+import com.klaytn.caver.methods.response.KlayBlockWithConsensusInfo;
+import com.klaytn.caver.methods.response.KlayTransactionReceipt;
+import com.klaytn.caver.protocol.BatchRequest;
+import com.klaytn.caver.protocol.BatchResponse;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Fetches a range of blocks, optionally with their receipts and consensus information, and delivers them
+ * to a {@link BlockSink} in block order.
+ *
+ * <p>The range is split into chunks of {@code batchSize} blocks. Each chunk is fetched with one JSON-RPC
+ * batch of {@code klay_getBlockByNumber} (and {@code klay_getBlockWithConsensusInfoByNumber}) requests,
+ * followed by one batch of {@code klay_getBlockReceipts} requests for its blocks with transactions. Up to
+ * {@code parallelism} chunks are in flight while the sink consumes the oldest one, so at most
+ * {@code parallelism * batchSize} blocks are held in memory. A chunk which failed is retried up to
+ * {@code maxAttempts} times.
+ *
+ * <p>With a {@link Checkpoint}, the last delivered block is saved after each chunk, and a fetch resumes
+ * after the saved block.
+ *
+ * <pre>
+ * BlockRangeFetcher fetcher = new BlockRangeFetcher.Builder(caver)
+ *         .setFullTransactions(true)
+ *         .setReceipts(true)
+ *         .setCheckpoint(Checkpoint.inFile(new File("blocks.checkpoint")))
+ *         .build();
+ * fetcher.fetch(BigInteger.ZERO, head, block -&gt; index(block));
+ * </pre>
+ */
+public class BlockRangeFetcher {
+
+    public static final int DEFAULT_BATCH_SIZE = 20;
+    public static final int DEFAULT_PARALLELISM = 4;
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    private final Caver caver;
+    private final boolean fullTransactions;
+    private final boolean receipts;
+    private final boolean consensusInfo;
+    private final int batchSize;
+    private final int parallelism;
+    private final int maxAttempts;
+    private final Executor executor;
+    private final Checkpoint checkpoint;
+
+    private BlockRangeFetcher(Builder builder) {
+        this.caver = builder.caver;
+        this.fullTransactions = builder.fullTransactions;
+        this.receipts = builder.receipts;
+        this.consensusInfo = builder.consensusInfo;
+        this.batchSize = builder.batchSize;
+        this.parallelism = builder.parallelism;
+        this.maxAttempts = builder.maxAttempts;
+        this.executor = builder.executor != null
+                ? builder.executor : caver.executorStrategy().getBlockingExecutor();
+        this.checkpoint = builder.checkpoint;
+    }
+
+    /**
+     * Delivers the blocks from {@code from} to {@code to}, both inclusive, to the sink, or the blocks after
+     * the checkpoint if it is within the range. Returns once the last block was delivered.
+     *
+     * @param from first block number
+     * @param to   last block number
+     * @param sink receives the blocks in order
+     * @return the number of the last delivered block, or {@code from - 1} if the range was empty
+     * @throws IOException when a chunk could not be fetched, or when the sink failed
+     */
+    public BigInteger fetch(BigInteger from, BigInteger to, BlockSink sink) throws IOException {
+        BigInteger next = from;
+        if (checkpoint != null) {
+            BigInteger last = checkpoint.load();
+            if (last != null && last.compareTo(next) >= 0) {
+                next = last.add(BigInteger.ONE);
+            }
+        }
+        BigInteger delivered = next.subtract(BigInteger.ONE);
+
+        Deque<CompletableFuture<List<FetchedBlock>>> window = new ArrayDeque<>();
+        try {
+            while (!window.isEmpty() || next.compareTo(to) <= 0) {
+                while (window.size() < parallelism && next.compareTo(to) <= 0) {
+                    BigInteger first = next;
+                    BigInteger last = first.add(BigInteger.valueOf(batchSize - 1)).min(to);
+                    window.add(CompletableFuture.supplyAsync(() -> fetchChunk(first, last), executor));
+                    next = last.add(BigInteger.ONE);
+                }
+
+                for (FetchedBlock block : await(window.poll())) {
+                    sink.accept(block);
+                    delivered = block.getNumber();
+                }
+                if (checkpoint != null) {
+                    checkpoint.save(delivered);
+                }
+            }
+        } finally {
+            for (CompletableFuture<List<FetchedBlock>> future : window) {
+                future.cancel(true);
+            }
+        }
+        return delivered;
+    }
+
+    private List<FetchedBlock> fetchChunk(BigInteger first, BigInteger last) {
+        IOException failure = null;
+        for (int attempt = 0; attempt < maxAttempts; attempt++) {
+            try {
+                return fetchChunkOnce(first, last);
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        throw new CompletionException(failure);
+    }
+
+    private List<FetchedBlock> fetchChunkOnce(BigInteger first, BigInteger last) throws IOException {
+        int size = last.subtract(first).intValue() + 1;
+        List<Request<?, KlayBlock>> blockRequests = new ArrayList<>(size);
+        List<Request<?, KlayBlockWithConsensusInfo>> consensusRequests = new ArrayList<>(size);
+        BatchRequest batch = caver.batch();
+        for (int i = 0; i < size; i++) {
+            DefaultBlockParameterNumber number = new DefaultBlockParameterNumber(first.add(BigInteger.valueOf(i)));
+            Request<?, KlayBlock> blockRequest = caver.klay().getBlockByNumber(number, fullTransactions);
+            blockRequests.add(blockRequest);
+            batch.add(blockRequest);
+            if (consensusInfo) {
+                Request<?, KlayBlockWithConsensusInfo> consensusRequest =
+                        caver.klay().getBlockWithConsensusInfoByNumber(number);
+                consensusRequests.add(consensusRequest);
+                batch.add(consensusRequest);
+            }
+        }
+        BatchResponse response = batch.send();
+
+        List<KlayBlock.Block> blocks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            KlayBlock.Block block = checked(response.getResponse(blockRequests.get(i))).getBlock();
+            if (block == null) {
+                throw new IOException("Block " + first.add(BigInteger.valueOf(i)) + " was not found");
+            }
+            blocks.add(block);
+        }
+
+        List<List<KlayTransactionReceipt.TransactionReceipt>> blockReceipts = receipts ? fetchReceipts(blocks) : null;
+        List<FetchedBlock> fetched = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            fetched.add(new FetchedBlock(
+                    first.add(BigInteger.valueOf(i)),
+                    blocks.get(i),
+                    blockReceipts == null ? null : blockReceipts.get(i),
+                    consensusInfo ? checked(response.getResponse(consensusRequests.get(i))).getResult() : null));
+        }
+        return fetched;
+    }
+
+    private List<List<KlayTransactionReceipt.TransactionReceipt>> fetchReceipts(List<KlayBlock.Block> blocks)
+            throws IOException {
+        List<Request<?, BlockReceipts>> requests = new ArrayList<>(blocks.size());
+        BatchRequest batch = caver.batch();
+        for (KlayBlock.Block block : blocks) {
+            Request<?, BlockReceipts> request = null;
+            if (block.getTransactions() != null && !block.getTransactions().isEmpty()) {
+                request = caver.klay().getBlockReceipts(block.getHash());
+                batch.add(request);
+            }
+            requests.add(request);
+        }
+        BatchResponse response = batch.size() == 0 ? null : batch.send();
+
+        List<List<KlayTransactionReceipt.TransactionReceipt>> receipts = new ArrayList<>(blocks.size());
+        for (Request<?, BlockReceipts> request : requests) {
+            receipts.add(request == null
+                    ? Collections.emptyList()
+                    : checked(response.getResponse(request)).getResult());
+        }
+        return receipts;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while fetching blocks");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static <T extends Response<?>> T checked(T response) throws IOException {
+        if (response.hasError()) {
+            throw new IOException("Error processing request: " + response.getError().getMessage());
+        }
+        return response;
+    }
+
+    public static class Builder {
+        private final Caver caver;
+        private boolean fullTransactions;
+        private boolean receipts;
+        private boolean consensusInfo;
+        private int batchSize = DEFAULT_BATCH_SIZE;
+        private int parallelism = DEFAULT_PARALLELISM;
+        private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+        private Executor executor;
+        private Checkpoint checkpoint;
+
+        public Builder(Caver caver) {
+            this.caver = caver;
+        }
+
+        /**
+         * @param fullTransactions whether blocks hold transaction objects instead of transaction hashes
+         * @return Builder
+         */
+        public Builder setFullTransactions(boolean fullTransactions) {
+            this.fullTransactions = fullTransactions;
+            return this;
+        }
+
+        /**
+         * @param receipts whether the receipts of each block are fetched with {@code klay_getBlockReceipts}
+         * @return Builder
+         */
+        public Builder setReceipts(boolean receipts) {
+            this.receipts = receipts;
+            return this;
+        }
+
+        /**
+         * @param consensusInfo whether the proposer and committee of each block are fetched with
+         *                      {@code klay_getBlockWithConsensusInfoByNumber}
+         * @return Builder
+         */
+        public Builder setConsensusInfo(boolean consensusInfo) {
+            this.consensusInfo = consensusInfo;
+            return this;
+        }
+
+        /**
+         * @param batchSize number of blocks fetched with one JSON-RPC batch
+         * @return Builder
+         */
+        public Builder setBatchSize(int batchSize) {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("batchSize must be positive");
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * @param parallelism number of batches in flight at once
+         * @return Builder
+         */
+        public Builder setParallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("parallelism must be positive");
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * @param maxAttempts number of times a batch is sent before the fetch fails
+         * @return Builder
+         */
+        public Builder setMaxAttempts(int maxAttempts) {
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("maxAttempts must be positive");
+            }
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * @param executor runs the batches; the blocking executor of the caver's
+         *                 {@link com.klaytn.caver.ExecutorStrategy} by default
+         * @return Builder
+         */
+        public Builder setExecutor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public Builder setCheckpoint(Checkpoint checkpoint) {
+            this.checkpoint = checkpoint;
+            return this;
+        }
+
+        public BlockRangeFetcher build() {
+            return new BlockRangeFetcher(this);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.scan;
+
+import java.io.IOException;
+
+/**
+ * Receives the blocks of a {@link BlockRangeFetcher} one at a time, in block order.
+ */
+public interface BlockSink {
+
+    /**
+     * @param block the next block
+     * @throws IOException to stop the fetch; the checkpoint stays at the previous chunk
+     */
+    void accept(FetchedBlock block) throws IOException;
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.scan;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Remembers the last block which was delivered by a scan, so that the scan resumes after it when it is
+ * started again.
+ */
+public interface Checkpoint {
+
+    /**
+     * @return the last block number which was delivered, or null if nothing was delivered yet
+     * @throws IOException when the checkpoint could not be read
+     */
+    BigInteger load() throws IOException;
+
+    /**
+     * @param blockNumber the last block number which was delivered
+     * @throws IOException when the checkpoint could not be written
+     */
+    void save(BigInteger blockNumber) throws IOException;
+
+    /**
+     * Keeps the checkpoint in memory, e.g. to resume a scan within the same process.
+     */
+    static Checkpoint inMemory() {
+        AtomicReference<BigInteger> last = new AtomicReference<>();
+        return new Checkpoint() {
+            @Override
+            public BigInteger load() {
+                return last.get();
+            }
+
+            @Override
+            public void save(BigInteger blockNumber) {
+                last.set(blockNumber);
+            }
+        };
+    }
+
+    /**
+     * Keeps the checkpoint in a file holding the decimal block number. The file is replaced atomically, so
+     * a crash while saving leaves the previous checkpoint intact.
+     *
+     * @param file checkpoint file, which need not exist yet
+     */
+    static Checkpoint inFile(File file) {
+        return new Checkpoint() {
+            @Override
+            public BigInteger load() throws IOException {
+                if (!file.exists()) {
+                    return null;
+                }
+                String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim();
+                try {
+                    return content.isEmpty() ? null : new BigInteger(content);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid checkpoint in " + file + ": " + content, e);
+                }
+            }
+
+            @Override
+            public void save(BigInteger blockNumber) throws IOException {
+                File temporary = new File(file.getPath() + ".tmp");
+                Files.write(temporary.toPath(), blockNumber.toString().getBytes(StandardCharsets.UTF_8));
+                Files.move(temporary.toPath(), file.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        };
+    }
+}
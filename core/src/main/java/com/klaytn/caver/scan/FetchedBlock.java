@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.scan;
+
+import com.klaytn.caver.methods.response.KlayBlock;
+import com.klaytn.caver.methods.response.KlayBlockWithConsensusInfo;
+import com.klaytn.caver.methods.response.KlayTransactionReceipt;
+
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * A block delivered by {@link BlockRangeFetcher}, together with the data which was requested along with it.
+ */
+public final class FetchedBlock {
+
+    private final BigInteger number;
+    private final KlayBlock.Block block;
+    private final List<KlayTransactionReceipt.TransactionReceipt> receipts;
+    private final KlayBlockWithConsensusInfo.Block consensusInfo;
+
+    FetchedBlock(BigInteger number, KlayBlock.Block block,
+                 List<KlayTransactionReceipt.TransactionReceipt> receipts,
+                 KlayBlockWithConsensusInfo.Block consensusInfo) {
+        this.number = number;
+        this.block = block;
+        this.receipts = receipts;
+        this.consensusInfo = consensusInfo;
+    }
+
+    public BigInteger getNumber() {
+        return number;
+    }
+
+    public KlayBlock.Block getBlock() {
+        return block;
+    }
+
+    /**
+     * @return receipts of the transactions of the block in transaction order, or null if receipts were
+     * not requested
+     */
+    public List<KlayTransactionReceipt.TransactionReceipt> getReceipts() {
+        return receipts;
+    }
+
+    /**
+     * @return the block with its proposer and committee, or null if consensus information was not requested
+     */
+    public KlayBlockWithConsensusInfo.Block getConsensusInfo() {
+        return consensusInfo;
+    }
+}
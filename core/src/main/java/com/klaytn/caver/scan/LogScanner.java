@@ -0,0 +1,496 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.scan;
+
+import com.klaytn.caver.Caver;
+import com.klaytn.caver.methods.request.KlayLogFilter;
+import com.klaytn.caver.methods.response.KlayLogs;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.exceptions.ClientConnectionException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.math.BigInteger;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scans a block range for logs with {@code klay_getLogs} and delivers them to a {@link LogSink} in
+ * (block number, log index) order.
+ *
+ * <p>The range is split into chunks which are requested in parallel, up to {@code parallelism} at once.
+ * The chunk size adapts to the node: it doubles while responses hold fewer than half of
+ * {@code targetLogs} logs, and halves when a response holds more. A request which timed out or exceeded
+ * the node's result limit is split in two halves which are requested in its place, down to single blocks.
+ * A request which failed in transport, and a single block which still times out, is retried up to
+ * {@code maxAttempts} times. Any other error of the node fails the scan at once.
+ *
+ * <p>With a {@link Checkpoint}, the last block whose logs were all delivered is saved after each chunk,
+ * and a scan resumes after the saved block. {@link #getProgress()} exposes the progress and throughput of
+ * the running scan.
+ *
+ * <pre>
+ * LogScanner scanner = new LogScanner.Builder(caver).build();
+ * KlayLogFilter filter = new KlayLogFilter(null, null, contractAddress, null);
+ * filter.addSingleTopic(transferEventTopic);
+ * scanner.scan(filter, BigInteger.ZERO, head, log -&gt; index(log));
+ * </pre>
+ */
+public class LogScanner {
+
+    public static final int DEFAULT_INITIAL_CHUNK_SIZE = 100;
+    public static final int DEFAULT_MAX_CHUNK_SIZE = 10000;
+    public static final int DEFAULT_TARGET_LOGS = 1000;
+    public static final int DEFAULT_PARALLELISM = 4;
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    /**
+     * Fragments of node errors which mean that the range holds too many logs or took too long to search.
+     */
+    private static final List<String> RANGE_ERRORS = Arrays.asList(
+            "timeout", "timed out", "more than", "too many results", "too many logs", "too large",
+            "result limit", "response size exceeded");
+
+    /**
+     * HTTP statuses of a request timeout, a too large response and a gateway timeout.
+     */
+    private static final List<String> RANGE_STATUSES = Arrays.asList(
+            "Invalid response received: 408;", "Invalid response received: 413;",
+            "Invalid response received: 504;");
+
+    private static final Comparator<KlayLogs.Log> LOG_ORDER = Comparator
+            .comparingLong(KlayLogs.Log::getBlockNumberAsLong)
+            .thenComparingLong(KlayLogs.Log::getLogIndexAsLong);
+
+    private final Caver caver;
+    private final int maxChunkSize;
+    private final int targetLogs;
+    private final int parallelism;
+    private final int maxAttempts;
+    private final Executor executor;
+    private final Checkpoint checkpoint;
+    private final AtomicInteger chunkSize;
+    private volatile Progress progress;
+
+    private LogScanner(Builder builder) {
+        this.caver = builder.caver;
+        this.maxChunkSize = builder.maxChunkSize;
+        this.targetLogs = builder.targetLogs;
+        this.parallelism = builder.parallelism;
+        this.maxAttempts = builder.maxAttempts;
+        this.executor = builder.executor != null
+                ? builder.executor : caver.executorStrategy().getBlockingExecutor();
+        this.checkpoint = builder.checkpoint;
+        this.chunkSize = new AtomicInteger(Math.min(builder.initialChunkSize, builder.maxChunkSize));
+    }
+
+    /**
+     * @return number of blocks which the next chunk will span
+     */
+    public int getChunkSize() {
+        return chunkSize.get();
+    }
+
+    /**
+     * @return progress of the running or the last scan, or null before the first scan
+     */
+    public Progress getProgress() {
+        return progress;
+    }
+
+    /**
+     * Delivers the logs matching the addresses and topics of the filter from block {@code from} to block
+     * {@code to}, both inclusive, to the sink, or from the block after the checkpoint if it is within the
+     * range. The block range and block hash of the filter are ignored.
+     *
+     * @param filter addresses and topics to match
+     * @param from   first block number
+     * @param to     last block number
+     * @param sink   receives the logs in order
+     * @return the number of the last scanned block, or {@code from - 1} if the range was empty
+     * @throws IOException when a chunk could not be scanned, or when the sink failed
+     */
+    public BigInteger scan(KlayLogFilter filter, BigInteger from, BigInteger to, LogSink sink) throws IOException {
+        BigInteger next = from;
+        if (checkpoint != null) {
+            BigInteger last = checkpoint.load();
+            if (last != null && last.compareTo(next) >= 0) {
+                next = last.add(BigInteger.ONE);
+            }
+        }
+        Progress progress = new Progress(next, to);
+        this.progress = progress;
+
+        Deque<CompletableFuture<Chunk>> window = new ArrayDeque<>();
+        try {
+            while (!window.isEmpty() || next.compareTo(to) <= 0) {
+                while (window.size() < parallelism && next.compareTo(to) <= 0) {
+                    long first = next.longValue();
+                    long last = Math.min(to.longValue(), first + chunkSize.get() - 1);
+                    window.add(CompletableFuture.supplyAsync(
+                            () -> scanChunk(filter, first, last, progress), executor));
+                    next = BigInteger.valueOf(last + 1);
+                }
+
+                Chunk chunk = await(window.poll());
+                for (KlayLogs.Log log : chunk.logs) {
+                    sink.accept(log);
+                    progress.logs.incrementAndGet();
+                }
+                progress.lastBlock.set(chunk.last);
+                if (checkpoint != null) {
+                    checkpoint.save(BigInteger.valueOf(chunk.last));
+                }
+            }
+        } finally {
+            for (CompletableFuture<Chunk> future : window) {
+                future.cancel(true);
+            }
+        }
+        return progress.getLastBlock();
+    }
+
+    private Chunk scanChunk(KlayLogFilter filter, long first, long last, Progress progress) {
+        try {
+            List<KlayLogs.Log> logs = new ArrayList<>();
+            scanRange(filter, first, last, logs, progress);
+            logs.sort(LOG_ORDER);
+            return new Chunk(last, logs);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private void scanRange(KlayLogFilter filter, long first, long last, List<KlayLogs.Log> logs, Progress progress)
+            throws IOException {
+        int attempts = 0;
+        while (true) {
+            KlayLogs response;
+            try {
+                response = getLogs(filter, first, last);
+            } catch (SocketTimeoutException e) {
+                progress.requests.incrementAndGet();
+                if (split(filter, first, last, logs, progress)) {
+                    return;
+                }
+                if (++attempts >= maxAttempts) {
+                    throw e;
+                }
+                continue;
+            } catch (InterruptedIOException e) {
+                throw e;
+            } catch (IOException e) {
+                progress.requests.incrementAndGet();
+                if (++attempts >= maxAttempts) {
+                    throw e;
+                }
+                continue;
+            } catch (ClientConnectionException e) {
+                progress.requests.incrementAndGet();
+                if (isRangeStatus(e) && split(filter, first, last, logs, progress)) {
+                    return;
+                }
+                throw new IOException(e.getMessage(), e);
+            }
+
+            progress.requests.incrementAndGet();
+            if (response.hasError()) {
+                String message = response.getError().getMessage();
+                if (isRangeError(message) && split(filter, first, last, logs, progress)) {
+                    return;
+                }
+                throw new IOException("Error processing request: " + message);
+            }
+            List<KlayLogs.Log> result = new ArrayList<>();
+            if (response.getLogs() != null) {
+                for (KlayLogs.LogResult log : response.getLogs()) {
+                    result.add((KlayLogs.Log) log.get());
+                }
+            }
+            adapt(last - first + 1, result.size());
+            logs.addAll(result);
+            return;
+        }
+    }
+
+    /**
+     * Scans the two halves of a range in its place, and shrinks the chunk size.
+     *
+     * @return false if the range is a single block which can not be split
+     */
+    private boolean split(KlayLogFilter filter, long first, long last, List<KlayLogs.Log> logs, Progress progress)
+            throws IOException {
+        if (first >= last) {
+            return false;
+        }
+        progress.splits.incrementAndGet();
+        long width = last - first + 1;
+        chunkSize.updateAndGet(size -> (int) Math.max(1, Math.min(size, width) / 2));
+        long middle = first + (last - first) / 2;
+        scanRange(filter, first, middle, logs, progress);
+        scanRange(filter, middle + 1, last, logs, progress);
+        return true;
+    }
+
+    private static boolean isRangeError(String message) {
+        if (message == null) {
+            return false;
+        }
+        String lowerCase = message.toLowerCase();
+        for (String fragment : RANGE_ERRORS) {
+            if (lowerCase.contains(fragment)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isRangeStatus(ClientConnectionException e) {
+        String message = String.valueOf(e.getMessage());
+        for (String status : RANGE_STATUSES) {
+            if (message.startsWith(status)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void adapt(long width, int logs) {
+        if (logs > targetLogs) {
+            chunkSize.updateAndGet(size -> Math.max(1, size / 2));
+        } else if (logs < targetLogs / 2) {
+            chunkSize.updateAndGet(size -> width >= size ? (int) Math.min(maxChunkSize, size * 2L) : size);
+        }
+    }
+
+    private KlayLogs getLogs(KlayLogFilter filter, long first, long last) throws IOException {
+        KlayLogFilter rangeFilter = new KlayLogFilter(
+                new DefaultBlockParameterNumber(first), new DefaultBlockParameterNumber(last),
+                filter.getAddress(), null);
+        rangeFilter.getTopics().addAll(filter.getTopics());
+        return caver.klay().getLogs(rangeFilter).send();
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while scanning logs");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static class Chunk {
+        private final long last;
+        private final List<KlayLogs.Log> logs;
+
+        Chunk(long last, List<KlayLogs.Log> logs) {
+            this.last = last;
+            this.logs = logs;
+        }
+    }
+
+    /**
+     * Progress and throughput of a scan. The counters are updated while the scan runs.
+     */
+    public static class Progress {
+        private final long fromBlock;
+        private final long toBlock;
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong lastBlock;
+        private final AtomicLong logs = new AtomicLong();
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong splits = new AtomicLong();
+
+        Progress(BigInteger fromBlock, BigInteger toBlock) {
+            this.fromBlock = fromBlock.longValue();
+            this.toBlock = toBlock.longValue();
+            this.lastBlock = new AtomicLong(this.fromBlock - 1);
+        }
+
+        public BigInteger getFromBlock() {
+            return BigInteger.valueOf(fromBlock);
+        }
+
+        public BigInteger getToBlock() {
+            return BigInteger.valueOf(toBlock);
+        }
+
+        /**
+         * @return the last block whose logs were all delivered
+         */
+        public BigInteger getLastBlock() {
+            return BigInteger.valueOf(lastBlock.get());
+        }
+
+        /**
+         * @return share of the range which was scanned, between 0 and 1
+         */
+        public double getFraction() {
+            if (toBlock < fromBlock) {
+                return 1;
+            }
+            return (double) (lastBlock.get() - fromBlock + 1) / (toBlock - fromBlock + 1);
+        }
+
+        /**
+         * @return number of logs delivered to the sink
+         */
+        public long getLogs() {
+            return logs.get();
+        }
+
+        /**
+         * @return number of {@code klay_getLogs} requests, including the failed ones
+         */
+        public long getRequests() {
+            return requests.get();
+        }
+
+        /**
+         * @return number of failed requests which were split into two
+         */
+        public long getSplits() {
+            return splits.get();
+        }
+
+        public double getBlocksPerSecond() {
+            return perSecond(lastBlock.get() - fromBlock + 1);
+        }
+
+        public double getLogsPerSecond() {
+            return perSecond(logs.get());
+        }
+
+        private double perSecond(long count) {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            return elapsedNanos <= 0 ? 0 : count * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        }
+    }
+
+    public static class Builder {
+        private final Caver caver;
+        private int initialChunkSize = DEFAULT_INITIAL_CHUNK_SIZE;
+        private int maxChunkSize = DEFAULT_MAX_CHUNK_SIZE;
+        private int targetLogs = DEFAULT_TARGET_LOGS;
+        private int parallelism = DEFAULT_PARALLELISM;
+        private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+        private Executor executor;
+        private Checkpoint checkpoint;
+
+        public Builder(Caver caver) {
+            this.caver = caver;
+        }
+
+        /**
+         * @param initialChunkSize number of blocks spanned by the first requests
+         * @return Builder
+         */
+        public Builder setInitialChunkSize(int initialChunkSize) {
+            if (initialChunkSize < 1) {
+                throw new IllegalArgumentException("initialChunkSize must be positive");
+            }
+            this.initialChunkSize = initialChunkSize;
+            return this;
+        }
+
+        /**
+         * @param maxChunkSize largest number of blocks spanned by a request
+         * @return Builder
+         */
+        public Builder setMaxChunkSize(int maxChunkSize) {
+            if (maxChunkSize < 1) {
+                throw new IllegalArgumentException("maxChunkSize must be positive");
+            }
+            this.maxChunkSize = maxChunkSize;
+            return this;
+        }
+
+        /**
+         * @param targetLogs number of logs per response the chunk size is adapted to
+         * @return Builder
+         */
+        public Builder setTargetLogs(int targetLogs) {
+            if (targetLogs < 1) {
+                throw new IllegalArgumentException("targetLogs must be positive");
+            }
+            this.targetLogs = targetLogs;
+            return this;
+        }
+
+        /**
+         * @param parallelism number of requests in flight at once
+         * @return Builder
+         */
+        public Builder setParallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("parallelism must be positive");
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * @param maxAttempts number of times a single block is requested before the scan fails
+         * @return Builder
+         */
+        public Builder setMaxAttempts(int maxAttempts) {
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("maxAttempts must be positive");
+            }
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * @param executor runs the requests; the blocking executor of the caver's
+         *                 {@link com.klaytn.caver.ExecutorStrategy} by default
+         * @return Builder
+         */
+        public Builder setExecutor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public Builder setCheckpoint(Checkpoint checkpoint) {
+            this.checkpoint = checkpoint;
+            return this;
+        }
+
+        public LogScanner build() {
+            return new LogScanner(this);
+        }
+    }
+}
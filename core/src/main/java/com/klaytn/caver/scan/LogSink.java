@@ -0,0 +1,34 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.scan;
+
+import com.klaytn.caver.methods.response.KlayLogs;
+
+import java.io.IOException;
+
+/**
+ * Receives the logs of a {@link LogScanner} one at a time, in (block number, log index) order.
+ */
+public interface LogSink {
+
+    /**
+     * @param log the next log
+     * @throws IOException to stop the scan; the checkpoint stays at the previous chunk
+     */
+    void accept(KlayLogs.Log log) throws IOException;
+}
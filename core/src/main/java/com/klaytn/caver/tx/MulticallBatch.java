@@ -0,0 +1,455 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.tx;
+
+import com.klaytn.caver.Caver;
+import com.klaytn.caver.methods.request.CallObject;
+import com.klaytn.caver.methods.response.Bytes;
+import com.klaytn.caver.protocol.BatchRequest;
+import com.klaytn.caver.protocol.BatchResponse;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.FunctionReturnDecoder;
+import org.web3j.abi.TypeEncoder;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.Bool;
+import org.web3j.abi.datatypes.DynamicBytes;
+import org.web3j.abi.datatypes.Function;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.crypto.Hash;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Request;
+import org.web3j.tx.exceptions.ContractCallException;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Executes the constant functions of many contracts together, instead of one {@code klay_call} per
+ * function as {@link SmartContract} does.
+ *
+ * <p>By default every function is still a {@code klay_call} of its own, but the calls are sent in
+ * JSON-RPC batches. With {@link Builder#setAggregator(String)}, the calls are instead bundled into
+ * {@code tryAggregate(bool,(address,bytes)[])} calls of a deployed Multicall2 or Multicall3 contract,
+ * so the node executes many functions per {@code klay_call}, all at the same block.
+ *
+ * <pre>
+ * MulticallBatch batch = new MulticallBatch.Builder(caver).build();
+ * MulticallBatch.Call balance = batch.add(token, new Function("balanceOf",
+ *         Arrays.asList(new Address(owner)), Arrays.asList(new TypeReference&lt;Uint256&gt;() {})));
+ * batch.execute();
+ * BigInteger value = balance.&lt;Uint256&gt;getValue().getValue();
+ * </pre>
+ *
+ * <p>A failing function, e.g. one which reverts, fails only its own {@link Call}.
+ */
+public class MulticallBatch {
+
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final int DEFAULT_CALLS_PER_AGGREGATE = 100;
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    private static final String TRY_AGGREGATE =
+            Hash.sha3String("tryAggregate(bool,(address,bytes)[])").substring(0, 10);
+
+    private final Caver caver;
+    private final String aggregator;
+    private final int batchSize;
+    private final int callsPerAggregate;
+    private final int parallelism;
+    private final DefaultBlockParameter defaultBlockParameter;
+    private final List<Call> calls = new ArrayList<>();
+
+    private MulticallBatch(Builder builder) {
+        this.caver = builder.caver;
+        this.aggregator = builder.aggregator;
+        this.batchSize = builder.batchSize;
+        this.callsPerAggregate = builder.callsPerAggregate;
+        this.parallelism = builder.parallelism;
+        this.defaultBlockParameter = builder.defaultBlockParameter;
+    }
+
+    /**
+     * Adds a constant function of a contract, called from the default address of its transaction manager.
+     *
+     * @param contract contract to call
+     * @param function constant function of the contract
+     * @return Call - holds the result once the batch is executed
+     */
+    public Call add(SmartContract contract, Function function) {
+        return add(contract.transactionManager.getDefaultAddress(), contract.getContractAddress(), function);
+    }
+
+    /**
+     * @param contractAddress address of the contract to call
+     * @param function        constant function of the contract
+     * @return Call - holds the result once the batch is executed
+     */
+    public Call add(String contractAddress, Function function) {
+        return add(null, contractAddress, function);
+    }
+
+    private Call add(String from, String contractAddress, Function function) {
+        Call call = new Call(from, contractAddress, function);
+        calls.add(call);
+        return call;
+    }
+
+    /**
+     * @return number of calls which are not executed yet
+     */
+    public int size() {
+        return calls.size();
+    }
+
+    /**
+     * Executes every call added since the last execution, and decodes their results.
+     *
+     * @return List - the executed calls in the order they were added
+     * @throws IOException when a request could not be delivered
+     */
+    public List<Call> execute() throws IOException {
+        List<Call> executed = new ArrayList<>(calls);
+        calls.clear();
+
+        List<Pending> pending = new ArrayList<>();
+        if (aggregator == null) {
+            for (Call call : executed) {
+                pending.add(new Pending(Collections.singletonList(call), klayCall(call.from, call.contractAddress,
+                        FunctionEncoder.encode(call.function))));
+            }
+        } else {
+            for (int from = 0; from < executed.size(); from += callsPerAggregate) {
+                List<Call> aggregated = executed.subList(from, Math.min(from + callsPerAggregate, executed.size()));
+                pending.add(new Pending(aggregated, klayCall(null, aggregator, encodeTryAggregate(aggregated))));
+            }
+        }
+        send(pending);
+        return executed;
+    }
+
+    private Request<?, Bytes> klayCall(String from, String to, String data) {
+        return caver.klay().call(new CallObject(from, to, null, null, null, data), defaultBlockParameter);
+    }
+
+    private void send(List<Pending> pending) throws IOException {
+        Deque<CompletableFuture<BatchResponse>> inFlight = new ArrayDeque<>();
+        Deque<List<Pending>> chunks = new ArrayDeque<>();
+        try {
+            for (int from = 0; from < pending.size(); from += batchSize) {
+                if (inFlight.size() == parallelism) {
+                    complete(chunks.poll(), await(inFlight.poll()));
+                }
+                List<Pending> chunk = pending.subList(from, Math.min(from + batchSize, pending.size()));
+                BatchRequest batch = caver.batch();
+                for (Pending request : chunk) {
+                    batch.add(request.request);
+                }
+                chunks.add(chunk);
+                inFlight.add(batch.sendAsync());
+            }
+            while (!inFlight.isEmpty()) {
+                complete(chunks.poll(), await(inFlight.poll()));
+            }
+        } finally {
+            for (CompletableFuture<BatchResponse> future : inFlight) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private void complete(List<Pending> chunk, BatchResponse batchResponse) {
+        for (int i = 0; i < chunk.size(); i++) {
+            Pending pending = chunk.get(i);
+            Bytes response = batchResponse.getResponse(i, Bytes.class);
+            if (response.hasError()) {
+                for (Call call : pending.calls) {
+                    call.fail(response.getError().getMessage());
+                }
+            } else if (aggregator == null) {
+                pending.calls.get(0).succeed(response.getResult());
+            } else {
+                decodeTryAggregate(pending.calls, response.getResult());
+            }
+        }
+    }
+
+    private static BatchResponse await(CompletableFuture<BatchResponse> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while executing calls");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Encodes {@code tryAggregate(false, calls)}. The calls are an array of (address, bytes) tuples, which
+     * the ABI encoder of this web3j version can not encode, so the tuples are encoded here.
+     */
+    private static String encodeTryAggregate(List<Call> calls) {
+        List<String> tuples = new ArrayList<>(calls.size());
+        for (Call call : calls) {
+            tuples.add(TypeEncoder.encode(new Address(call.contractAddress))
+                    + word(64)
+                    + TypeEncoder.encode(new DynamicBytes(Numeric.hexStringToByteArray(
+                    FunctionEncoder.encode(call.function)))));
+        }
+
+        StringBuilder encoded = new StringBuilder(TRY_AGGREGATE)
+                .append(TypeEncoder.encode(new Bool(false)))
+                .append(word(64))
+                .append(word(calls.size()));
+        int offset = calls.size() * 32;
+        for (String tuple : tuples) {
+            encoded.append(word(offset));
+            offset += tuple.length() / 2;
+        }
+        for (String tuple : tuples) {
+            encoded.append(tuple);
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * Decodes the (bool success, bytes returnData)[] result of {@code tryAggregate} into the calls.
+     */
+    private static void decodeTryAggregate(List<Call> calls, String result) {
+        String hex = Numeric.cleanHexPrefix(result == null ? "" : result);
+        try {
+            int array = uint(hex, 0);
+            if (uint(hex, array) != calls.size()) {
+                throw new IllegalArgumentException("Expected " + calls.size() + " results");
+            }
+            int elements = array + 32;
+            for (int i = 0; i < calls.size(); i++) {
+                int tuple = elements + uint(hex, elements + i * 32);
+                boolean success = uint(hex, tuple) != 0;
+                int data = tuple + uint(hex, tuple + 32);
+                int length = uint(hex, data);
+                String returnData = "0x" + hex.substring((data + 32) * 2, (data + 32 + length) * 2);
+                if (success) {
+                    calls.get(i).succeed(returnData);
+                } else {
+                    calls.get(i).fail("Call reverted: " + returnData);
+                }
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            for (Call call : calls) {
+                call.fail("Malformed tryAggregate result: " + e.getMessage());
+            }
+        }
+    }
+
+    private static String word(long value) {
+        return TypeEncoder.encode(new Uint256(value));
+    }
+
+    private static int uint(String hex, int offset) {
+        BigInteger value = new BigInteger(hex.substring(offset * 2, offset * 2 + 64), 16);
+        if (value.bitLength() > 31) {
+            throw new IllegalArgumentException("Offset out of range: " + value);
+        }
+        return value.intValue();
+    }
+
+    /**
+     * A constant function call of a {@link MulticallBatch}.
+     */
+    public static class Call {
+
+        private final String from;
+        private final String contractAddress;
+        private final Function function;
+        private volatile boolean done;
+        private volatile List<Type> values;
+        private volatile String error;
+
+        Call(String from, String contractAddress, Function function) {
+            this.from = from;
+            this.contractAddress = contractAddress;
+            this.function = function;
+        }
+
+        public String getContractAddress() {
+            return contractAddress;
+        }
+
+        public Function getFunction() {
+            return function;
+        }
+
+        /**
+         * @return whether the batch of this call was executed
+         */
+        public boolean isDone() {
+            return done;
+        }
+
+        public boolean isSuccess() {
+            return done && error == null;
+        }
+
+        /**
+         * @return message of the failure, or null if the call succeeded or is not executed yet
+         */
+        public String getError() {
+            return error;
+        }
+
+        /**
+         * @return values returned by the function, decoded with its output parameters
+         * @throws ContractCallException if the call failed or is not executed yet
+         */
+        public List<Type> getValues() {
+            if (!done) {
+                throw new ContractCallException("Call of " + function.getName() + " is not executed yet");
+            }
+            if (error != null) {
+                throw new ContractCallException("Call of " + function.getName() + " failed: " + error);
+            }
+            return values;
+        }
+
+        /**
+         * @param <T> type of the first output parameter
+         * @return first value returned by the function
+         * @throws ContractCallException if the call failed, is not executed yet or returned no value
+         */
+        @SuppressWarnings("unchecked")
+        public <T extends Type> T getValue() {
+            List<Type> returned = getValues();
+            if (returned.isEmpty()) {
+                throw new ContractCallException("Empty value (0x) returned from contract");
+            }
+            return (T) returned.get(0);
+        }
+
+        private void succeed(String result) {
+            try {
+                values = FunctionReturnDecoder.decode(result, function.getOutputParameters());
+            } catch (RuntimeException e) {
+                error = "Unable to decode " + result + ": " + e.getMessage();
+            }
+            done = true;
+        }
+
+        private void fail(String message) {
+            error = message;
+            done = true;
+        }
+    }
+
+    private static class Pending {
+
+        private final List<Call> calls;
+        private final Request<?, Bytes> request;
+
+        Pending(List<Call> calls, Request<?, Bytes> request) {
+            this.calls = calls;
+            this.request = request;
+        }
+    }
+
+    public static class Builder {
+        private final Caver caver;
+        private String aggregator;
+        private int batchSize = DEFAULT_BATCH_SIZE;
+        private int callsPerAggregate = DEFAULT_CALLS_PER_AGGREGATE;
+        private int parallelism = DEFAULT_PARALLELISM;
+        private DefaultBlockParameter defaultBlockParameter = DefaultBlockParameterName.LATEST;
+
+        public Builder(Caver caver) {
+            this.caver = caver;
+        }
+
+        /**
+         * @param aggregator address of a Multicall2 or Multicall3 contract which executes the calls with
+         *                   {@code tryAggregate}, or null to send every call as a klay_call of its own
+         * @return Builder
+         */
+        public Builder setAggregator(String aggregator) {
+            this.aggregator = aggregator;
+            return this;
+        }
+
+        /**
+         * @param batchSize maximum number of klay_call requests in one JSON-RPC batch
+         * @return Builder
+         */
+        public Builder setBatchSize(int batchSize) {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("batchSize must be positive");
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * @param callsPerAggregate maximum number of calls bundled into one {@code tryAggregate} call
+         * @return Builder
+         */
+        public Builder setCallsPerAggregate(int callsPerAggregate) {
+            if (callsPerAggregate < 1) {
+                throw new IllegalArgumentException("callsPerAggregate must be positive");
+            }
+            this.callsPerAggregate = callsPerAggregate;
+            return this;
+        }
+
+        /**
+         * @param parallelism maximum number of JSON-RPC batches in flight
+         * @return Builder
+         */
+        public Builder setParallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("parallelism must be positive");
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * @param defaultBlockParameter block at which the functions are called
+         * @return Builder
+         */
+        public Builder setDefaultBlockParameter(DefaultBlockParameter defaultBlockParameter) {
+            this.defaultBlockParameter = defaultBlockParameter;
+            return this;
+        }
+
+        public MulticallBatch build() {
+            return new MulticallBatch(this);
+        }
+    }
+}
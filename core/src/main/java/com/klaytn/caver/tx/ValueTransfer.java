@@ -25,6 +25,7 @@ import com.klaytn.caver.crypto.KlayCredentials;
 import com.klaytn.caver.methods.response.KlayTransactionReceipt;
 import com.klaytn.caver.tx.manager.ErrorHandler;
 import com.klaytn.caver.tx.manager.TransactionManager;
+import com.klaytn.caver.tx.manager.TransactionResult;
 import com.klaytn.caver.utils.Convert;
 import com.klaytn.caver.tx.model.ValueTransferTransaction;
 import org.web3j.protocol.core.RemoteCall;
@@ -32,6 +33,7 @@ import org.web3j.utils.Numeric;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.List;
 
 public class ValueTransfer extends ManagedTransaction {
 
@@ -67,6 +69,16 @@ public class ValueTransfer extends ManagedTransaction {
         return new RemoteCall<>(() -> send(transaction));
     }
 
+    /**
+     * Sends all transfers at once through {@link TransactionManager#executeTransactions(List)}.
+     *
+     * @param transactions value transfer transactions
+     * @return a result per transaction, in the given order
+     */
+    public RemoteCall<List<TransactionResult>> sendFunds(List<ValueTransferTransaction> transactions) {
+        return new RemoteCall<>(() -> transactionManager.executeTransactions(transactions));
+    }
+
     public static ValueTransfer create(Caver caver, TransactionManager transactionManager) {
         return new ValueTransfer(caver, transactionManager);
     }
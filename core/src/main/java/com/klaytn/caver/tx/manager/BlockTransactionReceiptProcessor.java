@@ -0,0 +1,276 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.tx.manager;
+
+import com.klaytn.caver.Caver;
+import com.klaytn.caver.methods.response.BlockReceipts;
+import com.klaytn.caver.methods.response.KlayBlock;
+import com.klaytn.caver.methods.response.KlayTransaction;
+import com.klaytn.caver.methods.response.KlayTransactionReceipt;
+import com.klaytn.caver.protocol.BatchRequest;
+import com.klaytn.caver.protocol.BatchResponse;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.exceptions.TransactionException;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves receipts by following the chain head instead of polling every transaction hash.
+ *
+ * <p>Every tick the head is taken from {@link Caver#chainHeadTracker()}, which is followed while receipts
+ * are pending, and read from the node only until the tracker knows it. Hashes registered since the
+ * previous tick are looked up in a single batch of {@code klay_getTransactionReceipt}, since they may
+ * already be in a block which was scanned before they were registered. After that each new block is
+ * fetched once, and {@code klay_getBlockReceipts} is called only for blocks which contain a pending hash.
+ * The number of RPCs therefore grows with the block rate, not with the number of transactions in flight.
+ */
+public class BlockTransactionReceiptProcessor extends TransactionReceiptProcessor {
+
+    public static final long DEFAULT_POLLING_FREQUENCY = 1000;
+    public static final long DEFAULT_TIMEOUT = 15000;
+    static final int MAX_BLOCKS_PER_TICK = 100;
+
+    private final Caver caver;
+    private final long timeout;
+    private final Map<String, PendingReceipt> pendingReceipts = new ConcurrentHashMap<>();
+    private final Queue<PendingReceipt> registeredReceipts = new ConcurrentLinkedQueue<>();
+    private BigInteger nextBlockNumber;
+
+    public BlockTransactionReceiptProcessor(Caver caver) {
+        this(caver, DEFAULT_POLLING_FREQUENCY, DEFAULT_TIMEOUT);
+    }
+
+    public BlockTransactionReceiptProcessor(Caver caver, long pollingFrequency, long timeout) {
+        this(caver, pollingFrequency, timeout, caver.executorStrategy().getScheduler());
+    }
+
+    public BlockTransactionReceiptProcessor(Caver caver, long pollingFrequency, long timeout,
+                                            ScheduledExecutorService scheduledExecutorService) {
+        super(caver);
+        this.caver = caver;
+        this.timeout = timeout;
+
+        scheduledExecutorService.scheduleWithFixedDelay(
+                this::processBlocks, pollingFrequency, pollingFrequency, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public KlayTransactionReceipt.TransactionReceipt waitForTransactionReceipt(String transactionHash)
+            throws IOException, TransactionException {
+        try {
+            return waitForTransactionReceiptAsync(transactionHash).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransactionException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TransactionException) {
+                throw (TransactionException) e.getCause();
+            }
+            throw new TransactionException(e.getCause());
+        }
+    }
+
+    /**
+     * Registers a transaction hash and returns a future which is completed with its receipt, or with a
+     * {@link TransactionException} if no receipt was found within the timeout.
+     *
+     * @param transactionHash hash of a sent transaction
+     * @return CompletableFuture of the receipt
+     */
+    @Override
+    public CompletableFuture<KlayTransactionReceipt.TransactionReceipt> waitForTransactionReceiptAsync(
+            String transactionHash) {
+        PendingReceipt pendingReceipt = pendingReceipts.computeIfAbsent(transactionHash.toLowerCase(), hash -> {
+            PendingReceipt registered = new PendingReceipt(transactionHash, System.currentTimeMillis() + timeout);
+            registeredReceipts.add(registered);
+            followChainHead();
+            registered.future.whenComplete((receipt, throwable) -> unfollowChainHead());
+            return registered;
+        });
+        return pendingReceipt.future;
+    }
+
+    int getPendingCount() {
+        return pendingReceipts.size();
+    }
+
+    private void processBlocks() {
+        try {
+            if (pendingReceipts.isEmpty()) {
+                nextBlockNumber = null;
+                return;
+            }
+
+            BigInteger head = getChainHead();
+            if (head == null) {
+                head = caver.klay().getBlockNumber().send().getValue();
+            }
+            if (nextBlockNumber == null) {
+                nextBlockNumber = head.add(BigInteger.ONE);
+            }
+            resolveRegistered();
+            scanBlocks(head);
+        } catch (IOException | RuntimeException e) {
+            // Keep every hash pending; the same blocks are scanned again on the next tick.
+        } finally {
+            expire();
+        }
+    }
+
+    private void resolveRegistered() throws IOException {
+        List<PendingReceipt> registered = new ArrayList<>();
+        PendingReceipt pendingReceipt;
+        while ((pendingReceipt = registeredReceipts.poll()) != null) {
+            registered.add(pendingReceipt);
+        }
+        if (registered.isEmpty()) {
+            return;
+        }
+
+        BatchRequest batch = caver.batch();
+        for (PendingReceipt receipt : registered) {
+            batch.add(caver.klay().getTransactionReceipt(receipt.transactionHash));
+        }
+        try {
+            BatchResponse response = batch.send();
+            for (int i = 0; i < registered.size(); i++) {
+                KlayTransactionReceipt receipt = response.getResponse(i, KlayTransactionReceipt.class);
+                if (!receipt.hasError() && receipt.getResult() != null) {
+                    complete(receipt.getResult());
+                }
+            }
+        } catch (IOException e) {
+            registeredReceipts.addAll(registered);
+            throw e;
+        }
+    }
+
+    private void scanBlocks(BigInteger head) throws IOException {
+        while (nextBlockNumber.compareTo(head) <= 0 && !pendingReceipts.isEmpty()) {
+            BigInteger last = nextBlockNumber.add(BigInteger.valueOf(MAX_BLOCKS_PER_TICK - 1)).min(head);
+
+            BatchRequest blockBatch = caver.batch();
+            for (BigInteger number = nextBlockNumber; number.compareTo(last) <= 0; number = number.add(BigInteger.ONE)) {
+                blockBatch.add(caver.klay().getBlockByNumber(new DefaultBlockParameterNumber(number), false));
+            }
+
+            BatchResponse response = blockBatch.send();
+            List<KlayBlock.Block> blocks = new ArrayList<>();
+            for (int i = 0; i < response.size(); i++) {
+                KlayBlock.Block block = response.getResponse(i, KlayBlock.class).getResult();
+                if (block == null) {
+                    break;
+                }
+                blocks.add(block);
+            }
+            if (blocks.isEmpty()) {
+                return;
+            }
+
+            fetchReceipts(blocks);
+            nextBlockNumber = nextBlockNumber.add(BigInteger.valueOf(blocks.size()));
+            if (blocks.size() < blockBatch.size()) {
+                return;
+            }
+        }
+    }
+
+    private void fetchReceipts(List<KlayBlock.Block> blocks) throws IOException {
+        BatchRequest receiptBatch = caver.batch();
+        List<Request<?, BlockReceipts>> requests = new ArrayList<>();
+        for (KlayBlock.Block block : blocks) {
+            if (containsPendingTransaction(block)) {
+                Request<?, BlockReceipts> request = caver.klay().getBlockReceipts(block.getHash());
+                requests.add(request);
+                receiptBatch.add(request);
+            }
+        }
+        if (requests.isEmpty()) {
+            return;
+        }
+
+        BatchResponse response = receiptBatch.send();
+        for (Request<?, BlockReceipts> request : requests) {
+            BlockReceipts blockReceipts = response.getResponse(request);
+            if (blockReceipts.hasError() || blockReceipts.getResult() == null) {
+                throw new IOException("Unable to get receipts of block " + request.getParams());
+            }
+            for (KlayTransactionReceipt.TransactionReceipt receipt : blockReceipts.getResult()) {
+                complete(receipt);
+            }
+        }
+    }
+
+    private boolean containsPendingTransaction(KlayBlock.Block block) {
+        if (block.getTransactions() == null) {
+            return false;
+        }
+        for (KlayTransaction.Transaction transaction : block.getTransactions()) {
+            if (transaction.getHash() != null && pendingReceipts.containsKey(transaction.getHash().toLowerCase())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void complete(KlayTransactionReceipt.TransactionReceipt receipt) {
+        if (receipt.getTransactionHash() == null) {
+            return;
+        }
+        PendingReceipt pendingReceipt = pendingReceipts.remove(receipt.getTransactionHash().toLowerCase());
+        if (pendingReceipt != null) {
+            pendingReceipt.future.complete(receipt);
+        }
+    }
+
+    private void expire() {
+        long now = System.currentTimeMillis();
+        for (PendingReceipt pendingReceipt : pendingReceipts.values()) {
+            if (pendingReceipt.deadline < now
+                    && pendingReceipts.remove(pendingReceipt.transactionHash.toLowerCase(), pendingReceipt)) {
+                pendingReceipt.future.completeExceptionally(new TransactionException(
+                        "Transaction receipt was not generated after " + (timeout / 1000)
+                                + " seconds for transaction: " + pendingReceipt.transactionHash,
+                        pendingReceipt.transactionHash));
+            }
+        }
+    }
+
+    private static class PendingReceipt {
+        private final String transactionHash;
+        private final long deadline;
+        private final CompletableFuture<KlayTransactionReceipt.TransactionReceipt> future = new CompletableFuture<>();
+
+        PendingReceipt(String transactionHash, long deadline) {
+            this.transactionHash = transactionHash;
+            this.deadline = deadline;
+        }
+    }
+}
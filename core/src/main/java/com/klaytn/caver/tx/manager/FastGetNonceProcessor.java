@@ -14,29 +14,140 @@
  * limitations under the License.
  */
 
+
 package com.klaytn.caver.tx.manager;
 
 import com.klaytn.caver.Caver;
 import com.klaytn.caver.crypto.KlayCredentials;
+import org.web3j.utils.Numeric;
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Hands out nonces from a local counter instead of asking the node for every transaction.
+ *
+ * <p>The counter is kept per account and initialized from {@code klay_getTransactionCount(PENDING)}
+ * on first use. Every account has its own lock, so senders never wait for each other. Nonces which
+ * are released after a failed send are handed out again before new ones, and the counter is
+ * synchronized with the node again when it reports "nonce too low", or when a send fails without an
+ * answer from the node.
+ */
 public class FastGetNonceProcessor extends GetNonceProcessor {
 
-    private volatile BigInteger nonce = BigInteger.valueOf(-1);
+    private final ConcurrentMap<String, AccountNonce> accountNonces = new ConcurrentHashMap<>();
 
     public FastGetNonceProcessor(Caver caver) {
         super(caver);
     }
 
     @Override
-    public synchronized BigInteger getNonce(KlayCredentials credentials) throws IOException {
-        if (nonce.signum() == -1) {
-            nonce = super.getNonce(credentials);
-        } else {
-            nonce = nonce.add(BigInteger.ONE);
+    public boolean tracksNonces() {
+        return true;
+    }
+
+    @Override
+    public BigInteger getNonce(KlayCredentials credentials) throws IOException {
+        AccountNonce accountNonce = getAccountNonce(credentials.getAddress());
+        synchronized (accountNonce) {
+            initialize(credentials.getAddress(), accountNonce);
+            if (!accountNonce.released.isEmpty()) {
+                return accountNonce.released.pollFirst();
+            }
+            BigInteger nonce = accountNonce.next;
+            accountNonce.next = nonce.add(BigInteger.ONE);
+            return nonce;
+        }
+    }
+
+    @Override
+    public BigInteger reserveNonces(KlayCredentials credentials, int count) throws IOException {
+        AccountNonce accountNonce = getAccountNonce(credentials.getAddress());
+        synchronized (accountNonce) {
+            initialize(credentials.getAddress(), accountNonce);
+            BigInteger first = accountNonce.next;
+            accountNonce.next = first.add(BigInteger.valueOf(count));
+            return first;
+        }
+    }
+
+    @Override
+    public void releaseNonce(KlayCredentials credentials, BigInteger nonce) {
+        AccountNonce accountNonce = getAccountNonce(credentials.getAddress());
+        synchronized (accountNonce) {
+            if (accountNonce.next == null || nonce.compareTo(accountNonce.next) >= 0) {
+                return;
+            }
+            accountNonce.released.add(nonce);
+            BigInteger last = accountNonce.next.subtract(BigInteger.ONE);
+            while (accountNonce.released.remove(last)) {
+                accountNonce.next = last;
+                last = last.subtract(BigInteger.ONE);
+            }
+        }
+    }
+
+    /**
+     * Sets the counter of an account to its pending transaction count, also when the counter is ahead of
+     * the node, e.g. because a transaction never reached the node.
+     *
+     * @param credentials credentials of the sender
+     * @throws IOException when the nonce could not be fetched from the node
+     */
+    @Override
+    public void resync(KlayCredentials credentials) throws IOException {
+        BigInteger pending = getPendingTransactionCount(credentials.getAddress());
+        AccountNonce accountNonce = getAccountNonce(credentials.getAddress());
+        synchronized (accountNonce) {
+            accountNonce.next = pending;
+            accountNonce.released.clear();
+        }
+    }
+
+    /**
+     * Returns the nonces below the local counter which were released and are not used yet. A transaction
+     * with a higher nonce stays in the tx pool until every gap is filled.
+     *
+     * @param address address of the account
+     * @return List - released nonces in ascending order
+     */
+    public List<BigInteger> getNonceGaps(String address) {
+        AccountNonce accountNonce = getAccountNonce(address);
+        synchronized (accountNonce) {
+            return new ArrayList<>(accountNonce.released);
+        }
+    }
+
+    /**
+     * Forgets the local counter of an account. The next nonce is fetched from the node again.
+     *
+     * @param address address of the account
+     */
+    public void reset(String address) {
+        accountNonces.remove(toKey(address));
+    }
+
+    private AccountNonce getAccountNonce(String address) {
+        return accountNonces.computeIfAbsent(toKey(address), key -> new AccountNonce());
+    }
+
+    private void initialize(String address, AccountNonce accountNonce) throws IOException {
+        if (accountNonce.next == null) {
+            accountNonce.next = getPendingTransactionCount(address);
         }
-        return nonce;
+    }
+
+    private static String toKey(String address) {
+        return Numeric.prependHexPrefix(address).toLowerCase();
+    }
+
+    private static class AccountNonce {
+        private BigInteger next;
+        private final TreeSet<BigInteger> released = new TreeSet<>();
     }
 }
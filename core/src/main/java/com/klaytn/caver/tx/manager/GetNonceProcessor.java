@@ -14,6 +14,7 @@
  * limitations under the License.
  */
 
+
 package com.klaytn.caver.tx.manager;
 
 import com.klaytn.caver.Caver;
@@ -32,8 +33,56 @@ public class GetNonceProcessor {
     }
 
     public BigInteger getNonce(KlayCredentials credentials) throws IOException {
+        return getPendingTransactionCount(credentials.getAddress());
+    }
+
+    /**
+     * Returns whether this processor keeps track of the nonces it hands out. This processor does not: it
+     * returns the pending transaction count of the node, which stays the same until a transaction reaches
+     * the node, so transactions of one sender which are prepared concurrently would get the same nonce.
+     *
+     * @return false
+     */
+    public boolean tracksNonces() {
+        return false;
+    }
+
+    /**
+     * Reserves {@code count} consecutive nonces of an account. This processor returns the pending
+     * transaction count, so the caller numbers the transactions from it, and two reservations made before
+     * their transactions reach the node return the same range.
+     *
+     * @param credentials credentials of the sender
+     * @param count       number of nonces to reserve
+     * @return BigInteger - the first nonce of the reserved range
+     * @throws IOException when the nonce could not be fetched from the node
+     */
+    public BigInteger reserveNonces(KlayCredentials credentials, int count) throws IOException {
+        return getPendingTransactionCount(credentials.getAddress());
+    }
+
+    /**
+     * Gives back a nonce which was handed out by {@link #getNonce(KlayCredentials)} but never reached
+     * the node, e.g. because the transaction was rejected.
+     *
+     * @param credentials credentials of the sender
+     * @param nonce       nonce which is not used
+     */
+    public void releaseNonce(KlayCredentials credentials, BigInteger nonce) {
+    }
+
+    /**
+     * Synchronizes the nonce of an account with the node, e.g. after the node answered "nonce too low".
+     *
+     * @param credentials credentials of the sender
+     * @throws IOException when the nonce could not be fetched from the node
+     */
+    public void resync(KlayCredentials credentials) throws IOException {
+    }
+
+    protected BigInteger getPendingTransactionCount(String address) throws IOException {
         Quantity quantity = caver.klay().getTransactionCount(
-                credentials.getAddress(), DefaultBlockParameterName.PENDING).send();
+                address, DefaultBlockParameterName.PENDING).send();
 
         return quantity.getValue();
     }
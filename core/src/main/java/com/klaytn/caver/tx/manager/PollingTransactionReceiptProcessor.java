@@ -21,16 +21,23 @@
 package com.klaytn.caver.tx.manager;
 
 import com.klaytn.caver.Caver;
+import com.klaytn.caver.ExecutorStrategy;
 import com.klaytn.caver.methods.response.KlayTransactionReceipt;
 import org.web3j.protocol.exceptions.TransactionException;
 
 import java.io.IOException;
+import java.math.BigInteger;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class PollingTransactionReceiptProcessor extends TransactionReceiptProcessor {
 
     private final long sleepDuration;
     private final int attempts;
+    private ExecutorStrategy executorStrategy;
 
     public PollingTransactionReceiptProcessor(Caver caver, long sleepDuration, int attempts) {
         super(caver);
@@ -38,34 +45,96 @@ public class PollingTransactionReceiptProcessor extends TransactionReceiptProces
         this.attempts = attempts;
     }
 
+    /**
+     * @param scheduledExecutorService scheduler on which polling attempts are run
+     */
+    public PollingTransactionReceiptProcessor(Caver caver, long sleepDuration, int attempts,
+                                              ScheduledExecutorService scheduledExecutorService) {
+        this(caver, sleepDuration, attempts,
+                ExecutorStrategy.of(scheduledExecutorService, scheduledExecutorService));
+    }
+
+    /**
+     * @param executorStrategy executors whose scheduler times the attempts and whose blocking executor
+     *                         runs them. The default is the strategy of the caver instance.
+     */
+    public PollingTransactionReceiptProcessor(Caver caver, long sleepDuration, int attempts,
+                                              ExecutorStrategy executorStrategy) {
+        this(caver, sleepDuration, attempts);
+        this.executorStrategy = executorStrategy;
+    }
+
+    /**
+     * Waits for the scheduled polling of {@link #waitForTransactionReceiptAsync(String)}, so no thread
+     * sleeps between attempts other than the caller's.
+     */
     @Override
     public KlayTransactionReceipt.TransactionReceipt waitForTransactionReceipt(
             String transactionHash)
             throws IOException, TransactionException {
-        return getTransactionReceipt(transactionHash, sleepDuration, attempts);
+        try {
+            return waitForTransactionReceiptAsync(transactionHash).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransactionException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof TransactionException) {
+                throw (TransactionException) e.getCause();
+            }
+            throw new TransactionException(e.getCause());
+        }
     }
 
-    private KlayTransactionReceipt.TransactionReceipt getTransactionReceipt(
-            String transactionHash, long sleepDuration, int attempts)
-            throws IOException, TransactionException {
+    /**
+     * Polls for the receipt every {@code sleepDuration} milliseconds, up to {@code attempts} times after
+     * the first request. Each attempt is scheduled instead of sleeping, so no thread is held between
+     * attempts. An attempt does not send a request if {@link Caver#chainHeadTracker()} has seen no new
+     * block since the previous request, except for the last attempt.
+     *
+     * @param transactionHash hash of a sent transaction
+     * @return CompletableFuture of the receipt
+     */
+    @Override
+    public CompletableFuture<KlayTransactionReceipt.TransactionReceipt> waitForTransactionReceiptAsync(
+            String transactionHash) {
+        CompletableFuture<KlayTransactionReceipt.TransactionReceipt> result = new CompletableFuture<>();
+        followChainHead();
+        result.whenComplete((receipt, throwable) -> unfollowChainHead());
+        getExecutorStrategy().getBlockingExecutor().execute(() -> poll(transactionHash, 0, null, result));
+        return result;
+    }
 
-        Optional<KlayTransactionReceipt.TransactionReceipt> receiptOptional =
-                sendTransactionReceiptRequest(transactionHash);
-        for (int i = 0; i < attempts; i++) {
-            if (!receiptOptional.isPresent()) {
-                try {
-                    Thread.sleep(sleepDuration);
-                } catch (InterruptedException e) {
-                    throw new TransactionException(e);
+    @Override
+    protected ExecutorStrategy getExecutorStrategy() {
+        return executorStrategy != null ? executorStrategy : super.getExecutorStrategy();
+    }
+
+    private void poll(String transactionHash, int attempt, BigInteger requestedAt,
+                      CompletableFuture<KlayTransactionReceipt.TransactionReceipt> result) {
+        try {
+            // a receipt only appears with a new block
+            BigInteger head = getChainHead();
+            if (head == null || !head.equals(requestedAt) || attempt == attempts) {
+                Optional<KlayTransactionReceipt.TransactionReceipt> receiptOptional =
+                        sendTransactionReceiptRequest(transactionHash);
+                if (receiptOptional.isPresent()) {
+                    result.complete(receiptOptional.get());
+                    return;
                 }
-                receiptOptional = sendTransactionReceiptRequest(transactionHash);
+            }
+            if (attempt < attempts) {
+                getExecutorStrategy().schedule(
+                        () -> poll(transactionHash, attempt + 1, head, result), sleepDuration, TimeUnit.MILLISECONDS);
             } else {
-                return receiptOptional.get();
+                result.completeExceptionally(new TransactionException("Transaction receipt was not generated after "
+                        + ((sleepDuration * attempts) / 1000
+                        + " seconds for transaction: " + transactionHash), transactionHash));
             }
+        } catch (IOException | TransactionException | RuntimeException e) {
+            result.completeExceptionally(e);
         }
-
-        throw new TransactionException("Transaction receipt was not generated after "
-                + ((sleepDuration * attempts) / 1000
-                + " seconds for transaction: " + transactionHash), transactionHash);
     }
 }
@@ -21,15 +21,17 @@
 package com.klaytn.caver.tx.manager;
 
 import com.klaytn.caver.Caver;
+import com.klaytn.caver.ExecutorStrategy;
 import com.klaytn.caver.methods.response.Callback;
 import com.klaytn.caver.methods.response.EmptyTransactionReceipt;
 import com.klaytn.caver.methods.response.KlayTransactionReceipt;
 import org.web3j.protocol.exceptions.TransactionException;
-import org.web3j.utils.Async;
 
 import java.io.IOException;
+import java.math.BigInteger;
 import java.util.Optional;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class QueuingTransactionReceiptProcessor extends TransactionReceiptProcessor {
 
@@ -38,7 +40,7 @@ public class QueuingTransactionReceiptProcessor extends TransactionReceiptProces
 
     private final int pollingAttemptsPerTxHash;
 
-    private final ScheduledExecutorService scheduledExecutorService;
+    private final AtomicBoolean polling = new AtomicBoolean();
     private final Callback<KlayTransactionReceipt.TransactionReceipt> callback;
     private final BlockingQueue<QueuingTransactionReceiptProcessor.RequestWrapper> pendingTransactions;
 
@@ -46,14 +48,23 @@ public class QueuingTransactionReceiptProcessor extends TransactionReceiptProces
             Caver caver, Callback callback,
             int pollingAttemptsPerTxHash, long pollingFrequency) {
         super(caver);
-        this.scheduledExecutorService = Async.defaultExecutorService();
         this.callback = callback;
         this.pendingTransactions = new LinkedBlockingQueue<>();
         this.pollingAttemptsPerTxHash = pollingAttemptsPerTxHash;
 
-        scheduledExecutorService.scheduleAtFixedRate(
-                this::sendTransactionReceiptRequests,
-                pollingFrequency, pollingFrequency, TimeUnit.MILLISECONDS);
+        // the timer only dispatches; the requests run on the blocking executor, one round at a time
+        ExecutorStrategy executorStrategy = getExecutorStrategy();
+        executorStrategy.getScheduler().scheduleAtFixedRate(() -> {
+            if (polling.compareAndSet(false, true)) {
+                executorStrategy.getBlockingExecutor().execute(() -> {
+                    try {
+                        sendTransactionReceiptRequests();
+                    } finally {
+                        polling.set(false);
+                    }
+                });
+            }
+        }, pollingFrequency, pollingFrequency, TimeUnit.MILLISECONDS);
     }
 
     public QueuingTransactionReceiptProcessor(
@@ -64,20 +75,28 @@ public class QueuingTransactionReceiptProcessor extends TransactionReceiptProces
     @Override
     public KlayTransactionReceipt.TransactionReceipt waitForTransactionReceipt(String transactionHash)
             throws IOException, TransactionException {
-        pendingTransactions.add(new QueuingTransactionReceiptProcessor.RequestWrapper(transactionHash));
+        if (pendingTransactions.add(new QueuingTransactionReceiptProcessor.RequestWrapper(transactionHash))) {
+            followChainHead();
+        }
 
         return new EmptyTransactionReceipt(transactionHash);
     }
 
     private void sendTransactionReceiptRequests() {
+        // a receipt only appears with a new block; the last attempt for a hash always asks the node
+        BigInteger head = getChainHead();
         for (QueuingTransactionReceiptProcessor.RequestWrapper requestWrapper : pendingTransactions) {
             try {
                 String transactionHash = requestWrapper.getTransactionHash();
-                Optional<KlayTransactionReceipt.TransactionReceipt> transactionReceipt =
-                        sendTransactionReceiptRequest(transactionHash);
+                Optional<KlayTransactionReceipt.TransactionReceipt> transactionReceipt = Optional.empty();
+                if (head == null || !head.equals(requestWrapper.getRequestedAt())
+                        || requestWrapper.getCount() == pollingAttemptsPerTxHash) {
+                    requestWrapper.setRequestedAt(head);
+                    transactionReceipt = sendTransactionReceiptRequest(transactionHash);
+                }
                 if (transactionReceipt.isPresent()) {
                     callback.accept(transactionReceipt.get());
-                    pendingTransactions.remove(requestWrapper);
+                    remove(requestWrapper);
                 } else {
                     if (requestWrapper.getCount() == pollingAttemptsPerTxHash) {
                         throw new TransactionException(
@@ -89,12 +108,18 @@ public class QueuingTransactionReceiptProcessor extends TransactionReceiptProces
                     }
                 }
             } catch (IOException | TransactionException e) {
-                pendingTransactions.remove(requestWrapper);
+                remove(requestWrapper);
                 callback.exception(e);
             }
         }
     }
 
+    private void remove(QueuingTransactionReceiptProcessor.RequestWrapper requestWrapper) {
+        if (pendingTransactions.remove(requestWrapper)) {
+            unfollowChainHead();
+        }
+    }
+
     /**
      * Java doesn't provide a concurrent linked hash set, so we use a simple wrapper to store
      * details of the number of requests we've made against this specific transaction hash. This
@@ -106,6 +131,7 @@ public class QueuingTransactionReceiptProcessor extends TransactionReceiptProces
     private static class RequestWrapper {
         private final String transactionHash;
         private int count;
+        private BigInteger requestedAt;
 
         RequestWrapper(String transactionHash) {
             this.transactionHash = transactionHash;
@@ -124,6 +150,14 @@ public class QueuingTransactionReceiptProcessor extends TransactionReceiptProces
             this.count += 1;
         }
 
+        BigInteger getRequestedAt() {
+            return requestedAt;
+        }
+
+        void setRequestedAt(BigInteger requestedAt) {
+            this.requestedAt = requestedAt;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) {
@@ -21,10 +21,13 @@
 package com.klaytn.caver.tx.manager;
 
 import com.klaytn.caver.Caver;
+import com.klaytn.caver.ExecutorStrategy;
 import com.klaytn.caver.crypto.KlayCredentials;
 import com.klaytn.caver.crypto.KlaySignatureData;
 import com.klaytn.caver.methods.response.Bytes32;
 import com.klaytn.caver.methods.response.KlayTransactionReceipt;
+import com.klaytn.caver.protocol.BatchRequest;
+import com.klaytn.caver.protocol.BatchResponse;
 import com.klaytn.caver.tx.model.TransactionTransformer;
 import com.klaytn.caver.tx.exception.EmptyNonceException;
 import com.klaytn.caver.tx.exception.PlatformErrorException;
@@ -35,13 +38,29 @@ import com.klaytn.caver.utils.ChainId;
 import com.klaytn.caver.utils.TransactionDecoder;
 import com.klaytn.caver.wallet.WalletManager;
 import com.klaytn.caver.wallet.exception.CredentialNotFoundException;
+import org.web3j.protocol.core.Request;
 import org.web3j.protocol.exceptions.TransactionException;
 
 import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 public class TransactionManager {
 
+    public static final int DEFAULT_MAX_IN_FLIGHT_PER_SENDER = 500;
+    public static final int DEFAULT_SEND_BATCH_SIZE = 100;
+
     private Caver caver;
     private WalletManager walletManager;
     private int chainId;
@@ -49,6 +68,14 @@ public class TransactionManager {
     private ErrorHandler errorHandler;
     private GetNonceProcessor getNonceProcessor;
 
+    private Executor nonceExecutor;
+    private Executor signExecutor;
+    private Executor sendExecutor;
+    private Executor receiptExecutor;
+    private int maxInFlightPerSender;
+    private int sendBatchSize;
+    private final ConcurrentHashMap<String, SenderSlots> inFlightSlots = new ConcurrentHashMap<>();
+
     private TransactionManager(Builder builder) {
         this.caver = builder.caver;
         this.walletManager = builder.walletManager;
@@ -56,6 +83,12 @@ public class TransactionManager {
         this.transactionReceiptProcessor = builder.transactionReceiptProcessor;
         this.errorHandler = builder.errorHandler;
         this.getNonceProcessor = builder.getNonceProcessor;
+        this.nonceExecutor = builder.nonceExecutor;
+        this.signExecutor = builder.signExecutor;
+        this.sendExecutor = builder.sendExecutor;
+        this.receiptExecutor = builder.receiptExecutor;
+        this.maxInFlightPerSender = builder.maxInFlightPerSender;
+        this.sendBatchSize = builder.sendBatchSize;
     }
 
     /**
@@ -67,9 +100,10 @@ public class TransactionManager {
     public KlayTransactionReceipt.TransactionReceipt executeTransaction(
             TransactionTransformer transactionTransformer) {
         KlayTransactionReceipt.TransactionReceipt receipt = null;
+        boolean nonceAssigned = transactionTransformer.getNonce() == null;
         KlayRawTransaction rawTx = sign(transactionTransformer);
         try {
-            String transactionHash = send(rawTx);
+            String transactionHash = send(transactionTransformer, rawTx, nonceAssigned);
             receipt = transactionReceiptProcessor.waitForTransactionReceipt(transactionHash);
         } catch (TransactionException | PlatformErrorException | IOException e) {
             exception(e);
@@ -77,6 +111,110 @@ public class TransactionManager {
         return receipt;
     }
 
+    /**
+     * executes a transaction without blocking the calling thread. Nonce assignment, signing, sending and
+     * waiting for the receipt run as stages on their own executors, and the receipt is awaited with
+     * {@link TransactionReceiptProcessor#waitForTransactionReceiptAsync(String)}, so a few threads can keep
+     * many transactions in flight.
+     *
+     * <p>At most {@code maxInFlightPerSender} transactions of one sender are in flight at a time, or one if the
+     * {@link GetNonceProcessor} does not track nonces, since it would hand out the same pending nonce to each
+     * of them. When the limit is reached the transaction waits, without blocking the caller, until one of
+     * them completes.
+     *
+     * @param transactionTransformer transaction
+     * @return CompletableFuture of the receipt, completed exceptionally if any stage fails
+     */
+    public CompletableFuture<KlayTransactionReceipt.TransactionReceipt> executeTransactionAsync(
+            TransactionTransformer transactionTransformer) {
+        SenderSlots slots = getInFlightSlots(transactionTransformer.getFrom());
+        boolean nonceAssigned = transactionTransformer.getNonce() == null;
+        return slots.acquire()
+                .thenApplyAsync(ignored -> assignNonce(transactionTransformer), nonceExecutor)
+                .thenApplyAsync(credentials -> signTransaction(transactionTransformer, credentials, nonceAssigned),
+                        signExecutor)
+                .thenApplyAsync(rawTx -> sendTransaction(transactionTransformer, rawTx, nonceAssigned), sendExecutor)
+                .thenComposeAsync(transactionReceiptProcessor::waitForTransactionReceiptAsync, receiptExecutor)
+                .whenComplete((receipt, throwable) -> {
+                    slots.release();
+                    if (throwable != null) {
+                        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                                ? throwable.getCause() : throwable;
+                        if (cause instanceof Exception) {
+                            exception((Exception) cause);
+                        }
+                    }
+                });
+    }
+
+    /**
+     * executes many transactions at once and receives a result for each of them. Contiguous nonces are
+     * reserved per sender for the transactions without a nonce, the transactions are signed in parallel,
+     * sent as JSON-RPC batches of klay_sendRawTransaction, one sender per batch, and their receipts are
+     * awaited together.
+     *
+     * <p>The returned list holds one {@link TransactionResult} per given transaction, in the same order, with
+     * either the receipt or the exception. A failure affects only the transactions of its sender: once a
+     * transaction of a sender fails, the later transactions of that sender would wait behind the nonce gap,
+     * so they are not sent but fail, and the {@link GetNonceProcessor} is synchronized with the node.
+     *
+     * @param transactionTransformers transactions
+     * @return results in the order of the given transactions
+     */
+    public List<TransactionResult> executeTransactions(List<? extends TransactionTransformer> transactionTransformers) {
+        int size = transactionTransformers.size();
+        TransactionResult[] results = new TransactionResult[size];
+        KlayCredentials[] credentials = new KlayCredentials[size];
+        boolean[] nonceAssigned = new boolean[size];
+
+        reserveNonces(transactionTransformers, credentials, nonceAssigned, results);
+
+        KlayRawTransaction[] rawTxs = new KlayRawTransaction[size];
+        List<CompletableFuture<Void>> signing = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            int index = i;
+            signing.add(CompletableFuture.runAsync(() -> {
+                TransactionTransformer transactionTransformer = transactionTransformers.get(index);
+                try {
+                    rawTxs[index] = signTransaction(transactionTransformer, credentials[index], nonceAssigned[index]);
+                } catch (CompletionException e) {
+                    results[index] = failure(transactionTransformer, null, e.getCause());
+                }
+            }, signExecutor));
+        }
+        CompletableFuture.allOf(signing.toArray(new CompletableFuture[0])).join();
+
+        String[] transactionHashes = new String[size];
+        List<CompletableFuture<Void>> sending = new ArrayList<>();
+        for (List<Integer> senderIndices : indicesBySender(transactionTransformers).values()) {
+            sending.add(CompletableFuture.runAsync(() -> sendBatches(transactionTransformers, senderIndices,
+                    credentials, rawTxs, nonceAssigned, transactionHashes, results), sendExecutor));
+        }
+        CompletableFuture.allOf(sending.toArray(new CompletableFuture[0])).join();
+
+        List<CompletableFuture<Void>> receipts = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            int index = i;
+            TransactionTransformer transactionTransformer = transactionTransformers.get(index);
+            receipts.add(transactionReceiptProcessor.waitForTransactionReceiptAsync(transactionHashes[index])
+                    .handle((receipt, throwable) -> {
+                        results[index] = throwable == null
+                                ? new TransactionResult(transactionTransformer, transactionHashes[index], receipt, null)
+                                : failure(transactionTransformer, transactionHashes[index], throwable);
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(receipts.toArray(new CompletableFuture[0])).join();
+
+        return Arrays.asList(results);
+    }
+
     /**
      * executes a transaction and receives a receipt for its live result
      *
@@ -182,6 +320,257 @@ public class TransactionManager {
         return transactionHash.getResult();
     }
 
+    /**
+     * Returns the number of transactions of the given sender which were started with
+     * {@link #executeTransactionAsync(TransactionTransformer)} and have not completed yet. Transactions
+     * which wait for the sender's in-flight limit are not counted.
+     *
+     * @param address sender address
+     * @return number of in-flight transactions
+     */
+    public int getInFlightCount(String address) {
+        SenderSlots slots = inFlightSlots.get(toKey(address));
+        return slots == null ? 0 : slots.getInFlight();
+    }
+
+    private KlayCredentials assignNonce(TransactionTransformer transactionTransformer) {
+        try {
+            KlayCredentials credentials = walletManager.findByAddress(transactionTransformer.getFrom());
+            if (transactionTransformer.getNonce() == null) {
+                transactionTransformer.nonce(getNonceProcessor.getNonce(credentials));
+            }
+            return credentials;
+        } catch (CredentialNotFoundException | IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private KlayRawTransaction signTransaction(TransactionTransformer transactionTransformer,
+                                               KlayCredentials credentials, boolean nonceAssigned) {
+        try {
+            return transactionTransformer.build().sign(credentials, this.chainId);
+        } catch (UnsupportedTxTypeException | RuntimeException e) {
+            if (nonceAssigned) {
+                BigInteger nonce = transactionTransformer.getNonce();
+                transactionTransformer.nonce(null);
+                getNonceProcessor.releaseNonce(credentials, nonce);
+            }
+            throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+        }
+    }
+
+    private String sendTransaction(TransactionTransformer transactionTransformer, KlayRawTransaction rawTx,
+                                   boolean nonceAssigned) {
+        try {
+            return send(transactionTransformer, rawTx, nonceAssigned);
+        } catch (PlatformErrorException | IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Sends a signed transaction, and recovers the {@link GetNonceProcessor} if it fails and its nonce was
+     * assigned by this manager. Since it is unknown whether a transaction which failed with an IOException
+     * reached the node, the processor is then synchronized with the node.
+     */
+    private String send(TransactionTransformer transactionTransformer, KlayRawTransaction rawTx,
+                        boolean nonceAssigned) throws IOException, PlatformErrorException {
+        try {
+            return send(rawTx);
+        } catch (PlatformErrorException e) {
+            if (nonceAssigned) {
+                recoverNonce(transactionTransformer, e);
+            }
+            throw e;
+        } catch (IOException e) {
+            if (nonceAssigned) {
+                resyncNonce(transactionTransformer.getFrom());
+            }
+            throw e;
+        }
+    }
+
+    private void reserveNonces(List<? extends TransactionTransformer> transactionTransformers,
+                               KlayCredentials[] credentials, boolean[] nonceAssigned, TransactionResult[] results) {
+        for (List<Integer> indices : indicesBySender(transactionTransformers).values()) {
+            List<Integer> withoutNonce = new ArrayList<>();
+            try {
+                KlayCredentials senderCredentials = walletManager.findByAddress(
+                        transactionTransformers.get(indices.get(0)).getFrom());
+                for (int index : indices) {
+                    credentials[index] = senderCredentials;
+                    if (transactionTransformers.get(index).getNonce() == null) {
+                        withoutNonce.add(index);
+                    }
+                }
+                if (!withoutNonce.isEmpty()) {
+                    BigInteger nonce = getNonceProcessor.reserveNonces(senderCredentials, withoutNonce.size());
+                    for (int index : withoutNonce) {
+                        transactionTransformers.get(index).nonce(nonce);
+                        nonceAssigned[index] = true;
+                        nonce = nonce.add(BigInteger.ONE);
+                    }
+                }
+            } catch (CredentialNotFoundException | IOException e) {
+                for (int index : indices) {
+                    results[index] = failure(transactionTransformers.get(index), null, e);
+                }
+            }
+        }
+    }
+
+    private static Map<String, List<Integer>> indicesBySender(
+            List<? extends TransactionTransformer> transactionTransformers) {
+        Map<String, List<Integer>> indicesBySender = new LinkedHashMap<>();
+        for (int i = 0; i < transactionTransformers.size(); i++) {
+            indicesBySender.computeIfAbsent(toKey(transactionTransformers.get(i).getFrom()), key -> new ArrayList<>())
+                    .add(i);
+        }
+        return indicesBySender;
+    }
+
+    /**
+     * Sends the transactions of one sender in batches, in nonce order. A batch holds the transactions of one
+     * sender only, so a service which routes by sender sends all of them to the same endpoint. Once a
+     * transaction fails, the remaining batches are not sent.
+     */
+    private void sendBatches(List<? extends TransactionTransformer> transactionTransformers,
+                             List<Integer> senderIndices, KlayCredentials[] credentials, KlayRawTransaction[] rawTxs,
+                             boolean[] nonceAssigned, String[] transactionHashes, TransactionResult[] results) {
+        int next = 0;
+        boolean failed = false;
+        while (next < senderIndices.size() && !failed) {
+            List<Integer> batch = new ArrayList<>();
+            while (next < senderIndices.size() && batch.size() < sendBatchSize) {
+                if (results[senderIndices.get(next)] != null) {
+                    failed = true;
+                    break;
+                }
+                batch.add(senderIndices.get(next++));
+            }
+            if (!batch.isEmpty() && !sendBatch(transactionTransformers, batch, rawTxs, nonceAssigned,
+                    transactionHashes, results)) {
+                failed = true;
+            }
+        }
+        if (!failed) {
+            return;
+        }
+
+        for (int i = next; i < senderIndices.size(); i++) {
+            int index = senderIndices.get(i);
+            TransactionTransformer transactionTransformer = transactionTransformers.get(index);
+            if (results[index] == null) {
+                if (nonceAssigned[index]) {
+                    transactionTransformer.nonce(null);
+                }
+                results[index] = failure(transactionTransformer, null, new TransactionException(
+                        "Transaction was not sent, since an earlier transaction of "
+                                + transactionTransformer.getFrom() + " failed"));
+            }
+        }
+        KlayCredentials senderCredentials = credentials[senderIndices.get(0)];
+        if (senderCredentials != null) {
+            try {
+                getNonceProcessor.resync(senderCredentials);
+            } catch (IOException e) {
+                exception(e);
+            }
+        }
+    }
+
+    /**
+     * @return whether the node accepted every transaction of the batch
+     */
+    private boolean sendBatch(List<? extends TransactionTransformer> transactionTransformers, List<Integer> indices,
+                              KlayRawTransaction[] rawTxs, boolean[] nonceAssigned, String[] transactionHashes,
+                              TransactionResult[] results) {
+        BatchRequest batch = caver.batch();
+        List<Request<?, Bytes32>> requests = new ArrayList<>();
+        for (int index : indices) {
+            Request<?, Bytes32> request = caver.klay().sendSignedTransaction(rawTxs[index].getValueAsString());
+            requests.add(request);
+            batch.add(request);
+        }
+
+        boolean accepted = true;
+        try {
+            BatchResponse response = batch.send();
+            for (int i = 0; i < indices.size(); i++) {
+                int index = indices.get(i);
+                TransactionTransformer transactionTransformer = transactionTransformers.get(index);
+                Bytes32 transactionHash = response.getResponse(requests.get(i));
+                if (transactionHash.hasError()) {
+                    PlatformErrorException e = new PlatformErrorException(transactionHash.getError());
+                    if (nonceAssigned[index]) {
+                        recoverNonce(transactionTransformer, e);
+                    }
+                    results[index] = failure(transactionTransformer, null, e);
+                    accepted = false;
+                } else {
+                    transactionHashes[index] = transactionHash.getResult();
+                }
+            }
+        } catch (IOException e) {
+            for (int index : indices) {
+                results[index] = failure(transactionTransformers.get(index), null, e);
+            }
+            accepted = false;
+        }
+        return accepted;
+    }
+
+    private TransactionResult failure(TransactionTransformer transactionTransformer, String transactionHash,
+                                      Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause() : throwable;
+        Exception exception = cause instanceof Exception ? (Exception) cause : new CompletionException(cause);
+        exception(exception);
+        return new TransactionResult(transactionTransformer, transactionHash, null, exception);
+    }
+
+    private SenderSlots getInFlightSlots(String address) {
+        return inFlightSlots.computeIfAbsent(toKey(address),
+                key -> new SenderSlots(getNonceProcessor.tracksNonces() ? maxInFlightPerSender : 1));
+    }
+
+    private static String toKey(String address) {
+        return address == null ? "" : address.toLowerCase();
+    }
+
+    /**
+     * Returns the nonce of a transaction which was rejected by the node to the {@link GetNonceProcessor},
+     * or synchronizes the processor with the node when the nonce was already used.
+     *
+     * @param transactionTransformer rejected transaction whose nonce was assigned by this manager
+     * @param e                      error returned by the node
+     */
+    private void recoverNonce(TransactionTransformer transactionTransformer, PlatformErrorException e) {
+        try {
+            KlayCredentials credentials = walletManager.findByAddress(transactionTransformer.getFrom());
+            if (isNonceTooLow(e)) {
+                getNonceProcessor.resync(credentials);
+            } else {
+                getNonceProcessor.releaseNonce(credentials, transactionTransformer.getNonce());
+            }
+            transactionTransformer.nonce(null);
+        } catch (CredentialNotFoundException | IOException recoverException) {
+            exception(recoverException);
+        }
+    }
+
+    private void resyncNonce(String address) {
+        try {
+            getNonceProcessor.resync(walletManager.findByAddress(address));
+        } catch (CredentialNotFoundException | IOException resyncException) {
+            exception(resyncException);
+        }
+    }
+
+    static boolean isNonceTooLow(PlatformErrorException e) {
+        return e.getMessage() != null && e.getMessage().toLowerCase().contains("nonce too low");
+    }
+
     public String getDefaultAddress() {
         KlayCredentials credentials = null;
         try {
@@ -204,6 +593,13 @@ public class TransactionManager {
         private GetNonceProcessor getNonceProcessor;
         private TransactionReceiptProcessor transactionReceiptProcessor;
         private ErrorHandler errorHandler;
+        private Executor nonceExecutor;
+        private Executor signExecutor;
+        private Executor sendExecutor;
+        private Executor receiptExecutor;
+        private ExecutorStrategy executorStrategy;
+        private int maxInFlightPerSender = DEFAULT_MAX_IN_FLIGHT_PER_SENDER;
+        private int sendBatchSize = DEFAULT_SEND_BATCH_SIZE;
 
         public Builder(Caver caver, WalletManager walletManager) {
             this.caver = caver;
@@ -237,17 +633,188 @@ public class TransactionManager {
             return this;
         }
 
+        /**
+         * @param nonceExecutor executor which assigns nonces in executeTransactionAsync. The default runs one
+         *                      assignment at a time on the blocking executor of the executor strategy, so nonces
+         *                      are assigned in submission order.
+         */
+        public Builder setNonceExecutor(Executor nonceExecutor) {
+            this.nonceExecutor = nonceExecutor;
+            return this;
+        }
+
+        /**
+         * @param signExecutor executor which signs transactions in executeTransactionAsync. The default is the
+         *                     common fork-join pool.
+         */
+        public Builder setSignExecutor(Executor signExecutor) {
+            this.signExecutor = signExecutor;
+            return this;
+        }
+
+        /**
+         * @param sendExecutor executor which sends signed transactions in executeTransactionAsync. The default
+         *                     is the blocking executor of the executor strategy.
+         */
+        public Builder setSendExecutor(Executor sendExecutor) {
+            this.sendExecutor = sendExecutor;
+            return this;
+        }
+
+        /**
+         * @param receiptExecutor executor which registers sent transactions with the receipt processor in
+         *                        executeTransactionAsync. The default is the blocking executor of the executor
+         *                        strategy.
+         */
+        public Builder setReceiptExecutor(Executor receiptExecutor) {
+            this.receiptExecutor = receiptExecutor;
+            return this;
+        }
+
+        /**
+         * @param executorStrategy executors for the blocking stages of executeTransactionAsync. Unless set
+         *                         explicitly, the nonce, send and receipt executors and the default receipt
+         *                         processor use it, e.g. {@link ExecutorStrategy#virtualThreads()} runs every
+         *                         send and receipt wait on a virtual thread. The default is the strategy of
+         *                         the caver, so a manager owns no threads of its own.
+         */
+        public Builder setExecutorStrategy(ExecutorStrategy executorStrategy) {
+            this.executorStrategy = executorStrategy;
+            return this;
+        }
+
+        /**
+         * @param maxInFlightPerSender maximum number of transactions of one sender in flight in
+         *                             executeTransactionAsync. It only applies to a {@link GetNonceProcessor}
+         *                             which tracks nonces, such as a {@link FastGetNonceProcessor} set with
+         *                             {@link #setGetNonceProcessor(GetNonceProcessor)}; otherwise one
+         *                             transaction of a sender is in flight at a time.
+         */
+        public Builder setMaxInFlightPerSender(int maxInFlightPerSender) {
+            this.maxInFlightPerSender = maxInFlightPerSender;
+            return this;
+        }
+
+        /**
+         * @param sendBatchSize maximum number of klay_sendRawTransaction requests in one JSON-RPC batch sent by
+         *                      executeTransactions
+         */
+        public Builder setSendBatchSize(int sendBatchSize) {
+            this.sendBatchSize = sendBatchSize;
+            return this;
+        }
+
         public TransactionManager build() {
             if (this.chainId == -1)
                 this.chainId = ChainId.BAOBAB_TESTNET;
+            if (this.maxInFlightPerSender < 1)
+                throw new IllegalArgumentException("maxInFlightPerSender must be positive");
+            if (this.sendBatchSize < 1)
+                throw new IllegalArgumentException("sendBatchSize must be positive");
             if (this.getNonceProcessor == null)
                 this.getNonceProcessor = new GetNonceProcessor(this.caver);
+            ExecutorStrategy strategy = this.executorStrategy != null
+                    ? this.executorStrategy
+                    : this.caver.executorStrategy();
             if (this.transactionReceiptProcessor == null)
-                this.transactionReceiptProcessor = new PollingTransactionReceiptProcessor(this.caver, 1000, 15);
+                this.transactionReceiptProcessor = new PollingTransactionReceiptProcessor(this.caver, 1000, 15, strategy);
+            if (this.nonceExecutor == null)
+                this.nonceExecutor = new SerialExecutor(strategy.getBlockingExecutor());
+            if (this.signExecutor == null)
+                this.signExecutor = ForkJoinPool.commonPool();
+            if (this.sendExecutor == null)
+                this.sendExecutor = strategy.getBlockingExecutor();
+            if (this.receiptExecutor == null)
+                this.receiptExecutor = strategy.getBlockingExecutor();
 
             return new TransactionManager(this);
         }
+    }
+
+    /**
+     * Limits the transactions of one sender in flight. A transaction over the limit waits in a queue, and
+     * takes the slot of the next transaction which completes.
+     */
+    private static class SenderSlots {
+        private final int limit;
+        private final ArrayDeque<CompletableFuture<Void>> waiting = new ArrayDeque<>();
+        private int inFlight;
+
+        SenderSlots(int limit) {
+            this.limit = limit;
+        }
+
+        synchronized CompletableFuture<Void> acquire() {
+            if (inFlight < limit) {
+                inFlight++;
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> slot = new CompletableFuture<>();
+            waiting.add(slot);
+            return slot;
+        }
+
+        void release() {
+            CompletableFuture<Void> next;
+            synchronized (this) {
+                next = waiting.poll();
+                if (next == null) {
+                    inFlight--;
+                }
+            }
+            if (next != null) {
+                next.complete(null);
+            }
+        }
 
+        synchronized int getInFlight() {
+            return inFlight;
+        }
+    }
+
+    /**
+     * Runs tasks one at a time, in submission order, on a shared executor.
+     */
+    private static class SerialExecutor implements Executor {
+        private final Executor executor;
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        private boolean running;
+
+        SerialExecutor(Executor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            synchronized (this) {
+                tasks.add(task);
+                if (running) {
+                    return;
+                }
+                running = true;
+            }
+            executor.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                Runnable task;
+                synchronized (this) {
+                    task = tasks.poll();
+                    if (task == null) {
+                        running = false;
+                        return;
+                    }
+                }
+                try {
+                    task.run();
+                } catch (RuntimeException | Error e) {
+                    // keep the remaining tasks running
+                    executor.execute(this::drain);
+                    throw e;
+                }
+            }
+        }
     }
 
 }
@@ -21,15 +21,23 @@
 package com.klaytn.caver.tx.manager;
 
 import com.klaytn.caver.Caver;
+import com.klaytn.caver.ChainHead;
+import com.klaytn.caver.ExecutorStrategy;
 import com.klaytn.caver.methods.response.KlayTransactionReceipt;
+import io.reactivex.disposables.Disposable;
 import org.web3j.protocol.exceptions.TransactionException;
 
 import java.io.IOException;
+import java.math.BigInteger;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public abstract class TransactionReceiptProcessor {
 
     private final Caver caver;
+    private final Object chainHeadLock = new Object();
+    private int chainHeadFollowers;
+    private Disposable chainHeadListener;
 
     public TransactionReceiptProcessor(Caver caver) {
         this.caver = caver;
@@ -38,6 +46,56 @@ public abstract class TransactionReceiptProcessor {
     public abstract KlayTransactionReceipt.TransactionReceipt waitForTransactionReceipt(String transactionHash)
             throws IOException, TransactionException;
 
+    /**
+     * Returns a future which is completed with the receipt of the given transaction. The default
+     * implementation runs {@link #waitForTransactionReceipt(String)} on the blocking executor of
+     * {@link #getExecutorStrategy()}; processors which can wait without holding a thread override it.
+     *
+     * @param transactionHash hash of a sent transaction
+     * @return CompletableFuture of the receipt
+     */
+    public CompletableFuture<KlayTransactionReceipt.TransactionReceipt> waitForTransactionReceiptAsync(
+            String transactionHash) {
+        return getExecutorStrategy().supplyBlocking(() -> waitForTransactionReceipt(transactionHash));
+    }
+
+    /**
+     * @return executors of the caver instance this processor polls through
+     */
+    protected ExecutorStrategy getExecutorStrategy() {
+        return caver.executorStrategy();
+    }
+
+    /**
+     * Keeps {@link Caver#chainHeadTracker()} following the head until as many calls of
+     * {@link #unfollowChainHead()} are made, so that {@link #getChainHead()} stays current while
+     * receipts are awaited.
+     */
+    void followChainHead() {
+        synchronized (chainHeadLock) {
+            if (chainHeadFollowers++ == 0) {
+                chainHeadListener = caver.chainHeadTracker().addListener(head -> { });
+            }
+        }
+    }
+
+    void unfollowChainHead() {
+        synchronized (chainHeadLock) {
+            if (--chainHeadFollowers == 0) {
+                chainHeadListener.dispose();
+                chainHeadListener = null;
+            }
+        }
+    }
+
+    /**
+     * @return number of the head known to {@link Caver#chainHeadTracker()}, or null if it was not read yet
+     */
+    BigInteger getChainHead() {
+        ChainHead head = caver.chainHeadTracker().getHead();
+        return head != null ? head.getNumber() : null;
+    }
+
     Optional<KlayTransactionReceipt.TransactionReceipt> sendTransactionReceiptRequest(String transactionHash)
             throws IOException, TransactionException {
         KlayTransactionReceipt transactionReceipt = caver.klay().getTransactionReceipt(transactionHash).send();
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.tx.manager;
+
+import com.klaytn.caver.methods.response.KlayTransactionReceipt;
+import com.klaytn.caver.tx.model.TransactionTransformer;
+
+/**
+ * Outcome of one transaction submitted with {@link TransactionManager#executeTransactions(java.util.List)}.
+ * A result either holds the receipt of the transaction or the exception which stopped it. The transaction
+ * hash is set once the node accepted the transaction, even if no receipt was received afterwards.
+ */
+public class TransactionResult {
+
+    private final TransactionTransformer transaction;
+    private final String transactionHash;
+    private final KlayTransactionReceipt.TransactionReceipt receipt;
+    private final Exception exception;
+
+    TransactionResult(TransactionTransformer transaction, String transactionHash,
+                      KlayTransactionReceipt.TransactionReceipt receipt, Exception exception) {
+        this.transaction = transaction;
+        this.transactionHash = transactionHash;
+        this.receipt = receipt;
+        this.exception = exception;
+    }
+
+    public TransactionTransformer getTransaction() {
+        return transaction;
+    }
+
+    public String getTransactionHash() {
+        return transactionHash;
+    }
+
+    public KlayTransactionReceipt.TransactionReceipt getReceipt() {
+        return receipt;
+    }
+
+    public Exception getException() {
+        return exception;
+    }
+
+    /**
+     * @return true if the transaction was sent and its receipt was received
+     */
+    public boolean isSuccess() {
+        return exception == null;
+    }
+
+    /**
+     * @return true if the node accepted the transaction, regardless of whether a receipt was received
+     */
+    public boolean isSent() {
+        return transactionHash != null;
+    }
+}
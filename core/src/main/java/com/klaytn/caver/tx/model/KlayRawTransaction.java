@@ -17,10 +17,20 @@
 package com.klaytn.caver.tx.model;
 
 import com.klaytn.caver.crypto.KlaySignatureData;
+import com.klaytn.caver.tx.type.TxType;
+import com.klaytn.caver.utils.BytesUtils;
+import com.klaytn.caver.utils.KlayTransactionUtils;
+import com.klaytn.caver.utils.TransactionDecoder;
+import org.web3j.crypto.Hash;
+import org.web3j.rlp.RlpDecoder;
+import org.web3j.rlp.RlpEncoder;
+import org.web3j.rlp.RlpList;
+import org.web3j.rlp.RlpType;
 import org.web3j.utils.Numeric;
 
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 public class KlayRawTransaction {
@@ -52,4 +62,37 @@ public class KlayRawTransaction {
     public String getValueAsString() {
         return Numeric.toHexString(value);
     }
+
+    /**
+     * Returns the hash of this transaction, the Keccak-256 hash of the signed raw transaction. It is the
+     * same value the node returns for klay_sendRawTransaction, so a receipt can be tracked before the
+     * transaction is sent.
+     *
+     * @return String - transaction hash
+     */
+    public String getTransactionHash() {
+        return Numeric.toHexString(Hash.sha3(value));
+    }
+
+    /**
+     * Returns the sender transaction hash, the hash of the transaction signed by the sender only.
+     * For fee delegated types the fee payer address and signatures are excluded, so the value does not
+     * change when the fee payer signs. For every other type it equals {@link #getTransactionHash()}.
+     *
+     * @return String - sender transaction hash
+     */
+    public String getSenderTxHash() {
+        TxType.Type type = KlayTransactionUtils.getType(value);
+        if (!type.isFeeDelegated()) {
+            return getTransactionHash();
+        }
+
+        // SenderTxHashRLP = type + encode([...fields, txSignatures]), without feePayer and feePayerSignatures
+        int senderFieldCount = TransactionDecoder.decode(getValueAsString()).rlpValues().size() + 1;
+        RlpList rlpList = RlpDecoder.decode(KlayTransactionUtils.getRawTransactionNoType(value));
+        List<RlpType> values = ((RlpList) rlpList.getValues().get(0)).getValues();
+        byte[] encodedTransaction = RlpEncoder.encode(new RlpList(values.subList(0, senderFieldCount)));
+        byte[] senderRawTx = BytesUtils.concat(new byte[]{type.get()}, encodedTransaction);
+        return Numeric.toHexString(Hash.sha3(senderRawTx));
+    }
 }
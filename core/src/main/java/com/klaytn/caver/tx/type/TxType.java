@@ -185,6 +185,15 @@ public interface TxType {
             return value;
         }
 
+        /**
+         * Returns true if the transaction fee of this type is (partially) paid by a fee payer.
+         *
+         * @return boolean
+         */
+        public boolean isFeeDelegated() {
+            return name().startsWith("FEE_DELEGATED");
+        }
+
         public static Type findByValue(byte value) {
             for (Type v : values()) {
                 if (v.get() == value) {
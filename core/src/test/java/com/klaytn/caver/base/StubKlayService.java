@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.base;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.klaytn.caver.protocol.HttpBatchService;
+import org.web3j.protocol.http.HttpService;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process stand-in for a Klaytn node. Every JSON-RPC request, single or batched, is answered by the
+ * given {@link Handler} without any network I/O.
+ */
+public class StubKlayService extends HttpBatchService {
+
+    public interface Handler {
+        /**
+         * @param method JSON-RPC method
+         * @param params JSON-RPC params
+         * @return result object, or a node with an "error" field to reply with a JSON-RPC error
+         */
+        JsonNode handle(String method, JsonNode params) throws IOException;
+    }
+
+    private final Handler handler;
+    private final AtomicInteger roundTrips = new AtomicInteger();
+    private final List<String> methods = new CopyOnWriteArrayList<>();
+
+    public StubKlayService(Handler handler) {
+        this.handler = handler;
+    }
+
+    public StubKlayService(Handler handler, boolean includeRawResponses) {
+        super(HttpService.DEFAULT_URL, includeRawResponses);
+        this.handler = handler;
+    }
+
+    public static JsonNode error(int code, String message) {
+        ObjectNode error = JsonNodeFactory.instance.objectNode();
+        error.putObject("error").put("code", code).put("message", message);
+        return error;
+    }
+
+    public int getRoundTrips() {
+        return roundTrips.get();
+    }
+
+    public List<String> getMethods() {
+        return methods;
+    }
+
+    @Override
+    protected InputStream performIO(String payload) throws IOException {
+        roundTrips.incrementAndGet();
+        JsonNode request = objectMapper.readTree(payload);
+        JsonNode reply;
+        if (request.isArray()) {
+            ArrayNode replies = JsonNodeFactory.instance.arrayNode();
+            for (JsonNode single : request) {
+                replies.add(reply(single));
+            }
+            reply = replies;
+        } else {
+            reply = reply(request);
+        }
+        return new ByteArrayInputStream(objectMapper.writeValueAsString(reply).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private JsonNode reply(JsonNode request) throws IOException {
+        String method = request.get("method").asText();
+        methods.add(method);
+        JsonNode result = handler.handle(method, request.get("params"));
+
+        ObjectNode reply = JsonNodeFactory.instance.objectNode();
+        reply.put("jsonrpc", "2.0");
+        reply.set("id", request.get("id"));
+        if (result != null && result.isObject() && result.has("error")) {
+            reply.set("error", result.get("error"));
+        } else {
+            reply.set("result", result);
+        }
+        return reply;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.base;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.java_websocket.WebSocket;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+import org.web3j.protocol.ObjectMapperFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process stand-in for a Klaytn node serving JSON-RPC over WebSocket. Requests are answered by the
+ * given {@link StubKlayService.Handler}; klay_subscribe and klay_unsubscribe are handled here, and
+ * notifications are pushed with {@link #publish(String, JsonNode)}.
+ */
+public class StubWebSocketNode extends WebSocketServer {
+
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+    private final StubKlayService.Handler handler;
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final AtomicInteger subscriptionIds = new AtomicInteger();
+    private final Map<String, WebSocket> subscriptions = new ConcurrentHashMap<>();
+    private final Map<String, JsonNode> subscriptionParams = new ConcurrentHashMap<>();
+    private final List<String> methods = new CopyOnWriteArrayList<>();
+
+    public StubWebSocketNode(StubKlayService.Handler handler) {
+        super(new InetSocketAddress("localhost", 0));
+        this.handler = handler;
+        setReuseAddr(true);
+    }
+
+    /**
+     * Starts the server and waits until it accepts connections.
+     *
+     * @return ws:// url of this node
+     */
+    public String startAndGetUrl() throws InterruptedException {
+        start();
+        if (!started.await(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("WebSocket stand-in did not start");
+        }
+        return "ws://localhost:" + getPort();
+    }
+
+    public List<String> getMethods() {
+        return methods;
+    }
+
+    /**
+     * @param kind subscription kind, e.g. "newHeads"
+     * @return id of the active subscription of that kind, or null
+     */
+    public String getSubscriptionId(String kind) {
+        for (Map.Entry<String, JsonNode> entry : subscriptionParams.entrySet()) {
+            if (entry.getValue().get(0).asText().equals(kind)) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    public JsonNode getSubscriptionParams(String subscriptionId) {
+        return subscriptionParams.get(subscriptionId);
+    }
+
+    /**
+     * Pushes a klay_subscription notification to the subscriber of the given subscription.
+     */
+    public void publish(String subscriptionId, JsonNode result) throws IOException {
+        ObjectNode notification = JsonNodeFactory.instance.objectNode();
+        notification.put("jsonrpc", "2.0");
+        notification.put("method", "klay_subscription");
+        ObjectNode params = notification.putObject("params");
+        params.put("subscription", subscriptionId);
+        params.set("result", result);
+        subscriptions.get(subscriptionId).send(objectMapper.writeValueAsString(notification));
+    }
+
+    @Override
+    public void onStart() {
+        started.countDown();
+    }
+
+    @Override
+    public void onOpen(WebSocket conn, ClientHandshake handshake) {
+    }
+
+    @Override
+    public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+    }
+
+    @Override
+    public void onError(WebSocket conn, Exception ex) {
+    }
+
+    @Override
+    public void onMessage(WebSocket conn, String message) {
+        try {
+            JsonNode request = objectMapper.readTree(message);
+            String method = request.get("method").asText();
+            JsonNode params = request.get("params");
+            methods.add(method);
+
+            ObjectNode reply = JsonNodeFactory.instance.objectNode();
+            reply.put("jsonrpc", "2.0");
+            reply.set("id", request.get("id"));
+            if (method.equals("klay_subscribe")) {
+                String subscriptionId = "0x" + Integer.toHexString(subscriptionIds.incrementAndGet());
+                subscriptions.put(subscriptionId, conn);
+                subscriptionParams.put(subscriptionId, params);
+                reply.put("result", subscriptionId);
+            } else if (method.equals("klay_unsubscribe")) {
+                String subscriptionId = params.get(0).asText();
+                subscriptionParams.remove(subscriptionId);
+                reply.put("result", subscriptions.remove(subscriptionId) != null);
+            } else {
+                JsonNode result = handler.handle(method, params);
+                if (result != null && result.isObject() && result.has("error")) {
+                    reply.set("error", result.get("error"));
+                } else {
+                    reply.set("result", result);
+                }
+            }
+            conn.send(objectMapper.writeValueAsString(reply));
+        } catch (IOException e) {
+            conn.close();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.feature;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.klaytn.caver.Caver;
+import com.klaytn.caver.methods.response.Quantity;
+import com.klaytn.caver.protocol.AsyncHttpService;
+import com.klaytn.caver.protocol.BatchResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.exceptions.ClientConnectionException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AsyncHttpServiceTest {
+
+    private static final int MAX_REQUESTS = 8;
+
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private ExecutorService serverExecutor = Executors.newFixedThreadPool(64);
+    private HttpServer server;
+    private String url;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::reply);
+        server.createContext("/fail", exchange -> {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        server.setExecutor(serverExecutor);
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentCallsAreBoundedWithoutBlockingCallers() throws Exception {
+        Caver caver = Caver.build(new AsyncHttpService(url, MAX_REQUESTS));
+
+        List<CompletableFuture<Quantity>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(caver.klay().getBlockNumber().sendAsync());
+        }
+        assertFalse(futures.get(futures.size() - 1).isDone());
+
+        for (CompletableFuture<Quantity> future : futures) {
+            assertEquals(BigInteger.valueOf(16), future.get().getValue());
+        }
+        assertTrue(maxInFlight.get() <= MAX_REQUESTS);
+    }
+
+    @Test
+    public void testSyncSendStillWorks() throws Exception {
+        Caver caver = Caver.build(new AsyncHttpService(url));
+
+        assertEquals(BigInteger.valueOf(16), caver.klay().getBlockNumber().send().getValue());
+    }
+
+    @Test
+    public void testBatchAsync() throws Exception {
+        Caver caver = Caver.build(new AsyncHttpService(url));
+        Request<?, Quantity> first = caver.klay().getBlockNumber();
+        Request<?, Quantity> second = caver.klay().getBlockNumber();
+
+        BatchResponse response = caver.batch().add(first).add(second).sendAsync().get();
+
+        assertEquals(BigInteger.valueOf(16), response.getResponse(first).getValue());
+        assertEquals(BigInteger.valueOf(16), response.getResponse(second).getValue());
+    }
+
+    @Test
+    public void testHttpErrorCompletesExceptionally() throws Exception {
+        Caver caver = Caver.build(new AsyncHttpService(url + "fail"));
+
+        try {
+            caver.klay().getBlockNumber().sendAsync().get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ClientConnectionException);
+        }
+    }
+
+    private void reply(HttpExchange exchange) throws IOException {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(20);
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            JsonNode reply;
+            if (request.isArray()) {
+                ArrayNode replies = JsonNodeFactory.instance.arrayNode();
+                for (JsonNode single : request) {
+                    replies.add(result(single));
+                }
+                reply = replies;
+            } else {
+                reply = result(request);
+            }
+            byte[] body = objectMapper.writeValueAsBytes(reply);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private ObjectNode result(JsonNode request) {
+        ObjectNode reply = JsonNodeFactory.instance.objectNode();
+        reply.put("jsonrpc", "2.0");
+        reply.set("id", request.get("id"));
+        reply.put("result", "0x10");
+        return reply;
+    }
+}
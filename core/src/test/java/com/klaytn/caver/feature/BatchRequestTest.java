@@ -0,0 +1,100 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.feature;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.klaytn.caver.Caver;
+import com.klaytn.caver.base.StubKlayService;
+import com.klaytn.caver.methods.response.KlayTransactionReceipt;
+import com.klaytn.caver.methods.response.Quantity;
+import com.klaytn.caver.protocol.BatchResponse;
+import org.junit.Test;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Request;
+
+import java.math.BigInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BatchRequestTest {
+
+    private static final String ADDRESS = "0x2c8ad0ea2e0781db8b8c9242e07de3a5beabb71a";
+    private static final String TX_HASH = "0x4d4c4e2a20a2a81b8c6a4e1e1a2b1a3fbd7a2d5ff6a4f2e3c3b6e0c5f47c1e2a";
+
+    private StubKlayService service = new StubKlayService((method, params) -> {
+        switch (method) {
+            case "klay_getBalance":
+                return TextNode.valueOf("0xde0b6b3a7640000");
+            case "klay_getTransactionCount":
+                return TextNode.valueOf("0x2a");
+            case "klay_getTransactionReceipt":
+                return JsonNodeFactory.instance.objectNode()
+                        .put("transactionHash", params.get(0).asText())
+                        .put("status", "0x1");
+            default:
+                return StubKlayService.error(-32601, "the method " + method + " does not exist/is not available");
+        }
+    });
+    private Caver caver = Caver.build(service);
+
+    @Test
+    public void testBatchIsSentInOneRoundTrip() throws Exception {
+        Request<?, Quantity> balance = caver.klay().getBalance(ADDRESS, DefaultBlockParameterName.LATEST);
+        Request<?, Quantity> nonce = caver.klay().getTransactionCount(ADDRESS, DefaultBlockParameterName.PENDING);
+        Request<?, KlayTransactionReceipt> receipt = caver.klay().getTransactionReceipt(TX_HASH);
+
+        BatchResponse response = caver.batch().add(balance).add(nonce).add(receipt).send();
+
+        assertEquals(1, service.getRoundTrips());
+        assertEquals(3, response.size());
+        assertEquals(new BigInteger("1000000000000000000"), response.getResponse(balance).getValue());
+        assertEquals(BigInteger.valueOf(42), response.getResponse(nonce).getValue());
+        assertEquals(TX_HASH, response.getResponse(receipt).getResult().getTransactionHash());
+        assertEquals("0x1", response.getResponse(2, KlayTransactionReceipt.class).getResult().getStatus());
+    }
+
+    @Test
+    public void testErrorIsReportedPerRequest() throws Exception {
+        Request<?, Quantity> balance = caver.klay().getBalance(ADDRESS, DefaultBlockParameterName.LATEST);
+        Request<?, Quantity> gasPrice = caver.klay().getGasPrice();
+
+        BatchResponse response = caver.batch().add(balance).add(gasPrice).send();
+
+        assertFalse(response.getResponse(balance).hasError());
+        assertTrue(response.getResponse(gasPrice).hasError());
+        assertEquals(-32601, response.getResponse(gasPrice).getError().getCode());
+    }
+
+    @Test
+    public void testSendAsync() throws Exception {
+        Request<?, Quantity> nonce = caver.klay().getTransactionCount(ADDRESS, DefaultBlockParameterName.PENDING);
+
+        BatchResponse response = caver.batch().add(nonce).sendAsync().get();
+
+        assertEquals(BigInteger.valueOf(42), response.getResponse(nonce).getValue());
+    }
+
+    @Test
+    public void testEmptyBatch() throws Exception {
+        assertEquals(0, caver.batch().send().size());
+        assertEquals(0, service.getRoundTrips());
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.feature;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.klaytn.caver.Caver;
+import com.klaytn.caver.base.StubKlayService;
+import com.klaytn.caver.scan.BlockRangeFetcher;
+import com.klaytn.caver.scan.Checkpoint;
+import com.klaytn.caver.scan.FetchedBlock;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.web3j.utils.Numeric;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class BlockRangeFetcherTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final AtomicInteger failures = new AtomicInteger();
+    private final StubKlayService node = new StubKlayService(this::handle);
+    private final Caver caver = Caver.build(node);
+
+    @Test
+    public void testBlocksAreDeliveredInOrder() throws Exception {
+        List<FetchedBlock> blocks = new ArrayList<>();
+        BlockRangeFetcher fetcher = new BlockRangeFetcher.Builder(caver)
+                .setBatchSize(10)
+                .setParallelism(4)
+                .build();
+
+        BigInteger last = fetcher.fetch(BigInteger.ONE, BigInteger.valueOf(95), blocks::add);
+
+        assertEquals(BigInteger.valueOf(95), last);
+        assertEquals(95, blocks.size());
+        for (int i = 0; i < blocks.size(); i++) {
+            assertEquals(BigInteger.valueOf(i + 1), blocks.get(i).getNumber());
+            assertEquals(i + 1, blocks.get(i).getBlock().getNumberAsLong());
+            assertNull(blocks.get(i).getReceipts());
+            assertNull(blocks.get(i).getConsensusInfo());
+        }
+        assertEquals(10, node.getRoundTrips());
+    }
+
+    @Test
+    public void testReceiptsAndConsensusInfoAreAttached() throws Exception {
+        List<FetchedBlock> blocks = new ArrayList<>();
+        BlockRangeFetcher fetcher = new BlockRangeFetcher.Builder(caver)
+                .setReceipts(true)
+                .setConsensusInfo(true)
+                .setBatchSize(5)
+                .build();
+
+        fetcher.fetch(BigInteger.ZERO, BigInteger.valueOf(9), blocks::add);
+
+        assertEquals(10, blocks.size());
+        for (FetchedBlock block : blocks) {
+            long number = block.getNumber().longValue();
+            assertEquals(number % 2 == 0 ? 0 : 1, block.getReceipts().size());
+            assertEquals(proposer(number), block.getConsensusInfo().getProposer());
+        }
+        assertEquals(hash(1), blocks.get(1).getReceipts().get(0).getBlockHash());
+        assertEquals(4, node.getRoundTrips());
+        assertEquals(5, Collections.frequency(node.getMethods(), "klay_getBlockReceipts"));
+    }
+
+    @Test
+    public void testFetchResumesFromTheCheckpoint() throws Exception {
+        File file = new File(temporaryFolder.getRoot(), "blocks.checkpoint");
+        List<BigInteger> delivered = new ArrayList<>();
+        BlockRangeFetcher fetcher = new BlockRangeFetcher.Builder(caver)
+                .setBatchSize(10)
+                .setParallelism(2)
+                .setCheckpoint(Checkpoint.inFile(file))
+                .build();
+
+        try {
+            fetcher.fetch(BigInteger.ZERO, BigInteger.valueOf(99), block -> {
+                if (block.getNumber().intValue() == 55) {
+                    throw new IOException("sink is full");
+                }
+                delivered.add(block.getNumber());
+            });
+            fail();
+        } catch (IOException e) {
+            assertEquals("sink is full", e.getMessage());
+        }
+        assertEquals(BigInteger.valueOf(49), Checkpoint.inFile(file).load());
+
+        delivered.clear();
+        assertEquals(BigInteger.valueOf(99), fetcher.fetch(BigInteger.ZERO, BigInteger.valueOf(99), block ->
+                delivered.add(block.getNumber())));
+        assertEquals(BigInteger.valueOf(50), delivered.get(0));
+        assertEquals(50, delivered.size());
+        assertEquals(BigInteger.valueOf(99), Checkpoint.inFile(file).load());
+    }
+
+    @Test
+    public void testFailedBatchIsRetried() throws Exception {
+        failures.set(2);
+        List<FetchedBlock> blocks = new ArrayList<>();
+        BlockRangeFetcher fetcher = new BlockRangeFetcher.Builder(caver)
+                .setBatchSize(10)
+                .setParallelism(1)
+                .build();
+
+        fetcher.fetch(BigInteger.ZERO, BigInteger.valueOf(19), blocks::add);
+
+        assertEquals(20, blocks.size());
+        assertEquals(4, node.getRoundTrips());
+    }
+
+    @Test
+    public void testMissingBlockFailsTheFetch() throws Exception {
+        BlockRangeFetcher fetcher = new BlockRangeFetcher.Builder(caver).setMaxAttempts(1).build();
+
+        try {
+            fetcher.fetch(BigInteger.valueOf(990), BigInteger.valueOf(1010), block -> { });
+            fail();
+        } catch (IOException e) {
+            assertEquals("Block 1001 was not found", e.getMessage());
+        }
+    }
+
+    private JsonNode handle(String method, JsonNode params) throws IOException {
+        if (failures.getAndUpdate(remaining -> Math.max(0, remaining - 1)) > 0) {
+            throw new IOException("connection reset");
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+        switch (method) {
+            case "klay_getBlockByNumber": {
+                long number = Numeric.toBigInt(params.get(0).asText()).longValue();
+                if (number > 1000) {
+                    return null;
+                }
+                ObjectNode block = JsonNodeFactory.instance.objectNode()
+                        .put("number", Numeric.toHexStringWithPrefix(BigInteger.valueOf(number)))
+                        .put("hash", hash(number));
+                ArrayNode transactions = block.putArray("transactions");
+                if (number % 2 == 1) {
+                    transactions.add(Numeric.toHexStringWithPrefixZeroPadded(BigInteger.valueOf(number), 64));
+                }
+                return block;
+            }
+            case "klay_getBlockWithConsensusInfoByNumber":
+                return JsonNodeFactory.instance.objectNode()
+                        .put("number", params.get(0).asText())
+                        .put("proposer", proposer(Numeric.toBigInt(params.get(0).asText()).longValue()));
+            case "klay_getBlockReceipts": {
+                ArrayNode receipts = JsonNodeFactory.instance.arrayNode();
+                receipts.addObject().put("blockHash", params.get(0).asText()).put("status", "0x1");
+                return receipts;
+            }
+            default:
+                return null;
+        }
+    }
+
+    private static String hash(long number) {
+        return Numeric.toHexStringWithPrefixZeroPadded(BigInteger.valueOf(number + 1_000_000), 64);
+    }
+
+    private static String proposer(long number) {
+        return Numeric.toHexStringWithPrefixZeroPadded(BigInteger.valueOf(number), 40);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.feature;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.klaytn.caver.Caver;
+import com.klaytn.caver.base.StubKlayService;
+import com.klaytn.caver.methods.response.KlayTransactionReceipt;
+import com.klaytn.caver.tx.manager.BlockTransactionReceiptProcessor;
+import org.junit.Test;
+import org.web3j.protocol.exceptions.TransactionException;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BlockTransactionReceiptProcessorTest {
+
+    private final List<List<String>> blocks = Collections.synchronizedList(new ArrayList<>());
+    private final Map<String, Integer> blockOfTransaction = new ConcurrentHashMap<>();
+
+    private StubKlayService service = new StubKlayService(this::handle);
+    private Caver caver = Caver.build(service);
+
+    @Test
+    public void testReceiptsAreResolvedFromBlocks() throws Exception {
+        mine("0x01");
+        BlockTransactionReceiptProcessor processor = new BlockTransactionReceiptProcessor(caver, 20, 10000);
+
+        CompletableFuture<KlayTransactionReceipt.TransactionReceipt> alreadyMined =
+                processor.waitForTransactionReceiptAsync(hash("0x01"));
+        List<CompletableFuture<KlayTransactionReceipt.TransactionReceipt>> inFlight = new ArrayList<>();
+        for (int i = 2; i < 52; i++) {
+            inFlight.add(processor.waitForTransactionReceiptAsync(hash(Integer.toHexString(i))));
+        }
+        assertEquals(hash("0x01"), alreadyMined.get(5, TimeUnit.SECONDS).getTransactionHash());
+
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+        for (int i = 2; i < 52; i++) {
+            (i < 30 ? first : second).add(Integer.toHexString(i));
+        }
+        mine(first.toArray(new String[0]));
+        mine();
+        mine(second.toArray(new String[0]));
+
+        for (int i = 0; i < inFlight.size(); i++) {
+            assertEquals(hash(Integer.toHexString(i + 2)), inFlight.get(i).get(5, TimeUnit.SECONDS).getTransactionHash());
+        }
+        assertEquals(51, Collections.frequency(service.getMethods(), "klay_getTransactionReceipt"));
+        assertTrue(Collections.frequency(service.getMethods(), "klay_getBlockReceipts") <= 2);
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        BlockTransactionReceiptProcessor processor = new BlockTransactionReceiptProcessor(caver, 20, 100);
+        try {
+            processor.waitForTransactionReceipt(hash("0xff"));
+            fail();
+        } catch (TransactionException e) {
+            assertTrue(e.getMessage().contains(hash("0xff")));
+        }
+    }
+
+    private void mine(String... transactions) {
+        List<String> hashes = new ArrayList<>();
+        for (String transaction : transactions) {
+            hashes.add(hash(transaction));
+            blockOfTransaction.put(hash(transaction), blocks.size());
+        }
+        blocks.add(hashes);
+    }
+
+    private JsonNode handle(String method, JsonNode params) {
+        switch (method) {
+            case "klay_blockNumber":
+                return TextNode.valueOf(Numeric.toHexStringWithPrefix(BigInteger.valueOf(blocks.size() - 1)));
+            case "klay_getTransactionReceipt": {
+                String transactionHash = params.get(0).asText();
+                return blockOfTransaction.containsKey(transactionHash) ? receipt(transactionHash) : NullNode.getInstance();
+            }
+            case "klay_getBlockByNumber": {
+                int number = Numeric.decodeQuantity(params.get(0).asText()).intValue();
+                if (number >= blocks.size()) {
+                    return NullNode.getInstance();
+                }
+                ObjectNode block = JsonNodeFactory.instance.objectNode();
+                block.put("number", Numeric.toHexStringWithPrefix(BigInteger.valueOf(number)));
+                block.put("hash", blockHash(number));
+                ArrayNode transactions = block.putArray("transactions");
+                blocks.get(number).forEach(transactions::add);
+                return block;
+            }
+            case "klay_getBlockReceipts": {
+                int number = Numeric.decodeQuantity(params.get(0).asText()).intValue();
+                ArrayNode receipts = JsonNodeFactory.instance.arrayNode();
+                blocks.get(number).forEach(transactionHash -> receipts.add(receipt(transactionHash)));
+                return receipts;
+            }
+            default:
+                return StubKlayService.error(-32601, "unexpected " + method);
+        }
+    }
+
+    private JsonNode receipt(String transactionHash) {
+        return JsonNodeFactory.instance.objectNode()
+                .put("transactionHash", transactionHash)
+                .put("blockHash", blockHash(blockOfTransaction.get(transactionHash)))
+                .put("status", "0x1");
+    }
+
+    private static String blockHash(int number) {
+        return Numeric.toHexStringWithPrefixZeroPadded(BigInteger.valueOf(number), 64);
+    }
+
+    private static String hash(String value) {
+        return Numeric.toHexStringWithPrefixZeroPadded(Numeric.toBigInt(value).add(BigInteger.valueOf(1000)), 64);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.feature;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.klaytn.caver.Caver;
+import com.klaytn.caver.JsonRpc2_0KlayBulk;
+import com.klaytn.caver.base.StubKlayService;
+import com.klaytn.caver.methods.response.KlayAccount;
+import com.klaytn.caver.methods.response.KlayAccountKey;
+import com.klaytn.caver.tx.account.AccountKeyPublic;
+import org.junit.Test;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BulkAccountQueryTest {
+
+    private static final String KEY = "{\"key\":{\"x\":\"0x230037a99462acd829f317d0ce5c8e2321ac2951de1c1b1a18f9af5cff66f0d7\","
+            + "\"y\":\"0x18a7fb1b9012d2ac87bc291cbf1b3b2339356f1ce7669ae68405389be7f8b3b6\"},\"keyType\":2}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+    private final StubKlayService service = new StubKlayService(this::handle);
+    private final Caver caver = Caver.build(service);
+
+    @Test
+    public void testBalancesAreKeyedByAddressInOrder() throws Exception {
+        List<String> addresses = addresses(1050);
+
+        Map<String, BigInteger> balances = caver.klay().getBalances(addresses, DefaultBlockParameterName.LATEST);
+
+        assertEquals(1050, balances.size());
+        Iterator<String> order = balances.keySet().iterator();
+        for (int i = 0; i < addresses.size(); i++) {
+            assertEquals(addresses.get(i), order.next());
+            assertEquals(BigInteger.valueOf(i).multiply(BigInteger.TEN.pow(18)), balances.get(addresses.get(i)));
+        }
+        assertEquals(11, service.getRoundTrips());
+    }
+
+    @Test
+    public void testTransactionCountsSkipDuplicateAddresses() throws Exception {
+        List<String> addresses = addresses(10);
+        List<String> repeated = new ArrayList<>(addresses);
+        repeated.addAll(addresses);
+
+        Map<String, Long> counts = caver.klay().getTransactionCounts(repeated, DefaultBlockParameterName.PENDING);
+
+        assertEquals(10, counts.size());
+        assertEquals(Long.valueOf(7), counts.get(addresses.get(7)));
+        assertEquals(10, service.getMethods().size());
+    }
+
+    @Test
+    public void testAccountsAndKeysLeaveOutMissingAccounts() throws Exception {
+        List<String> addresses = addresses(6);
+
+        Map<String, KlayAccountKey.AccountKeyValue> keys =
+                caver.klay().getAccountKeys(addresses, DefaultBlockParameterName.LATEST);
+        Map<String, KlayAccount.Account> accounts =
+                caver.klay().getAccounts(addresses, DefaultBlockParameterName.LATEST);
+
+        assertEquals(3, keys.size());
+        assertTrue(keys.get(addresses.get(0)).getKey() instanceof AccountKeyPublic);
+        assertEquals(2, keys.get(addresses.get(2)).getKeyType());
+        assertFalse(keys.containsKey(addresses.get(1)));
+        assertEquals(3, accounts.size());
+        assertEquals(1, accounts.get(addresses.get(4)).getAccType());
+    }
+
+    @Test
+    public void testBatchesInFlightAreBounded() throws Exception {
+        JsonRpc2_0KlayBulk bulk = new JsonRpc2_0KlayBulk(caver.klay(), service, 10, 3);
+
+        assertEquals(200, bulk.getBalances(addresses(200), DefaultBlockParameterName.LATEST).size());
+
+        assertEquals(20, service.getRoundTrips());
+        assertTrue(maxActive.get() > 1);
+        assertTrue(maxActive.get() <= 3);
+    }
+
+    @Test
+    public void testErrorResponseFailsTheQuery() throws Exception {
+        List<String> addresses = addresses(5);
+        addresses.add("0xbad");
+        try {
+            caver.klay().getBalances(addresses, DefaultBlockParameterName.LATEST);
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("invalid address"));
+        }
+    }
+
+    private JsonNode handle(String method, JsonNode params) throws IOException {
+        int now = active.incrementAndGet();
+        maxActive.accumulateAndGet(now, Math::max);
+        try {
+            Thread.sleep(5);
+            String address = params.get(0).asText();
+            if (address.equals("0xbad")) {
+                return StubKlayService.error(-32602, "invalid address");
+            }
+            int index = Numeric.toBigInt(address).intValue();
+            switch (method) {
+                case "klay_getBalance":
+                    return TextNode.valueOf(Numeric.toHexStringWithPrefix(
+                            BigInteger.valueOf(index).multiply(BigInteger.TEN.pow(18))));
+                case "klay_getTransactionCount":
+                    return TextNode.valueOf(Numeric.toHexStringWithPrefix(BigInteger.valueOf(index)));
+                case "klay_getAccountKey":
+                    return index % 2 == 0 ? objectMapper.readTree(KEY) : NullNode.getInstance();
+                case "klay_getAccount":
+                    return index % 2 == 0
+                            ? objectMapper.readTree("{\"accType\":1,\"account\":{\"balance\":1,\"humanReadable\":false,"
+                            + "\"key\":" + KEY + ",\"nonce\":" + index + "}}")
+                            : NullNode.getInstance();
+                default:
+                    return null;
+            }
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+
+    private static List<String> addresses(int count) {
+        List<String> addresses = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            addresses.add(Numeric.toHexStringWithPrefixZeroPadded(BigInteger.valueOf(i), 40));
+        }
+        return addresses;
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.feature;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.klaytn.caver.Caver;
+import com.klaytn.caver.base.StubKlayService;
+import com.klaytn.caver.methods.response.KlayBlock;
+import com.klaytn.caver.methods.response.KlayTransaction;
+import com.klaytn.caver.methods.response.KlayTransactionReceipt;
+import com.klaytn.caver.protocol.BatchResponse;
+import com.klaytn.caver.protocol.CachingService;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Request;
+
+import java.math.BigInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CachingServiceTest {
+
+    private static final String TX_HASH = "0xe7d42e4e4d5c0b5cd1bdd3f7d75dd87eed1330d3f7bfc6a1a1dfd4d3c7d1e2f0";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private boolean receiptAvailable;
+    private boolean transactionMined;
+    private StubKlayService node = new StubKlayService((method, params) -> {
+        switch (method) {
+            case "klay_getBlockByNumber":
+                String number = params.get(0).asText();
+                ObjectNode block = JsonNodeFactory.instance.objectNode();
+                block.put("number", number.equals("latest") ? "0x64" : number);
+                block.put("hash", "0x" + number.hashCode());
+                block.putArray("transactions");
+                return block;
+            case "klay_getTransactionReceipt":
+                if (!receiptAvailable) {
+                    return NullNode.getInstance();
+                }
+                ObjectNode receipt = JsonNodeFactory.instance.objectNode();
+                receipt.put("transactionHash", params.get(0).asText());
+                receipt.put("status", "0x1");
+                return receipt;
+            case "klay_getTransactionByHash":
+                ObjectNode transaction = JsonNodeFactory.instance.objectNode();
+                transaction.put("hash", params.get(0).asText());
+                transaction.put("blockHash", transactionMined ? "0x" + Integer.toHexString(TX_HASH.hashCode()) : null);
+                transaction.put("blockNumber", transactionMined ? "0x64" : null);
+                return transaction;
+            case "klay_getCode":
+                return TextNode.valueOf("0x6080");
+            default:
+                return null;
+        }
+    });
+
+    @Test
+    public void testFinalBlocksAreServedFromCache() throws Exception {
+        CachingService service = new CachingService(node);
+        Caver caver = Caver.build(service);
+
+        KlayBlock.Block first = caver.klay().getBlockByNumber(block(5), false).send().getBlock();
+        KlayBlock.Block second = caver.klay().getBlockByNumber(block(5), false).send().getBlock();
+        caver.klay().getBlockByNumber(DefaultBlockParameterName.LATEST, false).send();
+        caver.klay().getBlockByNumber(DefaultBlockParameterName.LATEST, false).send();
+
+        assertEquals(first, second);
+        assertEquals(3, node.getRoundTrips());
+        assertEquals(1, service.getHits());
+        assertEquals(1, service.getMisses());
+    }
+
+    @Test
+    public void testMissingReceiptIsNotCached() throws Exception {
+        Caver caver = Caver.build(new CachingService(node));
+
+        assertNull(caver.klay().getTransactionReceipt(TX_HASH).send().getResult());
+        receiptAvailable = true;
+        KlayTransactionReceipt.TransactionReceipt receipt = caver.klay().getTransactionReceipt(TX_HASH).send().getResult();
+        caver.klay().getTransactionReceipt(TX_HASH).send();
+
+        assertEquals(TX_HASH, receipt.getTransactionHash());
+        assertEquals(2, node.getRoundTrips());
+    }
+
+    @Test
+    public void testPendingTransactionIsNotCached() throws Exception {
+        Caver caver = Caver.build(new CachingService(node));
+
+        assertNull(caver.klay().getTransactionByHash(TX_HASH).send().getResult().getBlockHash());
+        transactionMined = true;
+        KlayTransaction.Transaction transaction = caver.klay().getTransactionByHash(TX_HASH).send().getResult();
+        caver.klay().getTransactionByHash(TX_HASH).send();
+
+        assertEquals("0x64", transaction.getBlockNumber());
+        assertEquals(2, node.getRoundTrips());
+    }
+
+    @Test
+    public void testStateAtFixedBlockIsCached() throws Exception {
+        Caver caver = Caver.build(new CachingService(node));
+        String address = "0x7b65b75d204abed71587c9e519a89277766ee1d0";
+
+        caver.klay().getCode(address, block(10)).send();
+        caver.klay().getCode(address, block(10)).send();
+        caver.klay().getCode(address, DefaultBlockParameterName.LATEST).send();
+
+        assertEquals(2, node.getRoundTrips());
+    }
+
+    @Test
+    public void testBatchSendsOnlyMissingRequests() throws Exception {
+        Caver caver = Caver.build(new CachingService(node));
+        caver.klay().getBlockByNumber(block(1), false).send();
+
+        Request<?, KlayBlock> cached = caver.klay().getBlockByNumber(block(1), false);
+        Request<?, KlayBlock> missing = caver.klay().getBlockByNumber(block(2), false);
+        BatchResponse response = caver.batch().add(cached).add(missing).send();
+
+        assertEquals("0x1", response.getResponse(cached).getBlock().getNumber());
+        assertEquals("0x2", response.getResponse(missing).getBlock().getNumber());
+        assertEquals(2, node.getRoundTrips());
+        assertEquals(2, node.getMethods().size());
+    }
+
+    @Test
+    public void testEvictedResponsesSpillToDisk() throws Exception {
+        CachingService service = new CachingService(node, 1, temporaryFolder.newFolder(), 1024 * 1024);
+        Caver caver = Caver.build(service);
+
+        KlayBlock.Block first = caver.klay().getBlockByNumber(block(1), false).send().getBlock();
+        caver.klay().getBlockByNumber(block(2), false).send();
+        assertEquals(1, temporaryFolder.getRoot().listFiles()[0].listFiles().length);
+
+        assertEquals(first, caver.klay().getBlockByNumber(block(1), false).send().getBlock());
+        assertEquals(2, node.getRoundTrips());
+        assertEquals(1, service.size());
+    }
+
+    @Test
+    public void testWithoutSpillDirectoryEvictedResponsesAreFetchedAgain() throws Exception {
+        Caver caver = Caver.build(new CachingService(node, 1));
+
+        caver.klay().getBlockByNumber(block(1), false).send();
+        caver.klay().getBlockByNumber(block(2), false).send();
+        caver.klay().getBlockByNumber(block(1), false).send();
+
+        assertEquals(3, node.getRoundTrips());
+    }
+
+    private static DefaultBlockParameter block(long number) {
+        return DefaultBlockParameter.valueOf(BigInteger.valueOf(number));
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.feature;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.klaytn.caver.Caver;
+import com.klaytn.caver.ChainHead;
+import com.klaytn.caver.ChainHeadTracker;
+import com.klaytn.caver.base.StubKlayService;
+import com.klaytn.caver.methods.response.KlayNewHeadsNotification;
+import io.reactivex.Flowable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.processors.PublishProcessor;
+import org.junit.After;
+import org.junit.Test;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.websocket.events.Notification;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ChainHeadTrackerTest {
+
+    private final AtomicLong head = new AtomicLong(100);
+    private final AtomicBoolean down = new AtomicBoolean();
+    private final StubKlayService service = new StubKlayService(this::handle);
+    private final Caver caver = Caver.build(service);
+    private final ChainHeadTracker tracker = new ChainHeadTracker(caver, 10, TimeUnit.MILLISECONDS);
+
+    private final PublishProcessor<KlayNewHeadsNotification> newHeads = PublishProcessor.create();
+    private final AtomicInteger subscriptions = new AtomicInteger();
+    private final AtomicBoolean subscriptionsFail = new AtomicBoolean();
+    private final StubKlayService subscribingService = new StubKlayService(this::handle) {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T extends Notification<?>> Flowable<T> subscribe(
+                Request request, String unsubscribeMethod, Class<T> responseType) {
+            subscriptions.incrementAndGet();
+            if (subscriptionsFail.get()) {
+                return Flowable.error(new IOException("connection closed"));
+            }
+            return (Flowable<T>) newHeads;
+        }
+    };
+    private final ChainHeadTracker subscribingTracker =
+            new ChainHeadTracker(Caver.build(subscribingService), 10, TimeUnit.MILLISECONDS, true);
+
+    @After
+    public void tearDown() {
+        tracker.close();
+        subscribingTracker.close();
+    }
+
+    @Test
+    public void testListenerReceivesEachNewHeadOnce() throws Exception {
+        List<ChainHead> heads = Collections.synchronizedList(new ArrayList<>());
+        Disposable listener = tracker.addListener(heads::add);
+
+        awaitCount(heads, 1);
+        Thread.sleep(50);
+        assertEquals(1, heads.size());
+        assertEquals(BigInteger.valueOf(100), heads.get(0).getNumber());
+        assertEquals("0x64", heads.get(0).getHash());
+        assertEquals(BigInteger.valueOf(1000100), heads.get(0).getTimestamp());
+
+        head.set(101);
+        awaitCount(heads, 2);
+        assertEquals(BigInteger.valueOf(101), tracker.getHead().getNumber());
+        listener.dispose();
+    }
+
+    @Test
+    public void testAwaitBlockCompletesWhenHeadReachesIt() throws Exception {
+        CompletableFuture<ChainHead> future = tracker.awaitBlock(BigInteger.valueOf(103));
+
+        Thread.sleep(50);
+        assertFalse(future.isDone());
+
+        head.set(104);
+        assertEquals(BigInteger.valueOf(104), future.get(5, TimeUnit.SECONDS).getNumber());
+        CompletableFuture<ChainHead> reached = tracker.awaitBlock(BigInteger.valueOf(102));
+        assertTrue(reached.isDone());
+        assertSame(tracker.getHead(), reached.get());
+    }
+
+    @Test
+    public void testAwaitersShareOnePollPerTick() throws Exception {
+        List<CompletableFuture<ChainHead>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            futures.add(tracker.awaitBlock(BigInteger.valueOf(101 + i % 5)));
+        }
+        Thread.sleep(100);
+        head.set(105);
+        for (CompletableFuture<ChainHead> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+
+        assertTrue(service.getRoundTrips() <= tracker.getPolls());
+        assertTrue(tracker.getPolls() < 50);
+    }
+
+    @Test
+    public void testPollingStopsWithoutListeners() throws Exception {
+        assertNull(tracker.getHead());
+        Thread.sleep(50);
+        assertEquals(0, service.getRoundTrips());
+
+        Disposable listener = tracker.addListener(value -> { });
+        Thread.sleep(50);
+        listener.dispose();
+        Thread.sleep(50);
+        long polls = tracker.getPolls();
+        Thread.sleep(100);
+        assertEquals(polls, tracker.getPolls());
+    }
+
+    @Test
+    public void testFailedPollsAreRetried() throws Exception {
+        down.set(true);
+        CompletableFuture<ChainHead> future = tracker.awaitBlock(BigInteger.valueOf(100));
+        Thread.sleep(50);
+        assertFalse(future.isDone());
+        assertTrue(tracker.getFailedPolls() > 0);
+
+        down.set(false);
+        assertEquals(BigInteger.valueOf(100), future.get(5, TimeUnit.SECONDS).getNumber());
+    }
+
+    @Test
+    public void testCaverSharesOneTracker() {
+        assertSame(caver.chainHeadTracker(), caver.chainHeadTracker());
+        CompletableFuture<ChainHead> future = caver.chainHeadTracker().awaitBlock(BigInteger.valueOf(1000));
+
+        caver.shutdown();
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testListenerNeverReceivesAnOlderHead() throws Exception {
+        List<ChainHead> heads = Collections.synchronizedList(new ArrayList<>());
+        Disposable listener = subscribingTracker.addListener(heads::add);
+
+        newHeads.onNext(newHead(101));
+        newHeads.onNext(newHead(100));
+        newHeads.onNext(newHead(102));
+
+        assertEquals(2, heads.size());
+        assertEquals(BigInteger.valueOf(101), heads.get(0).getNumber());
+        assertEquals(BigInteger.valueOf(102), heads.get(1).getNumber());
+        assertEquals(0, service.getRoundTrips() + subscribingService.getRoundTrips());
+        listener.dispose();
+    }
+
+    @Test
+    public void testSubscriptionStopsWithoutListeners() {
+        Disposable first = subscribingTracker.addListener(value -> { });
+        Disposable second = subscribingTracker.addListener(value -> { });
+        assertTrue(newHeads.hasSubscribers());
+
+        first.dispose();
+        assertTrue(newHeads.hasSubscribers());
+        second.dispose();
+        assertFalse(newHeads.hasSubscribers());
+        assertEquals(1, subscriptions.get());
+    }
+
+    @Test
+    public void testFailedSubscriptionFallsBackToPolling() throws Exception {
+        subscriptionsFail.set(true);
+        CompletableFuture<ChainHead> future = subscribingTracker.awaitBlock(BigInteger.valueOf(100));
+
+        assertEquals(BigInteger.valueOf(100), future.get(5, TimeUnit.SECONDS).getNumber());
+        assertTrue(subscribingTracker.getFailedPolls() > 0);
+        assertTrue(subscribingTracker.getPolls() > 0);
+
+        // once a poll succeeds the tracker subscribes again, and stops polling while the subscription lives
+        subscriptionsFail.set(false);
+        Disposable listener = subscribingTracker.addListener(value -> { });
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!newHeads.hasSubscribers() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(newHeads.hasSubscribers());
+        long polls = subscribingTracker.getPolls();
+        Thread.sleep(50);
+        assertEquals(polls, subscribingTracker.getPolls());
+
+        newHeads.onError(new IOException("connection closed"));
+        CompletableFuture<ChainHead> next = subscribingTracker.awaitBlock(BigInteger.valueOf(101));
+        head.set(101);
+        assertEquals(BigInteger.valueOf(101), next.get(5, TimeUnit.SECONDS).getNumber());
+        listener.dispose();
+    }
+
+    private static KlayNewHeadsNotification newHead(long number) throws IOException {
+        String json = "{\"jsonrpc\":\"2.0\",\"method\":\"klay_subscription\",\"params\":{\"subscription\":\"0x1\","
+                + "\"result\":{\"number\":\"" + Numeric.toHexStringWithPrefix(BigInteger.valueOf(number))
+                + "\",\"hash\":\"0x" + Long.toHexString(number) + "\"}}}";
+        return ObjectMapperFactory.getObjectMapper().readValue(json, KlayNewHeadsNotification.class);
+    }
+
+    private JsonNode handle(String method, JsonNode params) throws IOException {
+        if (down.get()) {
+            throw new IOException("connection refused");
+        }
+        if (!"klay_getBlockByNumber".equals(method)) {
+            return null;
+        }
+        long number = head.get();
+        ObjectNode block = JsonNodeFactory.instance.objectNode();
+        block.put("number", Numeric.toHexStringWithPrefix(BigInteger.valueOf(number)));
+        block.put("hash", "0x" + Long.toHexString(number));
+        block.put("timestamp", Numeric.toHexStringWithPrefix(BigInteger.valueOf(1000000 + number)));
+        block.putArray("transactions");
+        return block;
+    }
+
+    private static void awaitCount(List<?> values, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (values.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, values.size());
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.feature;
+
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.klaytn.caver.Caver;
+import com.klaytn.caver.base.StubKlayService;
+import com.klaytn.caver.methods.response.Quantity;
+import com.klaytn.caver.protocol.CoalescingService;
+import org.junit.After;
+import org.junit.Test;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CoalescingServiceTest {
+
+    // klay_getTransactionCount answers the last byte of the address, so every caller can verify its own result.
+    private StubKlayService stub = new StubKlayService((method, params) ->
+            TextNode.valueOf(Numeric.toHexStringWithPrefix(
+                    BigInteger.valueOf(Numeric.hexStringToByteArray(params.get(0).asText())[19] & 0xff))));
+    private CoalescingService service;
+
+    @After
+    public void tearDown() throws Exception {
+        service.close();
+    }
+
+    @Test
+    public void testConcurrentCallersShareBatches() throws Exception {
+        service = new CoalescingService(stub, 200, TimeUnit.MILLISECONDS, 1000);
+        Caver caver = Caver.build(service);
+        int callers = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<BigInteger>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            String address = address(i);
+            results.add(executor.submit(() -> {
+                start.await();
+                return caver.klay().getTransactionCount(address, DefaultBlockParameterName.PENDING).send().getValue();
+            }));
+        }
+        start.countDown();
+
+        for (int i = 0; i < callers; i++) {
+            assertEquals(BigInteger.valueOf(i), results.get(i).get(10, TimeUnit.SECONDS));
+        }
+        assertTrue(stub.getRoundTrips() < callers);
+        executor.shutdown();
+    }
+
+    @Test
+    public void testBatchIsFlushedWhenFull() throws Exception {
+        service = new CoalescingService(stub, 1, TimeUnit.HOURS, 4);
+        Caver caver = Caver.build(service);
+
+        List<CompletableFuture<Quantity>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(caver.klay().getTransactionCount(address(i), DefaultBlockParameterName.PENDING).sendAsync());
+        }
+
+        for (int i = 0; i < 8; i++) {
+            assertEquals(BigInteger.valueOf(i), futures.get(i).get(10, TimeUnit.SECONDS).getValue());
+        }
+        assertEquals(2, stub.getRoundTrips());
+    }
+
+    private static String address(int i) {
+        return Numeric.toHexStringWithPrefixZeroPadded(BigInteger.valueOf(i), 40);
+    }
+}
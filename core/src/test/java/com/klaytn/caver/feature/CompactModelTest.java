@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.feature;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.klaytn.caver.methods.response.CompactBlock;
+import com.klaytn.caver.methods.response.CompactLog;
+import com.klaytn.caver.methods.response.CompactTransactionReceipt;
+import com.klaytn.caver.methods.response.KlayBlock;
+import com.klaytn.caver.methods.response.KlayLogs;
+import com.klaytn.caver.methods.response.KlayTransactionReceipt;
+import org.junit.Test;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CompactModelTest {
+
+    private static final String BLOCK_HASH = "0x1f4b5a6e1c5b9d8c9a37a1e7c0d3b2e8a4f6c5d7e9b1a3c5e7f9a1b3c5d7e9f1";
+    private static final String PARENT_HASH = "0x2e4b5a6e1c5b9d8c9a37a1e7c0d3b2e8a4f6c5d7e9b1a3c5e7f9a1b3c5d7e9f2";
+    private static final String TX_HASH = "0x3d4b5a6e1c5b9d8c9a37a1e7c0d3b2e8a4f6c5d7e9b1a3c5e7f9a1b3c5d7e9f3";
+    private static final String TOPIC = "0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef";
+
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+
+    private final String block = "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":{"
+            + "\"number\":\"0x1b4\",\"hash\":\"" + BLOCK_HASH + "\",\"parentHash\":\"" + PARENT_HASH + "\","
+            + "\"gasUsed\":\"0x5208\",\"size\":\"0x27c\",\"timestamp\":\"0x5d1c3a2f\",\"timestampFoS\":\"0x2\","
+            + "\"transactions\":[\"" + TX_HASH + "\"]}}";
+    private final String receipt = "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":{"
+            + "\"blockHash\":\"" + BLOCK_HASH + "\",\"blockNumber\":\"0x1b4\",\"gasUsed\":\"0x5208\","
+            + "\"status\":\"0x1\",\"transactionIndex\":\"0x3\",\"transactionHash\":\"" + TX_HASH + "\","
+            + "\"logs\":[{\"logIndex\":\"0x7\",\"transactionIndex\":\"0x3\",\"transactionHash\":\"" + TX_HASH + "\","
+            + "\"blockHash\":\"" + BLOCK_HASH + "\",\"blockNumber\":\"0x1b4\","
+            + "\"address\":\"0x7b65b75d204abed71587c9e519a89277766ee1d0\",\"data\":\"0x0102\","
+            + "\"topics\":[\"" + TOPIC + "\"]}]}}";
+
+    @Test
+    public void testTypedAccessors() throws IOException {
+        KlayBlock.Block parsed = objectMapper.readValue(block, KlayBlock.class).getBlock();
+
+        assertEquals(436, parsed.getNumberAsLong());
+        assertEquals(21000, parsed.getGasUsedAsLong());
+        assertEquals(0x5d1c3a2f, parsed.getTimestampAsLong());
+        assertEquals(2, parsed.getTimestampFoSAsLong());
+        assertArrayEquals(Numeric.hexStringToByteArray(BLOCK_HASH), parsed.getHashBytes());
+        assertSame(parsed.getHashBytes(), parsed.getHashBytes());
+    }
+
+    @Test
+    public void testAbsentFields() throws IOException {
+        KlayTransactionReceipt.TransactionReceipt parsed = objectMapper.readValue(
+                "{\"result\":{\"status\":\"0x0\"}}", KlayTransactionReceipt.class).getResult();
+
+        assertEquals(-1, parsed.getBlockNumberAsLong());
+        assertEquals(0, parsed.getStatusAsLong());
+        assertNull(parsed.getTransactionHashBytes());
+    }
+
+    @Test
+    public void testSetterResetsDecodedValue() {
+        KlayLogs.Log log = new KlayLogs.Log();
+        log.setLogIndex("0x1");
+        assertEquals(1, log.getLogIndexAsLong());
+
+        log.setLogIndex("0x2");
+        assertEquals(2, log.getLogIndexAsLong());
+    }
+
+    @Test
+    public void testTypedAccessorsAreNotSerialized() throws IOException {
+        KlayBlock.Block parsed = objectMapper.readValue(block, KlayBlock.class).getBlock();
+        parsed.getNumberAsLong();
+
+        String json = objectMapper.writeValueAsString(parsed);
+
+        assertFalse(json.contains("AsLong"));
+        assertFalse(json.contains("Bytes"));
+        assertEquals(parsed, objectMapper.readValue(json, KlayBlock.Block.class));
+    }
+
+    @Test
+    public void testCompactBlock() throws IOException {
+        CompactBlock compact = CompactBlock.of(objectMapper.readValue(block, KlayBlock.class).getBlock());
+
+        assertEquals(436, compact.getNumber());
+        assertEquals(636, compact.getSize());
+        assertArrayEquals(Numeric.hexStringToByteArray(BLOCK_HASH), compact.getHash());
+        assertArrayEquals(Numeric.hexStringToByteArray(PARENT_HASH), compact.getParentHash());
+        assertEquals(1, compact.getTransactionCount());
+        assertArrayEquals(Numeric.hexStringToByteArray(TX_HASH), compact.getTransactionHash(0));
+    }
+
+    @Test
+    public void testCompactReceipt() throws IOException {
+        CompactTransactionReceipt compact = CompactTransactionReceipt.of(
+                objectMapper.readValue(receipt, KlayTransactionReceipt.class).getResult());
+
+        assertTrue(compact.isSuccess());
+        assertEquals(436, compact.getBlockNumber());
+        assertEquals(3, compact.getTransactionIndex());
+        assertEquals(21000, compact.getGasUsed());
+        assertArrayEquals(Numeric.hexStringToByteArray(TX_HASH), compact.getTransactionHash());
+
+        CompactLog log = compact.getLogs().get(0);
+        assertEquals(7, log.getLogIndex());
+        assertEquals(1, log.getTopicCount());
+        assertArrayEquals(Numeric.hexStringToByteArray(TOPIC), log.getTopic(0));
+        assertArrayEquals(new byte[]{1, 2}, log.getData());
+        assertEquals(20, log.getAddress().length);
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.feature;
+
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.klaytn.caver.Caver;
+import com.klaytn.caver.base.StubKlayService;
+import com.klaytn.caver.crypto.KlayCredentials;
+import com.klaytn.caver.tx.exception.PlatformErrorException;
+import com.klaytn.caver.protocol.BatchRequest;
+import com.klaytn.caver.protocol.BatchResponse;
+import com.klaytn.caver.tx.manager.FastGetNonceProcessor;
+import com.klaytn.caver.tx.manager.GetNonceProcessor;
+import com.klaytn.caver.tx.manager.NoOpTransactionReceiptProcessor;
+import com.klaytn.caver.tx.manager.TransactionManager;
+import com.klaytn.caver.tx.manager.TransactionResult;
+import com.klaytn.caver.tx.model.ValueTransferTransaction;
+import com.klaytn.caver.utils.TransactionDecoder;
+import com.klaytn.caver.wallet.WalletManager;
+import com.klaytn.caver.wallet.exception.CredentialNotFoundException;
+import org.junit.Before;
+import org.junit.Test;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.Keys;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.exceptions.TransactionException;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.klaytn.caver.base.LocalValues.LOCAL_CHAIN_ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ExecuteTransactionsTest {
+
+    private KlayCredentials sender;
+    private KlayCredentials receiver;
+    private BigInteger rejectedNonce;
+    private int failingBatch = -1;
+    private List<Set<String>> batchSenders = new CopyOnWriteArrayList<>();
+    private Map<String, Set<BigInteger>> acceptedNonces = new ConcurrentHashMap<>();
+    private StubKlayService service = new StubKlayService((method, params) -> {
+        switch (method) {
+            case "klay_getTransactionCount": {
+                // the pending count ends at the first nonce the node has not received
+                Set<BigInteger> accepted = acceptedNonces(params.get(0).asText());
+                BigInteger pending = BigInteger.ZERO;
+                while (accepted.contains(pending)) {
+                    pending = pending.add(BigInteger.ONE);
+                }
+                return TextNode.valueOf(Numeric.toHexStringWithPrefix(pending));
+            }
+            case "klay_sendRawTransaction":
+                String rawTx = params.get(0).asText();
+                BigInteger nonce = TransactionDecoder.decode(rawTx).getNonce();
+                if (nonce.equals(rejectedNonce)) {
+                    return StubKlayService.error(-32000, "insufficient funds of the sender for value");
+                }
+                acceptedNonces(TransactionDecoder.decode(rawTx).getFrom()).add(nonce);
+                return TextNode.valueOf(Hash.sha3(rawTx));
+            default:
+                return null;
+        }
+    }) {
+        @Override
+        public BatchResponse sendBatch(BatchRequest batchRequest) throws IOException {
+            Set<String> senders = new HashSet<>();
+            for (Request<?, ?> request : batchRequest.getRequests()) {
+                senders.add(TransactionDecoder.decode((String) request.getParams().get(0)).getFrom());
+            }
+            if (batchSenders.size() == failingBatch) {
+                batchSenders.add(senders);
+                throw new IOException("connection reset");
+            }
+            batchSenders.add(senders);
+            return super.sendBatch(batchRequest);
+        }
+    };
+    private Caver caver = Caver.build(service);
+    private FastGetNonceProcessor nonceProcessor;
+    private TransactionManager transactionManager;
+
+    @Before
+    public void setUp() throws Exception {
+        sender = KlayCredentials.create(Keys.createEcKeyPair());
+        receiver = KlayCredentials.create(Keys.createEcKeyPair());
+        nonceProcessor = new FastGetNonceProcessor(caver);
+        transactionManager = new TransactionManager.Builder(caver, sender)
+                .setGetNonceProcessor(nonceProcessor)
+                .setTransactionReceiptProcessor(new NoOpTransactionReceiptProcessor(caver))
+                .setSendBatchSize(100)
+                .setChaindId(LOCAL_CHAIN_ID)
+                .build();
+    }
+
+    @Test
+    public void testTransactionsAreSentInBatches() {
+        List<TransactionResult> results = transactionManager.executeTransactions(valueTransfers(sender, 250));
+
+        assertEquals(250, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            TransactionResult result = results.get(i);
+            assertTrue(result.isSuccess());
+            assertEquals(BigInteger.valueOf(i), result.getTransaction().getNonce());
+            assertTrue(result.isSent());
+        }
+        assertEquals(250, Collections.frequency(service.getMethods(), "klay_sendRawTransaction"));
+        assertEquals(1 + 3, service.getRoundTrips());
+    }
+
+    @Test
+    public void testPartialFailure() throws Exception {
+        rejectedNonce = BigInteger.valueOf(3);
+
+        List<TransactionResult> results = transactionManager.executeTransactions(valueTransfers(sender, 10));
+
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i != 3, results.get(i).isSuccess());
+        }
+        assertFalse(results.get(3).isSent());
+        assertTrue(results.get(3).getException() instanceof PlatformErrorException);
+        assertTrue(nonceProcessor.getNonceGaps(sender.getAddress()).isEmpty());
+        assertEquals(BigInteger.valueOf(3), nonceProcessor.getNonce(sender));
+    }
+
+    @Test
+    public void testRejectedTransactionStopsLaterBatchesOfItsSender() throws Exception {
+        rejectedNonce = BigInteger.valueOf(5);
+        TransactionManager manager = batchesOf(4);
+
+        List<TransactionResult> results = manager.executeTransactions(valueTransfers(sender, 10));
+
+        for (int i = 0; i < 8; i++) {
+            assertEquals(i != 5, results.get(i).isSuccess());
+        }
+        for (int i = 8; i < 10; i++) {
+            assertFalse(results.get(i).isSent());
+            assertTrue(results.get(i).getException() instanceof TransactionException);
+            assertNull(results.get(i).getTransaction().getNonce());
+        }
+        assertEquals(8, Collections.frequency(service.getMethods(), "klay_sendRawTransaction"));
+        assertEquals(BigInteger.valueOf(5), nonceProcessor.getNonce(sender));
+    }
+
+    @Test
+    public void testFailedBatchStopsLaterBatchesOfItsSender() throws Exception {
+        failingBatch = 1;
+        TransactionManager manager = batchesOf(4);
+
+        List<TransactionResult> results = manager.executeTransactions(valueTransfers(sender, 10));
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(results.get(i).isSuccess());
+        }
+        for (int i = 4; i < 8; i++) {
+            assertTrue(results.get(i).getException() instanceof IOException);
+        }
+        for (int i = 8; i < 10; i++) {
+            assertTrue(results.get(i).getException() instanceof TransactionException);
+        }
+        assertEquals(2, batchSenders.size());
+        assertEquals(BigInteger.valueOf(4), nonceProcessor.getNonce(sender));
+    }
+
+    @Test
+    public void testEachBatchHoldsOneSender() {
+        WalletManager walletManager = new WalletManager();
+        walletManager.add(sender);
+        walletManager.add(receiver);
+        TransactionManager manager = new TransactionManager.Builder(caver, walletManager)
+                .setGetNonceProcessor(nonceProcessor)
+                .setTransactionReceiptProcessor(new NoOpTransactionReceiptProcessor(caver))
+                .setSendBatchSize(10)
+                .setChaindId(LOCAL_CHAIN_ID)
+                .build();
+        List<ValueTransferTransaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            transactions.addAll(valueTransfers(sender, 1));
+            transactions.addAll(valueTransfers(receiver, 1));
+        }
+
+        List<TransactionResult> results = manager.executeTransactions(transactions);
+
+        for (TransactionResult result : results) {
+            assertTrue(result.isSuccess());
+        }
+        assertEquals(4, batchSenders.size());
+        for (Set<String> senders : batchSenders) {
+            assertEquals(1, senders.size());
+        }
+    }
+
+    @Test
+    public void testProcessorWithoutTrackingNumbersFromThePendingCount() {
+        TransactionManager manager = new TransactionManager.Builder(caver, sender)
+                .setGetNonceProcessor(new GetNonceProcessor(caver))
+                .setTransactionReceiptProcessor(new NoOpTransactionReceiptProcessor(caver))
+                .setChaindId(LOCAL_CHAIN_ID)
+                .build();
+
+        List<TransactionResult> results = manager.executeTransactions(valueTransfers(sender, 3));
+
+        for (int i = 0; i < results.size(); i++) {
+            assertTrue(results.get(i).isSuccess());
+            assertEquals(BigInteger.valueOf(i), results.get(i).getTransaction().getNonce());
+        }
+        assertEquals(1, Collections.frequency(service.getMethods(), "klay_getTransactionCount"));
+        assertEquals(3, Collections.frequency(service.getMethods(), "klay_sendRawTransaction"));
+    }
+
+    @Test
+    public void testUnknownSenderFailsOnlyItsTransactions() throws Exception {
+        List<ValueTransferTransaction> transactions = new ArrayList<>(valueTransfers(sender, 2));
+        transactions.addAll(valueTransfers(receiver, 2));
+
+        List<TransactionResult> results = transactionManager.executeTransactions(transactions);
+
+        assertTrue(results.get(0).isSuccess());
+        assertTrue(results.get(1).isSuccess());
+        assertTrue(results.get(2).getException() instanceof CredentialNotFoundException);
+        assertTrue(results.get(3).getException() instanceof CredentialNotFoundException);
+        assertNull(results.get(3).getTransaction().getNonce());
+    }
+
+    private TransactionManager batchesOf(int sendBatchSize) {
+        return new TransactionManager.Builder(caver, sender)
+                .setGetNonceProcessor(nonceProcessor)
+                .setTransactionReceiptProcessor(new NoOpTransactionReceiptProcessor(caver))
+                .setSendBatchSize(sendBatchSize)
+                .setChaindId(LOCAL_CHAIN_ID)
+                .build();
+    }
+
+    private Set<BigInteger> acceptedNonces(String address) {
+        return acceptedNonces.computeIfAbsent(Numeric.prependHexPrefix(address).toLowerCase(),
+                key -> ConcurrentHashMap.newKeySet());
+    }
+
+    private List<ValueTransferTransaction> valueTransfers(KlayCredentials from, int count) {
+        List<ValueTransferTransaction> transactions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            transactions.add(ValueTransferTransaction.create(
+                    from.getAddress(), receiver.getAddress(), BigInteger.ONE, BigInteger.valueOf(21000)));
+        }
+        return transactions;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.feature;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.klaytn.caver.Caver;
+import com.klaytn.caver.ExecutorStrategy;
+import com.klaytn.caver.base.StubKlayService;
+import com.klaytn.caver.methods.response.KlayTransactionReceipt;
+import com.klaytn.caver.protocol.AsyncHttpService;
+import com.klaytn.caver.protocol.DispatchingService;
+import com.klaytn.caver.tx.manager.PollingTransactionReceiptProcessor;
+import org.junit.After;
+import org.junit.Test;
+import org.web3j.protocol.exceptions.TransactionException;
+
+import java.math.BigInteger;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ExecutorStrategyTest {
+
+    private static final String TX_HASH = "0xe7d42e4e4d5c0b5cd1bdd3f7d75dd87eed1330d3f7bfc6a1a1dfd4d3c7d1e2f0";
+
+    private final ExecutorService blockingExecutor = Executors.newCachedThreadPool(
+            runnable -> new Thread(runnable, "test-blocking"));
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            runnable -> new Thread(runnable, "test-scheduler"));
+    private final ExecutorStrategy executorStrategy = ExecutorStrategy.of(blockingExecutor, scheduler);
+
+    private final AtomicInteger receiptPolls = new AtomicInteger();
+    private final StringBuffer pollingThreads = new StringBuffer();
+    private final StringBuffer blockThreads = new StringBuffer();
+    private int pollsUntilReceipt = 3;
+    private volatile String latestBlock;
+    private StubKlayService node = new StubKlayService((method, params) -> {
+        switch (method) {
+            case "klay_blockNumber":
+                return TextNode.valueOf(Thread.currentThread().getName().equals("test-blocking") ? "0x1" : "0x0");
+            case "klay_getBlockByNumber":
+                if (latestBlock != null && params.get(0).asText().equals("latest")) {
+                    return JsonNodeFactory.instance.objectNode().put("number", latestBlock).put("hash", latestBlock);
+                }
+                blockThreads.append(Thread.currentThread().getName()).append(',');
+                ObjectNode block = JsonNodeFactory.instance.objectNode();
+                block.put("number", params.get(0).asText());
+                block.putArray("transactions");
+                return block;
+            case "klay_getTransactionReceipt":
+                pollingThreads.append(Thread.currentThread().getName()).append(',');
+                if (receiptPolls.incrementAndGet() < pollsUntilReceipt) {
+                    return NullNode.getInstance();
+                }
+                return JsonNodeFactory.instance.objectNode().put("transactionHash", TX_HASH).put("status", "0x1");
+            default:
+                return null;
+        }
+    });
+
+    @After
+    public void tearDown() {
+        blockingExecutor.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testVirtualThreadsFallBackToPlatformThreads() {
+        ExecutorStrategy virtualThreads = ExecutorStrategy.virtualThreads();
+        if (!virtualThreads.usesVirtualThreads()) {
+            assertSame(ExecutorStrategy.platformThreads(), virtualThreads);
+        }
+        assertSame(virtualThreads, ExecutorStrategy.virtualThreads());
+    }
+
+    @Test
+    public void testAsyncRequestsRunOnTheBlockingExecutor() throws Exception {
+        Caver caver = Caver.build(node, executorStrategy);
+
+        assertEquals(BigInteger.ONE, caver.klay().getBlockNumber().sendAsync().get().getValue());
+        assertEquals(BigInteger.ZERO, caver.klay().getBlockNumber().send().getValue());
+        assertSame(executorStrategy, caver.executorStrategy());
+    }
+
+    @Test
+    public void testPollingIsScheduledOnTheCaverExecutors() throws Exception {
+        Caver caver = Caver.build(node, executorStrategy);
+        PollingTransactionReceiptProcessor processor = new PollingTransactionReceiptProcessor(caver, 10, 5);
+
+        KlayTransactionReceipt.TransactionReceipt receipt = processor.waitForTransactionReceipt(TX_HASH);
+
+        assertEquals(TX_HASH, receipt.getTransactionHash());
+        assertEquals(3, receiptPolls.get());
+        assertEquals("test-blocking,test-blocking,test-blocking,", pollingThreads.toString());
+    }
+
+    @Test
+    public void testRxStreamsSendOnTheBlockingExecutor() {
+        Caver caver = Caver.build(node, executorStrategy);
+
+        caver.klay().blockFlowable(false).take(1).test()
+                .awaitDone(10, TimeUnit.SECONDS).assertComplete().assertValueCount(1);
+
+        assertEquals("test-blocking,", blockThreads.toString());
+    }
+
+    @Test
+    public void testAsynchronousTransportsAreNotDispatched() {
+        AsyncHttpService asyncHttpService = new AsyncHttpService("http://localhost:8551");
+
+        assertSame(asyncHttpService, DispatchingService.dispatch(asyncHttpService, executorStrategy));
+        assertTrue(DispatchingService.dispatch(node, executorStrategy) instanceof DispatchingService);
+    }
+
+    @Test
+    public void testPollingGivesUpAfterTheAttempts() throws Exception {
+        pollsUntilReceipt = Integer.MAX_VALUE;
+        PollingTransactionReceiptProcessor processor = new PollingTransactionReceiptProcessor(
+                Caver.build(node), 10, 2, executorStrategy);
+
+        try {
+            processor.waitForTransactionReceipt(TX_HASH);
+            fail();
+        } catch (TransactionException e) {
+            assertTrue(e.getMessage().contains(TX_HASH));
+        }
+        assertEquals(3, receiptPolls.get());
+    }
+
+    @Test
+    public void testPollingSkipsAttemptsWithoutANewBlock() throws Exception {
+        pollsUntilReceipt = Integer.MAX_VALUE;
+        latestBlock = "0x1";
+        Caver caver = Caver.build(node, executorStrategy);
+        caver.chainHeadTracker().awaitBlock(BigInteger.ONE).get(5, TimeUnit.SECONDS);
+        PollingTransactionReceiptProcessor processor = new PollingTransactionReceiptProcessor(caver, 10, 5);
+
+        try {
+            processor.waitForTransactionReceipt(TX_HASH);
+            fail();
+        } catch (TransactionException e) {
+            assertTrue(e.getMessage().contains(TX_HASH));
+        }
+        // the first and the last attempt ask the node, the others find the head unchanged
+        assertEquals(2, receiptPolls.get());
+    }
+}
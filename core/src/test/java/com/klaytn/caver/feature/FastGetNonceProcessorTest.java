@@ -0,0 +1,207 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.feature;
+
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.klaytn.caver.Caver;
+import com.klaytn.caver.base.StubKlayService;
+import com.klaytn.caver.crypto.KlayCredentials;
+import com.klaytn.caver.tx.manager.FastGetNonceProcessor;
+import com.klaytn.caver.tx.manager.NoOpTransactionReceiptProcessor;
+import com.klaytn.caver.tx.manager.TransactionManager;
+import com.klaytn.caver.tx.model.ValueTransferTransaction;
+import org.junit.Before;
+import org.junit.Test;
+import org.web3j.crypto.Keys;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.klaytn.caver.base.LocalValues.LOCAL_CHAIN_ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class FastGetNonceProcessorTest {
+
+    private KlayCredentials sender;
+    private KlayCredentials otherSender;
+    private Map<String, BigInteger> pendingCounts = new ConcurrentHashMap<>();
+    private String sendError;
+    private boolean sendFails;
+    private StubKlayService service = new StubKlayService((method, params) -> {
+        switch (method) {
+            case "klay_getTransactionCount":
+                return TextNode.valueOf(Numeric.toHexStringWithPrefix(pendingCounts.get(params.get(0).asText())));
+            case "klay_sendRawTransaction":
+                if (sendFails) {
+                    throw new IOException("connection reset");
+                }
+                return StubKlayService.error(-32000, sendError);
+            default:
+                return null;
+        }
+    });
+    private Caver caver = Caver.build(service);
+    private FastGetNonceProcessor nonceProcessor;
+
+    @Before
+    public void setUp() throws Exception {
+        sender = KlayCredentials.create(Keys.createEcKeyPair());
+        otherSender = KlayCredentials.create(Keys.createEcKeyPair());
+        pendingCounts.put(sender.getAddress(), BigInteger.valueOf(5));
+        pendingCounts.put(otherSender.getAddress(), BigInteger.valueOf(100));
+        nonceProcessor = new FastGetNonceProcessor(caver);
+    }
+
+    @Test
+    public void testNoncesAreKeptPerAccount() throws Exception {
+        assertEquals(BigInteger.valueOf(5), nonceProcessor.getNonce(sender));
+        assertEquals(BigInteger.valueOf(100), nonceProcessor.getNonce(otherSender));
+        assertEquals(BigInteger.valueOf(6), nonceProcessor.getNonce(sender));
+        assertEquals(BigInteger.valueOf(101), nonceProcessor.getNonce(otherSender));
+    }
+
+    @Test
+    public void testConcurrentReservationsAreUnique() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<BigInteger>> futures = new ArrayList<>();
+        for (int i = 0; i < 800; i++) {
+            futures.add(executor.submit(() -> nonceProcessor.getNonce(sender)));
+        }
+
+        Set<BigInteger> nonces = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        for (Future<BigInteger> future : futures) {
+            nonces.add(future.get());
+        }
+        executor.shutdown();
+
+        assertEquals(800, nonces.size());
+        assertEquals(BigInteger.valueOf(5), Collections.min(nonces));
+        assertEquals(BigInteger.valueOf(804), Collections.max(nonces));
+        assertEquals(1, service.getMethods().size());
+    }
+
+    @Test
+    public void testReleasedNonceIsReused() throws Exception {
+        nonceProcessor.getNonce(sender);
+        BigInteger released = nonceProcessor.getNonce(sender);
+        nonceProcessor.getNonce(sender);
+
+        nonceProcessor.releaseNonce(sender, released);
+        assertEquals(Arrays.asList(BigInteger.valueOf(6)), nonceProcessor.getNonceGaps(sender.getAddress()));
+        assertEquals(released, nonceProcessor.getNonce(sender));
+        assertTrue(nonceProcessor.getNonceGaps(sender.getAddress()).isEmpty());
+        assertEquals(BigInteger.valueOf(8), nonceProcessor.getNonce(sender));
+    }
+
+    @Test
+    public void testReleasingTheLastNonceRewindsTheCounter() throws Exception {
+        nonceProcessor.getNonce(sender);
+        BigInteger second = nonceProcessor.getNonce(sender);
+        BigInteger third = nonceProcessor.getNonce(sender);
+
+        nonceProcessor.releaseNonce(sender, second);
+        nonceProcessor.releaseNonce(sender, third);
+
+        assertTrue(nonceProcessor.getNonceGaps(sender.getAddress()).isEmpty());
+        assertEquals(second, nonceProcessor.getNonce(sender));
+    }
+
+    @Test
+    public void testReserveNonces() throws Exception {
+        assertEquals(BigInteger.valueOf(5), nonceProcessor.reserveNonces(sender, 10));
+        assertEquals(BigInteger.valueOf(15), nonceProcessor.getNonce(sender));
+    }
+
+    @Test
+    public void testResync() throws Exception {
+        nonceProcessor.getNonce(sender);
+        pendingCounts.put(sender.getAddress(), BigInteger.valueOf(50));
+
+        nonceProcessor.resync(sender);
+
+        assertEquals(BigInteger.valueOf(50), nonceProcessor.getNonce(sender));
+    }
+
+    @Test
+    public void testTransactionManagerReleasesRejectedNonce() throws Exception {
+        TransactionManager transactionManager = buildTransactionManager();
+        sendError = "insufficient funds of the sender for value";
+
+        transactionManager.executeTransaction(valueTransfer());
+
+        assertEquals(BigInteger.valueOf(5), nonceProcessor.getNonce(sender));
+    }
+
+    @Test
+    public void testTransactionManagerResyncsOnNonceTooLow() throws Exception {
+        TransactionManager transactionManager = buildTransactionManager();
+        sendError = "nonce too low";
+        pendingCounts.put(sender.getAddress(), BigInteger.valueOf(5));
+        nonceProcessor.getNonce(sender);
+        pendingCounts.put(sender.getAddress(), BigInteger.valueOf(30));
+
+        transactionManager.executeTransaction(valueTransfer());
+
+        assertEquals(BigInteger.valueOf(30), nonceProcessor.getNonce(sender));
+    }
+
+    @Test
+    public void testTransactionManagerResyncsAfterFailedSend() throws Exception {
+        TransactionManager transactionManager = buildTransactionManager();
+        sendFails = true;
+
+        transactionManager.executeTransaction(valueTransfer());
+        assertEquals(BigInteger.valueOf(5), nonceProcessor.getNonce(sender));
+
+        try {
+            transactionManager.executeTransactionAsync(valueTransfer()).get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        assertEquals(BigInteger.valueOf(5), nonceProcessor.getNonce(sender));
+    }
+
+    private TransactionManager buildTransactionManager() {
+        return new TransactionManager.Builder(caver, sender)
+                .setGetNonceProcessor(nonceProcessor)
+                .setTransactionReceiptProcessor(new NoOpTransactionReceiptProcessor(caver))
+                .setChaindId(LOCAL_CHAIN_ID)
+                .build();
+    }
+
+    private ValueTransferTransaction valueTransfer() {
+        return ValueTransferTransaction.create(
+                sender.getAddress(), otherSender.getAddress(), BigInteger.ONE, BigInteger.valueOf(21000));
+    }
+}
@@ -0,0 +1,365 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.feature;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.klaytn.caver.Caver;
+import com.klaytn.caver.base.StubKlayService;
+import com.klaytn.caver.filter.FilterManager;
+import com.klaytn.caver.methods.request.KlayLogFilter;
+import com.klaytn.caver.methods.response.KlayLogs;
+import com.klaytn.caver.protocol.MultiEndpointService;
+import com.klaytn.caver.protocol.Policy;
+import io.reactivex.disposables.Disposable;
+import org.junit.After;
+import org.junit.Test;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FilterManagerTest {
+
+    private static final String CONTRACT = "0x2cdb14fd6d8ba5f8c20c1b9d9d8be3fdb0a0cf6e";
+
+    private long head = 100;
+    private long nextFilterId = 1;
+    private final Map<Long, Long> filterCursors = new HashMap<>();
+    private final Map<Long, Boolean> blockFilters = new HashMap<>();
+    private final Map<Long, Integer> filterNodes = new HashMap<>();
+    private boolean down;
+    private int failingGetLogs;
+    private boolean latestAnswered;
+    private volatile CountDownLatch installing;
+    private volatile CountDownLatch installed;
+    private final StubKlayService node = new StubKlayService((method, params) -> {
+        JsonNode result = handle(0, method, params);
+        if (installing != null && method.equals("klay_newBlockFilter")) {
+            installing.countDown();
+            awaitUninterruptibly(installed);
+        }
+        return result;
+    });
+    private final Caver caver = Caver.build(node);
+    private final FilterManager filterManager = new FilterManager(caver, 10, TimeUnit.MILLISECONDS);
+
+    @After
+    public void tearDown() throws Exception {
+        filterManager.close();
+    }
+
+    @Test
+    public void testListenersShareFiltersAndPolls() throws Exception {
+        List<List<String>> blocks = new ArrayList<>();
+        List<List<KlayLogs.Log>> logs = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            List<String> received = new CopyOnWriteArrayList<>();
+            filterManager.addBlockListener(received::add);
+            blocks.add(received);
+        }
+        for (int i = 0; i < 2; i++) {
+            List<KlayLogs.Log> received = new CopyOnWriteArrayList<>();
+            filterManager.addLogListener(logFilter(), received::add);
+            logs.add(received);
+        }
+        assertEquals(2, filterManager.getFilterCount());
+        await(() -> installedFilters() == 2);
+
+        advance(5);
+        await(() -> logs.get(1).size() == 5 && blocks.get(2).size() == 5);
+
+        for (List<String> received : blocks) {
+            assertEquals(hash(101), received.get(0));
+            assertEquals(hash(105), received.get(4));
+        }
+        for (List<KlayLogs.Log> received : logs) {
+            assertEquals(101, received.get(0).getBlockNumberAsLong());
+        }
+        assertEquals(1, Collections.frequency(node.getMethods(), "klay_newBlockFilter"));
+        assertEquals(1, Collections.frequency(node.getMethods(), "klay_newFilter"));
+        int changes = Collections.frequency(node.getMethods(), "klay_getFilterChanges");
+        assertTrue(node.getRoundTrips() * 2 >= changes);
+    }
+
+    @Test
+    public void testLostFiltersAreReinstalledAndBackfilled() throws Exception {
+        List<KlayLogs.Log> logs = new CopyOnWriteArrayList<>();
+        List<String> blocks = new CopyOnWriteArrayList<>();
+        filterManager.addLogListener(logFilter(), logs::add);
+        filterManager.addBlockListener(blocks::add);
+        await(() -> installedFilters() == 2);
+        advance(3);
+        await(() -> logs.size() == 3 && blocks.size() == 3);
+
+        synchronized (this) {
+            filterCursors.clear();
+            head += 4;
+        }
+        await(() -> logs.size() == 7 && blocks.size() == 7);
+        advance(2);
+        await(() -> logs.size() == 9 && blocks.size() == 9);
+
+        for (int i = 0; i < 9; i++) {
+            assertEquals(101 + i, logs.get(i).getBlockNumberAsLong());
+            assertEquals(hash(101 + i), blocks.get(i));
+        }
+        assertEquals(2, filterManager.getReinstalls());
+        assertTrue(node.getMethods().contains("klay_getLogs"));
+    }
+
+    @Test
+    public void testFilterWithoutListenersIsUninstalled() throws Exception {
+        Disposable first = filterManager.addBlockListener(hash -> { });
+        Disposable second = filterManager.addBlockListener(hash -> { });
+        await(() -> installedFilters() == 1);
+
+        first.dispose();
+        Thread.sleep(50);
+        assertEquals(1, installedFilters());
+
+        second.dispose();
+        await(() -> installedFilters() == 0);
+        assertEquals(0, filterManager.getFilterCount());
+    }
+
+    @Test
+    public void testPersistentFailuresReachErrorListeners() throws Exception {
+        List<Exception> errors = new CopyOnWriteArrayList<>();
+        filterManager.addErrorListener(errors::add);
+        filterManager.addBlockListener(hash -> { });
+        await(() -> installedFilters() == 1);
+
+        synchronized (this) {
+            down = true;
+        }
+        await(() -> !errors.isEmpty());
+        assertTrue(filterManager.getFailedPolls() >= FilterManager.DEFAULT_FAILURES_BEFORE_ERROR);
+        assertEquals("connection refused", errors.get(0).getMessage());
+
+        synchronized (this) {
+            down = false;
+        }
+        long polls = filterManager.getPolls();
+        await(() -> filterManager.getPolls() > polls + 2);
+        int reported = errors.size();
+        Thread.sleep(50);
+        assertEquals(reported, errors.size());
+    }
+
+    @Test
+    public void testFailedBackfillIsRetriedWithoutLeakingFilters() throws Exception {
+        List<KlayLogs.Log> logs = new CopyOnWriteArrayList<>();
+        filterManager.addLogListener(logFilter(), logs::add);
+        await(() -> installedFilters() == 1);
+        advance(2);
+        await(() -> logs.size() == 2);
+
+        synchronized (this) {
+            filterCursors.clear();
+            failingGetLogs = 2;
+            head += 3;
+        }
+        await(() -> logs.size() == 5);
+        advance(1);
+        await(() -> logs.size() == 6);
+
+        for (int i = 0; i < 6; i++) {
+            assertEquals(101 + i, logs.get(i).getBlockNumberAsLong());
+        }
+        assertEquals(1, installedFilters());
+        assertTrue(filterManager.getFailedPolls() > 0);
+    }
+
+    @Test
+    public void testFiltersArePolledOnTheirEndpoint() throws Exception {
+        Map<String, StubKlayService> services = new LinkedHashMap<>();
+        for (int i = 0; i < 3; i++) {
+            int index = i;
+            services.put("node" + i, new StubKlayService((method, params) -> handle(index, method, params)));
+        }
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        Caver multiEndpointCaver = Caver.build(new MultiEndpointService(
+                services, Policy.roundRobin(), 3, 1, TimeUnit.SECONDS, executor));
+        try (FilterManager manager = new FilterManager(multiEndpointCaver, 10, TimeUnit.MILLISECONDS)) {
+            List<String> blocks = new CopyOnWriteArrayList<>();
+            List<KlayLogs.Log> logs = new CopyOnWriteArrayList<>();
+            manager.addBlockListener(blocks::add);
+            manager.addLogListener(logFilter(), logs::add);
+            await(() -> installedFilters() == 2);
+
+            for (int i = 1; i <= 5; i++) {
+                int expected = i;
+                advance(1);
+                await(() -> blocks.size() == expected && logs.size() == expected);
+            }
+
+            assertEquals(hash(105), blocks.get(4));
+            assertEquals(0, manager.getReinstalls());
+            assertEquals(0, manager.getFailedPolls());
+        } finally {
+            multiEndpointCaver.shutdown();
+        }
+    }
+
+    @Test
+    public void testHeadIsTakenFromTheChainHeadTracker() throws Exception {
+        latestAnswered = true;
+        List<String> blocks = new CopyOnWriteArrayList<>();
+        filterManager.addBlockListener(blocks::add);
+        await(() -> caver.chainHeadTracker().getHead() != null && installedFilters() == 1);
+        node.getMethods().clear();
+
+        advance(3);
+        await(() -> blocks.size() == 3);
+        assertEquals(hash(103), blocks.get(2));
+        assertEquals(0, Collections.frequency(node.getMethods(), "klay_blockNumber"));
+    }
+
+    @Test
+    public void testFilterInstalledDuringCloseIsUninstalled() throws Exception {
+        installing = new CountDownLatch(1);
+        installed = new CountDownLatch(1);
+        filterManager.addBlockListener(hash -> { });
+        installing.await(5, TimeUnit.SECONDS);
+        assertEquals(1, installedFilters());
+
+        filterManager.close();
+        installed.countDown();
+        await(() -> installedFilters() == 0);
+        assertEquals(1, Collections.frequency(node.getMethods(), "klay_uninstallFilter"));
+    }
+
+    private synchronized JsonNode handle(int nodeIndex, String method, JsonNode params) throws IOException {
+        if (down) {
+            throw new IOException("connection refused");
+        }
+        switch (method) {
+            case "klay_blockNumber":
+                return TextNode.valueOf(Numeric.toHexStringWithPrefix(BigInteger.valueOf(head)));
+            case "klay_newBlockFilter":
+            case "klay_newFilter": {
+                long id = nextFilterId++;
+                filterCursors.put(id, head);
+                filterNodes.put(id, nodeIndex);
+                blockFilters.put(id, method.equals("klay_newBlockFilter"));
+                return TextNode.valueOf(Numeric.toHexStringWithPrefix(BigInteger.valueOf(id)));
+            }
+            case "klay_uninstallFilter":
+                return BooleanNode.valueOf(filterCursors.remove(Numeric.toBigInt(params.get(0).asText()).longValue()) != null);
+            case "klay_getFilterChanges": {
+                long id = Numeric.toBigInt(params.get(0).asText()).longValue();
+                Long cursor = filterCursors.get(id);
+                if (cursor == null || filterNodes.get(id) != nodeIndex) {
+                    return StubKlayService.error(-32000, "filter not found");
+                }
+                filterCursors.put(id, head);
+                return blockFilters.get(id) ? hashes(cursor + 1, head) : logs(cursor + 1, head);
+            }
+            case "klay_getLogs":
+                if (failingGetLogs > 0) {
+                    failingGetLogs--;
+                    return StubKlayService.error(-32000, "block is unavailable");
+                }
+                return logs(Numeric.toBigInt(params.get(0).get("fromBlock").asText()).longValue(),
+                        Numeric.toBigInt(params.get(0).get("toBlock").asText()).longValue());
+            case "klay_getBlockByNumber": {
+                if (params.get(0).asText().equals("latest")) {
+                    return latestAnswered ? JsonNodeFactory.instance.objectNode()
+                            .put("number", Numeric.toHexStringWithPrefix(BigInteger.valueOf(head)))
+                            .put("hash", hash(head)) : StubKlayService.error(-32602, "latest is not answered");
+                }
+                long number = Numeric.toBigInt(params.get(0).asText()).longValue();
+                return JsonNodeFactory.instance.objectNode()
+                        .put("number", params.get(0).asText())
+                        .put("hash", hash(number));
+            }
+            default:
+                return null;
+        }
+    }
+
+    private static ArrayNode hashes(long from, long to) {
+        ArrayNode hashes = JsonNodeFactory.instance.arrayNode();
+        for (long block = from; block <= to; block++) {
+            hashes.add(hash(block));
+        }
+        return hashes;
+    }
+
+    private static ArrayNode logs(long from, long to) {
+        ArrayNode logs = JsonNodeFactory.instance.arrayNode();
+        for (long block = from; block <= to; block++) {
+            logs.addObject()
+                    .put("blockNumber", Numeric.toHexStringWithPrefix(BigInteger.valueOf(block)))
+                    .put("logIndex", "0x0")
+                    .put("address", CONTRACT);
+        }
+        return logs;
+    }
+
+    private static String hash(long block) {
+        return Numeric.toHexStringWithPrefixZeroPadded(BigInteger.valueOf(block), 64);
+    }
+
+    private static KlayLogFilter logFilter() {
+        return new KlayLogFilter(null, null, CONTRACT, null);
+    }
+
+    private synchronized void advance(int blocks) {
+        head += blocks;
+    }
+
+    private synchronized int installedFilters() {
+        return filterCursors.size();
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
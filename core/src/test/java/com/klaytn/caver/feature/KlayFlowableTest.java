@@ -0,0 +1,181 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.feature;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.klaytn.caver.JsonRpc2_0Klay;
+import com.klaytn.caver.JsonRpc2_0KlayRx;
+import com.klaytn.caver.Klay;
+import com.klaytn.caver.base.StubKlayService;
+import com.klaytn.caver.methods.request.KlayLogFilter;
+import com.klaytn.caver.methods.response.KlayBlock;
+import com.klaytn.caver.methods.response.KlayLogs;
+import com.klaytn.caver.methods.response.KlayTransactionReceipt;
+import io.reactivex.subscribers.TestSubscriber;
+import org.junit.After;
+import org.junit.Test;
+import org.web3j.protocol.admin.JsonRpc2_0Admin;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class KlayFlowableTest {
+
+    private static final String CONTRACT = "0x2cdb14fd6d8ba5f8c20c1b9d9d8be3fdb0a0cf6e";
+
+    private final AtomicLong head = new AtomicLong(100);
+    private final StubKlayService service = new StubKlayService(this::handle);
+    private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(4);
+    private final Klay klay = new JsonRpc2_0Klay(service, 20, executor, new JsonRpc2_0Admin(service));
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testReplayDeliversBlocksInOrder() {
+        TestSubscriber<KlayBlock> subscriber = klay.replayBlocksFlowable(
+                new DefaultBlockParameterNumber(1), new DefaultBlockParameterNumber(50)).test();
+
+        subscriber.awaitDone(10, TimeUnit.SECONDS).assertComplete().assertValueCount(50);
+        List<KlayBlock> blocks = subscriber.values();
+        for (int i = 0; i < blocks.size(); i++) {
+            assertEquals(Numeric.toHexStringWithPrefix(BigInteger.valueOf(i + 1)), blocks.get(i).getBlock().getNumber());
+        }
+    }
+
+    @Test
+    public void testReplayFollowsDemand() throws Exception {
+        TestSubscriber<KlayBlock> subscriber = klay.replayBlocksFlowable(
+                new DefaultBlockParameterNumber(1), new DefaultBlockParameterNumber(100)).test(5);
+
+        Thread.sleep(300);
+        subscriber.assertValueCount(5);
+        int fetched = Collections.frequency(service.getMethods(), "klay_getBlockByNumber");
+        assertTrue(fetched <= 5 + JsonRpc2_0KlayRx.DEFAULT_REPLAY_PARALLELISM + 1);
+
+        subscriber.requestMore(95);
+        subscriber.awaitDone(10, TimeUnit.SECONDS).assertComplete().assertValueCount(100);
+    }
+
+    @Test
+    public void testReplayContinuesBeyondHead() {
+        TestSubscriber<KlayBlock> subscriber = klay.replayBlocksFlowable(
+                new DefaultBlockParameterNumber(99), new DefaultBlockParameterNumber(103)).test();
+
+        head.set(103);
+        subscriber.awaitDone(10, TimeUnit.SECONDS).assertComplete().assertValueCount(5);
+        assertEquals("0x67", subscriber.values().get(4).getBlock().getNumber());
+    }
+
+    @Test
+    public void testBlockFlowableEmitsNewBlocks() throws Exception {
+        TestSubscriber<KlayBlock> subscriber = klay.blockFlowable(false).test();
+
+        Thread.sleep(100);
+        subscriber.assertValueCount(0);
+        head.set(103);
+
+        subscriber.awaitCount(3);
+        subscriber.assertValueCount(3);
+        assertEquals("0x65", subscriber.values().get(0).getBlock().getNumber());
+        assertEquals("0x67", subscriber.values().get(2).getBlock().getNumber());
+        subscriber.dispose();
+    }
+
+    @Test
+    public void testLogsFlowable() {
+        KlayLogFilter filter = new KlayLogFilter(
+                new DefaultBlockParameterNumber(1), new DefaultBlockParameterNumber(250), CONTRACT, null);
+        head.set(300);
+
+        TestSubscriber<KlayLogs.Log> subscriber = klay.logsFlowable(filter).test();
+
+        subscriber.awaitDone(10, TimeUnit.SECONDS).assertComplete().assertValueCount(250);
+        for (int i = 0; i < 250; i++) {
+            assertEquals(BigInteger.valueOf(i + 1), subscriber.values().get(i).getBlockNumber());
+        }
+        assertEquals(3, Collections.frequency(service.getMethods(), "klay_getLogs"));
+    }
+
+    @Test
+    public void testTransactionReceiptFlowable() {
+        TestSubscriber<KlayTransactionReceipt.TransactionReceipt> subscriber =
+                klay.transactionReceiptFlowable().test();
+
+        head.set(102);
+        subscriber.awaitCount(2);
+        subscriber.assertValueCount(2);
+        assertEquals("0x0102", subscriber.values().get(1).getTransactionHash());
+        assertEquals(1, Collections.frequency(service.getMethods(), "klay_getBlockReceipts"));
+        subscriber.dispose();
+    }
+
+    private JsonNode handle(String method, JsonNode params) {
+        switch (method) {
+            case "klay_blockNumber":
+                return TextNode.valueOf(Numeric.toHexStringWithPrefix(BigInteger.valueOf(head.get())));
+            case "klay_getBlockByNumber":
+                long number = Numeric.toBigInt(params.get(0).asText()).longValue();
+                if (number > head.get()) {
+                    return null;
+                }
+                ObjectNode block = JsonNodeFactory.instance.objectNode();
+                block.put("number", Numeric.toHexStringWithPrefix(BigInteger.valueOf(number)));
+                block.put("hash", "0x" + Long.toHexString(number));
+                ArrayNode transactions = block.putArray("transactions");
+                if (number == 102) {
+                    transactions.add("0x0101").add("0x0102");
+                }
+                return block;
+            case "klay_getBlockReceipts":
+                ArrayNode receipts = JsonNodeFactory.instance.arrayNode();
+                receipts.addObject().put("transactionHash", "0x0101");
+                receipts.addObject().put("transactionHash", "0x0102");
+                return receipts;
+            case "klay_getLogs":
+                long from = Numeric.toBigInt(params.get(0).get("fromBlock").asText()).longValue();
+                long to = Numeric.toBigInt(params.get(0).get("toBlock").asText()).longValue();
+                ArrayNode logs = JsonNodeFactory.instance.arrayNode();
+                for (long i = from; i <= to; i++) {
+                    ObjectNode log = logs.addObject();
+                    log.put("address", params.get(0).get("address").get(0).asText());
+                    log.put("blockNumber", Numeric.toHexStringWithPrefix(BigInteger.valueOf(i)));
+                    log.putArray("topics");
+                }
+                return logs;
+            default:
+                return null;
+        }
+    }
+}
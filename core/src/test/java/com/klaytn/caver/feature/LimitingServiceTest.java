@@ -0,0 +1,256 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.feature;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.klaytn.caver.Caver;
+import com.klaytn.caver.base.StubKlayService;
+import com.klaytn.caver.methods.request.KlayLogFilter;
+import com.klaytn.caver.protocol.ConcurrencyLimit;
+import com.klaytn.caver.protocol.LimitingService;
+import com.klaytn.caver.protocol.Priority;
+import com.klaytn.caver.protocol.RequestShedException;
+import org.junit.Test;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LimitingServiceTest {
+
+    private final CountDownLatch blocked = new CountDownLatch(1);
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+    private final StubKlayService node = new StubKlayService((method, params) -> {
+        maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+        try {
+            blocked.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        } finally {
+            active.decrementAndGet();
+        }
+        switch (method) {
+            case "klay_blockNumber":
+            case "klay_sendRawTransaction":
+                return TextNode.valueOf("0x10");
+            default:
+                return JsonNodeFactory.instance.arrayNode();
+        }
+    });
+
+    @Test
+    public void testRequestsInFlightAreLimited() throws Exception {
+        LimitingService service = limitingService(2, 100, 5000);
+        Caver caver = Caver.build(service);
+
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            futures.add(caver.klay().getBlockNumber().sendAsync());
+        }
+        awaitQueued(service, 4);
+        awaitActive(2);
+        blocked.countDown();
+        for (CompletableFuture<?> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(2, maxActive.get());
+        assertEquals(6, node.getMethods().size());
+        assertEquals(0, service.getInFlight());
+    }
+
+    @Test
+    public void testTransactionsJumpAheadOfBackgroundReads() throws Exception {
+        LimitingService service = limitingService(1, 100, 5000);
+        Caver caver = Caver.build(service);
+
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        futures.add(caver.klay().getBlockNumber().sendAsync());
+        for (int i = 0; i < 3; i++) {
+            futures.add(caver.klay().getLogs(new KlayLogFilter()).sendAsync());
+            awaitQueued(service, i + 1);
+        }
+        futures.add(caver.klay().sendSignedTransaction("0x01").sendAsync());
+        awaitQueued(service, 4);
+        blocked.countDown();
+        for (CompletableFuture<?> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals("klay_sendRawTransaction", node.getMethods().get(1));
+    }
+
+    @Test
+    public void testLowestPriorityIsShedWhenTheQueueIsFull() throws Exception {
+        LimitingService service = limitingService(1, 2, 5000);
+        Caver caver = Caver.build(service);
+
+        CompletableFuture<?> first = caver.klay().getBlockNumber().sendAsync();
+        CompletableFuture<?> lowA = caver.klay().getLogs(new KlayLogFilter()).sendAsync();
+        awaitQueued(service, 1);
+        CompletableFuture<?> lowB = caver.klay().getLogs(new KlayLogFilter()).sendAsync();
+        CompletableFuture<?> high = caver.klay().sendSignedTransaction("0x01").sendAsync();
+        CompletableFuture<?> lowC = caver.klay().getLogs(new KlayLogFilter()).sendAsync();
+
+        assertShed(lowB, Priority.LOW);
+        assertShed(lowC, Priority.LOW);
+        assertEquals(2, service.getShed());
+
+        blocked.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        lowA.get(5, TimeUnit.SECONDS);
+        high.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testRequestWhichWaitedTooLongIsShed() throws Exception {
+        LimitingService service = limitingService(1, 100, 50);
+        Caver caver = Caver.build(service);
+        CompletableFuture<?> first = caver.klay().getBlockNumber().sendAsync();
+        awaitActive(1);
+
+        try {
+            caver.klay().getBalance("0x7b65b75d204abed71587c9e519a89277766ee1d0",
+                    DefaultBlockParameterName.LATEST).send();
+            fail();
+        } catch (RequestShedException e) {
+            assertEquals(Priority.NORMAL, e.getPriority());
+        }
+        assertEquals(0, service.getQueued());
+
+        blocked.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        assertEquals(0, service.getInFlight());
+    }
+
+    @Test
+    public void testAsyncRequestWhichWaitedTooLongIsShed() throws Exception {
+        LimitingService service = limitingService(1, 100, 50);
+        Caver caver = Caver.build(service);
+        CompletableFuture<?> first = caver.klay().getBlockNumber().sendAsync();
+        awaitActive(1);
+
+        // nothing frees a slot while the first request hangs, yet the waiter is shed after maxWait
+        CompletableFuture<?> waiting = caver.klay().getBlockNumber().sendAsync();
+        assertShed(waiting, Priority.NORMAL);
+        assertEquals(0, service.getQueued());
+        assertEquals(1, active.get());
+
+        blocked.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        assertEquals(0, service.getInFlight());
+    }
+
+    @Test
+    public void testInterruptedWaiterKeepsTheSlotCount() throws Exception {
+        LimitingService service = limitingService(1, 100, 5000);
+        Caver caver = Caver.build(service);
+        CompletableFuture<?> first = caver.klay().getBlockNumber().sendAsync();
+        awaitActive(1);
+
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Thread waiter = new Thread(() -> {
+            try {
+                caver.klay().getBlockNumber().send();
+            } catch (IOException e) {
+                failure.set(e);
+            }
+        });
+        waiter.start();
+        awaitQueued(service, 1);
+        waiter.interrupt();
+        waiter.join(5000);
+
+        assertTrue(failure.get() instanceof InterruptedIOException);
+        assertEquals(0, service.getQueued());
+        assertEquals(1, service.getInFlight());
+        blocked.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        assertEquals(0, service.getInFlight());
+    }
+
+    @Test
+    public void testLimitIncreasesAdditivelyAndDecreasesMultiplicatively() {
+        ConcurrencyLimit limit = new ConcurrencyLimit(10, 1, 100, 0.5, 2.0);
+
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(TimeUnit.MILLISECONDS.toNanos(10), limit.getLimit(), false);
+        }
+        int grown = limit.getLimit();
+        assertTrue(grown > 10);
+        assertEquals(10, limit.getBaselineMillis(), 0.5);
+
+        limit.onSample(TimeUnit.MILLISECONDS.toNanos(10), grown, true);
+        assertEquals(grown / 2, limit.getLimit(), 1);
+
+        ConcurrencyLimit slow = new ConcurrencyLimit(10, 1, 100, 0.5, 2.0);
+        slow.onSample(TimeUnit.MILLISECONDS.toNanos(10), 10, false);
+        slow.onSample(TimeUnit.MILLISECONDS.toNanos(100), 10, false);
+        assertEquals(5, slow.getLimit());
+
+        ConcurrencyLimit idle = new ConcurrencyLimit(10, 1, 100, 0.5, 2.0);
+        for (int i = 0; i < 200; i++) {
+            idle.onSample(TimeUnit.MILLISECONDS.toNanos(10), 1, false);
+        }
+        assertEquals(10, idle.getLimit());
+    }
+
+    private LimitingService limitingService(int maxInFlight, int maxQueued, long maxWaitMillis) {
+        return new LimitingService(node, new ConcurrencyLimit(maxInFlight, maxInFlight, maxInFlight, 0.9, 2.0),
+                maxQueued, maxWaitMillis, TimeUnit.MILLISECONDS, Priority::of);
+    }
+
+    private void awaitQueued(LimitingService service, int queued) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (service.getQueued() < queued && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(queued, service.getQueued());
+    }
+
+    private void awaitActive(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (active.get() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void assertShed(CompletableFuture<?> future, Priority priority) throws Exception {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RequestShedException);
+            assertEquals(priority, ((RequestShedException) e.getCause()).getPriority());
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.feature;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.klaytn.caver.Caver;
+import com.klaytn.caver.base.StubKlayService;
+import com.klaytn.caver.methods.request.KlayLogFilter;
+import com.klaytn.caver.methods.response.KlayLogs;
+import com.klaytn.caver.scan.Checkpoint;
+import com.klaytn.caver.scan.LogScanner;
+import org.junit.Test;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LogScannerTest {
+
+    private static final String CONTRACT = "0x2cdb14fd6d8ba5f8c20c1b9d9d8be3fdb0a0cf6e";
+    private static final int RESULT_LIMIT = 50;
+
+    private long brokenBlock = -1;
+    private int transportFailures;
+    private final StubKlayService node = new StubKlayService(this::handle);
+    private final Caver caver = Caver.build(node);
+
+    @Test
+    public void testLogsAreDeliveredInOrder() throws Exception {
+        List<KlayLogs.Log> logs = new ArrayList<>();
+        LogScanner scanner = new LogScanner.Builder(caver)
+                .setInitialChunkSize(40)
+                .setTargetLogs(40)
+                .setParallelism(4)
+                .build();
+
+        BigInteger last = scanner.scan(filter(), BigInteger.ONE, BigInteger.valueOf(500), logs::add);
+
+        assertEquals(BigInteger.valueOf(500), last);
+        assertEquals(expectedLogs(1, 500), logs.size());
+        for (int i = 1; i < logs.size(); i++) {
+            KlayLogs.Log previous = logs.get(i - 1);
+            KlayLogs.Log log = logs.get(i);
+            assertTrue(previous.getBlockNumberAsLong() < log.getBlockNumberAsLong()
+                    || previous.getBlockNumberAsLong() == log.getBlockNumberAsLong()
+                    && previous.getLogIndexAsLong() < log.getLogIndexAsLong());
+        }
+
+        LogScanner.Progress progress = scanner.getProgress();
+        assertEquals(1.0, progress.getFraction(), 0);
+        assertEquals(logs.size(), progress.getLogs());
+        assertTrue(progress.getSplits() > 0);
+        assertTrue(progress.getRequests() > progress.getSplits());
+        assertTrue(progress.getLogsPerSecond() > 0);
+    }
+
+    @Test
+    public void testChunkSizeGrowsOverSparseRanges() throws Exception {
+        LogScanner scanner = new LogScanner.Builder(caver)
+                .setInitialChunkSize(10)
+                .setMaxChunkSize(640)
+                .setParallelism(1)
+                .build();
+
+        scanner.scan(filter(), BigInteger.valueOf(10_000), BigInteger.valueOf(12_000), log -> { });
+
+        assertEquals(640, scanner.getChunkSize());
+        assertTrue(scanner.getProgress().getRequests() < 20);
+    }
+
+    @Test
+    public void testChunkSizeShrinksOnErrors() throws Exception {
+        LogScanner scanner = new LogScanner.Builder(caver)
+                .setInitialChunkSize(1000)
+                .setParallelism(1)
+                .build();
+
+        scanner.scan(filter(), BigInteger.ONE, BigInteger.valueOf(100), log -> { });
+
+        assertTrue(scanner.getChunkSize() < 100);
+    }
+
+    @Test
+    public void testScanResumesFromTheCheckpoint() throws Exception {
+        Checkpoint checkpoint = Checkpoint.inMemory();
+        checkpoint.save(BigInteger.valueOf(89));
+        List<KlayLogs.Log> logs = new ArrayList<>();
+        LogScanner scanner = new LogScanner.Builder(caver).setCheckpoint(checkpoint).build();
+
+        scanner.scan(filter(), BigInteger.ONE, BigInteger.valueOf(100), logs::add);
+
+        assertEquals(expectedLogs(90, 100), logs.size());
+        assertEquals(91, logs.get(0).getBlockNumberAsLong());
+        assertEquals(BigInteger.valueOf(100), checkpoint.load());
+    }
+
+    @Test
+    public void testBlockWhichKeepsFailingFailsTheScan() throws Exception {
+        brokenBlock = 42;
+        LogScanner scanner = new LogScanner.Builder(caver).setMaxAttempts(2).build();
+
+        try {
+            scanner.scan(filter(), BigInteger.ONE, BigInteger.valueOf(100), log -> { });
+            fail();
+        } catch (IOException e) {
+            assertEquals("Error processing request: block 42 is unavailable", e.getMessage());
+        }
+    }
+
+    private KlayLogFilter filter() {
+        KlayLogFilter filter = new KlayLogFilter(null, null, CONTRACT, null);
+        filter.addSingleTopic(Numeric.toHexStringWithPrefixZeroPadded(BigInteger.ONE, 64));
+        return filter;
+    }
+
+    @Test
+    public void testNodeErrorFailsWithoutSplitting() throws Exception {
+        brokenBlock = 42;
+        LogScanner scanner = new LogScanner.Builder(caver).setParallelism(1).build();
+
+        try {
+            scanner.scan(filter(), BigInteger.ONE, BigInteger.valueOf(100), log -> { });
+            fail();
+        } catch (IOException e) {
+            assertEquals("Error processing request: block 42 is unavailable", e.getMessage());
+        }
+        assertEquals(0, scanner.getProgress().getSplits());
+        assertEquals(1, scanner.getProgress().getRequests());
+    }
+
+    @Test
+    public void testTransportFailuresAreRetriedWithoutSplitting() throws Exception {
+        transportFailures = 2;
+        List<KlayLogs.Log> logs = new ArrayList<>();
+        LogScanner scanner = new LogScanner.Builder(caver).setInitialChunkSize(20).setParallelism(1).build();
+
+        scanner.scan(filter(), BigInteger.ONE, BigInteger.valueOf(20), logs::add);
+
+        assertEquals(expectedLogs(1, 20), logs.size());
+        assertEquals(0, scanner.getProgress().getSplits());
+        assertEquals(3, scanner.getProgress().getRequests());
+    }
+
+    private JsonNode handle(String method, JsonNode params) throws IOException {
+        if (transportFailures > 0) {
+            transportFailures--;
+            throw new IOException("connection reset");
+        }
+        JsonNode filter = params.get(0);
+        assertEquals(CONTRACT, filter.get("address").get(0).asText());
+        long from = Numeric.toBigInt(filter.get("fromBlock").asText()).longValue();
+        long to = Numeric.toBigInt(filter.get("toBlock").asText()).longValue();
+        if (from <= brokenBlock && brokenBlock <= to) {
+            return StubKlayService.error(-32000, "block " + brokenBlock + " is unavailable");
+        }
+        if (expectedLogs(from, to) > RESULT_LIMIT) {
+            return StubKlayService.error(-32005, "query returned more than " + RESULT_LIMIT + " results");
+        }
+
+        ArrayNode logs = JsonNodeFactory.instance.arrayNode();
+        for (long block = to; block >= from; block--) {
+            for (long index = logsIn(block) - 1; index >= 0; index--) {
+                logs.addObject()
+                        .put("blockNumber", Numeric.toHexStringWithPrefix(BigInteger.valueOf(block)))
+                        .put("logIndex", Numeric.toHexStringWithPrefix(BigInteger.valueOf(index)))
+                        .put("address", CONTRACT);
+            }
+        }
+        return logs;
+    }
+
+    private static long logsIn(long block) {
+        return block < 10_000 ? block % 5 : 0;
+    }
+
+    private static int expectedLogs(long from, long to) {
+        int count = 0;
+        for (long block = from; block <= to; block++) {
+            count += logsIn(block);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.feature;
+
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.klaytn.caver.Caver;
+import com.klaytn.caver.base.StubKlayService;
+import com.klaytn.caver.crypto.KlayCredentials;
+import com.klaytn.caver.methods.response.Bytes32;
+import com.klaytn.caver.methods.response.KlayLogs;
+import com.klaytn.caver.methods.response.Quantity;
+import com.klaytn.caver.protocol.BatchRequest;
+import com.klaytn.caver.protocol.BatchResponse;
+import com.klaytn.caver.protocol.Endpoint;
+import com.klaytn.caver.protocol.Hedging;
+import com.klaytn.caver.protocol.MultiEndpointService;
+import com.klaytn.caver.protocol.Policy;
+import com.klaytn.caver.tx.type.TxTypeValueTransfer;
+import org.junit.After;
+import org.junit.Test;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.Keys;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Request;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.klaytn.caver.base.LocalValues.LOCAL_CHAIN_ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MultiEndpointServiceTest {
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private final List<StubKlayService> nodes = new ArrayList<>();
+    private final boolean[] down = new boolean[3];
+    private final long[] delayMillis = new long[3];
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testRoundRobinSpreadsReads() throws Exception {
+        Caver caver = Caver.build(multiEndpointService(Policy.roundRobin()));
+
+        for (int i = 0; i < 30; i++) {
+            assertEquals(BigInteger.valueOf(16), caver.klay().getBlockNumber().send().getValue());
+        }
+        for (StubKlayService node : nodes) {
+            assertEquals(10, node.getRoundTrips());
+        }
+    }
+
+    @Test
+    public void testLeastOutstandingAndLatencyWeightedUseAllEndpoints() throws Exception {
+        for (Policy policy : new Policy[]{Policy.leastOutstanding(), Policy.latencyWeighted()}) {
+            nodes.clear();
+            Caver caver = Caver.build(multiEndpointService(policy));
+            for (int i = 0; i < 300; i++) {
+                caver.klay().getBlockNumber().send();
+            }
+            for (StubKlayService node : nodes) {
+                assertTrue(node.getRoundTrips() > 0);
+            }
+        }
+    }
+
+    @Test
+    public void testUnhealthyEndpointIsEjectedAndRecovered() throws Exception {
+        MultiEndpointService service = multiEndpointService(Policy.roundRobin());
+        Caver caver = Caver.build(service);
+        down[0] = true;
+
+        for (int i = 0; i < 30; i++) {
+            assertEquals(BigInteger.valueOf(16), caver.klay().getBlockNumber().send().getValue());
+        }
+        Endpoint first = service.getEndpoints().get(0);
+        assertFalse(first.isHealthy());
+        assertTrue(nodes.get(0).getRoundTrips() < 10);
+
+        down[0] = false;
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!first.isHealthy() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(first.isHealthy());
+    }
+
+    @Test
+    public void testTransactionsOfOneSenderStickToOneEndpoint() throws Exception {
+        Caver caver = Caver.build(multiEndpointService(Policy.roundRobin()));
+        KlayCredentials sender = KlayCredentials.create(Keys.createEcKeyPair());
+
+        for (int i = 0; i < 10; i++) {
+            String rawTx = TxTypeValueTransfer.createTransaction(
+                    BigInteger.valueOf(i), BigInteger.valueOf(25), BigInteger.valueOf(21000),
+                    "0x7b65b75d204abed71587c9e519a89277766ee1d0", BigInteger.ONE, sender.getAddress())
+                    .sign(sender, LOCAL_CHAIN_ID).getValueAsString();
+            assertEquals(Hash.sha3(rawTx), caver.klay().sendSignedTransaction(rawTx).send().getResult());
+            caver.klay().getTransactionCount(sender.getAddress(), DefaultBlockParameterName.PENDING).send();
+        }
+
+        int usedNodes = 0;
+        for (StubKlayService node : nodes) {
+            if (!node.getMethods().isEmpty()) {
+                usedNodes++;
+                assertEquals(20, node.getMethods().size());
+            }
+        }
+        assertEquals(1, usedNodes);
+    }
+
+    @Test
+    public void testFilterRequestsGoToTheInstallingEndpoint() throws Exception {
+        Caver caver = Caver.build(multiEndpointService(Policy.roundRobin()));
+
+        BigInteger filterId = caver.klay().newBlockFilter().send().getValue();
+        for (int i = 0; i < 5; i++) {
+            caver.klay().getFilterChanges(filterId).send();
+        }
+
+        int installing = -1;
+        for (int i = 0; i < nodes.size(); i++) {
+            if (nodes.get(i).getMethods().contains("klay_newBlockFilter")) {
+                installing = i;
+            }
+        }
+        assertEquals(5, Collections.frequency(nodes.get(installing).getMethods(), "klay_getFilterChanges"));
+    }
+
+    @Test
+    public void testBatchIsSplitBySenderAndFilterEndpoint() throws Exception {
+        Caver caver = Caver.build(multiEndpointService(Policy.roundRobin()));
+        KlayCredentials alice = KlayCredentials.create(Keys.createEcKeyPair());
+        KlayCredentials bob = KlayCredentials.create(Keys.createEcKeyPair());
+        BigInteger filterId = caver.klay().newBlockFilter().send().getValue();
+        StubKlayService installing = takeNodeOf("klay_newBlockFilter");
+        caver.klay().getTransactionCount(alice.getAddress(), DefaultBlockParameterName.PENDING).send();
+        StubKlayService aliceNode = takeNodeOf("klay_getTransactionCount");
+        caver.klay().getTransactionCount(bob.getAddress(), DefaultBlockParameterName.PENDING).send();
+        StubKlayService bobNode = takeNodeOf("klay_getTransactionCount");
+
+        BatchRequest batch = caver.batch();
+        List<Request<?, Bytes32>> sends = new ArrayList<>();
+        for (KlayCredentials sender : Arrays.asList(alice, bob, alice, bob)) {
+            String rawTx = TxTypeValueTransfer.createTransaction(
+                    BigInteger.ZERO, BigInteger.valueOf(25), BigInteger.valueOf(21000),
+                    "0x7b65b75d204abed71587c9e519a89277766ee1d0", BigInteger.ONE, sender.getAddress())
+                    .sign(sender, LOCAL_CHAIN_ID).getValueAsString();
+            Request<?, Bytes32> send = caver.klay().sendSignedTransaction(rawTx);
+            sends.add(send);
+            batch.add(send);
+        }
+        Request<?, KlayLogs> changes = caver.klay().getFilterChanges(filterId);
+        Request<?, Quantity> blockNumber = caver.klay().getBlockNumber();
+        BatchResponse response = batch.add(changes).add(blockNumber).send();
+
+        assertEquals(6, response.size());
+        for (int i = 0; i < sends.size(); i++) {
+            assertEquals(sends.get(i).getId(), response.getRequests().get(i).getId());
+            assertEquals(sends.get(i).getId(), response.getResponses().get(i).getId());
+            assertFalse(response.getResponse(sends.get(i)).hasError());
+        }
+        assertFalse(response.getResponse(changes).hasError());
+        assertEquals(BigInteger.valueOf(16), response.getResponse(blockNumber).getValue());
+
+        assertEquals(installing, takeNodeOf("klay_getFilterChanges"));
+        if (aliceNode == bobNode) {
+            assertEquals(4, Collections.frequency(aliceNode.getMethods(), "klay_sendRawTransaction"));
+        } else {
+            assertEquals(2, Collections.frequency(aliceNode.getMethods(), "klay_sendRawTransaction"));
+            assertEquals(2, Collections.frequency(bobNode.getMethods(), "klay_sendRawTransaction"));
+        }
+    }
+
+    @Test
+    public void testSlowReadsAreHedged() throws Exception {
+        MultiEndpointService service = multiEndpointService(Policy.roundRobin());
+        Hedging hedging = new Hedging(0.9, 0.5);
+        service.setHedging(hedging);
+        Caver caver = Caver.build(service);
+        for (int i = 0; i < 30; i++) {
+            caver.klay().getBlockNumber().send();
+        }
+        assertTrue(hedging.getDelayMillis() >= 0);
+
+        delayMillis[0] = 1000;
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 6; i++) {
+            assertEquals(BigInteger.valueOf(16), caver.klay().getBlockNumber().send().getValue());
+        }
+
+        assertTrue(System.currentTimeMillis() - start < 1000);
+        assertTrue(hedging.getHedgesWon() > 0);
+        assertTrue(hedging.getHedgesIssued() >= hedging.getHedgesWon());
+    }
+
+    @Test
+    public void testHedgeRateIsCapped() throws Exception {
+        MultiEndpointService service = multiEndpointService(Policy.roundRobin());
+        Hedging hedging = new Hedging(0.5, 0.1);
+        service.setHedging(hedging);
+        Caver caver = Caver.build(service);
+        for (int i = 0; i < 20; i++) {
+            caver.klay().getBlockNumber().send();
+        }
+
+        Arrays.fill(delayMillis, 20);
+        for (int i = 0; i < 20; i++) {
+            caver.klay().getBlockNumber().send();
+        }
+
+        assertTrue(hedging.getHedgesIssued() > 0);
+        assertTrue(hedging.getHedgesIssued() <= hedging.getReads() / 10);
+    }
+
+    @Test
+    public void testWritesAreNeverHedged() throws Exception {
+        MultiEndpointService service = multiEndpointService(Policy.roundRobin());
+        Hedging hedging = new Hedging(0.5, 1);
+        service.setHedging(hedging);
+        Caver caver = Caver.build(service);
+        KlayCredentials sender = KlayCredentials.create(Keys.createEcKeyPair());
+        for (int i = 0; i < 30; i++) {
+            caver.klay().getBlockNumber().send();
+        }
+
+        long hedgesIssued = hedging.getHedgesIssued();
+        Arrays.fill(delayMillis, 20);
+        for (int i = 0; i < 5; i++) {
+            String rawTx = TxTypeValueTransfer.createTransaction(
+                    BigInteger.valueOf(i), BigInteger.valueOf(25), BigInteger.valueOf(21000),
+                    "0x7b65b75d204abed71587c9e519a89277766ee1d0", BigInteger.ONE, sender.getAddress())
+                    .sign(sender, LOCAL_CHAIN_ID).getValueAsString();
+            caver.klay().sendSignedTransaction(rawTx).send();
+        }
+
+        assertEquals(hedgesIssued, hedging.getHedgesIssued());
+        int sent = 0;
+        for (StubKlayService node : nodes) {
+            sent += Collections.frequency(node.getMethods(), "klay_sendRawTransaction");
+        }
+        assertEquals(5, sent);
+    }
+
+    /**
+     * @return the only node which was sent the method, after forgetting the method on every node
+     */
+    private StubKlayService takeNodeOf(String method) {
+        StubKlayService sentTo = null;
+        for (StubKlayService node : nodes) {
+            if (node.getMethods().contains(method)) {
+                assertEquals(null, sentTo);
+                sentTo = node;
+            }
+            node.getMethods().removeIf(method::equals);
+        }
+        assertTrue(method + " was not sent", sentTo != null);
+        return sentTo;
+    }
+
+    private MultiEndpointService multiEndpointService(Policy policy) {
+        Map<String, StubKlayService> services = new LinkedHashMap<>();
+        for (int i = 0; i < 3; i++) {
+            int index = i;
+            StubKlayService node = new StubKlayService((method, params) -> {
+                if (down[index]) {
+                    throw new IOException("connection refused");
+                }
+                if (delayMillis[index] > 0) {
+                    try {
+                        Thread.sleep(delayMillis[index]);
+                    } catch (InterruptedException e) {
+                        throw new IOException(e);
+                    }
+                }
+                switch (method) {
+                    case "klay_blockNumber":
+                        return TextNode.valueOf("0x10");
+                    case "klay_sendRawTransaction":
+                        return TextNode.valueOf(Hash.sha3(params.get(0).asText()));
+                    case "klay_newBlockFilter":
+                        return TextNode.valueOf("0x" + (index + 1));
+                    case "klay_getTransactionCount":
+                        return TextNode.valueOf("0x0");
+                    default:
+                        return null;
+                }
+            });
+            nodes.add(node);
+            services.put("node" + i, node);
+        }
+        return new MultiEndpointService(services, policy, 2, 20, TimeUnit.MILLISECONDS, executor);
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.feature;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.klaytn.caver.Caver;
+import com.klaytn.caver.base.StubKlayService;
+import com.klaytn.caver.crypto.KlayCredentials;
+import com.klaytn.caver.tx.MulticallBatch;
+import com.klaytn.caver.tx.SmartContract;
+import org.junit.Test;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.TypeEncoder;
+import org.web3j.abi.TypeReference;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.Bool;
+import org.web3j.abi.datatypes.DynamicBytes;
+import org.web3j.abi.datatypes.Function;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.abi.datatypes.Utf8String;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.crypto.Keys;
+import org.web3j.tx.exceptions.ContractCallException;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.klaytn.caver.base.LocalValues.LOCAL_CHAIN_ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MulticallBatchTest {
+
+    private static final String AGGREGATOR = "0xca11bde05977b3631167028862be2a173976ca11";
+    private static final String OWNER = "0x7b65b75d204abed71587c9e519a89277766ee1d0";
+    private static final int TOKENS = 50;
+
+    private final StubKlayService service = new StubKlayService((method, params) -> {
+        if (!"klay_call".equals(method)) {
+            return null;
+        }
+        String to = params.get(0).get("to").asText();
+        String data = params.get(0).get("data").asText();
+        if (to.equals(AGGREGATOR)) {
+            return TextNode.valueOf(tryAggregate(data));
+        }
+        String result = call(to, data);
+        return result == null ? StubKlayService.error(-32000, "evm: execution reverted") : TextNode.valueOf(result);
+    });
+    private final Caver caver = Caver.build(service);
+
+    @Test
+    public void testCallsAreSentInJsonRpcBatches() throws Exception {
+        MulticallBatch batch = new MulticallBatch.Builder(caver).setBatchSize(20).build();
+        List<MulticallBatch.Call> balances = new ArrayList<>();
+        List<MulticallBatch.Call> names = new ArrayList<>();
+        for (int i = 1; i <= TOKENS; i++) {
+            balances.add(batch.add(token(i), balanceOf()));
+            names.add(batch.add(token(i), name()));
+        }
+
+        assertEquals(2 * TOKENS, batch.execute().size());
+
+        for (int i = 0; i < TOKENS; i++) {
+            assertEquals(BigInteger.valueOf((i + 1) * 100), balances.get(i).<Uint256>getValue().getValue());
+            assertEquals("Token " + (i + 1), names.get(i).<Utf8String>getValue().getValue());
+        }
+        assertEquals(5, service.getRoundTrips());
+        assertEquals(2 * TOKENS, Collections.frequency(service.getMethods(), "klay_call"));
+        assertEquals(0, batch.size());
+    }
+
+    @Test
+    public void testCallsAreBundledIntoTheAggregator() throws Exception {
+        MulticallBatch batch = new MulticallBatch.Builder(caver)
+                .setAggregator(AGGREGATOR)
+                .setCallsPerAggregate(40)
+                .build();
+        List<MulticallBatch.Call> balances = new ArrayList<>();
+        List<MulticallBatch.Call> names = new ArrayList<>();
+        for (int i = 1; i <= TOKENS; i++) {
+            balances.add(batch.add(token(i), balanceOf()));
+            names.add(batch.add(token(i), name()));
+        }
+
+        batch.execute();
+
+        for (int i = 0; i < TOKENS; i++) {
+            assertEquals(BigInteger.valueOf((i + 1) * 100), balances.get(i).<Uint256>getValue().getValue());
+            assertEquals("Token " + (i + 1), names.get(i).<Utf8String>getValue().getValue());
+        }
+        assertEquals(1, service.getRoundTrips());
+        assertEquals(3, Collections.frequency(service.getMethods(), "klay_call"));
+    }
+
+    @Test
+    public void testFailingCallDoesNotFailTheOthers() throws Exception {
+        for (String aggregator : new String[]{null, AGGREGATOR}) {
+            MulticallBatch batch = new MulticallBatch.Builder(caver).setAggregator(aggregator).build();
+            MulticallBatch.Call failing = batch.add(token(1), new Function(
+                    "fail", Collections.emptyList(), Collections.emptyList()));
+            MulticallBatch.Call balance = batch.add(token(2), balanceOf());
+
+            batch.execute();
+
+            assertTrue(failing.isDone());
+            assertFalse(failing.isSuccess());
+            try {
+                failing.getValues();
+                fail();
+            } catch (ContractCallException e) {
+                assertTrue(e.getMessage().contains("fail"));
+            }
+            assertEquals(BigInteger.valueOf(200), balance.<Uint256>getValue().getValue());
+        }
+    }
+
+    @Test
+    public void testCallOfSmartContractUsesItsAddress() throws Exception {
+        SmartContract contract = SmartContract.create(
+                caver, KlayCredentials.create(Keys.createEcKeyPair()), LOCAL_CHAIN_ID);
+        contract.setContractAddress(token(7));
+        MulticallBatch batch = new MulticallBatch.Builder(caver).build();
+
+        MulticallBatch.Call call = batch.add(contract, balanceOf());
+        assertFalse(call.isDone());
+        batch.execute();
+
+        assertEquals(token(7), call.getContractAddress());
+        List<Type> values = call.getValues();
+        assertEquals(new Uint256(700), values.get(0));
+    }
+
+    private static String token(int index) {
+        return Numeric.toHexStringWithPrefixZeroPadded(BigInteger.valueOf(index), 40);
+    }
+
+    private static Function balanceOf() {
+        return new Function("balanceOf", Collections.singletonList(new Address(OWNER)),
+                Collections.singletonList(new TypeReference<Uint256>() { }));
+    }
+
+    private static Function name() {
+        return new Function("name", Collections.emptyList(),
+                Collections.singletonList(new TypeReference<Utf8String>() { }));
+    }
+
+    /**
+     * @return ABI encoded result of the function, or null if it reverts
+     */
+    private static String call(String to, String data) {
+        int index = Numeric.toBigInt(to).intValue();
+        if (data.equals(FunctionEncoder.encode(balanceOf()))) {
+            return "0x" + TypeEncoder.encode(new Uint256(index * 100));
+        }
+        if (data.equals(FunctionEncoder.encode(name()))) {
+            return "0x" + Numeric.toHexStringNoPrefixZeroPadded(BigInteger.valueOf(32), 64)
+                    + TypeEncoder.encode(new Utf8String("Token " + index));
+        }
+        return null;
+    }
+
+    private static String tryAggregate(String data) {
+        String hex = data.substring(10);
+        int array = word(hex, 32);
+        int count = word(hex, array);
+        List<String> tuples = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int tuple = array + 32 + word(hex, array + 32 + i * 32);
+            String target = "0x" + hex.substring(tuple * 2 + 24, tuple * 2 + 64);
+            int bytes = tuple + word(hex, tuple + 32);
+            String callData = "0x" + hex.substring((bytes + 32) * 2, (bytes + 32 + word(hex, bytes)) * 2);
+            String result = call(target, callData);
+            tuples.add(TypeEncoder.encode(new Bool(result != null))
+                    + Numeric.toHexStringNoPrefixZeroPadded(BigInteger.valueOf(64), 64)
+                    + TypeEncoder.encode(new DynamicBytes(
+                    result == null ? new byte[0] : Numeric.hexStringToByteArray(result))));
+        }
+
+        StringBuilder encoded = new StringBuilder("0x")
+                .append(Numeric.toHexStringNoPrefixZeroPadded(BigInteger.valueOf(32), 64))
+                .append(Numeric.toHexStringNoPrefixZeroPadded(BigInteger.valueOf(count), 64));
+        int offset = count * 32;
+        for (String tuple : tuples) {
+            encoded.append(Numeric.toHexStringNoPrefixZeroPadded(BigInteger.valueOf(offset), 64));
+            offset += tuple.length() / 2;
+        }
+        for (String tuple : tuples) {
+            encoded.append(tuple);
+        }
+        return encoded.toString();
+    }
+
+    private static int word(String hex, int offset) {
+        return new BigInteger(hex.substring(offset * 2, offset * 2 + 64), 16).intValue();
+    }
+}
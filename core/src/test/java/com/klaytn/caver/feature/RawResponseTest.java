@@ -0,0 +1,165 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.feature;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.klaytn.caver.Caver;
+import com.klaytn.caver.base.StubKlayService;
+import com.klaytn.caver.protocol.BufferPool;
+import com.klaytn.caver.protocol.CachingService;
+import com.klaytn.caver.protocol.CoalescingService;
+import com.klaytn.caver.protocol.InMemoryRpcMetrics;
+import com.klaytn.caver.protocol.LimitingService;
+import com.klaytn.caver.protocol.MeteredService;
+import com.klaytn.caver.protocol.MultiEndpointService;
+import com.klaytn.caver.protocol.Policy;
+import com.klaytn.caver.protocol.RawResponse;
+import org.junit.Test;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.Request;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RawResponseTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private int transactions = 10;
+
+    private final StubKlayService node = new StubKlayService((method, params) -> {
+        ObjectNode block = JsonNodeFactory.instance.objectNode();
+        block.put("number", params.get(0).asText());
+        block.put("hash", "0xabc");
+        ArrayNode list = block.putArray("transactions");
+        for (int i = 0; i < transactions; i++) {
+            list.addObject().put("nonce", "0x" + Integer.toHexString(i)).put("type", "TxTypeLegacyTransaction");
+        }
+        return block;
+    });
+    private final Caver caver = Caver.build(node);
+
+    @Test
+    public void testReadReturnsTheResponseBody() throws Exception {
+        try (RawResponse response = RawResponse.read(node, blockRequest(16))) {
+            JsonNode body = objectMapper.readTree(response.toByteArray());
+            assertEquals("0x10", body.get("result").get("number").asText());
+            assertEquals(10, body.get("result").get("transactions").size());
+            assertEquals(response.size(), response.getBuffer().remaining());
+        }
+    }
+
+    @Test
+    public void testStreamReturnsTheSameBytes() throws Exception {
+        Request<?, ?> request = blockRequest(16);
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        try (InputStream in = RawResponse.stream(node, request)) {
+            byte[] chunk = new byte[1024];
+            int n;
+            while ((n = in.read(chunk)) > 0) {
+                streamed.write(chunk, 0, n);
+            }
+        }
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        try (RawResponse response = RawResponse.read(node, request, BufferPool.direct())) {
+            response.writeTo(Channels.newChannel(written));
+        }
+        assertEquals(streamed.toString("UTF-8"), written.toString("UTF-8"));
+    }
+
+    @Test
+    public void testDecoratedServicesStream() throws Exception {
+        InMemoryRpcMetrics metrics = new InMemoryRpcMetrics();
+        MultiEndpointService endpoints = new MultiEndpointService(Collections.singletonMap("node", node),
+                Policy.roundRobin(), 3, 1, TimeUnit.SECONDS, Executors.newSingleThreadScheduledExecutor());
+        Caver decorated = Caver.build(new MeteredService(new LimitingService(
+                new CachingService(new CoalescingService(endpoints))), metrics));
+        try {
+            Request<?, ?> request = blockRequest(16);
+            try (RawResponse response = RawResponse.read(decorated.streamingService(), request)) {
+                JsonNode body = objectMapper.readTree(response.toByteArray());
+                assertEquals("0x10", body.get("result").get("number").asText());
+            }
+            assertEquals(1, metrics.getMethod("klay_getBlockByNumber").getCalls());
+            assertEquals(1, node.getRoundTrips());
+        } finally {
+            decorated.shutdown();
+        }
+    }
+
+    @Test
+    public void testPooledBuffersAreReused() throws Exception {
+        BufferPool pool = BufferPool.direct();
+        for (int i = 0; i < 20; i++) {
+            try (RawResponse response = RawResponse.read(node, blockRequest(i), pool)) {
+                assertTrue(response.getBuffer().isDirect());
+            }
+        }
+        assertEquals(1, pool.getAllocated());
+        assertEquals(1, pool.getPooled());
+    }
+
+    @Test
+    public void testBufferGrowsForLargeResponses() throws Exception {
+        BufferPool pool = new BufferPool(256, 4, true);
+        transactions = 1000;
+        try (RawResponse response = RawResponse.read(node, blockRequest(16), pool)) {
+            assertTrue(response.size() > 256);
+            assertEquals(1000, objectMapper.readTree(response.toByteArray()).get("result").get("transactions").size());
+        }
+
+        long allocated = pool.getAllocated();
+        try (RawResponse response = RawResponse.read(node, blockRequest(17), pool)) {
+            ByteBuffer buffer = response.getBuffer();
+            assertTrue(buffer.capacity() >= response.size());
+        }
+        assertTrue(pool.getAllocated() - allocated < allocated);
+        assertTrue(pool.getPooled() <= 4);
+    }
+
+    @Test
+    public void testClosedResponseCanNotBeRead() throws Exception {
+        RawResponse response = RawResponse.read(node, blockRequest(16), BufferPool.heap());
+        response.close();
+        response.close();
+        try {
+            response.getBuffer();
+            fail();
+        } catch (IllegalStateException e) {
+            assertFalse(e.getMessage().isEmpty());
+        }
+    }
+
+    private Request<?, ?> blockRequest(int number) {
+        return caver.klay().getBlockByNumber(DefaultBlockParameter.valueOf(BigInteger.valueOf(number)), true);
+    }
+}
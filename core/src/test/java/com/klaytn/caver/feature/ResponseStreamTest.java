@@ -0,0 +1,145 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.feature;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.klaytn.caver.Caver;
+import com.klaytn.caver.base.StubKlayService;
+import com.klaytn.caver.methods.request.KlayLogFilter;
+import com.klaytn.caver.methods.response.KlayBlock;
+import com.klaytn.caver.methods.response.KlayLogs;
+import com.klaytn.caver.methods.response.KlayTransaction;
+import com.klaytn.caver.methods.response.KlayTransactionReceipt;
+import com.klaytn.caver.protocol.ResponseStream;
+import org.junit.Test;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ResponseStreamTest {
+
+    private static final int ITEMS = 1000;
+
+    private StubKlayService node = new StubKlayService((method, params) -> {
+        switch (method) {
+            case "klay_getLogs":
+                ArrayNode logs = JsonNodeFactory.instance.arrayNode();
+                for (int i = 0; i < ITEMS; i++) {
+                    logs.addObject()
+                            .put("logIndex", "0x" + Integer.toHexString(i))
+                            .put("blockNumber", "0x10")
+                            .put("data", "0x")
+                            .putArray("topics").add("0x01");
+                }
+                return logs;
+            case "klay_getBlockReceipts":
+                ArrayNode receipts = JsonNodeFactory.instance.arrayNode();
+                for (int i = 0; i < ITEMS; i++) {
+                    receipts.addObject().put("transactionIndex", "0x" + Integer.toHexString(i)).put("status", "0x1");
+                }
+                return receipts;
+            case "klay_getBlockByNumber":
+                if (params.get(0).asText().equals("0x99")) {
+                    return NullNode.getInstance();
+                }
+                ObjectNode block = JsonNodeFactory.instance.objectNode();
+                block.put("hash", "0xabc");
+                block.put("number", params.get(0).asText());
+                ArrayNode transactions = block.putArray("transactions");
+                for (int i = 0; i < ITEMS; i++) {
+                    transactions.addObject().put("nonce", "0x" + Integer.toHexString(i)).put("type", "TxTypeLegacyTransaction");
+                }
+                block.put("transactionsRoot", "0xdef");
+                return block;
+            default:
+                return StubKlayService.error(-32000, "unknown block");
+        }
+    });
+    private Caver caver = Caver.build(node);
+
+    @Test
+    public void testStreamLogs() throws Exception {
+        KlayLogFilter filter = new KlayLogFilter(
+                DefaultBlockParameterName.EARLIEST, DefaultBlockParameterName.LATEST,
+                Collections.<String>emptyList(), null);
+        int count = 0;
+        try (ResponseStream<KlayLogs.Log> logs = ResponseStream.logs(node, caver.klay().getLogs(filter))) {
+            while (logs.hasNext()) {
+                KlayLogs.Log log = logs.next();
+                assertEquals(BigInteger.valueOf(count++), log.getLogIndex());
+            }
+        }
+        assertEquals(ITEMS, count);
+    }
+
+    @Test
+    public void testStreamBlockReceipts() throws Exception {
+        ResponseStream<KlayTransactionReceipt.TransactionReceipt> receipts =
+                ResponseStream.receipts(node, caver.klay().getBlockReceipts("0xabc"));
+        int[] count = new int[1];
+        receipts.forEachRemaining(receipt -> {
+            assertEquals("0x1", receipt.getStatus());
+            count[0]++;
+        });
+        assertEquals(ITEMS, count[0]);
+    }
+
+    @Test
+    public void testStreamBlockTransactionsKeepsTheHeader() throws Exception {
+        ResponseStream<KlayTransaction.Transaction> transactions = ResponseStream.transactions(
+                node, caver.klay().getBlockByNumber(DefaultBlockParameter.valueOf(BigInteger.TEN), true));
+        int count = 0;
+        while (transactions.hasNext()) {
+            assertEquals("0x" + Integer.toHexString(count++), transactions.next().getNonce());
+        }
+
+        KlayBlock.Block header = transactions.getEnclosing(KlayBlock.Block.class);
+        assertEquals(ITEMS, count);
+        assertEquals("0xa", header.getNumber());
+        assertEquals("0xdef", header.getTransactionsRoot());
+    }
+
+    @Test
+    public void testNullResultIsEmpty() throws Exception {
+        ResponseStream<KlayTransaction.Transaction> transactions = ResponseStream.transactions(
+                node, caver.klay().getBlockByNumber(DefaultBlockParameter.valueOf(BigInteger.valueOf(0x99)), true));
+        assertFalse(transactions.hasNext());
+    }
+
+    @Test
+    public void testErrorIsThrown() throws Exception {
+        try {
+            ResponseStream.open(node, caver.klay().getBlockByHash("0xabc", true), "transactions",
+                    KlayTransaction.Transaction.class);
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("unknown block"));
+        }
+    }
+}
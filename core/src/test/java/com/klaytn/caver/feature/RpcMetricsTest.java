@@ -0,0 +1,192 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.feature;
+
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.klaytn.caver.Caver;
+import com.klaytn.caver.base.StubKlayService;
+import com.klaytn.caver.protocol.BatchRequest;
+import com.klaytn.caver.protocol.InMemoryRpcMetrics;
+import com.klaytn.caver.protocol.LatencyHistogram;
+import com.klaytn.caver.protocol.MeteredService;
+import com.klaytn.caver.protocol.RpcMetrics;
+import org.junit.Before;
+import org.junit.Test;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Request;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RpcMetricsTest {
+
+    private static final String ADDRESS = "0x7b65b75d204abed71587c9e519a89277766ee1d0";
+
+    private boolean down;
+    private final StubKlayService node = new StubKlayService((method, params) -> {
+        if (down) {
+            throw new IOException("connection refused");
+        }
+        switch (method) {
+            case "klay_blockNumber":
+                return TextNode.valueOf("0x10");
+            case "klay_getBalance":
+                return TextNode.valueOf("0xde0b6b3a7640000");
+            case "klay_sendRawTransaction":
+                return StubKlayService.error(-32000, "nonce too low");
+            default:
+                return null;
+        }
+    });
+    private final InMemoryRpcMetrics metrics = new InMemoryRpcMetrics();
+    private final Caver caver = Caver.build(new MeteredService(node, metrics));
+
+    @Before
+    public void setUp() {
+        node.setRpcMetrics(metrics);
+    }
+
+    @Test
+    public void testCallsAndBytesArePerMethod() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            caver.klay().getBlockNumber().send();
+        }
+        caver.klay().getBalance(ADDRESS, DefaultBlockParameterName.LATEST).sendAsync().get();
+
+        InMemoryRpcMetrics.MethodMetrics blockNumber = metrics.getMethod("klay_blockNumber");
+        assertEquals(3, blockNumber.getCalls());
+        assertEquals(0, blockNumber.getErrors());
+        assertEquals(0, blockNumber.getInFlight());
+        assertTrue(blockNumber.getRequestBytes() > 0);
+        assertTrue(blockNumber.getResponseBytes() > 0);
+        assertEquals(3, blockNumber.getLatency().getCount());
+        assertEquals(1, metrics.getMethod("klay_getBalance").getCalls());
+        assertTrue(metrics.getMethod("klay_getBalance").getRequestBytes()
+                > blockNumber.getRequestBytes() / 3);
+        assertEquals(0, metrics.getInFlight());
+    }
+
+    @Test
+    public void testRawResponsesAreCountedOnce() throws Exception {
+        StubKlayService rawNode = new StubKlayService((method, params) -> TextNode.valueOf("0x10"), true);
+        InMemoryRpcMetrics rawMetrics = new InMemoryRpcMetrics();
+        rawNode.setRpcMetrics(rawMetrics);
+
+        String raw = Caver.build(new MeteredService(rawNode, rawMetrics)).klay().getBlockNumber().send()
+                .getRawResponse();
+        assertEquals(raw.getBytes(StandardCharsets.UTF_8).length,
+                rawMetrics.getMethod("klay_blockNumber").getResponseBytes());
+    }
+
+    @Test
+    public void testRequestBytesAreEncodedBytes() throws Exception {
+        Request<?, ?> request = caver.klay().sendSignedTransaction("0x\uD55C\uAE00\uD83D\uDE00");
+        request.send();
+
+        String payload = ObjectMapperFactory.getObjectMapper().writeValueAsString(request);
+        assertEquals(payload.getBytes(StandardCharsets.UTF_8).length,
+                metrics.getMethod("klay_sendRawTransaction").getRequestBytes());
+    }
+
+    @Test
+    public void testErrorsAreCountedByCode() throws Exception {
+        caver.klay().sendSignedTransaction("0x01").send();
+        caver.klay().sendSignedTransaction("0x02").send();
+
+        InMemoryRpcMetrics.MethodMetrics sendRawTransaction = metrics.getMethod("klay_sendRawTransaction");
+        assertEquals(2, sendRawTransaction.getCalls());
+        assertEquals(2, sendRawTransaction.getErrors());
+        assertEquals(Collections.singletonMap(-32000, 2L), sendRawTransaction.getErrorCounts());
+        assertEquals(0, sendRawTransaction.getFailures());
+    }
+
+    @Test
+    public void testFailuresAreCounted() throws Exception {
+        down = true;
+        try {
+            caver.klay().getBlockNumber().send();
+            fail();
+        } catch (IOException expected) {
+        }
+
+        InMemoryRpcMetrics.MethodMetrics blockNumber = metrics.getMethod("klay_blockNumber");
+        assertEquals(1, blockNumber.getCalls());
+        assertEquals(1, blockNumber.getFailures());
+        assertEquals(0, blockNumber.getInFlight());
+    }
+
+    @Test
+    public void testBatchRequestsAreMeteredOneByOne() throws Exception {
+        BatchRequest batch = caver.batch()
+                .add(caver.klay().getBlockNumber())
+                .add(caver.klay().getBalance(ADDRESS, DefaultBlockParameterName.LATEST))
+                .add(caver.klay().sendSignedTransaction("0x01"));
+        batch.send();
+
+        assertEquals(1, metrics.getMethod("klay_blockNumber").getCalls());
+        assertEquals(1, metrics.getMethod("klay_getBalance").getCalls());
+        assertEquals(1, metrics.getMethod("klay_sendRawTransaction").getErrors());
+        assertTrue(metrics.getMethod(RpcMetrics.BATCH).getResponseBytes() > 0);
+        assertNull(metrics.getMethod("klay_blockNumber").getErrorCounts().get(-32000));
+        assertEquals(1, node.getRoundTrips());
+    }
+
+    @Test
+    public void testDump() throws Exception {
+        caver.klay().getBlockNumber().send();
+        caver.klay().sendSignedTransaction("0x01").send();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        metrics.dump(new PrintStream(out, true));
+        String dump = out.toString();
+
+        assertTrue(dump.contains("klay_blockNumber"));
+        assertTrue(dump.contains("error -32000: 1"));
+    }
+
+    @Test
+    public void testHistogramPercentilesAreWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMax(TimeUnit.MICROSECONDS));
+        assertEquals(500, histogram.getMean(TimeUnit.MICROSECONDS), 1);
+        assertWithinPrecision(500, histogram.getValueAtPercentile(50, TimeUnit.MICROSECONDS));
+        assertWithinPrecision(990, histogram.getValueAtPercentile(99, TimeUnit.MICROSECONDS));
+        assertEquals(1000, histogram.getValueAtPercentile(100, TimeUnit.MICROSECONDS));
+        assertEquals(0, new LatencyHistogram().getValueAtPercentile(99, TimeUnit.MICROSECONDS));
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue(actual + " is not within 12.5% of " + expected,
+                actual >= expected && actual <= expected * 1.125);
+    }
+}
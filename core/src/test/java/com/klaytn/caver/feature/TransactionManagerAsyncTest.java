@@ -0,0 +1,248 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.feature;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.klaytn.caver.Caver;
+import com.klaytn.caver.base.StubKlayService;
+import com.klaytn.caver.crypto.KlayCredentials;
+import com.klaytn.caver.methods.response.KlayTransactionReceipt;
+import com.klaytn.caver.tx.exception.PlatformErrorException;
+import com.klaytn.caver.tx.manager.FastGetNonceProcessor;
+import com.klaytn.caver.tx.manager.GetNonceProcessor;
+import com.klaytn.caver.tx.manager.PollingTransactionReceiptProcessor;
+import com.klaytn.caver.tx.manager.TransactionManager;
+import com.klaytn.caver.tx.manager.TransactionReceiptProcessor;
+import com.klaytn.caver.tx.model.ValueTransferTransaction;
+import com.klaytn.caver.utils.TransactionDecoder;
+import org.junit.Before;
+import org.junit.Test;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.Keys;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.klaytn.caver.base.LocalValues.LOCAL_CHAIN_ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TransactionManagerAsyncTest {
+
+    private KlayCredentials sender;
+    private KlayCredentials receiver;
+    private Map<String, BigInteger> sentNonces = new ConcurrentHashMap<>();
+    private String sendError;
+    private StubKlayService service = new StubKlayService((method, params) -> {
+        switch (method) {
+            case "klay_getTransactionCount":
+                return TextNode.valueOf(Numeric.toHexStringWithPrefix(BigInteger.valueOf(sentNonces.size())));
+            case "klay_sendRawTransaction":
+                if (sendError != null) {
+                    return StubKlayService.error(-32000, sendError);
+                }
+                String rawTx = params.get(0).asText();
+                String hash = Hash.sha3(rawTx);
+                sentNonces.put(hash, TransactionDecoder.decode(rawTx).getNonce());
+                return TextNode.valueOf(hash);
+            case "klay_getTransactionReceipt":
+                if (!sentNonces.containsKey(params.get(0).asText())) {
+                    return null;
+                }
+                ObjectNode receipt = JsonNodeFactory.instance.objectNode();
+                receipt.put("transactionHash", params.get(0).asText());
+                receipt.put("status", "0x1");
+                return receipt;
+            default:
+                return null;
+        }
+    });
+    private Caver caver = Caver.build(service);
+    private FastGetNonceProcessor nonceProcessor;
+
+    @Before
+    public void setUp() throws Exception {
+        sender = KlayCredentials.create(Keys.createEcKeyPair());
+        receiver = KlayCredentials.create(Keys.createEcKeyPair());
+        nonceProcessor = new FastGetNonceProcessor(caver);
+    }
+
+    @Test
+    public void testManyTransactionsInFlight() throws Exception {
+        TransactionManager transactionManager = new TransactionManager.Builder(caver, sender)
+                .setGetNonceProcessor(nonceProcessor)
+                .setTransactionReceiptProcessor(new PollingTransactionReceiptProcessor(caver, 10, 100))
+                .setChaindId(LOCAL_CHAIN_ID)
+                .build();
+
+        List<CompletableFuture<KlayTransactionReceipt.TransactionReceipt>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            futures.add(transactionManager.executeTransactionAsync(valueTransfer()));
+        }
+
+        Set<BigInteger> nonces = new HashSet<>();
+        for (CompletableFuture<KlayTransactionReceipt.TransactionReceipt> future : futures) {
+            nonces.add(sentNonces.get(future.get(10, TimeUnit.SECONDS).getTransactionHash()));
+        }
+        assertEquals(200, nonces.size());
+        assertTrue(nonces.contains(BigInteger.ZERO));
+        assertTrue(nonces.contains(BigInteger.valueOf(199)));
+        assertEquals(0, transactionManager.getInFlightCount(sender.getAddress()));
+    }
+
+    @Test
+    public void testInFlightTransactionsPerSenderAreCapped() throws Exception {
+        ManualReceiptProcessor receiptProcessor = new ManualReceiptProcessor(caver);
+        TransactionManager transactionManager = new TransactionManager.Builder(caver, sender)
+                .setGetNonceProcessor(nonceProcessor)
+                .setTransactionReceiptProcessor(receiptProcessor)
+                .setMaxInFlightPerSender(2)
+                .setChaindId(LOCAL_CHAIN_ID)
+                .build();
+
+        transactionManager.executeTransactionAsync(valueTransfer());
+        transactionManager.executeTransactionAsync(valueTransfer());
+        CompletableFuture<KlayTransactionReceipt.TransactionReceipt> third =
+                transactionManager.executeTransactionAsync(valueTransfer());
+
+        Thread.sleep(200);
+        assertFalse(third.isDone());
+        assertEquals(2, sentNonces.size());
+        assertEquals(2, transactionManager.getInFlightCount(sender.getAddress()));
+
+        receiptProcessor.completeAll();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (sentNonces.size() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(3, sentNonces.size());
+    }
+
+    @Test
+    public void testDefaultBuilderAssignsDistinctNonces() throws Exception {
+        TransactionManager transactionManager = new TransactionManager.Builder(caver, sender)
+                .setTransactionReceiptProcessor(new PollingTransactionReceiptProcessor(caver, 10, 100))
+                .setChaindId(LOCAL_CHAIN_ID)
+                .build();
+
+        List<CompletableFuture<KlayTransactionReceipt.TransactionReceipt>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            futures.add(transactionManager.executeTransactionAsync(valueTransfer()));
+        }
+
+        Set<BigInteger> nonces = new HashSet<>();
+        for (CompletableFuture<KlayTransactionReceipt.TransactionReceipt> future : futures) {
+            nonces.add(sentNonces.get(future.get(10, TimeUnit.SECONDS).getTransactionHash()));
+        }
+        assertEquals(50, nonces.size());
+    }
+
+    @Test
+    public void testProcessorWithoutTrackingSendsOneTransactionAtATime() throws Exception {
+        ManualReceiptProcessor receiptProcessor = new ManualReceiptProcessor(caver);
+        TransactionManager transactionManager = new TransactionManager.Builder(caver, sender)
+                .setGetNonceProcessor(new GetNonceProcessor(caver))
+                .setTransactionReceiptProcessor(receiptProcessor)
+                .setChaindId(LOCAL_CHAIN_ID)
+                .build();
+
+        List<CompletableFuture<KlayTransactionReceipt.TransactionReceipt>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(transactionManager.executeTransactionAsync(valueTransfer()));
+        }
+        for (int i = 0; i < 3; i++) {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (sentNonces.size() < i + 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Thread.sleep(50);
+            assertEquals(i + 1, sentNonces.size());
+            assertEquals(1, transactionManager.getInFlightCount(sender.getAddress()));
+            receiptProcessor.completeAll();
+        }
+        for (CompletableFuture<KlayTransactionReceipt.TransactionReceipt> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(3, new HashSet<>(sentNonces.values()).size());
+    }
+
+    @Test
+    public void testRejectedTransactionReleasesNonce() throws Exception {
+        TransactionManager transactionManager = new TransactionManager.Builder(caver, sender)
+                .setGetNonceProcessor(nonceProcessor)
+                .setTransactionReceiptProcessor(new PollingTransactionReceiptProcessor(caver, 10, 100))
+                .setChaindId(LOCAL_CHAIN_ID)
+                .build();
+        sendError = "insufficient funds of the sender for value";
+
+        try {
+            transactionManager.executeTransactionAsync(valueTransfer()).get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof PlatformErrorException);
+        }
+        assertEquals(BigInteger.ZERO, nonceProcessor.getNonce(sender));
+        assertEquals(0, transactionManager.getInFlightCount(sender.getAddress()));
+    }
+
+    private ValueTransferTransaction valueTransfer() {
+        return ValueTransferTransaction.create(
+                sender.getAddress(), receiver.getAddress(), BigInteger.ONE, BigInteger.valueOf(21000));
+    }
+
+    private static class ManualReceiptProcessor extends TransactionReceiptProcessor {
+
+        private final List<CompletableFuture<KlayTransactionReceipt.TransactionReceipt>> pending = new ArrayList<>();
+
+        ManualReceiptProcessor(Caver caver) {
+            super(caver);
+        }
+
+        @Override
+        public KlayTransactionReceipt.TransactionReceipt waitForTransactionReceipt(String transactionHash) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public synchronized CompletableFuture<KlayTransactionReceipt.TransactionReceipt> waitForTransactionReceiptAsync(
+                String transactionHash) {
+            CompletableFuture<KlayTransactionReceipt.TransactionReceipt> future = new CompletableFuture<>();
+            pending.add(future);
+            return future;
+        }
+
+        synchronized void completeAll() {
+            for (CompletableFuture<KlayTransactionReceipt.TransactionReceipt> future : pending) {
+                future.complete(new KlayTransactionReceipt.TransactionReceipt());
+            }
+        }
+    }
+}
@@ -26,11 +26,14 @@ import com.klaytn.caver.utils.CodeFormat;
 import com.klaytn.caver.utils.KlayTransactionUtils;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.web3j.crypto.Hash;
 import org.web3j.utils.Numeric;
 
 import java.math.BigInteger;
 
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
 
 public class TransactionTest {
     private static final KlayCredentials LUMAN = KlayCredentials.create(
@@ -566,4 +569,64 @@ public class TransactionTest {
                 payerTx.getValueAsString());
     }
 
+    @Test
+    public void testTransactionHash() {
+        TxTypeValueTransfer tx = TxTypeValueTransfer.createTransaction(
+                BigInteger.valueOf(1234),
+                BigInteger.valueOf(0x19),
+                BigInteger.valueOf(0xf4240),
+                "7b65b75d204abed71587c9e519a89277766ee1d0",
+                BigInteger.valueOf(0xa),
+                LUMAN.getAddress());
+
+        KlayRawTransaction rawTx = tx.sign(LUMAN, 1);
+        assertEquals(Hash.sha3(rawTx.getValueAsString()), rawTx.getTransactionHash());
+        assertEquals(rawTx.getTransactionHash(), rawTx.getSenderTxHash());
+    }
+
+    @Test
+    public void testLegacyTransactionHash() {
+        TxTypeLegacyTransaction tx = TxTypeLegacyTransaction.createTransaction(
+                BigInteger.valueOf(1234),
+                BigInteger.valueOf(0x19),
+                BigInteger.valueOf(0xf4240),
+                "7b65b75d204abed71587c9e519a89277766ee1d0",
+                BigInteger.valueOf(0xa),
+                "0x31323334");
+
+        KlayRawTransaction rawTx = tx.sign(LUMAN, 1);
+        assertEquals(Hash.sha3(rawTx.getValueAsString()), rawTx.getTransactionHash());
+        assertEquals(rawTx.getTransactionHash(), rawTx.getSenderTxHash());
+    }
+
+    @Test
+    public void testFeeDelegatedSenderTxHash() {
+        TxTypeFeeDelegatedValueTransferWithRatio tx = TxTypeFeeDelegatedValueTransferWithRatio.createTransaction(
+                BigInteger.valueOf(1234),
+                BigInteger.valueOf(0x19),
+                BigInteger.valueOf(0xf4240),
+                "7b65b75d204abed71587c9e519a89277766ee1d0",
+                BigInteger.valueOf(0xa),
+                LUMAN.getAddress(),
+                BigInteger.valueOf(30));
+
+        KlayRawTransaction senderRawTx = tx.sign(LUMAN, 1);
+        TxTypeFeeDelegatedValueTransferWithRatio senderTx
+                = TxTypeFeeDelegatedValueTransferWithRatio.decodeFromRawTransaction(senderRawTx.getValueAsString());
+        KlayRawTransaction payerRawTx = new FeePayer(FEE_PAYER, 1).sign(senderTx);
+
+        assertEquals(Hash.sha3(payerRawTx.getValueAsString()), payerRawTx.getTransactionHash());
+        assertEquals(senderRawTx.getSenderTxHash(), payerRawTx.getSenderTxHash());
+        assertFalse(payerRawTx.getTransactionHash().equals(payerRawTx.getSenderTxHash()));
+    }
+
+    @Test
+    public void testFeeDelegatedTypes() {
+        for (TxType.Type type : TxType.Type.values()) {
+            assertEquals(type.name().startsWith("FEE_DELEGATED"), type.isFeeDelegated());
+        }
+        assertTrue(TxType.Type.FEE_DELEGATED_CANCEL_WITH_RATIO.isFeeDelegated());
+        assertFalse(TxType.Type.CHAIN_DATA_ANCHORING.isFeeDelegated());
+    }
+
 }
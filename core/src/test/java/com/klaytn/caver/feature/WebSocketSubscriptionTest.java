@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019 The caver-java Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the “License”);
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an “AS IS” BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.klaytn.caver.feature;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.klaytn.caver.Caver;
+import com.klaytn.caver.base.StubWebSocketNode;
+import com.klaytn.caver.methods.response.KlayLogNotification;
+import com.klaytn.caver.methods.response.KlayNewHeadsNotification;
+import com.klaytn.caver.methods.response.KlayPendingTransactionNotification;
+import io.reactivex.disposables.Disposable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class WebSocketSubscriptionTest {
+
+    private static final String CONTRACT = "0x2cdb14fd6d8ba5f8c20c1b9d9d8be3fdb0a0cf6e";
+    private static final String TOPIC = "0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef";
+
+    private StubWebSocketNode node;
+    private Caver caver;
+
+    @Before
+    public void setUp() throws Exception {
+        node = new StubWebSocketNode((method, params) ->
+                method.equals("klay_blockNumber") ? TextNode.valueOf("0x10") : null);
+        caver = Caver.buildWebSocket(node.startAndGetUrl());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        caver.shutdown();
+        node.stop();
+    }
+
+    @Test
+    public void testRequestOverWebSocket() throws Exception {
+        assertEquals(BigInteger.valueOf(16), caver.klay().getBlockNumber().send().getValue());
+    }
+
+    @Test
+    public void testNewHeads() throws Exception {
+        BlockingQueue<KlayNewHeadsNotification> heads = new LinkedBlockingQueue<>();
+        Disposable subscription = caver.klay().newHeadsNotifications().subscribe(heads::add);
+
+        String subscriptionId = node.getSubscriptionId("newHeads");
+        for (int i = 1; i <= 3; i++) {
+            ObjectNode head = JsonNodeFactory.instance.objectNode();
+            head.put("number", "0x" + i);
+            head.put("hash", "0x0" + i);
+            head.put("timestampFoS", "0x0");
+            node.publish(subscriptionId, head);
+        }
+
+        for (int i = 1; i <= 3; i++) {
+            KlayNewHeadsNotification head = heads.poll(5, TimeUnit.SECONDS);
+            assertEquals("0x" + i, head.getParams().getResult().getNumber());
+        }
+        subscription.dispose();
+    }
+
+    @Test
+    public void testLogs() throws Exception {
+        BlockingQueue<KlayLogNotification> logs = new LinkedBlockingQueue<>();
+        Disposable subscription = caver.klay()
+                .logsNotifications(Collections.singletonList(CONTRACT), Collections.singletonList(TOPIC))
+                .subscribe(logs::add);
+
+        String subscriptionId = node.getSubscriptionId("logs");
+        assertEquals(CONTRACT, node.getSubscriptionParams(subscriptionId).get(1).get("address").get(0).asText());
+        assertEquals(TOPIC, node.getSubscriptionParams(subscriptionId).get(1).get("topics").get(0).asText());
+
+        ObjectNode log = JsonNodeFactory.instance.objectNode();
+        log.put("address", CONTRACT);
+        log.put("blockNumber", "0x10");
+        log.putArray("topics").add(TOPIC);
+        node.publish(subscriptionId, log);
+
+        KlayLogNotification notification = logs.poll(5, TimeUnit.SECONDS);
+        assertEquals(CONTRACT, notification.getParams().getResult().getAddress());
+        assertEquals(BigInteger.valueOf(16), notification.getParams().getResult().getBlockNumber());
+        assertEquals(Arrays.asList(TOPIC), notification.getParams().getResult().getTopics());
+        subscription.dispose();
+    }
+
+    @Test
+    public void testPendingTransactionsAndUnsubscribe() throws Exception {
+        BlockingQueue<KlayPendingTransactionNotification> hashes = new LinkedBlockingQueue<>();
+        Disposable subscription = caver.klay().newPendingTransactionsNotifications().subscribe(hashes::add);
+
+        String subscriptionId = node.getSubscriptionId("newPendingTransactions");
+        node.publish(subscriptionId, TextNode.valueOf("0xabc"));
+        assertEquals("0xabc", hashes.poll(5, TimeUnit.SECONDS).getParams().getResult());
+
+        subscription.dispose();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (node.getSubscriptionId("newPendingTransactions") != null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNull(node.getSubscriptionId("newPendingTransactions"));
+        List<String> methods = node.getMethods();
+        assertTrue(methods.contains("klay_unsubscribe"));
+    }
+}